@@ -56,6 +56,8 @@
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -217,6 +219,37 @@ public void changeComponentEventSentWhenSave() {
         verify(eventSystem).send(entity1, OnChangedComponent.newInstance(), comp);
     }
 
+    @Test
+    public void deferredChangeComponentEventSentOnceWhenFlushed() {
+        EventSystem eventSystem = mock(EventSystem.class);
+
+        EntityRef entity1 = entityManager.create();
+        StringComponent comp = entity1.addComponent(new StringComponent());
+        entityManager.setEventSystem(eventSystem);
+        entityManager.setChangeNotificationsDeferred(true);
+        entity1.saveComponent(comp);
+        entity1.saveComponent(comp);
+
+        verify(eventSystem, never()).send(entity1, OnChangedComponent.newInstance(), comp);
+        entityManager.flushChangeNotifications();
+        verify(eventSystem, times(1)).send(entity1, OnChangedComponent.newInstance(), comp);
+    }
+
+    @Test
+    public void deferredChangeOfRemovedComponentNotSent() {
+        EventSystem eventSystem = mock(EventSystem.class);
+
+        EntityRef entity1 = entityManager.create();
+        StringComponent comp = entity1.addComponent(new StringComponent());
+        entityManager.setEventSystem(eventSystem);
+        entityManager.setChangeNotificationsDeferred(true);
+        entity1.saveComponent(comp);
+        entity1.removeComponent(StringComponent.class);
+        entityManager.flushChangeNotifications();
+
+        verify(eventSystem, never()).send(entity1, OnChangedComponent.newInstance(), comp);
+    }
+
     @Test
     public void changeComponentEventSentWhenAddOverExisting() {
         EventSystem eventSystem = mock(EventSystem.class);
@@ -194,6 +194,45 @@ public void testChildEventReceivedByUnfilteredHandler() {
         assertEquals(1, handler.unfilteredEvents.size());
     }
 
+    @Test
+    public void testHandlersFollowComponentChangesBetweenEvents() {
+        entity.addComponent(new StringComponent());
+
+        TestCompoundComponentEventHandler handler = new TestCompoundComponentEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        entity.send(new TestEvent());
+        assertEquals(0, handler.receivedList.size());
+
+        entity.addComponent(new IntegerComponent());
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        entity.removeComponent(StringComponent.class);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testHandlerRegisteredAfterEventWasSent() {
+        entity.addComponent(new StringComponent());
+
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        entity.send(new TestEvent());
+
+        TestHighPriorityEventHandler highPriorityHandler = new TestHighPriorityEventHandler();
+        eventSystem.registerEventHandler(highPriorityHandler);
+        entity.send(new TestEvent());
+        assertEquals(2, handler.receivedList.size());
+        assertEquals(1, highPriorityHandler.receivedList.size());
+
+        eventSystem.unregisterEventHandler(handler);
+        entity.send(new TestEvent());
+        assertEquals(2, handler.receivedList.size());
+        assertEquals(2, highPriorityHandler.receivedList.size());
+    }
+
     private static class TestEvent extends AbstractConsumableEvent {
 
     }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.Lists;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import org.junit.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+
+import java.util.ConcurrentModificationException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.terasology.testUtil.TeraAssert.assertEqualsContent;
+
+public class DenseComponentTableTest {
+
+    private DenseComponentTable table = new DenseComponentTable();
+
+    @Test
+    public void putAndGet() {
+        StringComponent component = new StringComponent("a");
+        assertNull(table.put(1, component));
+        assertSame(component, table.get(1, StringComponent.class));
+        assertNull(table.get(1, IntegerComponent.class));
+        assertNull(table.get(2, StringComponent.class));
+    }
+
+    @Test
+    public void putReplacesComponentOfSameType() {
+        StringComponent first = new StringComponent("a");
+        StringComponent second = new StringComponent("b");
+        table.put(1, first);
+        assertSame(first, table.put(1, second));
+        assertSame(second, table.get(1, StringComponent.class));
+        assertEquals(1, table.getComponentCount(StringComponent.class));
+    }
+
+    @Test
+    public void removingComponentKeepsOtherEntitiesReachable() {
+        for (long id = 1; id <= 40; ++id) {
+            table.put(id, new IntegerComponent((int) id));
+        }
+        table.remove(3, IntegerComponent.class);
+        table.remove(17, IntegerComponent.class);
+
+        assertEquals(38, table.getComponentCount(IntegerComponent.class));
+        assertNull(table.get(3, IntegerComponent.class));
+        for (long id = 1; id <= 40; ++id) {
+            if (id != 3 && id != 17) {
+                assertEquals(id, table.get(id, IntegerComponent.class).value);
+            }
+        }
+    }
+
+    @Test
+    public void removeEntity() {
+        table.put(1, new StringComponent());
+        table.put(1, new IntegerComponent());
+        table.put(2, new IntegerComponent());
+        table.remove(1);
+
+        assertNull(table.get(1, StringComponent.class));
+        assertNull(table.get(1, IntegerComponent.class));
+        assertTrue(Lists.newArrayList(table.iterateComponents(1)).isEmpty());
+        assertEquals(1, table.numEntities());
+    }
+
+    @Test
+    public void iterateComponentsOfEntity() {
+        StringComponent stringComponent = new StringComponent();
+        IntegerComponent integerComponent = new IntegerComponent();
+        table.put(1, stringComponent);
+        table.put(1, integerComponent);
+        table.put(2, new IntegerComponent());
+
+        assertEqualsContent(Lists.<Component>newArrayList(stringComponent, integerComponent), Lists.newArrayList(table.iterateComponents(1)));
+    }
+
+    @Test
+    public void getEntitiesWithAllComponents() {
+        table.put(1, new StringComponent());
+        table.put(1, new IntegerComponent());
+        table.put(2, new StringComponent());
+        table.put(3, new IntegerComponent());
+        table.put(4, new IntegerComponent());
+        table.put(4, new StringComponent());
+
+        assertEquals(new TLongArrayList(new long[]{1, 4}), sorted(table.getEntitiesWith(StringComponent.class, IntegerComponent.class)));
+        assertEquals(new TLongArrayList(new long[]{1, 2, 4}), sorted(table.getEntitiesWith(StringComponent.class)));
+        table.remove(4, StringComponent.class);
+        assertEquals(new TLongArrayList(new long[]{1}), sorted(table.getEntitiesWith(IntegerComponent.class, StringComponent.class)));
+    }
+
+    @Test
+    public void numEntitiesCountsEntitiesOnce() {
+        table.put(1, new StringComponent());
+        table.put(1, new IntegerComponent());
+        table.put(2, new IntegerComponent());
+        assertEquals(2, table.numEntities());
+        table.remove(2, IntegerComponent.class);
+        assertEquals(1, table.numEntities());
+    }
+
+    @Test
+    public void componentIteratorVisitsEveryComponentOfType() {
+        table.put(1, new IntegerComponent(1));
+        table.put(2, new IntegerComponent(2));
+        table.put(2, new StringComponent());
+        table.remove(1, IntegerComponent.class);
+        table.put(3, new IntegerComponent(3));
+
+        TLongList ids = new TLongArrayList();
+        TLongObjectIterator<IntegerComponent> iterator = table.componentIterator(IntegerComponent.class);
+        while (iterator.hasNext()) {
+            iterator.advance();
+            assertEquals(iterator.key(), iterator.value().value);
+            ids.add(iterator.key());
+        }
+        assertEquals(new TLongArrayList(new long[]{2, 3}), sorted(ids));
+    }
+
+    @Test
+    public void componentIteratorAllowsReplacingComponents() {
+        table.put(1, new IntegerComponent(1));
+        table.put(2, new IntegerComponent(2));
+
+        TLongObjectIterator<IntegerComponent> iterator = table.componentIterator(IntegerComponent.class);
+        iterator.advance();
+        table.put(iterator.key(), new IntegerComponent(5));
+        assertTrue(iterator.hasNext());
+        iterator.advance();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void componentIteratorFailsWhenComponentRemoved() {
+        table.put(1, new IntegerComponent());
+        table.put(2, new IntegerComponent());
+        table.put(3, new IntegerComponent());
+
+        TLongObjectIterator<IntegerComponent> iterator = table.componentIterator(IntegerComponent.class);
+        iterator.advance();
+        table.remove(iterator.key(), IntegerComponent.class);
+        iterator.advance();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void componentIteratorFailsWhenComponentAdded() {
+        table.put(1, new IntegerComponent());
+
+        TLongObjectIterator<IntegerComponent> iterator = table.componentIterator(IntegerComponent.class);
+        table.put(2, new IntegerComponent());
+        iterator.hasNext();
+    }
+
+    private static TLongList sorted(TLongList list) {
+        list.sort();
+        return list;
+    }
+}
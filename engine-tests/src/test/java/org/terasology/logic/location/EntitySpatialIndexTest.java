@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.location;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.terasology.engine.bootstrap.EntitySystemBuilder;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.network.NetworkSystem;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.testUtil.ModuleManagerFactory;
+
+import javax.vecmath.Vector3f;
+import java.util.Collections;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.terasology.testUtil.TeraAssert.assertEqualsContent;
+
+public class EntitySpatialIndexTest {
+
+    private static ModuleManager moduleManager;
+
+    private EngineEntityManager entityManager;
+    private EntitySpatialIndex spatialIndex;
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        moduleManager = ModuleManagerFactory.create();
+    }
+
+    @Before
+    public void setup() {
+        entityManager = new EntitySystemBuilder().build(moduleManager.getEnvironment(), mock(NetworkSystem.class),
+                new ReflectionReflectFactory());
+        spatialIndex = CoreRegistry.get(EntitySpatialIndex.class);
+    }
+
+    @Test
+    public void createdEntityIsInItsChunk() {
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(40, 10, -3)));
+        assertEqualsContent(Lists.newArrayList(entity), spatialIndex.getEntitiesInChunk(new Vector3i(1, 0, -1)));
+        assertTrue(spatialIndex.getEntitiesInChunk(new Vector3i(1, 0, 0)).isEmpty());
+    }
+
+    @Test
+    public void movedEntityChangesChunk() {
+        LocationComponent location = new LocationComponent(new Vector3f(1, 1, 1));
+        EntityRef entity = entityManager.create(location);
+        location.setWorldPosition(new Vector3f(100, 1, 1));
+        entity.saveComponent(location);
+
+        assertTrue(spatialIndex.getEntitiesInChunk(Vector3i.zero()).isEmpty());
+        assertEqualsContent(Lists.newArrayList(entity), spatialIndex.getEntitiesInChunk(new Vector3i(3, 0, 0)));
+    }
+
+    @Test
+    public void destroyedEntityIsRemoved() {
+        EntityRef entity = entityManager.create(new LocationComponent(new Vector3f(1, 1, 1)));
+        entity.destroy();
+        assertTrue(spatialIndex.getEntitiesInChunk(Vector3i.zero()).isEmpty());
+    }
+
+    @Test
+    public void childMovesWithParent() {
+        EntityRef parent = entityManager.create(new LocationComponent(new Vector3f(1, 1, 1)));
+        EntityRef child = entityManager.create(new LocationComponent(new Vector3f(2, 1, 1)));
+        Location.attachChild(parent, child);
+
+        LocationComponent parentLocation = parent.getComponent(LocationComponent.class);
+        parentLocation.setWorldPosition(new Vector3f(-20, 1, 1));
+        parent.saveComponent(parentLocation);
+
+        assertEqualsContent(Lists.newArrayList(parent, child), spatialIndex.getEntitiesInChunk(new Vector3i(-1, 0, 0)));
+    }
+
+    @Test
+    public void regionQueryOnlyReturnsEntitiesInTheRegion() {
+        EntityRef inside = entityManager.create(new LocationComponent(new Vector3f(5.2f, 5, 5)));
+        entityManager.create(new LocationComponent(new Vector3f(7, 5, 5)));
+
+        Region3i region = Region3i.createFromMinMax(new Vector3i(4, 4, 4), new Vector3i(6, 6, 6));
+        assertEqualsContent(Lists.newArrayList(inside), spatialIndex.getEntitiesInRegion(region));
+    }
+
+    @Test
+    public void radiusQuerySpansChunks() {
+        EntityRef near = entityManager.create(new LocationComponent(new Vector3f(-1, 0, 0)));
+        EntityRef alsoNear = entityManager.create(new LocationComponent(new Vector3f(1, 0, 0)));
+        entityManager.create(new LocationComponent(new Vector3f(4, 0, 0)));
+
+        assertEqualsContent(Lists.newArrayList(near, alsoNear), spatialIndex.getEntitiesWithinRadius(new Vector3f(), 2));
+        assertEqualsContent(Collections.<EntityRef>emptyList(), spatialIndex.getEntitiesWithinRadius(new Vector3f(10, 0, 0), 2));
+    }
+}
@@ -110,6 +110,17 @@ private void assertEqualsRatio(String msg, double expected, double actual, doubl
         }
     }
 
+    @Test
+    public void packChunkPosRoundTrip() {
+        int[][] coords = {{0, 0, 0}, {-1, -1, -1}, {8388607, 32767, -8388608}, {-8388608, -32768, 8388607}, {123, -45, -6789}};
+        for (int[] coord : coords) {
+            long packed = TeraMath.packChunkPos(coord[0], coord[1], coord[2]);
+            assertEquals(coord[0], TeraMath.unpackChunkPosX(packed));
+            assertEquals(coord[1], TeraMath.unpackChunkPosY(packed));
+            assertEquals(coord[2], TeraMath.unpackChunkPosZ(packed));
+        }
+    }
+
     @Test
     public void regionPositions() {
         CoreRegistry.put(Config.class, new Config());
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.config.Config;
+import org.terasology.math.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyShort;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EncodedChunkCacheTest {
+
+    private EncodedChunkCache cache;
+    private Block stone;
+    private BiomeManager biomeManager;
+
+    @Before
+    public void setup() {
+        CoreRegistry.put(Config.class, new Config());
+        stone = new Block();
+        stone.setId((short) 1);
+        BlockManager blockManager = mock(BlockManager.class);
+        when(blockManager.getBlock(anyShort())).thenReturn(BlockManager.getAir());
+        when(blockManager.getBlock(stone.getId())).thenReturn(stone);
+        CoreRegistry.put(BlockManager.class, blockManager);
+        biomeManager = mock(BiomeManager.class);
+        when(biomeManager.getBiomeByShortId(anyShort())).thenReturn(mock(Biome.class));
+        CoreRegistry.put(BiomeManager.class, biomeManager);
+        cache = new EncodedChunkCache();
+    }
+
+    @After
+    public void teardown() {
+        CoreRegistry.clear();
+    }
+
+    @Test
+    public void unchangedChunkIsEncodedOnce() {
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(1, 0, 2));
+
+        EntityData.ChunkStore encoded = cache.getEncodedChunk(chunk);
+
+        assertSame(encoded, cache.getEncodedChunk(chunk));
+    }
+
+    @Test
+    public void chunksAreCachedByPosition() {
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(1, 0, 2));
+        ChunkImpl otherChunk = new ChunkImpl(new Vector3i(2, 0, 2));
+
+        EntityData.ChunkStore encoded = cache.getEncodedChunk(chunk);
+        EntityData.ChunkStore otherEncoded = cache.getEncodedChunk(otherChunk);
+
+        assertNotSame(encoded, otherEncoded);
+        assertSame(encoded, cache.getEncodedChunk(chunk));
+        assertSame(otherEncoded, cache.getEncodedChunk(otherChunk));
+    }
+
+    @Test
+    public void blockChangeInvalidatesEncodedChunk() {
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(1, 0, 2));
+        EntityData.ChunkStore encoded = cache.getEncodedChunk(chunk);
+
+        chunk.setBlock(3, 4, 5, stone);
+
+        EntityData.ChunkStore reencoded = cache.getEncodedChunk(chunk);
+        assertFalse(encoded.equals(reencoded));
+        assertSame(reencoded, cache.getEncodedChunk(chunk));
+    }
+
+    @Test
+    public void biomeChangeInvalidatesEncodedChunk() {
+        Biome biome = mock(Biome.class);
+        when(biomeManager.getBiomeShortId(any(Biome.class))).thenReturn((short) 3);
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(1, 0, 2));
+        EntityData.ChunkStore encoded = cache.getEncodedChunk(chunk);
+
+        chunk.setBiome(3, 4, 5, biome);
+
+        assertFalse(encoded.equals(cache.getEncodedChunk(chunk)));
+    }
+
+    @Test
+    public void reloadedChunkIsEncodedAgain() {
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(1, 0, 2));
+        EntityData.ChunkStore encoded = cache.getEncodedChunk(chunk);
+
+        // Unloading and reloading the chunk results in a new instance with the same position and generation
+        ChunkImpl reloadedChunk = new ChunkImpl(new Vector3i(1, 0, 2));
+
+        assertNotSame(encoded, cache.getEncodedChunk(reloadedChunk));
+    }
+
+    @Test
+    public void clearDropsEncodedChunks() {
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(1, 0, 2));
+        EntityData.ChunkStore encoded = cache.getEncodedChunk(chunk);
+
+        cache.clear();
+
+        assertNotSame(encoded, cache.getEncodedChunk(chunk));
+    }
+}
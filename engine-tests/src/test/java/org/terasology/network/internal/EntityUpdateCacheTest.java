@@ -0,0 +1,177 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.network.NetworkComponent;
+import org.terasology.persistence.serializers.FieldSerializeCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anySet;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EntityUpdateCacheTest {
+
+    private static final int NET_ID = 7;
+    private static final int OTHER_NET_ID = 8;
+
+    private NetworkEntitySerializer serializer;
+    private EntityUpdateCache cache;
+    private EntityRef entity;
+    private EntityRef otherEntity;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        serializer = mock(NetworkEntitySerializer.class);
+        when(serializer.serialize(any(EntityRef.class), anySet(), anySet(), anySet(),
+                any(FieldSerializeCheck.class))).thenAnswer(new Answer<EntityData.PackedEntity>() {
+            @Override
+            public EntityData.PackedEntity answer(InvocationOnMock invocation) throws Throwable {
+                return EntityData.PackedEntity.newBuilder().build();
+            }
+        });
+        when(serializer.serialize(any(EntityRef.class), anyBoolean(), any(FieldSerializeCheck.class)))
+                .thenAnswer(new Answer<EntityData.PackedEntity.Builder>() {
+                    @Override
+                    public EntityData.PackedEntity.Builder answer(InvocationOnMock invocation) throws Throwable {
+                        return EntityData.PackedEntity.newBuilder();
+                    }
+                });
+        cache = new EntityUpdateCache(serializer);
+        entity = mock(EntityRef.class);
+        otherEntity = mock(EntityRef.class);
+    }
+
+    @Test
+    public void updateIsSerializedOnceForAllClients() {
+        EntityData.PackedEntity first = cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents());
+        EntityData.PackedEntity second = cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents());
+        EntityData.PackedEntity third = cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents());
+
+        assertSame(first, second);
+        assertSame(first, third);
+        verifyUpdatesSerialized(1);
+    }
+
+    @Test
+    public void cachedUpdateIsNotAffectedByClientClearingItsChanges() {
+        Set<Class<? extends Component>> firstClientChanges = changed();
+        EntityData.PackedEntity first = cache.getUpdate(NET_ID, entity, false, noComponents(), firstClientChanges, noComponents());
+        // Clients clear their dirty components once the update has been written
+        firstClientChanges.clear();
+
+        assertSame(first, cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents()));
+        verifyUpdatesSerialized(1);
+    }
+
+    @Test
+    public void ownerAndOtherClientsGetSeparateUpdates() {
+        EntityData.PackedEntity owned = cache.getUpdate(NET_ID, entity, true, noComponents(), changed(), noComponents());
+        EntityData.PackedEntity notOwned = cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents());
+
+        assertNotSame(owned, notOwned);
+        assertSame(owned, cache.getUpdate(NET_ID, entity, true, noComponents(), changed(), noComponents()));
+        assertSame(notOwned, cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents()));
+        verifyUpdatesSerialized(2);
+    }
+
+    @Test
+    public void differentChangesAreSerializedSeparately() {
+        EntityData.PackedEntity update = cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents());
+        Set<Class<? extends Component>> moreChanges = changed();
+        moreChanges.add(NetworkComponent.class);
+
+        assertNotSame(update, cache.getUpdate(NET_ID, entity, false, noComponents(), moreChanges, noComponents()));
+        verifyUpdatesSerialized(2);
+    }
+
+    @Test
+    public void clearedOnNextTick() {
+        EntityData.PackedEntity update = cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents());
+        EntityData.PackedEntity initial = cache.getInitial(NET_ID, entity, false);
+
+        cache.clear();
+
+        assertNotSame(update, cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents()));
+        assertNotSame(initial, cache.getInitial(NET_ID, entity, false));
+        verifyUpdatesSerialized(2);
+    }
+
+    @Test
+    public void invalidatedWhenEntityChanges() {
+        EntityData.PackedEntity update = cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents());
+        EntityData.PackedEntity ownedInitial = cache.getInitial(NET_ID, entity, true);
+        EntityData.PackedEntity otherInitial = cache.getInitial(NET_ID, entity, false);
+        EntityData.PackedEntity otherEntityUpdate = cache.getUpdate(OTHER_NET_ID, otherEntity, false, noComponents(), changed(), noComponents());
+
+        cache.invalidate(NET_ID);
+
+        assertNotSame(update, cache.getUpdate(NET_ID, entity, false, noComponents(), changed(), noComponents()));
+        assertNotSame(ownedInitial, cache.getInitial(NET_ID, entity, true));
+        assertNotSame(otherInitial, cache.getInitial(NET_ID, entity, false));
+        assertSame(otherEntityUpdate, cache.getUpdate(OTHER_NET_ID, otherEntity, false, noComponents(), changed(), noComponents()));
+    }
+
+    @Test
+    public void initialEntityIsSerializedOncePerOwnership() {
+        EntityData.PackedEntity owned = cache.getInitial(NET_ID, entity, true);
+        EntityData.PackedEntity notOwned = cache.getInitial(NET_ID, entity, false);
+
+        assertNotSame(owned, notOwned);
+        assertSame(owned, cache.getInitial(NET_ID, entity, true));
+        assertSame(notOwned, cache.getInitial(NET_ID, entity, false));
+        verify(serializer, times(2)).serialize(eq(entity), eq(true), any(FieldSerializeCheck.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyUpdatesSerialized(int times) {
+        verify(serializer, times(times)).serialize(eq(entity), anySet(), anySet(), anySet(),
+                any(FieldSerializeCheck.class));
+    }
+
+    private Set<Class<? extends Component>> noComponents() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * @return A new set per call, as every client tracks its own changes
+     */
+    private Set<Class<? extends Component>> changed() {
+        Set<Class<? extends Component>> result = Sets.newHashSet();
+        result.add(LocationComponent.class);
+        return result;
+    }
+}
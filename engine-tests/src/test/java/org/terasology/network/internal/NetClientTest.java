@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.network.NetworkComponent;
+import org.terasology.protobuf.EntityData;
+import org.terasology.protobuf.NetData;
+import org.terasology.registry.CoreRegistry;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NetClientTest {
+
+    private static final int NET_ID = 7;
+
+    private Channel channel;
+    private NetClient client;
+
+    @Before
+    public void setup() {
+        CoreRegistry.put(Time.class, mock(Time.class));
+
+        channel = mock(Channel.class);
+        ChannelPipeline pipeline = mock(ChannelPipeline.class);
+        when(channel.getPipeline()).thenReturn(pipeline);
+        when(pipeline.get(MetricRecordingHandler.NAME)).thenReturn(mock(MetricRecordingHandler.class));
+
+        EntityRef entity = mock(EntityRef.class);
+        when(entity.hasComponent(NetworkComponent.class)).thenReturn(true);
+        EntityUpdateCache updateCache = mock(EntityUpdateCache.class);
+        when(updateCache.getInitial(anyInt(), any(EntityRef.class), anyBoolean()))
+                .thenReturn(EntityData.PackedEntity.newBuilder().setId(NET_ID).build());
+
+        NetworkSystemImpl networkSystem = mock(NetworkSystemImpl.class);
+        when(networkSystem.getEntity(NET_ID)).thenReturn(entity);
+        when(networkSystem.getEntityUpdateCache()).thenReturn(updateCache);
+        when(networkSystem.getBandwidthPerClient()).thenReturn(Integer.MAX_VALUE / 1000);
+
+        client = new NetClient(channel, networkSystem, null);
+    }
+
+    @After
+    public void teardown() {
+        CoreRegistry.clear();
+    }
+
+    @Test
+    public void entityEnteringTheAreaOfInterestIsCreatedOnTheClient() {
+        client.setNetInitial(NET_ID);
+        NetData.NetMessage message = tick();
+
+        assertEquals(1, message.getCreateEntityCount());
+        assertEquals(NET_ID, message.getCreateEntity(0).getEntity().getId());
+        assertTrue(client.isReplicated(NET_ID));
+    }
+
+    @Test
+    public void entityLeavingTheAreaOfInterestIsRemovedFromTheClient() {
+        client.setNetInitial(NET_ID);
+        tick();
+        client.setNetRemoved(NET_ID);
+        NetData.NetMessage message = tick();
+
+        assertEquals(1, message.getRemoveEntityCount());
+        assertEquals(NET_ID, message.getRemoveEntity(0).getNetId());
+        assertFalse(client.isReplicated(NET_ID));
+    }
+
+    @Test
+    public void entityOutsideTheAreaOfInterestIsNotRemovedFromTheClient() {
+        client.setNetRemoved(NET_ID);
+        NetData.NetMessage message = tick();
+
+        assertEquals(0, message.getRemoveEntityCount());
+        assertEquals(0, message.getCreateEntityCount());
+    }
+
+    @Test
+    public void entityLeavingBeforeBeingSentIsNeitherCreatedNorRemoved() {
+        client.setNetInitial(NET_ID);
+        client.setNetRemoved(NET_ID);
+        NetData.NetMessage message = tick();
+
+        assertEquals(0, message.getRemoveEntityCount());
+        assertEquals(0, message.getCreateEntityCount());
+        assertFalse(client.isReplicated(NET_ID));
+    }
+
+    @Test
+    public void entityIsRemovedOnlyOnce() {
+        client.setNetInitial(NET_ID);
+        tick();
+        client.setNetRemoved(NET_ID);
+        client.setNetRemoved(NET_ID);
+        assertEquals(1, tick().getRemoveEntityCount());
+        client.setNetRemoved(NET_ID);
+        assertEquals(0, tick().getRemoveEntityCount());
+    }
+
+    private NetData.NetMessage tick() {
+        client.update(true);
+        ArgumentCaptor<NetData.NetMessage> sent = ArgumentCaptor.forClass(NetData.NetMessage.class);
+        verify(channel, atLeastOnce()).write(sent.capture());
+        List<NetData.NetMessage> messages = sent.getAllValues();
+        return messages.get(messages.size() - 1);
+    }
+}
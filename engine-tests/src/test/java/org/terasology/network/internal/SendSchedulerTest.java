@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.protobuf.NetData;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SendSchedulerTest {
+
+    private SendScheduler scheduler;
+    private NetData.NetMessage.Builder message;
+    private List<String> sent;
+
+    @Before
+    public void setup() {
+        scheduler = new SendScheduler();
+        message = NetData.NetMessage.newBuilder();
+        sent = Lists.newArrayList();
+    }
+
+    @Test
+    public void sendsInOrderOfPriority() {
+        scheduler.schedule(SendScheduler.SendPriority.CHUNK, 0, new RecordingSend("chunk", 10));
+        scheduler.schedule(SendScheduler.SendPriority.OWNED_ENTITY, 0, new RecordingSend("owned", 10));
+        scheduler.schedule(SendScheduler.SendPriority.BLOCK_CHANGE, 0, new RecordingSend("block", 10));
+        scheduler.writeScheduled(message, 100);
+        assertEquals(Lists.newArrayList("owned", "block", "chunk"), sent);
+        assertEquals(0, scheduler.getDeferredUpdates());
+    }
+
+    @Test
+    public void defersSendsBeyondBudget() {
+        scheduler.schedule(SendScheduler.SendPriority.CHUNK, 0, new RecordingSend("first", 60));
+        scheduler.schedule(SendScheduler.SendPriority.CHUNK, 0, new RecordingSend("second", 60));
+        scheduler.schedule(SendScheduler.SendPriority.CHUNK, 0, new RecordingSend("third", 10));
+        scheduler.writeScheduled(message, 100);
+        assertEquals(Lists.newArrayList("first"), sent);
+        assertEquals(2, scheduler.getDeferredUpdates());
+    }
+
+    @Test
+    public void ownedAndNearbySendsOverdrawBudget() {
+        scheduler.schedule(SendScheduler.SendPriority.OWNED_ENTITY, 0, new RecordingSend("owned", 250));
+        scheduler.schedule(SendScheduler.SendPriority.NEARBY_ENTITY, 0, new RecordingSend("nearby", 50));
+        scheduler.writeScheduled(message, 100);
+        assertEquals(Lists.newArrayList("owned", "nearby"), sent);
+
+        // The budget is exhausted for a while, but owned and nearby entities are still sent
+        scheduler.schedule(SendScheduler.SendPriority.CHUNK, 0, new RecordingSend("chunk", 10));
+        scheduler.schedule(SendScheduler.SendPriority.OWNED_ENTITY, 0, new RecordingSend("owned again", 10));
+        scheduler.writeScheduled(message, 100);
+        assertEquals(Lists.newArrayList("owned", "nearby", "owned again"), sent);
+        assertEquals(1, scheduler.getDeferredUpdates());
+    }
+
+    @Test
+    public void lowPrioritySendsNeverOverdrawBudget() {
+        for (int tick = 0; tick < 3; tick++) {
+            scheduler.schedule(SendScheduler.SendPriority.CHUNK, tick, new RecordingSend("large", 250));
+            scheduler.writeScheduled(message, 100);
+        }
+        assertEquals(Lists.newArrayList("large"), sent);
+
+        // 50 bytes were left, so the next send has to wait a tick instead of overdrawing the budget
+        scheduler.schedule(SendScheduler.SendPriority.CHUNK, 0, new RecordingSend("next", 160));
+        scheduler.writeScheduled(message, 100);
+        assertEquals(Lists.newArrayList("large"), sent);
+        scheduler.schedule(SendScheduler.SendPriority.OWNED_ENTITY, 0, new RecordingSend("owned", 10));
+        scheduler.schedule(SendScheduler.SendPriority.CHUNK, 1, new RecordingSend("next", 160));
+        scheduler.writeScheduled(message, 100);
+        assertEquals(Lists.newArrayList("large", "owned", "next"), sent);
+    }
+
+    @Test
+    public void budgetIsSavedForSendsLargerThanSavedBudget() {
+        int ticks = 0;
+        while (sent.isEmpty()) {
+            scheduler.schedule(SendScheduler.SendPriority.CHUNK, ticks, new RecordingSend("huge", 1000));
+            scheduler.writeScheduled(message, 100);
+            ticks++;
+        }
+        assertEquals(10, ticks);
+    }
+
+    @Test
+    public void waitingSendsNeverOvertakeOwnedOrNearbyOnes() {
+        scheduler.schedule(SendScheduler.SendPriority.DISTANT_ENTITY, 1000, new RecordingSend("starved", 100));
+        scheduler.schedule(SendScheduler.SendPriority.NEARBY_ENTITY, 0, new RecordingSend("nearby", 100));
+        scheduler.schedule(SendScheduler.SendPriority.OWNED_ENTITY, 0, new RecordingSend("owned", 100));
+        scheduler.writeScheduled(message, 100);
+        assertEquals(Lists.newArrayList("owned", "nearby"), sent);
+        assertEquals(1, scheduler.getDeferredUpdates());
+    }
+
+    @Test
+    public void waitingSendsOvertakeMoreImportantLowPriorityOnes() {
+        scheduler.schedule(SendScheduler.SendPriority.CHUNK, 0, new RecordingSend("chunk", 100));
+        scheduler.schedule(SendScheduler.SendPriority.DISTANT_ENTITY, 100, new RecordingSend("starved", 100));
+        scheduler.writeScheduled(message, 100);
+        assertEquals(Lists.newArrayList("starved"), sent);
+        assertEquals(100, scheduler.getMaxWaitedTicks());
+    }
+
+    @Test
+    public void sizesAreScaledByCompressionRatio() {
+        for (int i = 0; i < 100; i++) {
+            scheduler.recordSentMessage(1000, 100);
+        }
+        for (int i = 0; i < 5; i++) {
+            scheduler.schedule(SendScheduler.SendPriority.CHUNK, 0, new RecordingSend("chunk" + i, 150));
+        }
+        scheduler.writeScheduled(message, 100);
+        assertEquals(5, sent.size());
+    }
+
+    private class RecordingSend implements SendScheduler.ScheduledSend {
+        private final String name;
+        private final int size;
+
+        public RecordingSend(String name, int size) {
+            this.name = name;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int write(NetData.NetMessage.Builder target) {
+            sent.add(name);
+            return size;
+        }
+    }
+}
@@ -43,7 +43,9 @@
 import org.terasology.network.ClientComponent;
 import org.terasology.network.NetworkMode;
 import org.terasology.network.NetworkSystem;
+import org.terasology.persistence.internal.ChunkStorageFormat;
 import org.terasology.persistence.internal.StorageManagerInternal;
+import org.terasology.persistence.internal.StoragePathProvider;
 import org.terasology.reflection.reflect.ReflectionReflectFactory;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.testUtil.ModuleManagerFactory;
@@ -66,6 +68,7 @@
 
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -298,6 +301,71 @@ public void chunkSurvivesStorageSaveAndRestore() throws Exception {
         assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
     }
 
+    @Test
+    public void chunkSurvivesStorageSaveAndRestoreInRegionFiles() throws Exception {
+        Vector3i negativeChunkPos = new Vector3i(-32, -1, 31);
+        Chunk chunk = new ChunkImpl(CHUNK_POS);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        Chunk negativeChunk = new ChunkImpl(negativeChunkPos);
+        negativeChunk.setBlock(1, 2, 3, testBlock2);
+        negativeChunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk, negativeChunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setChunkStorageFormat(ChunkStorageFormat.REGION_FILES);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        chunk.setBlock(0, 0, 0, testBlock2);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EngineEntityManager newEntityManager = new EntitySystemBuilder().build(moduleManager.getEnvironment(), networkSystem, new ReflectionReflectFactory());
+        StorageManager newSM = new StorageManagerInternal(moduleManager.getEnvironment(), newEntityManager,
+                ChunkStorageFormat.REGION_FILES);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 0, 0));
+        ChunkStore restoredNegative = newSM.loadChunkStore(negativeChunkPos);
+        assertNotNull(restoredNegative);
+        assertEquals(negativeChunkPos, restoredNegative.getChunkPosition());
+        assertEquals(testBlock2, restoredNegative.getChunk().getBlock(1, 2, 3));
+        assertNull(newSM.loadChunkStore(new Vector3i(0, 0, 0)));
+    }
+
+    @Test
+    public void onlyModifiedChunksGetSavedAgain() throws Exception {
+        ChunkImpl chunk = new ChunkImpl(CHUNK_POS);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.<Chunk>asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+        Path chunkPath = new StoragePathProvider(PathManager.getInstance().getCurrentSavePath()).getChunkPath(CHUNK_POS);
+
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        waitForSaveToFinish();
+        assertTrue(Files.isRegularFile(chunkPath));
+
+        Files.delete(chunkPath);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        waitForSaveToFinish();
+        assertFalse(Files.exists(chunkPath));
+
+        chunk.setBlock(0, 0, 0, testBlock2);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+        assertTrue(Files.isRegularFile(chunkPath));
+    }
+
+    private void waitForSaveToFinish() throws InterruptedException {
+        while (esm.isSaving()) {
+            Thread.sleep(10);
+        }
+    }
+
     @Test
     public void entitySurvivesStorageInChunkStore() throws Exception {
         Chunk chunk = new ChunkImpl(CHUNK_POS);
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ChunkRegionFileTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void missingChunkReadsAsNull() throws Exception {
+        try (ChunkRegionFile regionFile = new ChunkRegionFile(temporaryFolder.getRoot().toPath().resolve("test.region"))) {
+            assertNull(regionFile.read(5));
+        }
+    }
+
+    @Test
+    public void chunksSurviveReopening() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("test.region");
+        byte[] first = createData(100, (byte) 1);
+        byte[] second = createData(ChunkRegionFile.SECTOR_SIZE * 2 + 1, (byte) 2);
+        try (ChunkRegionFile regionFile = new ChunkRegionFile(path)) {
+            regionFile.write(0, first);
+            regionFile.write(StoragePathProvider.CHUNK_REGION_SIZE - 1, second);
+        }
+        try (ChunkRegionFile regionFile = new ChunkRegionFile(path)) {
+            assertArrayEquals(first, regionFile.read(0));
+            assertArrayEquals(second, regionFile.read(StoragePathProvider.CHUNK_REGION_SIZE - 1));
+        }
+    }
+
+    @Test
+    public void shrinkingChunkIsOverwrittenInPlace() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("test.region");
+        try (ChunkRegionFile regionFile = new ChunkRegionFile(path)) {
+            regionFile.write(0, createData(ChunkRegionFile.SECTOR_SIZE * 3, (byte) 1));
+            long size = Files.size(path);
+            byte[] smaller = createData(10, (byte) 2);
+            regionFile.write(0, smaller);
+            assertEquals(size, Files.size(path));
+            assertArrayEquals(smaller, regionFile.read(0));
+        }
+    }
+
+    @Test
+    public void sectorsOfGrownChunkAreReused() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("test.region");
+        try (ChunkRegionFile regionFile = new ChunkRegionFile(path)) {
+            regionFile.write(0, createData(ChunkRegionFile.SECTOR_SIZE, (byte) 1));
+            regionFile.write(1, createData(ChunkRegionFile.SECTOR_SIZE, (byte) 2));
+            // Chunk 0 no longer fits into its sector and gets moved behind chunk 1:
+            byte[] grown = createData(ChunkRegionFile.SECTOR_SIZE + 1, (byte) 3);
+            regionFile.write(0, grown);
+            long size = Files.size(path);
+            // The freed sector of chunk 0 fits chunk 2:
+            byte[] third = createData(ChunkRegionFile.SECTOR_SIZE, (byte) 4);
+            regionFile.write(2, third);
+            assertEquals(size, Files.size(path));
+            assertArrayEquals(grown, regionFile.read(0));
+            assertArrayEquals(createData(ChunkRegionFile.SECTOR_SIZE, (byte) 2), regionFile.read(1));
+            assertArrayEquals(third, regionFile.read(2));
+        }
+    }
+
+    private static byte[] createData(int length, byte value) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, value);
+        return data;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.Side;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkFaceConnectivityTest {
+
+    private final boolean[][][] open = new boolean[ChunkConstants.SIZE_X][ChunkConstants.SIZE_Y][ChunkConstants.SIZE_Z];
+    private Block air;
+    private Block stone;
+
+    @Before
+    public void setup() {
+        air = new Block();
+        air.setInvisible(true);
+        stone = new Block();
+        for (Side side : Side.values()) {
+            stone.setFullSide(side, true);
+        }
+    }
+
+    @Test
+    public void solidChunkConnectsNoFaces() {
+        assertSame(ChunkFaceConnectivity.CLOSED, calculate());
+    }
+
+    @Test
+    public void emptyChunkConnectsAllFaces() {
+        openBox(0, 0, 0, ChunkConstants.SIZE_X - 1, ChunkConstants.SIZE_Y - 1, ChunkConstants.SIZE_Z - 1);
+        assertSame(ChunkFaceConnectivity.OPEN, calculate());
+    }
+
+    @Test
+    public void tunnelConnectsTheFacesItPassesThrough() {
+        openBox(0, 10, 5, ChunkConstants.SIZE_X - 1, 10, 5);
+        ChunkFaceConnectivity connectivity = calculate();
+
+        assertTrue(connectivity.isConnected(Side.LEFT, Side.RIGHT));
+        assertTrue(connectivity.isConnected(Side.RIGHT, Side.LEFT));
+        assertFalse(connectivity.isConnected(Side.LEFT, Side.TOP));
+        assertFalse(connectivity.isConnected(Side.FRONT, Side.BACK));
+        assertFalse(connectivity.isConnected(Side.TOP, Side.BOTTOM));
+    }
+
+    @Test
+    public void bendConnectsTheFacesOfBothLegs() {
+        openBox(0, 10, 5, 10, 10, 5);
+        openBox(10, 10, 5, 10, 10, ChunkConstants.SIZE_Z - 1);
+        ChunkFaceConnectivity connectivity = calculate();
+
+        assertTrue(connectivity.isConnected(Side.LEFT, Side.BACK));
+        assertTrue(connectivity.isConnected(Side.BACK, Side.LEFT));
+        assertFalse(connectivity.isConnected(Side.LEFT, Side.RIGHT));
+        assertFalse(connectivity.isConnected(Side.LEFT, Side.FRONT));
+        assertFalse(connectivity.isConnected(Side.BACK, Side.TOP));
+    }
+
+    @Test
+    public void separateTunnelsDoNotConnectEachOther() {
+        openBox(0, 10, 5, ChunkConstants.SIZE_X - 1, 10, 5);
+        openBox(5, 40, 0, 5, 40, ChunkConstants.SIZE_Z - 1);
+        ChunkFaceConnectivity connectivity = calculate();
+
+        assertTrue(connectivity.isConnected(Side.LEFT, Side.RIGHT));
+        assertTrue(connectivity.isConnected(Side.FRONT, Side.BACK));
+        assertFalse(connectivity.isConnected(Side.LEFT, Side.FRONT));
+        assertFalse(connectivity.isConnected(Side.RIGHT, Side.BACK));
+    }
+
+    private void openBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    open[x][y][z] = true;
+                }
+            }
+        }
+    }
+
+    private ChunkFaceConnectivity calculate() {
+        // The flood fill only calls getBlock(int, int, int), which is answered from the open blocks
+        ChunkView view = (ChunkView) Proxy.newProxyInstance(ChunkView.class.getClassLoader(), new Class<?>[]{ChunkView.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        return open[(Integer) args[0]][(Integer) args[1]][(Integer) args[2]] ? air : stone;
+                    }
+                });
+        return ChunkFaceConnectivity.calculate(view);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.asset.AssetType;
+import org.terasology.asset.AssetUri;
+import org.terasology.config.Config;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.ChunkView;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.shapes.BlockShapeImpl;
+import org.terasology.world.block.shapes.JsonBlockShapeLoader;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import javax.vecmath.Vector2f;
+import javax.vecmath.Vector3f;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyShort;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkTessellatorTest {
+
+    private static final float TILE_SIZE = 0.0625f;
+    /**
+     * The blocks of the chunk span from -0.5 to 31.5, the stone blocks of the mixed slab end here
+     */
+    private static final float STONE_MAX_X = 7.5f;
+
+    private BlockShape cubeShape;
+    private Block stone;
+    private Block dirt;
+
+    @Before
+    public void setup() throws IOException {
+        CoreRegistry.put(Config.class, new Config());
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream("assets/shapes/cube.shape")) {
+            cubeShape = new BlockShapeImpl(new AssetUri(AssetType.SHAPE, "engine:cube"),
+                    new JsonBlockShapeLoader().load(null, stream, Collections.<URL>emptyList(), Collections.<URL>emptyList()));
+        }
+        stone = createCube("engine:stone", (short) 1, new Vector2f(TILE_SIZE, 0));
+        dirt = createCube("engine:dirt", (short) 2, new Vector2f(2 * TILE_SIZE, TILE_SIZE));
+
+        BlockManager blockManager = mock(BlockManager.class);
+        when(blockManager.getBlock(anyShort())).thenReturn(BlockManager.getAir());
+        when(blockManager.getBlock(stone.getId())).thenReturn(stone);
+        when(blockManager.getBlock(dirt.getId())).thenReturn(dirt);
+        CoreRegistry.put(BlockManager.class, blockManager);
+        BiomeManager biomeManager = mock(BiomeManager.class);
+        when(biomeManager.getBiomeByShortId(anyShort())).thenReturn(mock(Biome.class));
+        CoreRegistry.put(BiomeManager.class, biomeManager);
+    }
+
+    @After
+    public void teardown() {
+        CoreRegistry.clear();
+    }
+
+    @Test
+    public void greedyMeshingMergesFlatSurfaces() {
+        Chunk chunk = new ChunkImpl(new Vector3i());
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                chunk.setBlock(x, 0, z, stone);
+            }
+        }
+        ChunkView view = createView(chunk);
+
+        ChunkMesh.VertexElements perBlock = new ChunkTessellator(null, false).generateMesh(view, 1, 0).getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        ChunkMesh.VertexElements greedy = new ChunkTessellator(null, true).generateMesh(view, 1, 0).getVertexElements(ChunkMesh.RenderType.OPAQUE);
+
+        // Top, bottom and the four sides of the slab
+        int faces = 2 * ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z + 2 * ChunkConstants.SIZE_X + 2 * ChunkConstants.SIZE_Z;
+        assertEquals(faces * 2, perBlock.indexCount / 3);
+        assertEquals(6 * 2, greedy.indexCount / 3);
+        assertCoverageEquals(perBlock, greedy);
+    }
+
+    @Test
+    public void greedyMeshingKeepsDifferentTexturesApart() {
+        Chunk chunk = new ChunkImpl(new Vector3i());
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                chunk.setBlock(x, 0, z, (x < 8) ? stone : dirt);
+            }
+        }
+        ChunkView view = createView(chunk);
+
+        ChunkMesh.VertexElements perBlock = new ChunkTessellator(null, false).generateMesh(view, 1, 0).getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        ChunkMesh.VertexElements greedy = new ChunkTessellator(null, true).generateMesh(view, 1, 0).getVertexElements(ChunkMesh.RenderType.OPAQUE);
+
+        // Top and bottom are split by material, as are the two sides crossing the border
+        assertEquals(10 * 2, greedy.indexCount / 3);
+        assertCoverageEquals(perBlock, greedy);
+
+        assertTileEncoding(greedy);
+    }
+
+    /**
+     * Merged quads encode their texture coordinates as tile * 128 + 64 + local, where the local coordinates run over
+     * the number of blocks the quad spans. Checks the tile of every quad against its material and the local range
+     * against its size.
+     */
+    private void assertTileEncoding(ChunkMesh.VertexElements elements) {
+        assertEquals(0, elements.vertexCount % 4);
+        for (int quad = 0; quad < elements.vertexCount; quad += 4) {
+            float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+            float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+            float[] minLocal = {Float.MAX_VALUE, Float.MAX_VALUE};
+            float[] maxLocal = {-Float.MAX_VALUE, -Float.MAX_VALUE};
+            float centerX = 0;
+            for (int i = quad; i < quad + 4; i++) {
+                for (int axis = 0; axis < 3; axis++) {
+                    min[axis] = Math.min(min[axis], elements.getPosition(i, axis));
+                    max[axis] = Math.max(max[axis], elements.getPosition(i, axis));
+                }
+                centerX += elements.getPosition(i, 0) / 4;
+            }
+            int[] expectedTile = (centerX < STONE_MAX_X) ? new int[]{1, 0} : new int[]{2, 1};
+            for (int i = quad; i < quad + 4; i++) {
+                for (int coord = 0; coord < 2; coord++) {
+                    float local = elements.getTexCoord(i, coord) - 128 * expectedTile[coord] - 64;
+                    assertEquals("Texture coordinates of a merged quad", Math.round(local), local, 0.0001f);
+                    assertTrue("Texture coordinate " + elements.getTexCoord(i, coord) + " outside of tile " + expectedTile[coord],
+                            Math.abs(local) < 64);
+                    minLocal[coord] = Math.min(minLocal[coord], local);
+                    maxLocal[coord] = Math.max(maxLocal[coord], local);
+                }
+            }
+
+            float[] sizes = new float[2];
+            int sizeIndex = 0;
+            for (int axis = 0; axis < 3; axis++) {
+                if (max[axis] - min[axis] > 0.0001f) {
+                    sizes[sizeIndex++] = max[axis] - min[axis];
+                }
+            }
+            float localU = maxLocal[0] - minLocal[0];
+            float localV = maxLocal[1] - minLocal[1];
+            assertTrue("Local texture range " + localU + " x " + localV + " of a quad of " + sizes[0] + " x " + sizes[1],
+                    (localU == sizes[0] && localV == sizes[1]) || (localU == sizes[1] && localV == sizes[0]));
+        }
+    }
+
+    private void assertCoverageEquals(ChunkMesh.VertexElements expected, ChunkMesh.VertexElements actual) {
+        float[] expectedArea = calcAreaPerSide(expected);
+        float[] actualArea = calcAreaPerSide(actual);
+        for (Side side : Side.values()) {
+            assertEquals(side.toString(), expectedArea[side.ordinal()], actualArea[side.ordinal()], 0.001f);
+        }
+    }
+
+    private float[] calcAreaPerSide(ChunkMesh.VertexElements elements) {
+        float[] area = new float[Side.values().length];
+        for (int i = 0; i < elements.indexCount; i += 3) {
+            Vector3f a = getVertex(elements, elements.finalIndices.get(i));
+            Vector3f b = getVertex(elements, elements.finalIndices.get(i + 1));
+            Vector3f c = getVertex(elements, elements.finalIndices.get(i + 2));
+            b.sub(a);
+            c.sub(a);
+            Vector3f cross = new Vector3f();
+            cross.cross(b, c);
+
+            int vertex = elements.finalIndices.get(i);
+            Side side = Side.inDirection(elements.getNormal(vertex, 0), elements.getNormal(vertex, 1), elements.getNormal(vertex, 2));
+            area[side.ordinal()] += cross.length() / 2;
+        }
+        return area;
+    }
+
+    private Vector3f getVertex(ChunkMesh.VertexElements elements, int index) {
+        return new Vector3f(elements.getPosition(index, 0), elements.getPosition(index, 1), elements.getPosition(index, 2));
+    }
+
+    private ChunkView createView(Chunk chunk) {
+        Chunk[] chunks = new Chunk[]{new ChunkImpl(new Vector3i(-1, 0, -1)), new ChunkImpl(new Vector3i(0, 0, -1)), new ChunkImpl(new Vector3i(1, 0, -1)),
+                new ChunkImpl(new Vector3i(-1, 0, 0)), chunk, new ChunkImpl(new Vector3i(1, 0, 0)),
+                new ChunkImpl(new Vector3i(-1, 0, 1)), new ChunkImpl(new Vector3i(0, 0, 1)), new ChunkImpl(new Vector3i(1, 0, 1))};
+        return new ChunkViewCoreImpl(chunks, Region3i.createFromCenterExtents(new Vector3i(0, 0, 0), new Vector3i(1, 0, 1)), new Vector3i(1, 0, 1));
+    }
+
+    private Block createCube(String uri, short id, Vector2f atlasPos) {
+        Block block = new Block();
+        block.setDisplayName(uri);
+        block.setUri(new BlockUri(uri));
+        block.setId(id);
+
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        Map<BlockPart, Vector2f> atlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (BlockPart part : BlockPart.values()) {
+            atlasPositions.put(part, atlasPos);
+            if (cubeShape.getMeshPart(part) != null) {
+                parts.put(part, cubeShape.getMeshPart(part).mapTexCoords(atlasPos, TILE_SIZE));
+            }
+        }
+        for (Side side : Side.values()) {
+            block.setFullSide(side, cubeShape.isBlockingSide(side));
+        }
+        block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+        return block;
+    }
+}
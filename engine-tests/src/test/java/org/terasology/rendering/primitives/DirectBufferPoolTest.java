@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DirectBufferPoolTest {
+
+    @Test
+    public void acquiresDirectBuffersOfPowerOfTwoCapacity() {
+        DirectBufferPool pool = new DirectBufferPool(1000, 4, 1 << 20);
+
+        ByteBuffer small = pool.acquire(10);
+        ByteBuffer large = pool.acquire(5000);
+
+        assertTrue(small.isDirect());
+        assertEquals(ByteOrder.nativeOrder(), small.order());
+        assertEquals(1024, small.capacity());
+        assertEquals(8192, large.capacity());
+    }
+
+    @Test
+    public void reusesReleasedBuffers() {
+        DirectBufferPool pool = new DirectBufferPool(1024, 4, 1 << 20);
+        ByteBuffer buffer = pool.acquire(2048);
+        buffer.putInt(42);
+
+        pool.release(buffer);
+        assertEquals(1, pool.size());
+
+        ByteBuffer reused = pool.acquire(1500);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(reused.capacity(), reused.limit());
+        assertEquals(0, pool.size());
+
+        assertNotSame(buffer, pool.acquire(4096));
+    }
+
+    @Test
+    public void keepsLimitedNumberOfBuffers() {
+        DirectBufferPool pool = new DirectBufferPool(1024, 2, 1 << 20);
+        pool.release(pool.acquire(1024));
+        pool.release(ByteBuffer.allocateDirect(1024));
+        pool.release(ByteBuffer.allocateDirect(1024));
+
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void keepsLimitedNumberOfBytes() {
+        DirectBufferPool pool = new DirectBufferPool(1024, 4, 10 * 1024);
+        pool.release(ByteBuffer.allocateDirect(4096));
+        pool.release(ByteBuffer.allocateDirect(4096));
+        pool.release(ByteBuffer.allocateDirect(4096));
+        pool.release(ByteBuffer.allocateDirect(1024));
+
+        assertEquals(3, pool.size());
+        assertEquals(9 * 1024, pool.getPooledBytes());
+
+        pool.acquire(4096);
+        assertEquals(5 * 1024, pool.getPooledBytes());
+        pool.release(ByteBuffer.allocateDirect(4096));
+        assertEquals(9 * 1024, pool.getPooledBytes());
+        pool.release(ByteBuffer.allocateDirect(16 * 1024));
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    public void growingVertexElementsReturnsReplacedBuffers() {
+        DirectBufferPool pool = new DirectBufferPool(1024, 16, 1 << 20);
+        ChunkMesh.VertexElements elements = new ChunkMesh.VertexElements(pool);
+        int vertices = 5000;
+        for (int i = 0; i < vertices; i++) {
+            elements.addVertex(i, 0, 0, 0, 0, 0, 0, 0, 1, 0);
+        }
+
+        // The initial buffer of 1024 vertices doubled twice, both smaller buffers went back to the pool
+        assertEquals(2, pool.size());
+        assertEquals(0, elements.getPosition(0, 0), 0);
+        assertEquals(vertices - 1, elements.getPosition(vertices - 1, 0), 0);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.lwjgl.BufferUtils;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.rendering.cameras.ViewFrustum;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
+import org.terasology.world.chunks.ChunkConstants;
+
+import javax.vecmath.Vector3f;
+import java.nio.FloatBuffer;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkCullerTest {
+
+    private Region3i region;
+    private ChunkCuller culler;
+
+    @Before
+    public void setup() {
+        region = Region3i.createFromCenterExtents(new Vector3i(), new Vector3i(8, 2, 8));
+        culler = new ChunkCuller();
+        culler.setRegion(region);
+    }
+
+    @Test
+    public void frustumCullingMatchesPerChunkTests() {
+        Vector3f cameraPosition = new Vector3f(10, 20, -30);
+        ViewFrustum frustum = createBoxFrustum(100);
+
+        BitSet visible = new BitSet();
+        culler.cullFrustum(frustum, cameraPosition, visible);
+
+        int expectedCount = 0;
+        for (Vector3i pos : region) {
+            float minX = pos.x * ChunkConstants.SIZE_X - cameraPosition.x;
+            float minY = pos.y * ChunkConstants.SIZE_Y - cameraPosition.y;
+            float minZ = pos.z * ChunkConstants.SIZE_Z - cameraPosition.z;
+            boolean expected = frustum.classify(minX, minY, minZ, minX + ChunkConstants.SIZE_X, minY + ChunkConstants.SIZE_Y,
+                    minZ + ChunkConstants.SIZE_Z) != ViewFrustum.Intersection.OUTSIDE;
+            assertEquals(pos.toString(), expected, visible.get(culler.indexOf(pos)));
+            if (expected) {
+                expectedCount++;
+            }
+        }
+        assertTrue(expectedCount > 0 && expectedCount < region.size().x * region.size().y * region.size().z);
+        assertEquals(expectedCount, visible.cardinality());
+    }
+
+    @Test
+    public void enclosedChunksAreOccluded() {
+        for (Vector3i pos : region) {
+            culler.setConnectivity(pos, ChunkFaceConnectivity.CLOSED);
+        }
+
+        BitSet visible = allVisible();
+        culler.cullOccluded(new Vector3i(), visible);
+
+        // The camera chunk and the faces of its neighbours
+        assertEquals(7, visible.cardinality());
+        assertTrue(visible.get(culler.indexOf(new Vector3i(1, 0, 0))));
+        assertTrue(visible.get(culler.indexOf(new Vector3i(0, -1, 0))));
+    }
+
+    @Test
+    public void chunksAreVisibleThroughConnectedFaces() {
+        for (Vector3i pos : region) {
+            culler.setConnectivity(pos, (pos.y == 0 && pos.z == 0) ? ChunkFaceConnectivity.OPEN : ChunkFaceConnectivity.CLOSED);
+        }
+
+        BitSet visible = allVisible();
+        culler.cullOccluded(new Vector3i(), visible);
+
+        // Each chunk of the tunnel along the x axis and the four chunks around it
+        int tunnelLength = region.size().x;
+        assertEquals(5 * tunnelLength, visible.cardinality());
+        assertTrue(visible.get(culler.indexOf(new Vector3i(region.maxX(), 0, 0))));
+        assertTrue(visible.get(culler.indexOf(new Vector3i(region.minX(), 1, 0))));
+    }
+
+    @Test
+    public void unknownChunksAreNotOccluded() {
+        BitSet visible = allVisible();
+        culler.cullOccluded(new Vector3i(), visible);
+
+        assertEquals(region.size().x * region.size().y * region.size().z, visible.cardinality());
+    }
+
+    @Test
+    public void nothingIsOccludedWithCameraOutsideRegion() {
+        for (Vector3i pos : region) {
+            culler.setConnectivity(pos, ChunkFaceConnectivity.CLOSED);
+        }
+
+        BitSet visible = allVisible();
+        culler.cullOccluded(new Vector3i(region.maxX() + 1, 0, 0), visible);
+
+        assertEquals(region.size().x * region.size().y * region.size().z, visible.cardinality());
+    }
+
+    private BitSet allVisible() {
+        BitSet result = new BitSet();
+        result.set(0, region.size().x * region.size().y * region.size().z);
+        return result;
+    }
+
+    /**
+     * Creates a frustum covering a box of the given half extent around the camera.
+     */
+    private ViewFrustum createBoxFrustum(float halfExtent) {
+        FloatBuffer modelView = BufferUtils.createFloatBuffer(16);
+        FloatBuffer projection = BufferUtils.createFloatBuffer(16);
+        for (int i = 0; i < 4; i++) {
+            modelView.put(i * 5, (i < 3) ? 1.0f / halfExtent : 1.0f);
+            projection.put(i * 5, 1.0f);
+        }
+        ViewFrustum frustum = new ViewFrustum();
+        frustum.updateFrustum(modelView, projection);
+        return frustum;
+    }
+}
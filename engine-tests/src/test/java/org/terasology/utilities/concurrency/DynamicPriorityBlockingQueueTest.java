@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DynamicPriorityBlockingQueueTest {
+
+    private DistanceScorer scorer;
+    private DynamicPriorityBlockingQueue<Integer> queue;
+
+    @Before
+    public void setup() {
+        scorer = new DistanceScorer();
+        queue = new DynamicPriorityBlockingQueue<>(scorer);
+    }
+
+    @Test
+    public void dequeuesInOrderOfScore() {
+        for (int value : new int[]{5, 3, 9, 1, 7, 2, 8}) {
+            queue.offer(value);
+        }
+        List<Integer> result = Lists.newArrayList();
+        queue.drainTo(result);
+        assertEquals(Lists.newArrayList(1, 2, 3, 5, 7, 8, 9), result);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void rescoresWhenEpochChanges() {
+        for (int i = 0; i < 100; i++) {
+            queue.offer(i);
+        }
+        assertEquals(0, (int) queue.poll());
+        scorer.setCenter(50);
+        assertEquals(50, (int) queue.poll());
+        assertEquals(98, queue.size());
+    }
+
+    @Test
+    public void keepsCachedScoresWithinEpoch() {
+        queue.offer(1);
+        queue.offer(10);
+        scorer.center = 10;
+        assertEquals(1, (int) queue.peek());
+        assertEquals(1, (int) queue.poll());
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() {
+        for (int i = 1000; i > 0; i--) {
+            queue.offer(i);
+        }
+        assertEquals(1000, queue.size());
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(i, (int) queue.poll());
+        }
+    }
+
+    private static class DistanceScorer implements PriorityScorer<Integer> {
+        private int center;
+        private int epoch;
+
+        public void setCenter(int center) {
+            this.center = center;
+            epoch++;
+        }
+
+        @Override
+        public int score(Integer element) {
+            return Math.abs(element - center);
+        }
+
+        @Override
+        public int getEpoch() {
+            return epoch;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.procedural;
+
+import org.junit.Test;
+import org.terasology.math.Rect2i;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+
+import javax.vecmath.Vector2f;
+import javax.vecmath.Vector3f;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the batch variants of the noise generators return the same values as the single position variants.
+ */
+public class BatchNoiseTest {
+
+    private static final long SEED = "batch".hashCode();
+
+    @Test
+    public void perlin() {
+        assertBatchMatches(new PerlinNoise(SEED), 1.0f, 0.0f);
+    }
+
+    @Test
+    public void simplex() {
+        SimplexNoise noise = new SimplexNoise(SEED);
+        assertBatchMatches((Noise2D) noise, 1.0f, 0.0f);
+        assertBatchMatches((Noise3D) noise, 1.0f, 0.0f);
+    }
+
+    @Test
+    public void simplexWithinFewCells() {
+        SimplexNoise noise = new SimplexNoise(SEED);
+        assertBatchMatches((Noise2D) noise, 0.1f, 0.0f);
+        assertBatchMatches((Noise3D) noise, 0.1f, 0.0f);
+    }
+
+    @Test
+    public void brownian() {
+        // the octave coordinates are rounded differently in batches, so the values only agree approximately
+        for (float scale : new float[]{0.01f, 1.0f}) {
+            BrownianNoise2D brownian2D = new BrownianNoise2D(new SimplexNoise(SEED));
+            assertBatchMatches(brownian2D, scale, brownianTolerance(brownian2D, scale));
+            BrownianNoise3D brownian3D = new BrownianNoise3D(new PerlinNoise(SEED));
+            assertBatchMatches(brownian3D, scale, brownianTolerance(brownian3D, scale));
+        }
+    }
+
+    @Test
+    public void noiseWithoutBatchSupport() {
+        final Noise3D perlin = new PerlinNoise(SEED);
+        assertBatchMatches(new Noise2D() {
+            @Override
+            public float noise(float x, float y) {
+                return perlin.noise(x, 0.5f, y);
+            }
+        }, 1.0f, 0.0f);
+        assertBatchMatches(new Noise3D() {
+            @Override
+            public float noise(float x, float y, float z) {
+                return perlin.noise(x, y, z);
+            }
+        }, 1.0f, 0.0f);
+    }
+
+    @Test
+    public void adapter() {
+        assertBatchMatches(new Noise3DTo2DAdapter(new PerlinNoise(SEED)), 1.0f, 0.0f);
+        assertBatchMatches(new Noise3DTo2DAdapter(new PerlinNoise(SEED), 3.7f), 1.0f, 0.0f);
+    }
+
+    @Test
+    public void subSampledRegion2D() {
+        SubSampledNoise2D noise = new SubSampledNoise2D(new SimplexNoise(SEED), new Vector2f(0.01f, 0.02f), 4);
+        Rect2i region = Rect2i.createFromMinAndSize(-7, 13, 21, 10);
+        float[] values = noise.noise(region);
+
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int x = region.minX(); x <= region.maxX(); x++) {
+                assertEquals(noise.noise(x, y), values[index++], 0.00001f);
+            }
+        }
+    }
+
+    @Test
+    public void subSampledRegionsOfDifferentSizes() {
+        SubSampledNoise2D noise = new SubSampledNoise2D(new BrownianNoise2D(new SimplexNoise(SEED), 3), new Vector2f(0.01f, 0.02f), 4);
+        Rect2i small = Rect2i.createFromMinAndSize(5, 3, 6, 7);
+        float[] expected = noise.noise(small);
+        noise.noise(Rect2i.createFromMinAndSize(-40, -30, 80, 90));
+
+        assertArrayEquals(expected, noise.noise(small), 0.0f);
+    }
+
+    @Test
+    public void subSampledRegion3D() {
+        SubSampledNoise3D noise = new SubSampledNoise3D(new PerlinNoise(SEED), new Vector3f(0.01f, 0.02f, 0.03f), 4);
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(-5, 2, -11), new Vector3i(9, 6, 7));
+        float[] values = noise.noise(region);
+
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    assertEquals(noise.noise(x, y, z), values[index++], 0.00001f);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the documented deviation of the batch values for the grid positions of assertBatchMatches, which stay
+     * below 10 times the scale
+     */
+    private static float brownianTolerance(BrownianNoise noise, float scale) {
+        return (float) (1e-6 * noise.getScale() * Math.max(1.0, 10 * scale));
+    }
+
+    private void assertBatchMatches(Noise2D noise, float scale, float delta) {
+        float scaleX = 0.37f * scale;
+        float scaleY = 0.11f * scale;
+        float[] buffer = new float[7 * 5];
+        BatchNoise.noise(noise, buffer, -3, 11, 7, 5, 3, scaleX, scaleY);
+
+        int index = 0;
+        for (int j = 0; j < 5; j++) {
+            for (int i = 0; i < 7; i++) {
+                assertEquals(noise.noise((-3 + i * 3) * scaleX, (11 + j * 3) * scaleY), buffer[index++], delta);
+            }
+        }
+    }
+
+    private void assertBatchMatches(Noise3D noise, float scale, float delta) {
+        float scaleX = 0.37f * scale;
+        float scaleY = 0.11f * scale;
+        float scaleZ = 0.23f * scale;
+        float[] buffer = new float[7 * 5 * 4];
+        BatchNoise.noise(noise, buffer, -3, 11, -8, 7, 5, 4, 3, scaleX, scaleY, scaleZ);
+
+        int index = 0;
+        for (int k = 0; k < 4; k++) {
+            for (int j = 0; j < 5; j++) {
+                for (int i = 0; i < 7; i++) {
+                    assertEquals(noise.noise((-3 + i * 3) * scaleX, (11 + j * 3) * scaleY, (-8 + k * 3) * scaleZ), buffer[index++], delta);
+                }
+            }
+        }
+    }
+}
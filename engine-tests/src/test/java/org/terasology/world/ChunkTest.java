@@ -18,6 +18,7 @@
 import org.junit.Before;
 import org.junit.Test;
 import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.math.Side;
 import org.terasology.math.Vector3i;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.block.Block;
@@ -34,6 +35,8 @@
 import javax.vecmath.Vector3f;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 public class ChunkTest extends TerasologyTestingEnvironment {
@@ -64,5 +67,63 @@ public void getAABB() {
         assertEquals(new Vector3f(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z), chunk.getAABB().getMax());
     }
 
+    @Test
+    public void newChunkHasAllSegmentsDirty() {
+        assertTrue(chunk.isDirty());
+        assertEquals(allSegments(), chunk.clearDirtySegments());
+        assertFalse(chunk.isDirty());
+        assertEquals(0, chunk.clearDirtySegments());
+    }
+
+    @Test
+    public void markDirtyOnlyMarksSegmentsCoveringRange() {
+        chunk.setDirty(false);
+        int segmentHeight = ChunkConstants.SIZE_Y / ChunkConstants.VERTICAL_SEGMENTS;
+        int lastSegment = ChunkConstants.VERTICAL_SEGMENTS - 1;
+
+        chunk.markDirty(-1, 1);
+        assertTrue(chunk.isDirty());
+        assertEquals(1, chunk.clearDirtySegments());
+
+        chunk.markDirty(ChunkConstants.SIZE_Y - 2, ChunkConstants.SIZE_Y);
+        assertEquals(1 << lastSegment, chunk.clearDirtySegments());
+
+        chunk.markDirty(segmentHeight - 1, segmentHeight);
+        assertEquals((ChunkConstants.VERTICAL_SEGMENTS > 1) ? 3 : 1, chunk.clearDirtySegments());
+    }
+
+    @Test
+    public void markDirtyIgnoresRangesOutsideChunk() {
+        chunk.setDirty(false);
+        chunk.markDirty(-3, -1);
+        chunk.markDirty(ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Y + 2);
+        assertFalse(chunk.isDirty());
+    }
+
+    @Test
+    public void faceConnectivityOnlyGetsStaleWhenBlocksChangeWhetherTheyCanBeSeenThrough() {
+        Block glass = new Block();
+        glass.setTranslucent(true);
+        Block stone = new Block();
+        for (Side side : Side.values()) {
+            stone.setFullSide(side, true);
+        }
+        blockManager.addBlockFamily(new SymmetricFamily(new BlockUri("some:glass"), glass), false);
+        blockManager.addBlockFamily(new SymmetricFamily(new BlockUri("some:stone"), stone), false);
+        assertTrue(chunk.clearFaceConnectivityStale());
+        assertFalse(chunk.clearFaceConnectivityStale());
+
+        chunk.setBlock(1, 2, 3, blockManager.getBlock("some:glass"));
+        assertFalse(chunk.clearFaceConnectivityStale());
+        chunk.setBlock(1, 2, 3, blockManager.getBlock("some:stone"));
+        assertTrue(chunk.clearFaceConnectivityStale());
+        chunk.setBlock(1, 2, 3, blockManager.getBlock("some:stone"));
+        assertFalse(chunk.clearFaceConnectivityStale());
+    }
+
+    private static int allSegments() {
+        return (1 << ChunkConstants.VERTICAL_SEGMENTS) - 1;
+    }
+
 }
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ChunkMapTest {
+
+    private ChunkMap map = new ChunkMap();
+
+    @Test
+    public void putAndGet() {
+        Chunk chunk = mock(Chunk.class);
+        assertNull(map.put(new Vector3i(-3, 1, 70000), chunk));
+
+        assertSame(chunk, map.get(-3, 1, 70000));
+        assertSame(chunk, map.get(new Vector3i(-3, 1, 70000)));
+        assertNull(map.get(3, 1, 70000));
+        assertNull(map.get(-3, -1, 70000));
+        assertEquals(1, map.size());
+
+        Chunk replacement = mock(Chunk.class);
+        assertSame(chunk, map.put(new Vector3i(-3, 1, 70000), replacement));
+        assertSame(replacement, map.get(-3, 1, 70000));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void remove() {
+        Chunk chunk = mock(Chunk.class);
+        map.put(Vector3i.zero(), chunk);
+
+        assertSame(chunk, map.remove(Vector3i.zero()));
+        assertNull(map.remove(Vector3i.zero()));
+        assertNull(map.get(0, 0, 0));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void adjacent() {
+        Chunk chunk = mock(Chunk.class);
+        map.put(new Vector3i(5, 0, -1), chunk);
+
+        assertSame(chunk, map.getAdjacent(new Vector3i(5, 0, 0), Side.FRONT));
+        assertSame(chunk, map.getAdjacent(new Vector3i(4, 0, -1), Side.RIGHT));
+        assertNull(map.getAdjacent(new Vector3i(4, 0, -1), Side.LEFT));
+    }
+
+    @Test
+    public void regions() {
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(-1, 0, -1), new Vector3i(2, 2, 2));
+        Chunk[] expected = new Chunk[8];
+        int index = 0;
+        for (int y = 0; y <= 1; y++) {
+            for (int z = -1; z <= 0; z++) {
+                for (int x = -1; x <= 0; x++) {
+                    expected[index] = mock(Chunk.class);
+                    map.put(new Vector3i(x, y, z), expected[index++]);
+                }
+            }
+        }
+
+        Chunk[] chunks = new Chunk[8];
+        assertTrue(map.containsAll(region));
+        assertTrue(map.getAll(region, chunks));
+        assertArrayEquals(expected, chunks);
+
+        map.remove(new Vector3i(0, 1, 0));
+        assertFalse(map.containsAll(region));
+        assertFalse(map.getAll(region, chunks));
+        assertNull(chunks[7]);
+    }
+
+    @Test
+    public void growAndIterate() {
+        Set<Chunk> chunks = Sets.newHashSet();
+        for (int x = -20; x < 20; x++) {
+            for (int z = -20; z < 20; z++) {
+                Chunk chunk = mock(Chunk.class);
+                chunks.add(chunk);
+                map.put(new Vector3i(x, 0, z), chunk);
+            }
+        }
+        assertEquals(1600, map.size());
+        assertEquals(chunks, Sets.newHashSet(map.values()));
+
+        Iterator<Chunk> iterator = map.iterator();
+        while (iterator.hasNext()) {
+            Chunk chunk = iterator.next();
+            iterator.remove();
+            chunks.remove(chunk);
+            if (chunks.size() == 600) {
+                break;
+            }
+        }
+        assertEquals(600, map.size());
+        assertEquals(chunks, Sets.newHashSet(map.values()));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.terasology.config.Config;
+import org.terasology.engine.EngineTime;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.Vector3i;
+import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.persistence.StorageManager;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.generator.WorldGenerator;
+
+import javax.vecmath.Vector3f;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyShort;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalChunkProviderTest {
+
+    private static final int TIMEOUT_MS = 10000;
+    private static final Vector3i ORIGIN = new Vector3i(0, 0, 0);
+
+    private final CountDownLatch originGenerationStarted = new CountDownLatch(1);
+    private final CountDownLatch originGenerationResumed = new CountDownLatch(1);
+
+    private StorageManager storageManager;
+    private LocalChunkProvider chunkProvider;
+    private LocationComponent location;
+    private EntityRef relevanceEntity;
+
+    @Before
+    public void setup() {
+        CoreRegistry.put(Config.class, new Config());
+        CoreRegistry.put(Time.class, mock(EngineTime.class));
+        BlockManager blockManager = mock(BlockManager.class);
+        when(blockManager.listRegisteredBlocks()).thenReturn(Collections.<Block>emptyList());
+        when(blockManager.getBlock(anyShort())).thenReturn(BlockManager.getAir());
+        CoreRegistry.put(BlockManager.class, blockManager);
+
+        storageManager = mock(StorageManager.class);
+        WorldGenerator generator = mock(WorldGenerator.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CoreChunk chunk = (CoreChunk) invocation.getArguments()[0];
+                if (chunk.getPosition().equals(ORIGIN) && originGenerationStarted.getCount() > 0) {
+                    originGenerationStarted.countDown();
+                    originGenerationResumed.await();
+                }
+                return null;
+            }
+        }).when(generator).createChunk(any(CoreChunk.class));
+        chunkProvider = new LocalChunkProvider(storageManager, mock(EntityManager.class), generator);
+
+        location = new LocationComponent(new Vector3f());
+        relevanceEntity = mock(EntityRef.class);
+        when(relevanceEntity.exists()).thenReturn(true);
+        when(relevanceEntity.hasComponent(LocationComponent.class)).thenReturn(true);
+        when(relevanceEntity.getComponent(LocationComponent.class)).thenReturn(location);
+    }
+
+    @After
+    public void teardown() {
+        chunkProvider.dispose();
+    }
+
+    @Test
+    public void tasksOfChunksThatLeftAllRegionsAreSkippedAndRequestedAgainOnceRelevant() throws Exception {
+        int cancelledTasks = ChunkMonitor.getCancelledChunkTasks();
+        chunkProvider.addRelevanceEntity(relevanceEntity, Vector3i.one());
+        assertTrue(originGenerationStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        // The chunk leaves the region, including its unload leeway, while its task is running
+        location.setLocalPosition(new Vector3f(10 * ChunkConstants.SIZE_X, 0, 0));
+        chunkProvider.beginUpdate();
+        originGenerationResumed.countDown();
+
+        waitForCancelledTasks(cancelledTasks + 1);
+        chunkProvider.beginUpdate();
+        assertNull(chunkProvider.getChunkUnready(ORIGIN));
+        verify(storageManager, times(1)).loadChunkStore(ORIGIN);
+
+        location.setLocalPosition(new Vector3f());
+        chunkProvider.beginUpdate();
+        verify(storageManager, timeout(TIMEOUT_MS).times(2)).loadChunkStore(ORIGIN);
+    }
+
+    private void waitForCancelledTasks(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (ChunkMonitor.getCancelledChunkTasks() < count) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("The chunk task was not cancelled");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
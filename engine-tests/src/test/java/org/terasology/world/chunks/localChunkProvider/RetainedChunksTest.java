@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Sets;
+import gnu.trove.iterator.TLongIterator;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
+import org.terasology.math.Vector3i;
+import org.terasology.world.chunks.internal.ChunkRelevanceRegion;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class RetainedChunksTest {
+
+    private RetainedChunks retainedChunks = new RetainedChunks();
+
+    @Test
+    public void movingRegionReleasesTheChunksItLeaves() {
+        ChunkRelevanceRegion region = createRegion();
+        retainedChunks.update(region, Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(3, 1, 3)));
+        assertTrue(candidates().isEmpty());
+
+        retainedChunks.update(region, Region3i.createFromMinAndSize(new Vector3i(1, 0, 0), new Vector3i(3, 1, 3)));
+
+        assertEquals(Sets.newHashSet(new Vector3i(0, 0, 0), new Vector3i(0, 0, 1), new Vector3i(0, 0, 2)), candidates());
+        assertFalse(retainedChunks.isRetained(new Vector3i(0, 0, 1)));
+        assertTrue(retainedChunks.isRetained(new Vector3i(3, 0, 1)));
+    }
+
+    @Test
+    public void shrinkingRegionReleasesBothEndsOfItsRows() {
+        ChunkRelevanceRegion region = createRegion();
+        retainedChunks.update(region, Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(5, 1, 1)));
+        retainedChunks.update(region, Region3i.createFromMinAndSize(new Vector3i(1, 0, 0), new Vector3i(3, 1, 1)));
+
+        assertEquals(Sets.newHashSet(new Vector3i(0, 0, 0), new Vector3i(4, 0, 0)), candidates());
+        assertTrue(retainedChunks.isRetained(new Vector3i(2, 0, 0)));
+    }
+
+    @Test
+    public void overlappingRegionsKeepChunksRetained() {
+        ChunkRelevanceRegion first = createRegion();
+        ChunkRelevanceRegion second = createRegion();
+        retainedChunks.update(first, Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(2, 1, 1)));
+        retainedChunks.update(second, Region3i.createFromMinAndSize(new Vector3i(1, 0, 0), new Vector3i(2, 1, 1)));
+
+        retainedChunks.remove(first);
+
+        assertEquals(Sets.newHashSet(new Vector3i(0, 0, 0)), candidates());
+        assertTrue(retainedChunks.isRetained(new Vector3i(1, 0, 0)));
+    }
+
+    @Test
+    public void regainedChunksAreNoCandidates() {
+        ChunkRelevanceRegion region = createRegion();
+        Region3i original = Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(1, 1, 1));
+        retainedChunks.update(region, original);
+        retainedChunks.update(region, Region3i.createFromMinAndSize(new Vector3i(5, 0, 0), new Vector3i(1, 1, 1)));
+        retainedChunks.update(region, original);
+
+        assertEquals(Sets.newHashSet(new Vector3i(5, 0, 0)), candidates());
+    }
+
+    @Test
+    public void loadedChunksOutsideOfAllRegionsAreCandidates() {
+        retainedChunks.update(createRegion(), Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(1, 1, 1)));
+
+        retainedChunks.chunkLoaded(new Vector3i(0, 0, 0));
+        retainedChunks.chunkLoaded(new Vector3i(-4, 2, 7));
+
+        assertEquals(Sets.newHashSet(new Vector3i(-4, 2, 7)), candidates());
+    }
+
+    private ChunkRelevanceRegion createRegion() {
+        return new ChunkRelevanceRegion(mock(EntityRef.class), new Vector3i(2, 2, 2));
+    }
+
+    private Set<Vector3i> candidates() {
+        Set<Vector3i> result = Sets.newHashSet();
+        TLongIterator iterator = retainedChunks.unloadCandidates();
+        while (iterator.hasNext()) {
+            long packedPos = iterator.next();
+            result.add(new Vector3i(TeraMath.unpackChunkPosX(packedPos), TeraMath.unpackChunkPosY(packedPos), TeraMath.unpackChunkPosZ(packedPos)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.world.generation.facets.base.BaseFacet2D;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ColumnFacetCacheTest {
+
+    @Test
+    public void stackedRegionsShareColumnFacets() {
+        ColumnProvider columnProvider = new ColumnProvider();
+        ColumnUpdater columnUpdater = new ColumnUpdater();
+        World world = buildWorld(columnProvider, columnUpdater);
+
+        Region lower = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(4, 4, 4)));
+        Region upper = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 4, 0), new Vector3i(4, 4, 4)));
+
+        ColumnFacet facet = lower.getFacet(ColumnFacet.class);
+        assertSame(facet, upper.getFacet(ColumnFacet.class));
+        assertEquals(1, columnProvider.processCount);
+        assertEquals(1, columnUpdater.processCount);
+    }
+
+    @Test
+    public void neighbouringColumnsAreGeneratedSeparately() {
+        ColumnProvider columnProvider = new ColumnProvider();
+        World world = buildWorld(columnProvider, new ColumnUpdater());
+
+        Region first = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(4, 4, 4)));
+        Region second = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(4, 0, 0), new Vector3i(4, 4, 4)));
+
+        assertNotSame(first.getFacet(ColumnFacet.class), second.getFacet(ColumnFacet.class));
+        assertEquals(2, columnProvider.processCount);
+    }
+
+    @Test
+    public void columnFacetsRequiredBy3DFacetsAreShared() {
+        ColumnProvider columnProvider = new ColumnProvider();
+        ColumnUpdater columnUpdater = new ColumnUpdater();
+        World world = buildWorld(columnProvider, columnUpdater, new ColumnVolumeProvider());
+
+        Region lower = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(4, 4, 4)));
+        Region upper = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 4, 0), new Vector3i(4, 4, 4)));
+
+        assertNotSame(lower.getFacet(VolumeFacet.class), upper.getFacet(VolumeFacet.class));
+        assertEquals(1, columnProvider.processCount);
+        assertEquals(1, columnUpdater.processCount);
+        assertSame(lower.getFacet(ColumnFacet.class), upper.getFacet(ColumnFacet.class));
+        assertEquals(1, columnProvider.processCount);
+    }
+
+    @Test
+    public void chainsInvolving3DFacetsAreNotCached() {
+        VolumeProvider volumeProvider = new VolumeProvider();
+        WorldBuilder worldBuilder = new WorldBuilder(12L);
+        worldBuilder.addProvider(volumeProvider);
+        worldBuilder.addProvider(new VolumeSummaryProvider());
+        World world = worldBuilder.build();
+
+        Region lower = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(4, 4, 4)));
+        Region upper = world.getWorldData(Region3i.createFromMinAndSize(new Vector3i(0, 4, 0), new Vector3i(4, 4, 4)));
+
+        assertNotSame(lower.getFacet(VolumeSummaryFacet.class), upper.getFacet(VolumeSummaryFacet.class));
+        assertEquals(2, volumeProvider.processCount);
+    }
+
+    private World buildWorld(FacetProvider... providers) {
+        WorldBuilder worldBuilder = new WorldBuilder(12L);
+        for (FacetProvider provider : providers) {
+            worldBuilder.addProvider(provider);
+        }
+        return worldBuilder.build();
+    }
+
+    public static class ColumnFacet extends BaseFacet2D {
+        public ColumnFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class VolumeFacet extends BaseFacet3D {
+        public VolumeFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class VolumeSummaryFacet extends BaseFacet2D {
+        public VolumeSummaryFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(ColumnFacet.class)
+    public static class ColumnProvider implements FacetProvider {
+        private int processCount;
+
+        @Override
+        public void setSeed(long seed) {
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processCount++;
+            region.setRegionFacet(ColumnFacet.class, new ColumnFacet(region.getRegion(), region.getBorderForFacet(ColumnFacet.class)));
+        }
+    }
+
+    @Updates(@Facet(ColumnFacet.class))
+    public static class ColumnUpdater implements FacetProvider {
+        private int processCount;
+
+        @Override
+        public void setSeed(long seed) {
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processCount++;
+        }
+    }
+
+    @Produces(VolumeFacet.class)
+    public static class VolumeProvider implements FacetProvider {
+        private int processCount;
+
+        @Override
+        public void setSeed(long seed) {
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            processCount++;
+            region.setRegionFacet(VolumeFacet.class, new VolumeFacet(region.getRegion(), region.getBorderForFacet(VolumeFacet.class)));
+        }
+    }
+
+    @Produces(VolumeFacet.class)
+    @Requires(@Facet(ColumnFacet.class))
+    public static class ColumnVolumeProvider implements FacetProvider {
+        @Override
+        public void setSeed(long seed) {
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(VolumeFacet.class, new VolumeFacet(region.getRegion(), region.getBorderForFacet(VolumeFacet.class)));
+        }
+    }
+
+    @Produces(VolumeSummaryFacet.class)
+    @Requires(@Facet(VolumeFacet.class))
+    public static class VolumeSummaryProvider implements FacetProvider {
+        @Override
+        public void setSeed(long seed) {
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(VolumeSummaryFacet.class,
+                    new VolumeSummaryFacet(region.getRegion(), region.getBorderForFacet(VolumeSummaryFacet.class)));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import org.junit.Test;
+import org.terasology.math.TeraMath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PositionQueueTest {
+
+    @Test
+    public void addIgnoresDuplicates() {
+        PositionQueue queue = new PositionQueue();
+        assertTrue(queue.add(TeraMath.packChunkPos(1, 2, 3)));
+        assertFalse(queue.add(TeraMath.packChunkPos(1, 2, 3)));
+        assertTrue(queue.add(TeraMath.packChunkPos(3, 2, 1)));
+        assertEquals(2, queue.size());
+        assertEquals(2, queue.addedCount());
+    }
+
+    @Test
+    public void removedPositionsAreSkippedAndReAddedAtTheEnd() {
+        PositionQueue queue = new PositionQueue();
+        long a = TeraMath.packChunkPos(1, 0, 0);
+        long b = TeraMath.packChunkPos(2, 0, 0);
+        queue.add(a);
+        queue.add(b);
+        assertTrue(queue.remove(a));
+        assertFalse(queue.remove(a));
+        assertFalse(queue.contains(a));
+        queue.add(a);
+
+        assertEquals(3, queue.addedCount());
+        assertTrue(queue.isRemoved(0));
+        assertEquals(b, queue.get(1));
+        assertEquals(a, queue.get(2));
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void growsAndClears() {
+        PositionQueue queue = new PositionQueue();
+        for (int i = 0; i < 1000; ++i) {
+            queue.add(TeraMath.packChunkPos(i, -i, i * 7));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(queue.remove(TeraMath.packChunkPos(i, -i, i * 7)));
+        }
+        assertEquals(500, queue.size());
+        for (int i = 1; i < 1000; i += 2) {
+            assertTrue(queue.contains(TeraMath.packChunkPos(i, -i, i * 7)));
+        }
+
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.addedCount());
+        assertTrue(queue.add(TeraMath.packChunkPos(5, -5, 35)));
+        assertFalse(queue.isRemoved(0));
+    }
+}
@@ -71,6 +71,21 @@ public Block getBlockAt(Vector3i pos) {
         return result;
     }
 
+    @Override
+    public byte getValueAt(int x, int y, int z) {
+        return getValueAt(new Vector3i(x, y, z));
+    }
+
+    @Override
+    public void setValueAt(int x, int y, int z, byte value) {
+        setValueAt(new Vector3i(x, y, z), value);
+    }
+
+    @Override
+    public Block getBlockAt(int x, int y, int z) {
+        return getBlockAt(new Vector3i(x, y, z));
+    }
+
     public void setBlockAt(Vector3i pos, Block block) {
         if (!relevantRegion.encompasses(pos)) {
             throw new IllegalArgumentException("Position out of bounds: " + pos);
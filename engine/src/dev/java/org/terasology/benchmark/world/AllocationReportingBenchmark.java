@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * A benchmark of lookups that reports the bytes that got allocated on the benchmark thread per lookup.
+ * Lookups are expected to allocate nothing.
+ */
+public abstract class AllocationReportingBenchmark extends AbstractBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(AllocationReportingBenchmark.class);
+
+    private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private long lookups;
+    private long allocatedBytes;
+    private long allocatedBefore;
+    private int checksum;
+
+    public AllocationReportingBenchmark(String title, int warmupReps, int[] reps) {
+        super(title, warmupReps, reps);
+    }
+
+    /**
+     * Records the lookups of a run. The checksum of the looked up values keeps the lookups from being optimized away.
+     */
+    protected void addLookups(long count, int valueChecksum) {
+        lookups += count;
+        checksum += valueChecksum;
+    }
+
+    @Override
+    public void prerun() {
+        allocatedBefore = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Override
+    public void postrun() {
+        allocatedBytes += threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && lookups > 0) {
+            logger.info("{}: {} bytes allocated in {} lookups ({} bytes per lookup, checksum {})",
+                    getTitle(), allocatedBytes, lookups, (double) allocatedBytes / lookups, checksum);
+        }
+    }
+}
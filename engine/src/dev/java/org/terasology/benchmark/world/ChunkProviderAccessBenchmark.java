@@ -0,0 +1,250 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import com.google.common.base.Optional;
+import org.terasology.config.Config;
+import org.terasology.engine.SimpleUri;
+import org.terasology.engine.Time;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.engine.subsystem.headless.device.TimeSystem;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.network.Client;
+import org.terasology.persistence.ChunkStore;
+import org.terasology.persistence.PlayerStore;
+import org.terasology.persistence.StorageManager;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.family.DefaultBlockFamilyFactoryRegistry;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.chunks.localChunkProvider.LocalChunkProvider;
+import org.terasology.world.generation.World;
+import org.terasology.world.generator.WorldConfigurator;
+import org.terasology.world.generator.WorldGenerator;
+import org.terasology.world.internal.WorldProviderCoreImpl;
+
+import javax.vecmath.Vector3f;
+
+/**
+ * Looks up the blocks of a loaded region through the world provider, or the chunks of the region through the chunk
+ * provider, by their int coordinates. The chunks are generated and made ready by a local chunk provider around a
+ * relevance entity, as in game.
+ */
+public class ChunkProviderAccessBenchmark extends AllocationReportingBenchmark {
+
+    private static final Vector3i RELEVANCE_DISTANCE = new Vector3i(7, 3, 7);
+    private static final long READY_TIMEOUT_MS = 30000;
+
+    private final boolean blockLookups;
+
+    private LocalChunkProvider chunkProvider;
+    private WorldProviderCoreImpl worldProvider;
+    private Region3i chunkRegion;
+    private Region3i blockRegion;
+
+    /**
+     * @param blockLookups Whether to look up blocks through the world provider, instead of chunks through the chunk provider
+     */
+    public ChunkProviderAccessBenchmark(boolean blockLookups) {
+        super(blockLookups ? "World provider block lookups" : "Chunk provider chunk lookups", 10, new int[]{100});
+        this.blockLookups = blockLookups;
+    }
+
+    @Override
+    public void setup() {
+        CoreRegistry.put(Config.class, new Config());
+        CoreRegistry.put(Time.class, new TimeSystem());
+        CoreRegistry.put(ModuleManager.class, new ModuleManager());
+        CoreRegistry.put(BlockManager.class, new BlockManagerImpl(new NullWorldAtlas(), new DefaultBlockFamilyFactoryRegistry()));
+
+        PojoEntityManager entityManager = new PojoEntityManager();
+        chunkProvider = new LocalChunkProvider(new NullStorageManager(), entityManager, new EmptyWorldGenerator());
+        worldProvider = new WorldProviderCoreImpl("benchmark", "benchmark", 0, new SimpleUri("benchmark:empty"), chunkProvider);
+        EntityRef relevanceEntity = entityManager.create(new LocationComponent(new Vector3f()));
+        chunkProvider.addRelevanceEntity(relevanceEntity, RELEVANCE_DISTANCE);
+
+        // Only the inner chunks of the relevance region become ready, as their neighbours need to be loaded
+        chunkRegion = Region3i.createFromCenterExtents(Vector3i.zero(), new Vector3i(
+                RELEVANCE_DISTANCE.x / 2 - 1, RELEVANCE_DISTANCE.y / 2 - 1, RELEVANCE_DISTANCE.z / 2 - 1));
+        blockRegion = Region3i.createFromMinMax(
+                new Vector3i(chunkRegion.minX() * ChunkConstants.SIZE_X, chunkRegion.minY() * ChunkConstants.SIZE_Y, chunkRegion.minZ() * ChunkConstants.SIZE_Z),
+                new Vector3i((chunkRegion.maxX() + 1) * ChunkConstants.SIZE_X - 1, (chunkRegion.maxY() + 1) * ChunkConstants.SIZE_Y - 1,
+                        (chunkRegion.maxZ() + 1) * ChunkConstants.SIZE_Z - 1));
+        waitUntilReady();
+    }
+
+    private void waitUntilReady() {
+        long timeout = System.currentTimeMillis() + READY_TIMEOUT_MS;
+        while (!isRegionReady()) {
+            if (System.currentTimeMillis() > timeout) {
+                throw new IllegalStateException("The chunks of " + chunkRegion + " did not become ready in time");
+            }
+            chunkProvider.beginUpdate();
+            chunkProvider.completeUpdate();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for chunks", e);
+            }
+        }
+    }
+
+    private boolean isRegionReady() {
+        for (Vector3i chunkPos : chunkRegion) {
+            if (!chunkProvider.isChunkReady(chunkPos)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void run() {
+        if (blockLookups) {
+            int sum = 0;
+            for (int y = blockRegion.minY(); y <= blockRegion.maxY(); y++) {
+                for (int z = blockRegion.minZ(); z <= blockRegion.maxZ(); z++) {
+                    for (int x = blockRegion.minX(); x <= blockRegion.maxX(); x++) {
+                        sum += worldProvider.getBlock(x, y, z).getId();
+                    }
+                }
+            }
+            addLookups((long) blockRegion.sizeX() * blockRegion.sizeY() * blockRegion.sizeZ(), sum);
+        } else {
+            int sum = 0;
+            for (int i = 0; i < ChunkConstants.SIZE_X; i++) {
+                for (int y = chunkRegion.minY(); y <= chunkRegion.maxY(); y++) {
+                    for (int z = chunkRegion.minZ(); z <= chunkRegion.maxZ(); z++) {
+                        for (int x = chunkRegion.minX(); x <= chunkRegion.maxX(); x++) {
+                            sum += chunkProvider.getChunk(x, y, z).getChunkSizeX();
+                        }
+                    }
+                }
+            }
+            addLookups((long) ChunkConstants.SIZE_X * chunkRegion.sizeX() * chunkRegion.sizeY() * chunkRegion.sizeZ(), sum);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        super.finish(aborted);
+        chunkProvider.dispose();
+        CoreRegistry.clear();
+    }
+
+    /**
+     * Leaves the generated chunks empty.
+     */
+    private static class EmptyWorldGenerator implements WorldGenerator {
+
+        @Override
+        public SimpleUri getUri() {
+            return new SimpleUri("benchmark:empty");
+        }
+
+        @Override
+        public void setWorldSeed(String seed) {
+        }
+
+        @Override
+        public void createChunk(CoreChunk chunk) {
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public Optional<WorldConfigurator> getConfigurator() {
+            return Optional.absent();
+        }
+
+        @Override
+        public World getWorld() {
+            return null;
+        }
+
+        @Override
+        public void setConfigurator(WorldConfigurator newConfigurator) {
+        }
+    }
+
+    /**
+     * Stores nothing, so every chunk gets generated.
+     */
+    private static class NullStorageManager implements StorageManager {
+
+        @Override
+        public void loadGlobalStore() {
+        }
+
+        @Override
+        public PlayerStore loadPlayerStore(String playerId) {
+            return null;
+        }
+
+        @Override
+        public void requestSaving() {
+        }
+
+        @Override
+        public void waitForCompletionOfPreviousSaveAndStartSaving() {
+        }
+
+        @Override
+        public ChunkStore loadChunkStore(Vector3i chunkPos) {
+            return null;
+        }
+
+        @Override
+        public void finishSavingAndShutdown() {
+        }
+
+        @Override
+        public void deactivatePlayer(Client client) {
+        }
+
+        @Override
+        public void update() {
+        }
+
+        @Override
+        public void deactivateChunk(Chunk chunk) {
+        }
+
+        @Override
+        public boolean isSaving() {
+            return false;
+        }
+
+        @Override
+        public void checkAndRepairSaveIfNecessary() {
+        }
+
+        @Override
+        public void deleteWorld() {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import org.terasology.config.Config;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCore;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+/**
+ * Reads the light values of every block of a chunk view through the int based accessors.
+ */
+public class ChunkViewAccessBenchmark extends AllocationReportingBenchmark {
+
+    private ChunkViewCore view;
+    private Region3i blockRegion;
+
+    public ChunkViewAccessBenchmark() {
+        super("Chunk view light lookups", 10, new int[]{100});
+    }
+
+    @Override
+    public void setup() {
+        CoreRegistry.put(Config.class, new Config());
+        Region3i chunkRegion = Region3i.createFromMinAndSize(new Vector3i(-1, 0, -1), new Vector3i(3, 1, 3));
+        Chunk[] chunks = new Chunk[chunkRegion.sizeX() * chunkRegion.sizeY() * chunkRegion.sizeZ()];
+        for (Vector3i chunkPos : chunkRegion) {
+            Chunk chunk = new ChunkImpl(chunkPos);
+            chunk.setSunlight(0, 0, 0, (byte) 15);
+            chunks[(chunkPos.x + 1) + chunkRegion.sizeX() * (chunkPos.z + 1)] = chunk;
+        }
+        view = new ChunkViewCoreImpl(chunks, chunkRegion, new Vector3i(1, 0, 1));
+        blockRegion = view.getWorldRegion();
+    }
+
+    @Override
+    public void run() {
+        int sum = 0;
+        for (int y = blockRegion.minY(); y <= blockRegion.maxY(); y++) {
+            for (int z = blockRegion.minZ(); z <= blockRegion.maxZ(); z++) {
+                for (int x = blockRegion.minX(); x <= blockRegion.maxX(); x++) {
+                    sum += view.getSunlight(x, y, z) + view.getLight(x, y, z);
+                }
+            }
+        }
+        addLookups(2L * blockRegion.sizeX() * blockRegion.sizeY() * blockRegion.sizeZ(), sum);
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        super.finish(aborted);
+        CoreRegistry.clear();
+    }
+}
@@ -70,6 +70,8 @@ public class RenderingConfig {
     private boolean localReflections;
     private boolean vSync;
     private boolean clampLighting;
+    private boolean greedyMeshing;
+    private boolean occlusionCulling = true;
     private int fboScale = 100;
     private PerspectiveCameraSettings cameraSettings = new PerspectiveCameraSettings(CameraSetting.NORMAL);
 
@@ -429,6 +431,22 @@ public void setClampLighting(boolean clampLighting) {
         this.clampLighting = clampLighting;
     }
 
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
+    public void setGreedyMeshing(boolean greedyMeshing) {
+        this.greedyMeshing = greedyMeshing;
+    }
+
+    public boolean isOcclusionCulling() {
+        return occlusionCulling;
+    }
+
+    public void setOcclusionCulling(boolean occlusionCulling) {
+        this.occlusionCulling = occlusionCulling;
+    }
+
     @Override
     public String toString() {
         return Config.createGson().toJsonTree(this).toString();
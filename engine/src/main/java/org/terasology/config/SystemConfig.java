@@ -16,6 +16,8 @@
 
 package org.terasology.config;
 
+import org.terasology.persistence.internal.ChunkStorageFormat;
+
 /**
  * @author Immortius
  */
@@ -25,8 +27,11 @@ public class SystemConfig {
     private int verticalChunkMeshSegments = 1;
     private int maxSecondsBetweenSaves = 60;
     private int maxUnloadedChunksPercentageTillSave = 40;
+    private ChunkStorageFormat chunkStorageFormat = ChunkStorageFormat.ZIPS;
     private boolean debugEnabled;
     private boolean monitoringEnabled;
+    private boolean deferComponentChangeNotifications;
+    private int chunkActivationTimePerFrameInMs = 4;
 
     public long getDayNightLengthInMs() {
         return dayNightLengthInMs;
@@ -68,6 +73,18 @@ public void setMaxUnloadedChunksPercentageTillSave(int maxUnloadedChunksPercenta
         this.maxUnloadedChunksPercentageTillSave = maxUnloadedChunksPercentageTillSave;
     }
 
+    /**
+     * @return How the chunks of newly started games get stored. Chunks stored in another format are not found and
+     * get generated again, so this should only be changed for new worlds.
+     */
+    public ChunkStorageFormat getChunkStorageFormat() {
+        return chunkStorageFormat;
+    }
+
+    public void setChunkStorageFormat(ChunkStorageFormat chunkStorageFormat) {
+        this.chunkStorageFormat = chunkStorageFormat;
+    }
+
     public boolean isDebugEnabled() {
         return debugEnabled;
     }
@@ -83,4 +100,23 @@ public boolean isMonitoringEnabled() {
     public void setMonitoringEnabled(boolean monitoringEnabled) {
         this.monitoringEnabled = monitoringEnabled;
     }
+
+    public boolean isDeferComponentChangeNotifications() {
+        return deferComponentChangeNotifications;
+    }
+
+    public void setDeferComponentChangeNotifications(boolean deferComponentChangeNotifications) {
+        this.deferComponentChangeNotifications = deferComponentChangeNotifications;
+    }
+
+    /**
+     * @return The time in milliseconds per frame that may be spent on activating chunks that became ready
+     */
+    public int getChunkActivationTimePerFrameInMs() {
+        return chunkActivationTimePerFrameInMs;
+    }
+
+    public void setChunkActivationTimePerFrameInMs(int chunkActivationTimePerFrameInMs) {
+        this.chunkActivationTimePerFrameInMs = chunkActivationTimePerFrameInMs;
+    }
 }
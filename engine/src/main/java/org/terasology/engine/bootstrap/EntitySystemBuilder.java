@@ -38,6 +38,8 @@
 import org.terasology.entitySystem.systems.internal.DoNotAutoRegister;
 import org.terasology.logic.behavior.asset.BehaviorTree;
 import org.terasology.logic.behavior.asset.NodesClassLibrary;
+import org.terasology.logic.location.EntitySpatialIndex;
+import org.terasology.logic.location.internal.EntitySpatialIndexImpl;
 import org.terasology.math.Region3i;
 import org.terasology.math.Vector3i;
 import org.terasology.module.ModuleEnvironment;
@@ -124,6 +126,11 @@ public EngineEntityManager build(ModuleEnvironment environment, NetworkSystem ne
 
         registerComponents(library.getComponentLibrary(), environment);
         registerEvents(entityManager.getEventSystem(), environment);
+
+        // Spatial index of located entities
+        EntitySpatialIndexImpl spatialIndex = new EntitySpatialIndexImpl(entityManager);
+        spatialIndex.registerWith(eventSystem);
+        CoreRegistry.put(EntitySpatialIndex.class, spatialIndex);
         return entityManager;
     }
 
@@ -89,6 +89,7 @@ public void init(GameEngine engine) {
         eventSystem.registerEventHandler(nuiManager);
         networkSystem = CoreRegistry.get(NetworkSystem.class);
         storageManager = CoreRegistry.get(StorageManager.class);
+        entityManager.setChangeNotificationsDeferred(CoreRegistry.get(Config.class).getSystem().isDeferComponentChangeNotifications());
 
         if (CoreRegistry.get(Config.class).getRendering().isOculusVrSupport()
                 && OculusVrHelper.isNativeLibraryLoaded()) {
@@ -115,6 +116,7 @@ public void dispose() {
             TeraOVR.clear();
         }
 
+        entityManager.setChangeNotificationsDeferred(false);
         boolean save = networkSystem.getMode().isAuthority();
         if (save) {
             storageManager.waitForCompletionOfPreviousSaveAndStartSaving();
@@ -162,6 +164,7 @@ public void update(float delta) {
             system.update(delta);
             PerformanceMonitor.endActivity();
         }
+        entityManager.flushChangeNotifications();
 
         if (worldRenderer != null && shouldUpdateWorld()) {
             worldRenderer.update(delta);
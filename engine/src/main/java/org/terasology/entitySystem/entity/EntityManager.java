@@ -142,6 +142,16 @@ public interface EntityManager {
      */
     int getCountOfEntitiesWith(Class<? extends Component>... componentClasses);
 
+    /**
+     * Delivers all pending change notifications right away.
+     * <p/>
+     * When change notifications are deferred, saving a component sends OnChangedComponent and notifies the engine
+     * only at the end of the update phase, once per entity and component type. Systems that rely on the change being
+     * handled right after saving a component should call this afterwards. Does nothing if notifications are not
+     * deferred.
+     */
+    void flushChangeNotifications();
+
     /**
      * @return The event system being used by the entity manager
      */
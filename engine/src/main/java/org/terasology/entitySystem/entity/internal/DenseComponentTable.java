@@ -0,0 +1,326 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.entitySystem.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A component table that stores the components of each type densely packed in arrays.
+ * <p/>
+ * Every component type gets an integer id. The components of a type are kept in a sparse set: an array of entity ids
+ * and a parallel array of components without gaps, plus an index from entity id to array slot. Removing a component
+ * moves the last component of the type into the freed slot. Iterating over a component type thus walks two arrays.
+ * <p/>
+ * Additionally every entity has a bitset of the type ids of its components. Queries for multiple component types
+ * iterate over the smallest of the requested types and test each entity against the bitset of the requested types,
+ * which takes a single lookup per entity regardless of the number of types.
+ */
+class DenseComponentTable implements ComponentTable {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_SLOT = -1;
+
+    private Map<Class<? extends Component>, ComponentStore> storesByClass = Maps.newConcurrentMap();
+    private List<ComponentStore> storesByTypeId = Lists.newArrayList();
+    private TLongObjectMap<BitSet> componentTypesByEntity = new TLongObjectHashMap<>();
+
+    @Override
+    public <T extends Component> T get(long entityId, Class<T> componentClass) {
+        ComponentStore componentStore = storesByClass.get(componentClass);
+        if (componentStore != null) {
+            return componentClass.cast(componentStore.get(entityId));
+        }
+        return null;
+    }
+
+    @Override
+    public Component put(long entityId, Component component) {
+        ComponentStore componentStore = storesByClass.get(component.getClass());
+        if (componentStore == null) {
+            componentStore = new ComponentStore(storesByTypeId.size());
+            storesByTypeId.add(componentStore);
+            storesByClass.put(component.getClass(), componentStore);
+        }
+        Component oldComponent = componentStore.put(entityId, component);
+        if (oldComponent == null) {
+            BitSet componentTypes = componentTypesByEntity.get(entityId);
+            if (componentTypes == null) {
+                componentTypes = new BitSet();
+                componentTypesByEntity.put(entityId, componentTypes);
+            }
+            componentTypes.set(componentStore.typeId);
+        }
+        return oldComponent;
+    }
+
+    @Override
+    public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
+        ComponentStore componentStore = storesByClass.get(componentClass);
+        if (componentStore == null) {
+            return null;
+        }
+        Component removedComponent = componentStore.remove(entityId);
+        if (removedComponent != null) {
+            BitSet componentTypes = componentTypesByEntity.get(entityId);
+            componentTypes.clear(componentStore.typeId);
+            if (componentTypes.isEmpty()) {
+                componentTypesByEntity.remove(entityId);
+            }
+        }
+        return removedComponent;
+    }
+
+    @Override
+    public void remove(long entityId) {
+        BitSet componentTypes = componentTypesByEntity.remove(entityId);
+        if (componentTypes != null) {
+            for (int typeId = componentTypes.nextSetBit(0); typeId >= 0; typeId = componentTypes.nextSetBit(typeId + 1)) {
+                storesByTypeId.get(typeId).remove(entityId);
+            }
+        }
+    }
+
+    /**
+     * Removes all components. Component types keep their ids.
+     */
+    @Override
+    public void clear() {
+        for (ComponentStore componentStore : storesByTypeId) {
+            componentStore.clear();
+        }
+        componentTypesByEntity.clear();
+    }
+
+    @Override
+    public int getComponentCount(Class<? extends Component> componentClass) {
+        ComponentStore componentStore = storesByClass.get(componentClass);
+        return (componentStore == null) ? 0 : componentStore.size;
+    }
+
+    @Override
+    public Iterable<Component> iterateComponents(long entityId) {
+        BitSet componentTypes = componentTypesByEntity.get(entityId);
+        if (componentTypes == null) {
+            return Collections.emptyList();
+        }
+        List<Component> components = Lists.newArrayListWithCapacity(componentTypes.cardinality());
+        for (int typeId = componentTypes.nextSetBit(0); typeId >= 0; typeId = componentTypes.nextSetBit(typeId + 1)) {
+            components.add(storesByTypeId.get(typeId).get(entityId));
+        }
+        return components;
+    }
+
+    @Override
+    public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
+        ComponentStore componentStore = storesByClass.get(componentClass);
+        if (componentStore != null) {
+            return new ComponentStoreIterator<>(componentStore);
+        }
+        return null;
+    }
+
+    @Override
+    public TLongList getEntitiesWith(Class<? extends Component>... componentClasses) {
+        ComponentStore smallestStore = null;
+        BitSet requiredTypes = new BitSet();
+        for (Class<? extends Component> componentClass : componentClasses) {
+            ComponentStore componentStore = storesByClass.get(componentClass);
+            if (componentStore == null) {
+                return new TLongArrayList();
+            }
+            requiredTypes.set(componentStore.typeId);
+            if (smallestStore == null || componentStore.size < smallestStore.size) {
+                smallestStore = componentStore;
+            }
+        }
+
+        TLongList idList = new TLongArrayList(smallestStore.size);
+        if (requiredTypes.cardinality() == 1) {
+            idList.add(smallestStore.entityIds, 0, smallestStore.size);
+            return idList;
+        }
+        for (int slot = 0; slot < smallestStore.size; ++slot) {
+            long id = smallestStore.entityIds[slot];
+            if (containsAll(componentTypesByEntity.get(id), requiredTypes)) {
+                idList.add(id);
+            }
+        }
+        return idList;
+    }
+
+    @Override
+    public TLongIterator entityIdIterator() {
+        return new TLongArrayList(componentTypesByEntity.keys()).iterator();
+    }
+
+    @Override
+    public int numEntities() {
+        return componentTypesByEntity.size();
+    }
+
+    private static boolean containsAll(BitSet componentTypes, BitSet requiredTypes) {
+        for (int typeId = requiredTypes.nextSetBit(0); typeId >= 0; typeId = requiredTypes.nextSetBit(typeId + 1)) {
+            if (!componentTypes.get(typeId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The components of a single type, as sparse set.
+     */
+    private static final class ComponentStore {
+        private final int typeId;
+        private long[] entityIds = new long[INITIAL_CAPACITY];
+        private Component[] components = new Component[INITIAL_CAPACITY];
+        private TLongIntMap slotsByEntity = new TLongIntHashMap(INITIAL_CAPACITY, 0.5f, PojoEntityManager.NULL_ID, NO_SLOT);
+        private int size;
+        /**
+         * Counts the additions and removals of components, so iterators can detect them
+         */
+        private int modCount;
+
+        private ComponentStore(int typeId) {
+            this.typeId = typeId;
+        }
+
+        private Component get(long entityId) {
+            int slot = slotsByEntity.get(entityId);
+            return (slot == NO_SLOT) ? null : components[slot];
+        }
+
+        private Component put(long entityId, Component component) {
+            int slot = slotsByEntity.get(entityId);
+            if (slot != NO_SLOT) {
+                Component oldComponent = components[slot];
+                components[slot] = component;
+                return oldComponent;
+            }
+            if (size == entityIds.length) {
+                entityIds = Arrays.copyOf(entityIds, size * 2);
+                components = Arrays.copyOf(components, size * 2);
+            }
+            entityIds[size] = entityId;
+            components[size] = component;
+            slotsByEntity.put(entityId, size);
+            size++;
+            modCount++;
+            return null;
+        }
+
+        private Component remove(long entityId) {
+            int slot = slotsByEntity.remove(entityId);
+            if (slot == NO_SLOT) {
+                return null;
+            }
+            Component removedComponent = components[slot];
+            int lastSlot = --size;
+            if (slot != lastSlot) {
+                entityIds[slot] = entityIds[lastSlot];
+                components[slot] = components[lastSlot];
+                slotsByEntity.put(entityIds[slot], slot);
+            }
+            components[lastSlot] = null;
+            modCount++;
+            return removedComponent;
+        }
+
+        private void clear() {
+            Arrays.fill(components, 0, size, null);
+            slotsByEntity.clear();
+            size = 0;
+            modCount++;
+        }
+    }
+
+    /**
+     * Iterates over the slots of a component store. Adding or removing components of the type during the iteration
+     * moves components between slots, so the iterator fails fast with a {@link ConcurrentModificationException}
+     * instead. Replacing a component is fine.
+     */
+    private static final class ComponentStoreIterator<T extends Component> implements TLongObjectIterator<T> {
+        private final ComponentStore componentStore;
+        private final int expectedModCount;
+        private int slot = -1;
+
+        private ComponentStoreIterator(ComponentStore componentStore) {
+            this.componentStore = componentStore;
+            this.expectedModCount = componentStore.modCount;
+        }
+
+        @Override
+        public long key() {
+            return componentStore.entityIds[slot];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T value() {
+            return (T) componentStore.components[slot];
+        }
+
+        @Override
+        public T setValue(T val) {
+            T oldValue = value();
+            componentStore.components[slot] = val;
+            return oldValue;
+        }
+
+        @Override
+        public void advance() {
+            checkForComodification();
+            if (slot + 1 >= componentStore.size) {
+                throw new NoSuchElementException();
+            }
+            slot++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+            return slot + 1 < componentStore.size;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Components must be removed via the component table");
+        }
+
+        private void checkForComodification() {
+            if (componentStore.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
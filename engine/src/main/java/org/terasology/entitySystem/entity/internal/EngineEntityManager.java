@@ -127,6 +127,15 @@ public interface EngineEntityManager extends LowLevelEntityManager {
      */
     void unsubscribe(EntityChangeSubscriber subscriber);
 
+    /**
+     * If deferred, changes to existing components are collected instead of being notified when the component gets
+     * saved. Each changed component is notified once, when {@link #flushChangeNotifications()} gets called.
+     * Adding and removing components is always notified immediately.
+     *
+     * @param deferred
+     */
+    void setChangeNotificationsDeferred(boolean deferred);
+
     /**
      * Sets the event system the entity manager will use to propagate life cycle events.
      *
@@ -25,7 +25,6 @@
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.list.TLongList;
-import gnu.trove.list.array.TLongArrayList;
 import gnu.trove.set.TLongSet;
 import gnu.trove.set.hash.TLongHashSet;
 import org.slf4j.Logger;
@@ -71,10 +70,12 @@ public class PojoEntityManager implements LowLevelEntityManager, EngineEntityMan
     private long nextEntityId = 1;
     private TLongSet loadedIds = new TLongHashSet();
     private Map<Long, BaseEntityRef> entityCache = new MapMaker().weakValues().concurrencyLevel(4).initialCapacity(1000).makeMap();
-    private ComponentTable store = new ComponentTable();
+    private ComponentTable store = new DenseComponentTable();
 
     private Set<EntityChangeSubscriber> subscribers = Sets.newLinkedHashSet();
     private Set<EntityDestroySubscriber> destroySubscribers = Sets.newLinkedHashSet();
+    private boolean changeNotificationsDeferred;
+    private Map<Class<? extends Component>, TLongSet> deferredChanges = Maps.newLinkedHashMap();
     private EventSystem eventSystem;
     private PrefabManager prefabManager;
     private ComponentLibrary componentLibrary;
@@ -104,6 +105,7 @@ public void clear() {
             entityRef.invalidate();
         }
         store.clear();
+        deferredChanges.clear();
         nextEntityId = 1;
         loadedIds.clear();
         entityCache.clear();
@@ -304,44 +306,10 @@ public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... c
         if (componentClasses.length == 0) {
             return getAllEntities();
         }
-        if (componentClasses.length == 1) {
-            return iterateEntities(componentClasses[0]);
-        }
-        TLongList idList = new TLongArrayList();
-        TLongObjectIterator<? extends Component> primeIterator = store.componentIterator(componentClasses[0]);
-        if (primeIterator == null) {
-            return Collections.emptyList();
-        }
-
-        while (primeIterator.hasNext()) {
-            primeIterator.advance();
-            long id = primeIterator.key();
-            boolean discard = false;
-            for (int i = 1; i < componentClasses.length; ++i) {
-                if (store.get(id, componentClasses[i]) == null) {
-                    discard = true;
-                    break;
-                }
-            }
-            if (!discard) {
-                idList.add(primeIterator.key());
-            }
-        }
-        return new EntityIterable(idList);
-    }
-
-    private Iterable<EntityRef> iterateEntities(Class<? extends Component> componentClass) {
-        TLongList idList = new TLongArrayList();
-        TLongObjectIterator<? extends Component> primeIterator = store.componentIterator(componentClass);
-        if (primeIterator == null) {
+        TLongList idList = store.getEntitiesWith(componentClasses);
+        if (idList.isEmpty()) {
             return Collections.emptyList();
         }
-
-        while (primeIterator.hasNext()) {
-            primeIterator.advance();
-            long id = primeIterator.key();
-            idList.add(primeIterator.key());
-        }
         return new EntityIterable(idList);
     }
 
@@ -624,20 +592,65 @@ public void saveComponent(long entityId, Component component) {
         Component oldComponent = store.put(entityId, component);
         if (oldComponent == null) {
             logger.error("Saving a component ({}) that doesn't belong to this entity {}", component.getClass(), entityId);
-        }
-        if (eventSystem != null) {
-            EntityRef entityRef = createEntityRef(entityId);
-            if (oldComponent == null) {
+            if (eventSystem != null) {
+                EntityRef entityRef = createEntityRef(entityId);
                 eventSystem.send(entityRef, OnAddedComponent.newInstance(), component);
                 eventSystem.send(entityRef, OnActivatedComponent.newInstance(), component);
-            } else {
-                eventSystem.send(entityRef, OnChangedComponent.newInstance(), component);
             }
-        }
-        if (oldComponent == null) {
             notifyComponentAdded(getEntity(entityId), component.getClass());
+        } else if (changeNotificationsDeferred) {
+            TLongSet changedEntities = deferredChanges.get(component.getClass());
+            if (changedEntities == null) {
+                changedEntities = new TLongHashSet();
+                deferredChanges.put(component.getClass(), changedEntities);
+            }
+            changedEntities.add(entityId);
         } else {
-            notifyComponentChanged(getEntity(entityId), component.getClass());
+            sendComponentChanged(entityId, component);
+        }
+    }
+
+    private void sendComponentChanged(long entityId, Component component) {
+        if (eventSystem != null) {
+            eventSystem.send(createEntityRef(entityId), OnChangedComponent.newInstance(), component);
+        }
+        notifyComponentChanged(getEntity(entityId), component.getClass());
+    }
+
+    @Override
+    public void setChangeNotificationsDeferred(boolean deferred) {
+        if (!deferred) {
+            flushChangeNotifications();
+        }
+        changeNotificationsDeferred = deferred;
+    }
+
+    /**
+     * Notifies the deferred changes grouped by component type. Components that got removed in the meantime are skipped.
+     * Changes saved by the receivers of these notifications are notified immediately.
+     */
+    @Override
+    public void flushChangeNotifications() {
+        if (deferredChanges.isEmpty()) {
+            return;
+        }
+        Map<Class<? extends Component>, TLongSet> changes = deferredChanges;
+        deferredChanges = Maps.newLinkedHashMap();
+        boolean deferred = changeNotificationsDeferred;
+        changeNotificationsDeferred = false;
+        try {
+            for (Map.Entry<Class<? extends Component>, TLongSet> entry : changes.entrySet()) {
+                TLongIterator iterator = entry.getValue().iterator();
+                while (iterator.hasNext()) {
+                    long entityId = iterator.next();
+                    Component component = store.get(entityId, entry.getKey());
+                    if (component != null) {
+                        sendComponentChanged(entityId, component);
+                    }
+                }
+            }
+        } finally {
+            changeNotificationsDeferred = deferred;
         }
     }
 
@@ -686,7 +699,7 @@ public final int getCountOfEntitiesWith(Class<? extends Component>... componentC
             case 1:
                 return store.getComponentCount(componentClasses[0]);
             default:
-                return Lists.newArrayList(getEntitiesWith(componentClasses)).size();
+                return store.getEntitiesWith(componentClasses).size();
         }
     }
 
@@ -55,6 +55,7 @@
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -77,6 +78,10 @@ public class EventSystemImpl implements EventSystem {
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
 
+    // Handlers sorted by priority, cached until the next change to the registered handlers
+    private Map<Class<? extends Event>, DispatchTable> dispatchTables = Maps.newHashMap();
+    private Map<Class<? extends Event>, Map<Class<? extends Component>, List<EventHandlerInfo>>> componentDispatchTables = Maps.newHashMap();
+
     // Event metadata
     private BiMap<SimpleUri, Class<? extends Event>> eventIdMap = HashBiMap.create();
     private SetMultimap<Class<? extends Event>, Class<? extends Event>> childEvents = HashMultimap.create();
@@ -106,6 +111,7 @@ public void process() {
     @Override
     public void registerEvent(SimpleUri uri, Class<? extends Event> eventType) {
         eventIdMap.put(uri, eventType);
+        clearDispatchTables();
         logger.debug("Registering event {}", eventType.getSimpleName());
         for (Class parent : ReflectionUtils.getAllSuperTypes(eventType, Predicates.assignableFrom(Event.class))) {
             if (!AbstractConsumableEvent.class.equals(parent) && !Event.class.equals(parent)) {
@@ -190,9 +196,11 @@ public void unregisterEventHandler(ComponentSystem handler) {
                 eventHandlerIterator.remove();
             }
         }
+        clearDispatchTables();
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<? extends Component>> components) {
+        clearDispatchTables();
         if (components.isEmpty()) {
             generalHandlers.put(type, handler);
             for (Class<? extends Event> childType : childEvents.get(type)) {
@@ -240,6 +248,12 @@ public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventRece
                 }
             }
         }
+        clearDispatchTables();
+    }
+
+    private void clearDispatchTables() {
+        dispatchTables.clear();
+        componentDispatchTables.clear();
     }
 
     @Override
@@ -249,9 +263,7 @@ public void send(EntityRef entity, Event event) {
         } else {
             networkReplicate(entity, event);
 
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            Collections.sort(selectedHandlers, priorityComparator);
+            List<EventHandlerInfo> selectedHandlers = getDispatchTable(event.getClass()).selectEventHandlers(entity);
 
             if (event instanceof ConsumableEvent) {
                 sendConsumableEvent(entity, event, selectedHandlers);
@@ -262,7 +274,8 @@ public void send(EntityRef entity, Event event) {
     }
 
     private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
-        for (EventHandlerInfo handler : selectedHandlers) {
+        for (int i = 0; i < selectedHandlers.size(); ++i) {
+            EventHandlerInfo handler = selectedHandlers.get(i);
             // Check isValid at each stage in case components were removed.
             if (handler.isValidFor(entity)) {
                 handler.invoke(entity, event);
@@ -272,7 +285,8 @@ private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerI
 
     private void sendConsumableEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
         ConsumableEvent consumableEvent = (ConsumableEvent) event;
-        for (EventHandlerInfo handler : selectedHandlers) {
+        for (int i = 0; i < selectedHandlers.size(); ++i) {
+            EventHandlerInfo handler = selectedHandlers.get(i);
             // Check isValid at each stage in case components were removed.
             if (handler.isValidFor(entity)) {
                 handler.invoke(entity, event);
@@ -347,37 +361,105 @@ public void send(EntityRef entity, Event event, Component component) {
         if (Thread.currentThread() != mainThread) {
             pendingEvents.offer(new PendingEvent(entity, event, component));
         } else {
-            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(event.getClass());
-            if (handlers != null) {
-                List<EventHandlerInfo> eventHandlers = Lists.newArrayList(handlers.get(component.getClass()));
-                Collections.sort(eventHandlers, priorityComparator);
-                for (EventHandlerInfo eventHandler : eventHandlers) {
-                    if (eventHandler.isValidFor(entity)) {
-                        eventHandler.invoke(entity, event);
-                    }
+            List<EventHandlerInfo> eventHandlers = getComponentEventHandlers(event.getClass(), component.getClass());
+            for (int i = 0; i < eventHandlers.size(); ++i) {
+                EventHandlerInfo eventHandler = eventHandlers.get(i);
+                if (eventHandler.isValidFor(entity)) {
+                    eventHandler.invoke(entity, event);
                 }
             }
         }
     }
 
-    private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
-        Set<EventHandlerInfo> result = Sets.newHashSet();
-        result.addAll(generalHandlers.get(eventType));
-        SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
-        if (handlers == null) {
+    private List<EventHandlerInfo> getComponentEventHandlers(Class<? extends Event> eventType, Class<? extends Component> componentType) {
+        Map<Class<? extends Component>, List<EventHandlerInfo>> handlersByComponent = componentDispatchTables.get(eventType);
+        if (handlersByComponent == null) {
+            handlersByComponent = Maps.newHashMap();
+            componentDispatchTables.put(eventType, handlersByComponent);
+        }
+        List<EventHandlerInfo> eventHandlers = handlersByComponent.get(componentType);
+        if (eventHandlers == null) {
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+            if (handlers != null) {
+                eventHandlers = sortByPriority(handlers.get(componentType));
+            } else {
+                eventHandlers = Collections.emptyList();
+            }
+            handlersByComponent.put(componentType, eventHandlers);
+        }
+        return eventHandlers;
+    }
+
+    private DispatchTable getDispatchTable(Class<? extends Event> eventType) {
+        DispatchTable dispatchTable = dispatchTables.get(eventType);
+        if (dispatchTable == null) {
+            dispatchTable = new DispatchTable(eventType);
+            dispatchTables.put(eventType, dispatchTable);
+        }
+        return dispatchTable;
+    }
+
+    private List<EventHandlerInfo> sortByPriority(Collection<EventHandlerInfo> handlers) {
+        List<EventHandlerInfo> result = Lists.newArrayList(handlers);
+        Collections.sort(result, priorityComparator);
+        return ImmutableList.copyOf(result);
+    }
+
+    /**
+     * The handlers of a single event type, sorted by priority, for every combination of the relevant components that
+     * the entities receiving the event had so far.
+     * <p/>
+     * Selecting the handlers for an entity then only requires checking which of the relevant components the entity has
+     * and a lookup by that signature. Only to be used by the main thread.
+     */
+    private final class DispatchTable {
+        private Class<? extends Event> eventType;
+        private Class<? extends Component>[] componentTypes;
+        private Map<BitSet, List<EventHandlerInfo>> handlersBySignature = Maps.newHashMap();
+        private BitSet signature = new BitSet();
+
+        @SuppressWarnings("unchecked")
+        public DispatchTable(Class<? extends Event> eventType) {
+            this.eventType = eventType;
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+            if (handlers != null) {
+                componentTypes = handlers.keySet().toArray(new Class[handlers.keySet().size()]);
+            } else {
+                componentTypes = new Class[0];
+            }
+        }
+
+        public List<EventHandlerInfo> selectEventHandlers(EntityRef entity) {
+            signature.clear();
+            for (int i = 0; i < componentTypes.length; ++i) {
+                if (entity.hasComponent(componentTypes[i])) {
+                    signature.set(i);
+                }
+            }
+            List<EventHandlerInfo> result = handlersBySignature.get(signature);
+            if (result == null) {
+                result = createHandlerList(entity);
+                handlersBySignature.put((BitSet) signature.clone(), result);
+            }
             return result;
         }
 
-        for (Class<? extends Component> compClass : handlers.keySet()) {
-            if (entity.hasComponent(compClass)) {
-                for (EventHandlerInfo eventHandler : handlers.get(compClass)) {
+        /**
+         * Whether a handler is valid only depends on the components of the signature, as every component a handler
+         * filters on is one of the relevant components.
+         */
+        private List<EventHandlerInfo> createHandlerList(EntityRef entity) {
+            Set<EventHandlerInfo> handlers = Sets.newLinkedHashSet(generalHandlers.get(eventType));
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> componentHandlers = componentSpecificHandlers.get(eventType);
+            for (int i = signature.nextSetBit(0); i >= 0; i = signature.nextSetBit(i + 1)) {
+                for (EventHandlerInfo eventHandler : componentHandlers.get(componentTypes[i])) {
                     if (eventHandler.isValidFor(entity)) {
-                        result.add(eventHandler);
+                        handlers.add(eventHandler);
                     }
                 }
             }
+            return sortByPriority(handlers);
         }
-        return result;
     }
 
     private static class EventHandlerPriorityComparator implements Comparator<EventHandlerInfo> {
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.location;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+
+import javax.vecmath.Vector3f;
+import java.util.Collection;
+
+/**
+ * Provides fast lookup of the entities with a {@link LocationComponent} by their world position, without iterating
+ * over all entities.
+ * <p/>
+ * The index is maintained by the engine and gets updated whenever a location component gets activated, saved or
+ * deactivated. Changes to a location component become visible once it has been saved.
+ */
+public interface EntitySpatialIndex {
+
+    /**
+     * @param chunkPos the position of the chunk, in chunk coordinates
+     * @return the entities located within the chunk
+     */
+    Collection<EntityRef> getEntitiesInChunk(Vector3i chunkPos);
+
+    /**
+     * @param region a region in block coordinates
+     * @return the entities located within one of the blocks of the region
+     */
+    Collection<EntityRef> getEntitiesInRegion(Region3i region);
+
+    /**
+     * @param position the center of the sphere, in world coordinates
+     * @param radius the radius of the sphere
+     * @return the entities whose world position lies within the sphere
+     */
+    Collection<EntityRef> getEntitiesWithinRadius(Vector3f position, float radius);
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.location.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.internal.EventReceiver;
+import org.terasology.entitySystem.event.internal.EventSystem;
+import org.terasology.logic.location.EntitySpatialIndex;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
+import org.terasology.math.Vector3i;
+
+import javax.vecmath.Vector3f;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of the chunk every entity with a location is in, based on the lifecycle events of the
+ * {@link LocationComponent}. Gets registered with the event system when the entity system gets built, so it is
+ * up to date before any system or storage manager queries it.
+ * <p/>
+ * Entities attached to a parent move along with it without saving their location, so their chunk gets updated
+ * whenever the location of one of their ancestors gets saved.
+ * <p/>
+ * Entities are tracked by id, as entity refs of destroyed entities are all equal to each other.
+ * Only to be used by the main thread.
+ */
+public class EntitySpatialIndexImpl implements EntitySpatialIndex {
+
+    private final EntityManager entityManager;
+    private Map<Vector3i, TLongSet> entitiesByChunk = Maps.newHashMap();
+    private TLongObjectMap<Vector3i> chunkByEntity = new TLongObjectHashMap<>();
+
+    public EntitySpatialIndexImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public void registerWith(EventSystem eventSystem) {
+        eventSystem.registerEventReceiver(new EventReceiver<OnActivatedComponent>() {
+            @Override
+            public void onEvent(OnActivatedComponent event, EntityRef entity) {
+                updateEntityAndChildren(entity);
+            }
+        }, OnActivatedComponent.class, LocationComponent.class);
+        eventSystem.registerEventReceiver(new EventReceiver<OnChangedComponent>() {
+            @Override
+            public void onEvent(OnChangedComponent event, EntityRef entity) {
+                updateEntityAndChildren(entity);
+            }
+        }, OnChangedComponent.class, LocationComponent.class);
+        eventSystem.registerEventReceiver(new EventReceiver<BeforeDeactivateComponent>() {
+            @Override
+            public void onEvent(BeforeDeactivateComponent event, EntityRef entity) {
+                remove(entity);
+            }
+        }, BeforeDeactivateComponent.class, LocationComponent.class);
+    }
+
+    @Override
+    public Collection<EntityRef> getEntitiesInChunk(Vector3i chunkPos) {
+        TLongSet ids = entitiesByChunk.get(chunkPos);
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        List<EntityRef> result = Lists.newArrayListWithCapacity(ids.size());
+        TLongIterator iterator = ids.iterator();
+        while (iterator.hasNext()) {
+            EntityRef entity = entityManager.getEntity(iterator.next());
+            if (entity.exists()) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<EntityRef> getEntitiesInRegion(Region3i region) {
+        List<EntityRef> result = Lists.newArrayList();
+        if (region.isEmpty()) {
+            return result;
+        }
+        // The blocks of a region extend half a block beyond its min and max
+        Vector3i minChunk = calcChunkPos(region.minX() - 0.5f, region.minY() - 0.5f, region.minZ() - 0.5f);
+        Vector3i maxChunk = calcChunkPos(region.maxX() + 0.5f, region.maxY() + 0.5f, region.maxZ() + 0.5f);
+        Vector3f worldPos = new Vector3f();
+        for (Vector3i chunkPos : Region3i.createFromMinMax(minChunk, maxChunk)) {
+            for (EntityRef entity : getEntitiesInChunk(chunkPos)) {
+                LocationComponent location = entity.getComponent(LocationComponent.class);
+                if (location != null) {
+                    location.getWorldPosition(worldPos);
+                    if (region.encompasses(new Vector3i(worldPos, 0.5f))) {
+                        result.add(entity);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Collection<EntityRef> getEntitiesWithinRadius(Vector3f position, float radius) {
+        List<EntityRef> result = Lists.newArrayList();
+        Vector3i minChunk = calcChunkPos(position.x - radius, position.y - radius, position.z - radius);
+        Vector3i maxChunk = calcChunkPos(position.x + radius, position.y + radius, position.z + radius);
+        float radiusSquared = radius * radius;
+        Vector3f delta = new Vector3f();
+        for (Vector3i chunkPos : Region3i.createFromMinMax(minChunk, maxChunk)) {
+            for (EntityRef entity : getEntitiesInChunk(chunkPos)) {
+                LocationComponent location = entity.getComponent(LocationComponent.class);
+                if (location != null) {
+                    location.getWorldPosition(delta);
+                    delta.sub(position);
+                    if (delta.lengthSquared() <= radiusSquared) {
+                        result.add(entity);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void updateEntityAndChildren(EntityRef entity) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        if (location == null) {
+            return;
+        }
+        update(entity, location);
+        for (EntityRef child : location.getChildren()) {
+            updateEntityAndChildren(child);
+        }
+    }
+
+    private void update(EntityRef entity, LocationComponent location) {
+        Vector3f worldPos = location.getWorldPosition();
+        if (!TeraMath.isFinite(worldPos.x) || !TeraMath.isFinite(worldPos.y) || !TeraMath.isFinite(worldPos.z)) {
+            remove(entity);
+            return;
+        }
+        Vector3i chunkPos = calcChunkPos(worldPos.x, worldPos.y, worldPos.z);
+        Vector3i oldChunkPos = chunkByEntity.put(entity.getId(), chunkPos);
+        if (!chunkPos.equals(oldChunkPos)) {
+            if (oldChunkPos != null) {
+                removeFromChunk(oldChunkPos, entity.getId());
+            }
+            TLongSet ids = entitiesByChunk.get(chunkPos);
+            if (ids == null) {
+                ids = new TLongHashSet();
+                entitiesByChunk.put(chunkPos, ids);
+            }
+            ids.add(entity.getId());
+        }
+    }
+
+    private void remove(EntityRef entity) {
+        Vector3i oldChunkPos = chunkByEntity.remove(entity.getId());
+        if (oldChunkPos != null) {
+            removeFromChunk(oldChunkPos, entity.getId());
+        }
+    }
+
+    private void removeFromChunk(Vector3i chunkPos, long id) {
+        TLongSet ids = entitiesByChunk.get(chunkPos);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                entitiesByChunk.remove(chunkPos);
+            }
+        }
+    }
+
+    private static Vector3i calcChunkPos(float x, float y, float z) {
+        return TeraMath.calcChunkPos(TeraMath.floorToInt(x), TeraMath.floorToInt(y), TeraMath.floorToInt(z));
+    }
+}
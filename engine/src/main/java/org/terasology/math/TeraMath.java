@@ -520,6 +520,29 @@ public static int calcChunkPosZ(int z, int chunkPowerZ) {
         return (z >> chunkPowerZ);
     }
 
+    public static int calcChunkPosX(int x) {
+        return calcChunkPosX(x, ChunkConstants.POWER_X);
+    }
+
+    public static int calcChunkPosY(int y) {
+        return calcChunkPosY(y, ChunkConstants.POWER_Y);
+    }
+
+    public static int calcChunkPosZ(int z) {
+        return calcChunkPosZ(z, ChunkConstants.POWER_Z);
+    }
+
+    /**
+     * Calculates the chunk position of a block without allocating a new vector.
+     *
+     * @param output The vector the chunk position gets written to
+     * @return output
+     */
+    public static Vector3i calcChunkPos(int x, int y, int z, Vector3i chunkPower, Vector3i output) {
+        output.set(calcChunkPosX(x, chunkPower.x), calcChunkPosY(y, chunkPower.y), calcChunkPosZ(z, chunkPower.z));
+        return output;
+    }
+
     public static Vector3i calcChunkPos(Vector3i pos, Vector3i chunkPower) {
         return calcChunkPos(pos.x, pos.y, pos.z, chunkPower);
     }
@@ -591,6 +614,29 @@ public static int calcBlockPosZ(int blockZ, int chunkPosFilterZ) {
         return blockZ & chunkPosFilterZ;
     }
 
+    public static int calcBlockPosX(int blockX) {
+        return calcBlockPosX(blockX, ChunkConstants.INNER_CHUNK_POS_FILTER_X);
+    }
+
+    public static int calcBlockPosY(int blockY) {
+        return calcBlockPosY(blockY, ChunkConstants.INNER_CHUNK_POS_FILTER_Y);
+    }
+
+    public static int calcBlockPosZ(int blockZ) {
+        return calcBlockPosZ(blockZ, ChunkConstants.INNER_CHUNK_POS_FILTER_Z);
+    }
+
+    /**
+     * Calculates the internal position of a block within its chunk without allocating a new vector.
+     *
+     * @param output The vector the position within the chunk gets written to
+     * @return output
+     */
+    public static Vector3i calcBlockPos(int x, int y, int z, Vector3i chunkFilterSize, Vector3i output) {
+        output.set(calcBlockPosX(x, chunkFilterSize.x), calcBlockPosY(y, chunkFilterSize.y), calcBlockPosZ(z, chunkFilterSize.z));
+        return output;
+    }
+
     public static Vector3i calcBlockPos(Vector3i worldPos) {
         return calcBlockPos(worldPos.x, worldPos.y, worldPos.z, ChunkConstants.INNER_CHUNK_POS_FILTER);
     }
@@ -603,6 +649,29 @@ public static Vector3i calcBlockPos(int x, int y, int z, Vector3i chunkFilterSiz
         return new Vector3i(calcBlockPosX(x, chunkFilterSize.x), calcBlockPosY(y, chunkFilterSize.y), calcBlockPosZ(z, chunkFilterSize.z));
     }
 
+    /**
+     * Packs a chunk position into a single long, for use as a key that needs no object per position.
+     * The block position queues of the light propagators use the same format for block positions.
+     * Supports x and z coordinates in the range of [-2^23, 2^23) and y coordinates in the range of [-2^15, 2^15).
+     *
+     * @return The packed chunk position
+     */
+    public static long packChunkPos(int x, int y, int z) {
+        return ((long) (x & 0xFFFFFF) << 40) | ((long) (y & 0xFFFF) << 24) | (z & 0xFFFFFF);
+    }
+
+    public static int unpackChunkPosX(long packedPos) {
+        return (int) (packedPos >> 40);
+    }
+
+    public static int unpackChunkPosY(long packedPos) {
+        return (int) (packedPos << 24 >> 48);
+    }
+
+    public static int unpackChunkPosZ(long packedPos) {
+        return (int) (packedPos << 40 >> 40);
+    }
+
     public static Region3i getChunkRegionAroundWorldPos(Vector3i pos, int extent) {
         Vector3i minPos = new Vector3i(-extent, -extent, -extent);
         minPos.add(pos);
@@ -25,11 +25,14 @@
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class ChunkMonitor {
 
     private static final EventBus EVENT_BUS = new EventBus("ChunkMonitor");
     private static final Map<Vector3i, ChunkMonitorEntry> CHUNKS = Maps.newConcurrentMap();
+    private static final AtomicInteger COMPLETED_CHUNK_TASKS = new AtomicInteger();
+    private static final AtomicInteger CANCELLED_CHUNK_TASKS = new AtomicInteger();
 
     private ChunkMonitor() {
     }
@@ -87,11 +90,43 @@ public static void fireChunkDeflated(Chunk chunk, int oldSize, int newSize) {
         post(new ChunkMonitorEvent.Deflated(chunk.getPosition(), oldSize, newSize));
     }
 
+    /**
+     * @param chunkPos The position of the activated chunk
+     * @param latency  The time in milliseconds between the chunk being ready for activation and its activation
+     * @param backlog  The number of chunks still waiting for activation
+     */
+    public static void fireChunkActivated(Vector3i chunkPos, long latency, int backlog) {
+        Preconditions.checkNotNull(chunkPos, "The parameter 'chunkPos' must not be null");
+        post(new ChunkMonitorEvent.Activated(chunkPos, latency, backlog));
+    }
+
     public static void fireChunkTessellated(Vector3i chunkPos, ChunkMesh[] mesh) {
         Preconditions.checkNotNull(chunkPos, "The parameter 'chunkPos' must not be null");
         post(new ChunkMonitorEvent.Tessellated(chunkPos, mesh));
     }
 
+    /**
+     * Counts a chunk generation or loading task that ran to completion.
+     */
+    public static void fireChunkTaskCompleted() {
+        COMPLETED_CHUNK_TASKS.incrementAndGet();
+    }
+
+    /**
+     * Counts a chunk generation or loading task that was cancelled because its chunk was no longer relevant.
+     */
+    public static void fireChunkTaskCancelled() {
+        CANCELLED_CHUNK_TASKS.incrementAndGet();
+    }
+
+    public static int getCompletedChunkTasks() {
+        return COMPLETED_CHUNK_TASKS.get();
+    }
+
+    public static int getCancelledChunkTasks() {
+        return CANCELLED_CHUNK_TASKS.get();
+    }
+
     public static synchronized void getChunks(List<ChunkMonitorEntry> output) {
         Preconditions.checkNotNull(output, "The parameter 'output' must not be null");
         output.addAll(CHUNKS.values());
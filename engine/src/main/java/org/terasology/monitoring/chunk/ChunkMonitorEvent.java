@@ -94,6 +94,18 @@ public Deflated(Vector3i position, int oldSize, int newSize) {
         }
     }
 
+    public static class Activated extends BasicChunkEvent {
+
+        public final long latency;
+        public final int backlog;
+
+        public Activated(Vector3i position, long latency, int backlog) {
+            super(position);
+            this.latency = latency;
+            this.backlog = backlog;
+        }
+    }
+
     public static class Tessellated extends BasicChunkEvent {
 
         public final ChunkMeshInfo meshInfo;
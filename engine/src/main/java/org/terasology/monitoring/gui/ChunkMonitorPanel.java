@@ -15,14 +15,22 @@
  */
 package org.terasology.monitoring.gui;
 
+import org.terasology.monitoring.chunk.ChunkMonitor;
+
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 
 @SuppressWarnings("serial")
 public class ChunkMonitorPanel extends JPanel {
 
+    private static final int TASK_COUNT_UPDATE_INTERVAL_MS = 1000;
+
     protected final ChunkMonitorDisplay display;
 
+    private final JLabel taskCounts = new JLabel();
+
     public ChunkMonitorPanel() {
         setLayout(new BorderLayout());
 
@@ -30,6 +38,21 @@ public ChunkMonitorPanel() {
         display.setVisible(true);
 
         add(display, BorderLayout.CENTER);
+        add(taskCounts, BorderLayout.SOUTH);
+
+        updateTaskCounts();
+        Timer timer = new Timer(TASK_COUNT_UPDATE_INTERVAL_MS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                updateTaskCounts();
+            }
+        });
+        timer.start();
+    }
+
+    private void updateTaskCounts() {
+        taskCounts.setText("Chunk tasks: " + ChunkMonitor.getCompletedChunkTasks() + " completed, "
+                + ChunkMonitor.getCancelledChunkTasks() + " cancelled as no longer relevant");
     }
 
 }
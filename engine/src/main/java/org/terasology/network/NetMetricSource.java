@@ -43,4 +43,15 @@ public interface NetMetricSource {
      * @return The amount of bytes sent since last time this method was called
      */
     int getSentBytesSinceLastCall();
+
+    /**
+     * @return The amount of pending updates that were held back to a later network tick to stay within the available
+     * bandwidth since last time this method was called
+     */
+    int getDeferredUpdatesSinceLastCall();
+
+    /**
+     * @return The longest time in milliseconds an update had to wait before it was sent since last time this method was called
+     */
+    int getMaxUpdateDelaySinceLastCall();
 }
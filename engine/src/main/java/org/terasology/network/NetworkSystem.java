@@ -65,5 +65,9 @@ public interface NetworkSystem extends BlockRegistrationListener {
 
     int getOutgoingBytesDelta();
 
+    int getDeferredUpdatesDelta();
+
+    int getMaxUpdateDelayDelta();
+
     void forceDisconnect(Client client);
 }
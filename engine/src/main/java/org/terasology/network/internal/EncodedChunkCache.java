@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.terasology.math.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the encoded form of the chunks recently sent to clients, so that a chunk that is needed by several clients
+ * gets encoded only once.
+ * <p/>
+ * An encoded chunk is reused as long as the chunk is still the same instance and its modification generation didn't
+ * change. The least recently used chunks get dropped once more than {@link #MAX_CACHED_CHUNKS} are cached.
+ * Only to be used by the main thread.
+ */
+class EncodedChunkCache {
+    private static final int MAX_CACHED_CHUNKS = 512;
+
+    private Map<Vector3i, EncodedChunk> encodedChunks = new LinkedHashMap<Vector3i, EncodedChunk>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Vector3i, EncodedChunk> eldest) {
+            return size() > MAX_CACHED_CHUNKS;
+        }
+    };
+
+    public EntityData.ChunkStore getEncodedChunk(ChunkImpl chunk) {
+        // The generation is read before encoding, so that concurrent changes result in a stale generation, not stale data
+        int generation = chunk.getModificationGeneration();
+        EncodedChunk encodedChunk = encodedChunks.get(chunk.getPosition());
+        if (encodedChunk == null || encodedChunk.chunk.get() != chunk || encodedChunk.generation != generation) {
+            encodedChunk = new EncodedChunk(chunk, generation, chunk.encode().build());
+            encodedChunks.put(new Vector3i(chunk.getPosition()), encodedChunk);
+        }
+        return encodedChunk.data;
+    }
+
+    public void clear() {
+        encodedChunks.clear();
+    }
+
+    private static final class EncodedChunk {
+        private final WeakReference<ChunkImpl> chunk;
+        private final int generation;
+        private final EntityData.ChunkStore data;
+
+        private EncodedChunk(ChunkImpl chunk, int generation, EntityData.ChunkStore data) {
+            this.chunk = new WeakReference<>(chunk);
+            this.generation = generation;
+            this.data = data;
+        }
+    }
+}
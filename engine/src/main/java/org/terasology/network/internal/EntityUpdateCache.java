@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.network.serialization.ServerComponentFieldCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shares the serialized network entities between the clients during a network tick.
+ * <p/>
+ * The data sent to a client for an entity only depends on the entity, whether the client owns it and which components
+ * changed. Usually all clients the entity is relevant for got the same changes, so the entity only needs to be
+ * serialized once per tick for its owner and once for all other clients. The resulting immutable PackedEntity is
+ * reused for the messages of all clients.
+ * <p/>
+ * Must be cleared at the start of every network tick, as the entities change between ticks. Entities that change
+ * during the tick, e.g. due to messages received by one of the clients, need to be invalidated.
+ */
+class EntityUpdateCache {
+    private NetworkEntitySerializer entitySerializer;
+
+    private TIntObjectMap<Map<UpdateKey, EntityData.PackedEntity>> updates = new TIntObjectHashMap<>();
+    private TIntObjectMap<EntityData.PackedEntity> ownerInitialEntities = new TIntObjectHashMap<>();
+    private TIntObjectMap<EntityData.PackedEntity> otherInitialEntities = new TIntObjectHashMap<>();
+
+    public EntityUpdateCache(NetworkEntitySerializer entitySerializer) {
+        this.entitySerializer = entitySerializer;
+    }
+
+    /**
+     * @return The changes of the entity, or null if there is nothing to send
+     */
+    public EntityData.PackedEntity getUpdate(int netId, EntityRef entity, boolean owned, Set<Class<? extends Component>> added,
+                                             Set<Class<? extends Component>> changed, Set<Class<? extends Component>> removed) {
+        Map<UpdateKey, EntityData.PackedEntity> entityUpdates = updates.get(netId);
+        if (entityUpdates == null) {
+            entityUpdates = Maps.newHashMap();
+            updates.put(netId, entityUpdates);
+        }
+        UpdateKey key = new UpdateKey(owned, added, changed, removed);
+        if (entityUpdates.containsKey(key)) {
+            return entityUpdates.get(key);
+        }
+        EntityData.PackedEntity entityData = entitySerializer.serialize(entity, added, changed, removed, new ServerComponentFieldCheck(owned, false));
+        entityUpdates.put(key.copy(), entityData);
+        return entityData;
+    }
+
+    /**
+     * @return The complete entity, as sent when it becomes relevant to a client
+     */
+    public EntityData.PackedEntity getInitial(int netId, EntityRef entity, boolean owned) {
+        TIntObjectMap<EntityData.PackedEntity> initialEntities = (owned) ? ownerInitialEntities : otherInitialEntities;
+        EntityData.PackedEntity entityData = initialEntities.get(netId);
+        if (entityData == null) {
+            // Note: Send owner->server fields on initial create
+            entityData = entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(owned, true)).build();
+            initialEntities.put(netId, entityData);
+        }
+        return entityData;
+    }
+
+    public void invalidate(int netId) {
+        updates.remove(netId);
+        ownerInitialEntities.remove(netId);
+        otherInitialEntities.remove(netId);
+    }
+
+    public void clear() {
+        updates.clear();
+        ownerInitialEntities.clear();
+        otherInitialEntities.clear();
+    }
+
+    private static final class UpdateKey {
+        private final boolean owned;
+        private final Set<Class<? extends Component>> added;
+        private final Set<Class<? extends Component>> changed;
+        private final Set<Class<? extends Component>> removed;
+
+        private UpdateKey(boolean owned, Set<Class<? extends Component>> added,
+                          Set<Class<? extends Component>> changed, Set<Class<? extends Component>> removed) {
+            this.owned = owned;
+            this.added = added;
+            this.changed = changed;
+            this.removed = removed;
+        }
+
+        /**
+         * @return A key that doesn't reference the (mutable) sets of a client
+         */
+        private UpdateKey copy() {
+            return new UpdateKey(owned, ImmutableSet.copyOf(added), ImmutableSet.copyOf(changed), ImmutableSet.copyOf(removed));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof UpdateKey) {
+                UpdateKey other = (UpdateKey) obj;
+                return owned == other.owned && added.equals(other.added)
+                        && changed.equals(other.changed) && removed.equals(other.removed);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(owned, added, changed, removed);
+        }
+    }
+}
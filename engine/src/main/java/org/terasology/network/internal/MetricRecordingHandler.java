@@ -23,6 +23,7 @@
 import org.terasology.network.NetMetricSource;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A generic Netty handler for recording metrics on sent and received bytes and messages.
@@ -37,6 +38,9 @@ public class MetricRecordingHandler extends SimpleChannelHandler implements NetM
     private AtomicInteger receivedBytes = new AtomicInteger();
     private AtomicInteger sentMessages = new AtomicInteger();
     private AtomicInteger sentBytes = new AtomicInteger();
+    private AtomicLong totalSentBytes = new AtomicLong();
+    private AtomicInteger deferredUpdates = new AtomicInteger();
+    private AtomicInteger maxUpdateDelay = new AtomicInteger();
 
     @Override
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
@@ -51,6 +55,7 @@ public void writeRequested(ChannelHandlerContext ctx, MessageEvent e) throws Exc
         ChannelBuffer buf = (ChannelBuffer) e.getMessage();
         sentMessages.incrementAndGet();
         sentBytes.addAndGet(buf.readableBytes());
+        totalSentBytes.addAndGet(buf.readableBytes());
         ctx.sendDownstream(e);
     }
 
@@ -73,4 +78,35 @@ public int getSentMessagesSinceLastCall() {
     public int getSentBytesSinceLastCall() {
         return sentBytes.getAndSet(0);
     }
+
+    @Override
+    public int getDeferredUpdatesSinceLastCall() {
+        return deferredUpdates.getAndSet(0);
+    }
+
+    @Override
+    public int getMaxUpdateDelaySinceLastCall() {
+        return maxUpdateDelay.getAndSet(0);
+    }
+
+    /**
+     * @return The total amount of bytes sent through the channel. Unlike the other metrics this is not reset when read.
+     */
+    public long getTotalSentBytes() {
+        return totalSentBytes.get();
+    }
+
+    /**
+     * Records the outcome of scheduling the updates of a network tick.
+     *
+     * @param deferred The number of updates that were held back to a later tick
+     * @param maxDelay The longest time in milliseconds a sent update had been waiting
+     */
+    public void recordScheduledTick(int deferred, int maxDelay) {
+        deferredUpdates.addAndGet(deferred);
+        int current = maxUpdateDelay.get();
+        while (maxDelay > current && !maxUpdateDelay.compareAndSet(current, maxDelay)) {
+            current = maxUpdateDelay.get();
+        }
+    }
 }
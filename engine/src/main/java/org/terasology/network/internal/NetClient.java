@@ -24,6 +24,10 @@
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import gnu.trove.iterator.TIntIterator;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
 import gnu.trove.set.TIntSet;
 import gnu.trove.set.hash.TIntHashSet;
 import org.jboss.netty.channel.Channel;
@@ -41,6 +45,7 @@
 import org.terasology.logic.characters.PredictionSystem;
 import org.terasology.logic.common.DisplayNameComponent;
 import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.Region3i;
 import org.terasology.math.TeraMath;
 import org.terasology.math.Vector3i;
 import org.terasology.network.Client;
@@ -64,8 +69,13 @@
 import org.terasology.world.block.BlockComponent;
 import org.terasology.world.block.family.BlockFamily;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
 
+import javax.vecmath.Vector3f;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -81,6 +91,9 @@
 public class NetClient extends AbstractClient implements WorldChangeListener {
     private static final Logger logger = LoggerFactory.getLogger(NetClient.class);
     private static final float NET_TICK_RATE = 0.05f;
+    private static final int RELEVANCE_UPDATE_INTERVAL = 10;
+    private static final int BYTES_PER_KILOBIT = 125;
+    private static final int NEARBY_CHUNK_DISTANCE = 1;
 
     private Time time;
     private NetworkSystemImpl networkSystem;
@@ -88,7 +101,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private NetworkEntitySerializer entitySerializer;
     private EventSerializer eventSerializer;
     private EntitySystemLibrary entitySystemLibrary;
-    private NetMetricSource metricSource;
+    private MetricRecordingHandler metricSource;
     private BiomeManager biomeManager;
 
     // Relevance
@@ -106,9 +119,8 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private String name = "Unknown";
     private long lastReceivedTime;
     private ViewDistance viewDistance = ViewDistance.NEAR;
-    private float chunkSendCounter = 1.0f;
-
-    private float chunkSendRate = 0.05469f;
+    private Region3i areaOfInterest = Region3i.EMPTY;
+    private int netTicksUntilRelevanceUpdate;
 
     private PublicIdentityCertificate identity;
 
@@ -121,6 +133,12 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private Map<Vector3i, Chunk> readyChunks = Maps.newLinkedHashMap();
     private Set<Vector3i> invalidatedChunks = Sets.newLinkedHashSet();
 
+    // Scheduling of outgoing updates
+    private SendScheduler sendScheduler = new SendScheduler();
+    private int netTickCount;
+    private TIntIntMap entitiesPendingSince = new TIntIntHashMap();
+    private TObjectIntMap<Vector3i> chunksPendingSince = new TObjectIntHashMap<>();
+    private Deque<BlockChangeBatch> pendingBlockChanges = Queues.newArrayDeque();
 
     // Incoming messages
     private BlockingQueue<NetData.NetMessage> queuedIncomingMessage = Queues.newLinkedBlockingQueue();
@@ -134,7 +152,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
 
     public NetClient(Channel channel, NetworkSystemImpl networkSystem, PublicIdentityCertificate identity) {
         this.channel = channel;
-        metricSource = (NetMetricSource) channel.getPipeline().get(MetricRecordingHandler.NAME);
+        metricSource = (MetricRecordingHandler) channel.getPipeline().get(MetricRecordingHandler.NAME);
         this.networkSystem = networkSystem;
         this.time = CoreRegistry.get(Time.class);
         this.identity = identity;
@@ -217,14 +235,25 @@ public void disconnect() {
     @Override
     public void update(boolean netTick) {
         if (netTick) {
+            netTickCount++;
+            Vector3i characterChunkPos = getCharacterChunkPos();
+            if (--netTicksUntilRelevanceUpdate <= 0) {
+                netTicksUntilRelevanceUpdate = RELEVANCE_UPDATE_INTERVAL;
+                updateAreaOfInterest(characterChunkPos);
+                networkSystem.updateRelevantEntities(this);
+            }
             NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder();
             message.setTime(time.getGameTimeInMs());
             sendRegisteredBlocks(message);
             sendChunkInvalidations(message);
-            sendNewChunks(message);
             sendRemovedEntities(message);
-            sendInitialEntities(message);
-            sendDirtyEntities(message);
+            scheduleInitialEntities(characterChunkPos);
+            scheduleDirtyEntities(characterChunkPos);
+            scheduleBlockChanges();
+            scheduleNewChunks(characterChunkPos);
+            sendScheduler.writeScheduled(message, networkSystem.getBandwidthPerClient() * BYTES_PER_KILOBIT * NET_TICK_RATE);
+            metricSource.recordScheduledTick(sendScheduler.getDeferredUpdates(),
+                    (int) (sendScheduler.getMaxWaitedTicks() * NET_TICK_RATE * 1000));
             sendEvents(message);
             send(message.build());
         }
@@ -243,51 +272,137 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
         newlyRegisteredFamilies.clear();
     }
 
-    private void sendNewChunks(NetData.NetMessage.Builder message) {
-        if (!readyChunks.isEmpty()) {
-            chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
-            if (chunkSendCounter > 1.0f) {
-                chunkSendCounter -= 1.0f;
-                Vector3i center = new Vector3i();
-                LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    center.set(TeraMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), 0.5f)));
+    private void scheduleNewChunks(final Vector3i characterChunkPos) {
+        List<Vector3i> positions = Lists.newArrayList(readyChunks.keySet());
+        if (characterChunkPos != null) {
+            Collections.sort(positions, new Comparator<Vector3i>() {
+                @Override
+                public int compare(Vector3i o1, Vector3i o2) {
+                    return Integer.compare(o1.distanceSquared(characterChunkPos), o2.distanceSquared(characterChunkPos));
                 }
-                Vector3i pos = null;
-                int distance = Integer.MAX_VALUE;
-                for (Vector3i chunkPos : readyChunks.keySet()) {
-                    int chunkDistance = chunkPos.distanceSquared(center);
-                    if (pos == null || chunkDistance < distance) {
-                        pos = chunkPos;
-                        distance = chunkDistance;
-                    }
+            });
+        }
+        for (final Vector3i pos : positions) {
+            sendScheduler.schedule(SendScheduler.SendPriority.CHUNK, netTickCount - chunksPendingSince.get(pos), new SendScheduler.ScheduledSend() {
+                @Override
+                public int size() {
+                    return networkSystem.getEncodedChunkCache().getEncodedChunk((ChunkImpl) readyChunks.get(pos)).getSerializedSize();
                 }
-                Chunk chunk = readyChunks.remove(pos);
-                relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
-            }
-        } else {
-            chunkSendCounter = 1.0f;
+
+                @Override
+                public int write(NetData.NetMessage.Builder message) {
+                    return writeChunk(pos, message);
+                }
+            });
         }
     }
 
+    private int writeChunk(Vector3i pos, NetData.NetMessage.Builder message) {
+        Chunk chunk = readyChunks.remove(pos);
+        chunksPendingSince.remove(pos);
+        relevantChunks.add(pos);
+        EntityData.ChunkStore chunkStore = networkSystem.getEncodedChunkCache().getEncodedChunk((ChunkImpl) chunk);
+        message.addChunkInfo(chunkStore);
+        return chunkStore.getSerializedSize();
+    }
+
     private void sendChunkInvalidations(NetData.NetMessage.Builder message) {
         Iterator<Vector3i> i = invalidatedChunks.iterator();
         while (i.hasNext()) {
             Vector3i pos = i.next();
             i.remove();
             relevantChunks.remove(pos);
+            for (BlockChangeBatch batch : pendingBlockChanges) {
+                batch.removeChangesInChunk(pos);
+            }
             message.addInvalidateChunk(NetData.InvalidateChunkMessage.newBuilder().setPos(NetMessageUtil.convert(pos)));
         }
         invalidatedChunks.clear();
     }
 
+    /**
+     * @return The chunks around the character of the client. Entities within them are relevant to the client.
+     */
+    Region3i getAreaOfInterest() {
+        return areaOfInterest;
+    }
+
+    private void updateAreaOfInterest(Vector3i characterChunkPos) {
+        if (characterChunkPos != null) {
+            Vector3i distance = viewDistance.getChunkDistance();
+            Vector3i extents = new Vector3i(distance.x / 2, distance.y / 2, distance.z / 2);
+            areaOfInterest = Region3i.createFromCenterExtents(characterChunkPos, extents);
+        } else {
+            areaOfInterest = Region3i.EMPTY;
+        }
+    }
+
+    /**
+     * @return The position of the chunk containing the character of the client, or null if the character has no location
+     */
+    private Vector3i getCharacterChunkPos() {
+        ClientComponent clientComp = getEntity().getComponent(ClientComponent.class);
+        LocationComponent loc = (clientComp != null) ? clientComp.character.getComponent(LocationComponent.class) : null;
+        if (loc != null) {
+            return TeraMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), 0.5f));
+        }
+        return null;
+    }
+
+    private SendScheduler.SendPriority getEntityPriority(EntityRef entity, Vector3i characterChunkPos) {
+        if (networkSystem.getOwner(entity) == this) {
+            return SendScheduler.SendPriority.OWNED_ENTITY;
+        }
+        LocationComponent loc = entity.getComponent(LocationComponent.class);
+        if (characterChunkPos == null || loc == null) {
+            return SendScheduler.SendPriority.NEARBY_ENTITY;
+        }
+        Vector3f worldPos = loc.getWorldPosition();
+        if (!TeraMath.isFinite(worldPos.x) || !TeraMath.isFinite(worldPos.y) || !TeraMath.isFinite(worldPos.z)) {
+            return SendScheduler.SendPriority.NEARBY_ENTITY;
+        }
+        Vector3i chunkPos = TeraMath.calcChunkPos(new Vector3i(worldPos, 0.5f));
+        if (Math.abs(chunkPos.x - characterChunkPos.x) <= NEARBY_CHUNK_DISTANCE
+                && Math.abs(chunkPos.y - characterChunkPos.y) <= NEARBY_CHUNK_DISTANCE
+                && Math.abs(chunkPos.z - characterChunkPos.z) <= NEARBY_CHUNK_DISTANCE) {
+            return SendScheduler.SendPriority.NEARBY_ENTITY;
+        }
+        return SendScheduler.SendPriority.DISTANT_ENTITY;
+    }
+
+    /**
+     * @return The number of net ticks the entity has been waiting for an update to be sent
+     */
+    private int getEntityWaitedTicks(int netId) {
+        if (!entitiesPendingSince.containsKey(netId)) {
+            entitiesPendingSince.put(netId, netTickCount);
+        }
+        return netTickCount - entitiesPendingSince.get(netId);
+    }
+
+    /**
+     * @return Whether the entity has been sent to the client or will be sent with the next update
+     */
+    boolean isReplicated(int netId) {
+        return netRelevant.contains(netId) || netInitial.contains(netId);
+    }
+
+    int[] getReplicatedNetIds() {
+        TIntSet result = new TIntHashSet(netRelevant);
+        result.addAll(netInitial);
+        return result.toArray();
+    }
+
     public void setNetInitial(int netId) {
         netInitial.add(netId);
     }
 
+    /**
+     * Stops replicating the entity to the client. The client only gets told to remove the entity if it has been sent
+     * to it, entities it never knew about are just forgotten.
+     */
     public void setNetRemoved(int netId) {
-        if (!netInitial.remove(netId)) {
+        if (!netInitial.remove(netId) && netRelevant.contains(netId)) {
             netRemoved.add(netId);
         }
         dirtyComponents.keySet().remove(netId);
@@ -295,6 +410,7 @@ public void setNetRemoved(int netId) {
         removedComponents.keySet().remove(netId);
         netDirty.remove(netId);
         netRelevant.remove(netId);
+        entitiesPendingSince.remove(netId);
     }
 
     public void setComponentAdded(int networkId, Class<? extends Component> component) {
@@ -367,21 +483,27 @@ public boolean isLocal() {
     }
 
     void send(NetData.NetMessage data) {
-        logger.trace("Sending packet with size {}", data.getSerializedSize());
+        int serializedSize = data.getSerializedSize();
+        logger.trace("Sending packet with size {}", serializedSize);
         sentMessages.incrementAndGet();
-        sentBytes.addAndGet(data.getSerializedSize());
+        sentBytes.addAndGet(serializedSize);
+        long sentBytesBefore = metricSource.getTotalSentBytes();
         channel.write(data);
+        sendScheduler.recordSentMessage(serializedSize, (int) (metricSource.getTotalSentBytes() - sentBytesBefore));
     }
 
     @Override
     public void onChunkRelevant(Vector3i pos, Chunk chunk) {
         invalidatedChunks.remove(pos);
-        readyChunks.put(pos, chunk);
+        if (readyChunks.put(pos, chunk) == null) {
+            chunksPendingSince.put(pos, netTickCount);
+        }
     }
 
     @Override
     public void onChunkIrrelevant(Vector3i pos) {
         readyChunks.remove(pos);
+        chunksPendingSince.remove(pos);
         invalidatedChunks.add(pos);
     }
 
@@ -420,17 +542,39 @@ private void processReceivedMessages() {
         }
     }
 
-    private void sendEvents(NetData.NetMessage.Builder message) {
-        List<NetData.BlockChangeMessage> blockChanges = Lists.newArrayListWithExpectedSize(queuedOutgoingBlockChanges.size());
-        queuedOutgoingBlockChanges.drainTo(blockChanges);
-        message.addAllBlockChange(blockChanges);
+    private void scheduleBlockChanges() {
+        BlockChangeBatch newBatch = new BlockChangeBatch(netTickCount);
+        queuedOutgoingBlockChanges.drainTo(newBatch.blockChanges);
+        queuedOutgoingBiomeChanges.drainTo(newBatch.biomeChanges);
+        if (!newBatch.isEmpty()) {
+            pendingBlockChanges.add(newBatch);
+        }
+        for (final BlockChangeBatch batch : pendingBlockChanges) {
+            sendScheduler.schedule(SendScheduler.SendPriority.BLOCK_CHANGE, netTickCount - batch.netTick, new SendScheduler.ScheduledSend() {
+                @Override
+                public int size() {
+                    return batch.size();
+                }
 
-        List<NetData.BiomeChangeMessage> biomeChanges = Lists.newArrayListWithExpectedSize(queuedOutgoingBiomeChanges.size());
-        queuedOutgoingBiomeChanges.drainTo(biomeChanges);
-        message.addAllBiomeChange(biomeChanges);
+                @Override
+                public int write(NetData.NetMessage.Builder message) {
+                    pendingBlockChanges.remove(batch);
+                    return batch.write(message);
+                }
+            });
+        }
+    }
 
-        message.addAllEvent(queuedOutgoingEvents);
-        queuedOutgoingEvents.clear();
+    private void sendEvents(NetData.NetMessage.Builder message) {
+        // Events for entities whose creation was deferred wait for the entity
+        Iterator<NetData.EventMessage> i = queuedOutgoingEvents.iterator();
+        while (i.hasNext()) {
+            NetData.EventMessage event = i.next();
+            if (!event.hasTargetId() || !netInitial.contains(event.getTargetId())) {
+                message.addEvent(event);
+                i.remove();
+            }
+        }
     }
 
     private void processEntityUpdates(NetData.NetMessage message) {
@@ -443,25 +587,54 @@ private void processEntityUpdates(NetData.NetMessage message) {
         }
     }
 
-    private void sendDirtyEntities(NetData.NetMessage.Builder message) {
-        TIntIterator dirtyIterator = netDirty.iterator();
-        while (dirtyIterator.hasNext()) {
-            int netId = dirtyIterator.next();
+    private void scheduleDirtyEntities(Vector3i characterChunkPos) {
+        for (final int netId : netDirty.toArray()) {
             EntityRef entity = networkSystem.getEntity(netId);
-            if (!entity.exists()) {
-                logger.error("Sending non-existent entity update for netId {}", netId);
-            }
-            boolean isOwner = networkSystem.getOwner(entity) == this;
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
-            if (entityData != null) {
-                message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
-            }
+            sendScheduler.schedule(getEntityPriority(entity, characterChunkPos), getEntityWaitedTicks(netId), new SendScheduler.ScheduledSend() {
+                @Override
+                public int size() {
+                    NetData.UpdateEntityMessage updateMessage = createEntityUpdate(netId);
+                    return (updateMessage != null) ? updateMessage.getSerializedSize() : 0;
+                }
+
+                @Override
+                public int write(NetData.NetMessage.Builder message) {
+                    return writeDirtyEntity(netId, message);
+                }
+            });
+        }
+    }
+
+    private int writeDirtyEntity(int netId, NetData.NetMessage.Builder message) {
+        EntityRef entity = networkSystem.getEntity(netId);
+        if (!entity.exists()) {
+            logger.error("Sending non-existent entity update for netId {}", netId);
+        }
+        NetData.UpdateEntityMessage updateMessage = createEntityUpdate(netId);
+        netDirty.remove(netId);
+        addedComponents.removeAll(netId);
+        removedComponents.removeAll(netId);
+        dirtyComponents.removeAll(netId);
+        entitiesPendingSince.remove(netId);
+        if (updateMessage != null) {
+            message.addUpdateEntity(updateMessage);
+            return updateMessage.getSerializedSize();
+        }
+        return 0;
+    }
+
+    /**
+     * @return The update message of the changes of the entity, or null if there is nothing to send
+     */
+    private NetData.UpdateEntityMessage createEntityUpdate(int netId) {
+        EntityRef entity = networkSystem.getEntity(netId);
+        boolean isOwner = networkSystem.getOwner(entity) == this;
+        EntityData.PackedEntity entityData = networkSystem.getEntityUpdateCache().getUpdate(netId, entity, isOwner,
+                addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId));
+        if (entityData != null) {
+            return NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId).build();
         }
-        netDirty.clear();
-        addedComponents.clear();
-        removedComponents.clear();
-        dirtyComponents.clear();
+        return null;
     }
 
     private void sendRemovedEntities(NetData.NetMessage.Builder message) {
@@ -472,29 +645,55 @@ private void sendRemovedEntities(NetData.NetMessage.Builder message) {
         netRemoved.clear();
     }
 
-    private void sendInitialEntities(NetData.NetMessage.Builder message) {
-        TIntIterator initialIterator = netInitial.iterator();
+    private void scheduleInitialEntities(Vector3i characterChunkPos) {
         int[] initial = netInitial.toArray();
-        netInitial.clear();
         Arrays.sort(initial);
-        for (int netId : initial) {
-            netRelevant.add(netId);
+        for (final int netId : initial) {
             EntityRef entity = networkSystem.getEntity(netId);
-            if (!entity.hasComponent(NetworkComponent.class)) {
-                logger.error("Sending net entity with no network component: {} - {}", netId, entity);
-                continue;
-            }
-            // Note: Send owner->server fields on initial create
-            Client owner = networkSystem.getOwner(entity);
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(owner == this, true)).build();
-            NetData.CreateEntityMessage.Builder createMessage = NetData.CreateEntityMessage.newBuilder().setEntity(entityData);
-            BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
-            if (blockComponent != null) {
-                createMessage.setBlockPos(NetMessageUtil.convert(blockComponent.getPosition()));
-            }
-            message.addCreateEntity(createMessage);
+            sendScheduler.schedule(getEntityPriority(entity, characterChunkPos), getEntityWaitedTicks(netId), new SendScheduler.ScheduledSend() {
+                @Override
+                public int size() {
+                    NetData.CreateEntityMessage createMessage = createInitialEntity(netId);
+                    return (createMessage != null) ? createMessage.getSerializedSize() : 0;
+                }
+
+                @Override
+                public int write(NetData.NetMessage.Builder message) {
+                    return writeInitialEntity(netId, message);
+                }
+            });
         }
+    }
 
+    private int writeInitialEntity(int netId, NetData.NetMessage.Builder message) {
+        netInitial.remove(netId);
+        entitiesPendingSince.remove(netId);
+        netRelevant.add(netId);
+        NetData.CreateEntityMessage createMessage = createInitialEntity(netId);
+        if (createMessage == null) {
+            logger.error("Sending net entity with no network component: {} - {}", netId, networkSystem.getEntity(netId));
+            return 0;
+        }
+        message.addCreateEntity(createMessage);
+        return createMessage.getSerializedSize();
+    }
+
+    /**
+     * @return The message creating the entity on the client, or null if the entity has no network component
+     */
+    private NetData.CreateEntityMessage createInitialEntity(int netId) {
+        EntityRef entity = networkSystem.getEntity(netId);
+        if (!entity.hasComponent(NetworkComponent.class)) {
+            return null;
+        }
+        Client owner = networkSystem.getOwner(entity);
+        EntityData.PackedEntity entityData = networkSystem.getEntityUpdateCache().getInitial(netId, entity, owner == this);
+        NetData.CreateEntityMessage.Builder createMessage = NetData.CreateEntityMessage.newBuilder().setEntity(entityData);
+        BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
+        if (blockComponent != null) {
+            createMessage.setBlockPos(NetMessageUtil.convert(blockComponent.getPosition()));
+        }
+        return createMessage.build();
     }
 
     private void processEvents(NetData.NetMessage message) {
@@ -548,4 +747,65 @@ public void setViewDistanceMode(ViewDistance distanceMode) {
     public void blockFamilyRegistered(BlockFamily family) {
         newlyRegisteredFamilies.add(family);
     }
+
+    /**
+     * The block and biome changes that were queued for the client during one net tick. The changes of a batch are
+     * sent together.
+     */
+    private static final class BlockChangeBatch {
+        private final int netTick;
+        private final List<NetData.BlockChangeMessage> blockChanges = Lists.newArrayList();
+        private final List<NetData.BiomeChangeMessage> biomeChanges = Lists.newArrayList();
+
+        private BlockChangeBatch(int netTick) {
+            this.netTick = netTick;
+        }
+
+        public boolean isEmpty() {
+            return blockChanges.isEmpty() && biomeChanges.isEmpty();
+        }
+
+        /**
+         * Drops the changes in a chunk that was invalidated on the client, they would be applied to a newer version of the
+         * chunk otherwise.
+         */
+        public void removeChangesInChunk(Vector3i chunkPos) {
+            Iterator<NetData.BlockChangeMessage> blockIterator = blockChanges.iterator();
+            while (blockIterator.hasNext()) {
+                if (chunkPos.equals(TeraMath.calcChunkPos(NetMessageUtil.convert(blockIterator.next().getPos())))) {
+                    blockIterator.remove();
+                }
+            }
+            Iterator<NetData.BiomeChangeMessage> biomeIterator = biomeChanges.iterator();
+            while (biomeIterator.hasNext()) {
+                if (chunkPos.equals(TeraMath.calcChunkPos(NetMessageUtil.convert(biomeIterator.next().getPos())))) {
+                    biomeIterator.remove();
+                }
+            }
+        }
+
+        public int size() {
+            int size = 0;
+            for (NetData.BlockChangeMessage blockChange : blockChanges) {
+                size += blockChange.getSerializedSize();
+            }
+            for (NetData.BiomeChangeMessage biomeChange : biomeChanges) {
+                size += biomeChange.getSerializedSize();
+            }
+            return size;
+        }
+
+        public int write(NetData.NetMessage.Builder message) {
+            int size = 0;
+            for (NetData.BlockChangeMessage blockChange : blockChanges) {
+                message.addBlockChange(blockChange);
+                size += blockChange.getSerializedSize();
+            }
+            for (NetData.BiomeChangeMessage biomeChange : biomeChanges) {
+                message.addBiomeChange(biomeChange);
+                size += biomeChange.getSerializedSize();
+            }
+            return size;
+        }
+    }
 }
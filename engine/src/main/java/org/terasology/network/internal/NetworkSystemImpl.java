@@ -55,6 +55,10 @@
 import org.terasology.entitySystem.metadata.ComponentMetadata;
 import org.terasology.entitySystem.metadata.EntitySystemLibrary;
 import org.terasology.entitySystem.metadata.EventMetadata;
+import org.terasology.logic.location.EntitySpatialIndex;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.TeraMath;
+import org.terasology.math.Vector3i;
 import org.terasology.module.Module;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.network.*;
@@ -84,6 +88,7 @@
 import org.terasology.world.block.family.BlockFamily;
 import org.terasology.world.chunks.remoteChunkProvider.RemoteChunkProvider;
 
+import javax.vecmath.Vector3f;
 import java.net.BindException;
 import java.net.InetSocketAddress;
 import java.util.List;
@@ -110,6 +115,8 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private EntitySystemLibrary entitySystemLibrary;
     private EventSerializer eventSerializer;
     private NetworkEntitySerializer entitySerializer;
+    private EntityUpdateCache entityUpdateCache;
+    private EncodedChunkCache encodedChunkCache = new EncodedChunkCache();
     private BlockManager blockManager;
     private BiomeManager biomeManager;
     private OwnershipHelper ownershipHelper;
@@ -132,6 +139,7 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private Map<EntityRef, EntityRef> ownerLookup = Maps.newHashMap();
     private SetMultimap<EntityRef, EntityRef> ownedLookup = HashMultimap.create();
     private StorageManager storageManager;
+    private EntitySpatialIndex spatialIndex;
 
     // Client only
     private ServerImpl server;
@@ -240,6 +248,8 @@ public void shutdown() {
         entitySystemLibrary = null;
         eventSerializer = null;
         entitySerializer = null;
+        entityUpdateCache = null;
+        encodedChunkCache.clear();
         clientList.clear();
         netClientList.clear();
         blockManager = null;
@@ -248,6 +258,7 @@ public void shutdown() {
         ownedLookup.clear();
         ownershipHelper = null;
         storageManager = null;
+        spatialIndex = null;
         logger.info("Network shutdown");
     }
 
@@ -271,6 +282,7 @@ public void update() {
                 if (currentTimer > nextNetworkTick) {
                     nextNetworkTick += NET_TICK_RATE;
                     netTick = true;
+                    entityUpdateCache.clear();
                 }
                 PerformanceMonitor.startActivity("Client update");
                 for (Client client : clientList) {
@@ -389,8 +401,9 @@ public void registerNetworkEntity(EntityRef entity) {
                     break;
                 default:
                     for (NetClient client : netClientList) {
-                        // TODO: Relevance Check
-                        client.setNetInitial(netComponent.getNetworkId());
+                        if (isRelevant(client, entity, netComponent)) {
+                            client.setNetInitial(netComponent.getNetworkId());
+                        }
                     }
                     break;
             }
@@ -496,6 +509,7 @@ public void connectToEntitySystem(EngineEntityManager newEntityManager, EntitySy
         this.biomeManager = CoreRegistry.get(BiomeManager.class);
         this.ownershipHelper = new OwnershipHelper(newEntityManager.getComponentLibrary());
         this.storageManager = CoreRegistry.get(StorageManager.class);
+        this.spatialIndex = CoreRegistry.get(EntitySpatialIndex.class);
         this.entitySystemLibrary = library;
 
         CoreRegistry.get(ComponentSystemManager.class).register(new NetworkEntitySystem(this), "engine:networkEntitySystem");
@@ -507,6 +521,7 @@ public void connectToEntitySystem(EngineEntityManager newEntityManager, EntitySy
         eventSerializer = new EventSerializer(library.getEventLibrary(), typeSerializationLibrary);
         entitySerializer = new NetworkEntitySerializer(newEntityManager, entityManager.getComponentLibrary(), typeSerializationLibrary);
         entitySerializer.setComponentSerializeCheck(new NetComponentSerializeCheck());
+        entityUpdateCache = new EntityUpdateCache(entitySerializer);
 
         if (mode == NetworkMode.CLIENT) {
             entityManager.setEntityRefStrategy(new NetworkClientRefStrategy(this));
@@ -525,6 +540,7 @@ public void onEntityComponentAdded(EntityRef entity, Class<? extends Component>
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    entityUpdateCache.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.info("Component {} added to {}", component, entity);
                         client.setComponentAdded(netComp.getNetworkId(), component);
@@ -542,6 +558,7 @@ public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    entityUpdateCache.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.info("Component {} removed from {}", component, entity);
                         client.setComponentRemoved(netComp.getNetworkId(), component);
@@ -565,6 +582,7 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
                 case LISTEN_SERVER:
                 case DEDICATED_SERVER:
                     if (metadata.isReplicated()) {
+                        entityUpdateCache.invalidate(netComp.getNetworkId());
                         for (NetClient client : netClientList) {
                             client.setComponentDirty(netComp.getNetworkId(), component);
                         }
@@ -675,6 +693,42 @@ public int getOutgoingBytesDelta() {
         }
     }
 
+    /**
+     * @return The number of updates that were held back to a later network tick since last request
+     */
+    @Override
+    public int getDeferredUpdatesDelta() {
+        switch (mode) {
+            case LISTEN_SERVER:
+            case DEDICATED_SERVER:
+                int total = 0;
+                for (NetClient client : netClientList) {
+                    total += client.getMetrics().getDeferredUpdatesSinceLastCall();
+                }
+                return total;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * @return The longest time in milliseconds an update waited for being sent to a client since last request
+     */
+    @Override
+    public int getMaxUpdateDelayDelta() {
+        switch (mode) {
+            case LISTEN_SERVER:
+            case DEDICATED_SERVER:
+                int max = 0;
+                for (NetClient client : netClientList) {
+                    max = Math.max(max, client.getMetrics().getMaxUpdateDelaySinceLastCall());
+                }
+                return max;
+            default:
+                return 0;
+        }
+    }
+
     long getEntityId(int netId) {
         return netIdToEntityId.get(netId);
     }
@@ -750,8 +804,9 @@ private void processNewClient(NetClient client) {
                         }
                         break;
                     default:
-                        // TODO: Relevance Check
-                        client.setNetInitial(netComp.getNetworkId());
+                        if (isRelevant(client, netEntity, netComp)) {
+                            client.setNetInitial(netComp.getNetworkId());
+                        }
                         break;
                 }
             }
@@ -763,6 +818,63 @@ private void connectClient(Client client) {
         client.getEntity().send(new ConnectedEvent(entityStore));
     }
 
+    /**
+     * Entities that are replicated to relevant clients are relevant to a client if they are within its area of interest.
+     * Entities without position, always relevant entities and entities owned by the client are relevant regardless.
+     */
+    private boolean isRelevant(NetClient client, EntityRef entity, NetworkComponent netComp) {
+        switch (netComp.replicateMode) {
+            case OWNER:
+                return client.equals(getOwner(entity));
+            case RELEVANT:
+                if (entity.isAlwaysRelevant() || client.equals(getOwner(entity))) {
+                    return true;
+                }
+                LocationComponent loc = entity.getComponent(LocationComponent.class);
+                if (loc == null) {
+                    return true;
+                }
+                Vector3f worldPos = loc.getWorldPosition();
+                if (!TeraMath.isFinite(worldPos.x) || !TeraMath.isFinite(worldPos.y) || !TeraMath.isFinite(worldPos.z)) {
+                    return true;
+                }
+                return client.getAreaOfInterest().encompasses(TeraMath.calcChunkPos(new Vector3i(worldPos, 0.5f)));
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Starts replicating the entities that entered the area of interest of the client, and stops replicating those
+     * that left it.
+     */
+    void updateRelevantEntities(NetClient client) {
+        for (int netId : client.getReplicatedNetIds()) {
+            EntityRef entity = getEntity(netId);
+            NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
+            if (netComp != null && netComp.replicateMode == NetworkComponent.ReplicateMode.RELEVANT && !isRelevant(client, entity, netComp)) {
+                client.setNetRemoved(netId);
+            }
+        }
+        for (Vector3i chunkPos : client.getAreaOfInterest()) {
+            for (EntityRef entity : spatialIndex.getEntitiesInChunk(chunkPos)) {
+                NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
+                if (netComp != null && netComp.getNetworkId() != NULL_NET_ID && netComp.replicateMode == NetworkComponent.ReplicateMode.RELEVANT
+                        && !client.isReplicated(netComp.getNetworkId()) && isRelevant(client, entity, netComp)) {
+                    client.setNetInitial(netComp.getNetworkId());
+                }
+            }
+        }
+    }
+
+    EntityUpdateCache getEntityUpdateCache() {
+        return entityUpdateCache;
+    }
+
+    EncodedChunkCache getEncodedChunkCache() {
+        return encodedChunkCache;
+    }
+
     NetData.ServerInfoMessage getServerInfoMessage() {
         NetData.ServerInfoMessage.Builder serverInfoMessageBuilder = NetData.ServerInfoMessage.newBuilder();
         serverInfoMessageBuilder.setTime(time.getGameTimeInMs());
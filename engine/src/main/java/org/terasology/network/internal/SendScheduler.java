@@ -0,0 +1,205 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import org.terasology.protobuf.NetData;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decides which of the pending updates of a {@link NetClient} are sent in a network tick.
+ *
+ * Every tick the client gains a budget of bytes based on its share of the upstream bandwidth. Updates of the owned and
+ * nearby entities of the client are always sent and may overdraw the budget, so they can never be starved. The other
+ * updates are written in order of their {@link SendPriority} as long as they fit the remaining budget, and the
+ * remaining ones have to be scheduled again in a later tick. These age towards a more important priority while they
+ * wait, so that a steady stream of block changes can't starve chunks and distant entities, but they never overtake
+ * the owned and nearby entities. An update larger than the budget that can be saved makes the budget grow until the
+ * update fits, instead of overdrawing it.
+ *
+ * The budget is in bytes on the wire, while the scheduler only knows the uncompressed size of an update. The sizes are
+ * therefore scaled by the compression ratio observed for the messages of the client, see {@link #recordSentMessage}.
+ */
+class SendScheduler {
+    /**
+     * The number of ticks an update has to wait to be treated like an update of the next more important priority.
+     */
+    private static final int AGING_TICKS = 10;
+
+    /**
+     * Unused budget is kept for later ticks up to this number of ticks worth of budget.
+     */
+    private static final int MAX_SAVED_TICKS = 4;
+
+    private static final float COMPRESSION_RATIO_SMOOTHING = 0.1f;
+
+    /**
+     * The most important rank an update of a priority that is not always sent can age to.
+     */
+    private static final int MIN_AGED_RANK = SendPriority.BLOCK_CHANGE.ordinal() * AGING_TICKS;
+
+    private final List<Entry> scheduled = Lists.newArrayList();
+    private float budget;
+    private float savingFor;
+    private float compressionRatio = 1.0f;
+
+    private int deferredUpdates;
+    private int maxWaitedTicks;
+
+    /**
+     * @param priority    The priority class of the update
+     * @param waitedTicks The number of ticks the update has been pending already
+     * @param send        Writes the update when it gets sent
+     */
+    public void schedule(SendPriority priority, int waitedTicks, ScheduledSend send) {
+        scheduled.add(new Entry(priority, waitedTicks, send));
+    }
+
+    /**
+     * Writes the updates that were scheduled for this tick into the message, most important ones first. Updates that
+     * are always sent are written even if they exceed the budget, the excess is taken from the budget of the next
+     * ticks. The others are written until the first one that doesn't fit the remaining budget. Updates that weren't
+     * written are dropped from the schedule.
+     *
+     * @param message      The message of the tick
+     * @param bytesPerTick The budget gained per tick
+     */
+    public void writeScheduled(NetData.NetMessage.Builder message, float bytesPerTick) {
+        budget = Math.min(budget + bytesPerTick, Math.max(MAX_SAVED_TICKS * bytesPerTick, savingFor));
+        savingFor = 0;
+        // The sort is stable, so updates of the same rank are sent in the order they were scheduled
+        Collections.sort(scheduled);
+        int written = 0;
+        maxWaitedTicks = 0;
+        for (Entry entry : scheduled) {
+            if (!entry.priority.isAlwaysSent()) {
+                float size = entry.send.size() * compressionRatio;
+                if (size > budget) {
+                    // Save up for the update, it is the most important one of those that have to wait
+                    savingFor = size;
+                    break;
+                }
+            }
+            budget -= entry.send.write(message) * compressionRatio;
+            maxWaitedTicks = Math.max(maxWaitedTicks, entry.waitedTicks);
+            written++;
+        }
+        deferredUpdates = scheduled.size() - written;
+        scheduled.clear();
+    }
+
+    /**
+     * Updates the compression ratio with a message that was sent.
+     *
+     * @param serializedBytes The size of the serialized message
+     * @param sentBytes       The size of the message on the wire
+     */
+    public void recordSentMessage(int serializedBytes, int sentBytes) {
+        if (serializedBytes > 0 && sentBytes > 0) {
+            float ratio = (float) sentBytes / serializedBytes;
+            compressionRatio += (ratio - compressionRatio) * COMPRESSION_RATIO_SMOOTHING;
+        }
+    }
+
+    /**
+     * @return The amount of scheduled updates that had to wait for a later tick in the last written tick
+     */
+    public int getDeferredUpdates() {
+        return deferredUpdates;
+    }
+
+    /**
+     * @return The largest number of ticks an update sent in the last written tick had been waiting
+     */
+    public int getMaxWaitedTicks() {
+        return maxWaitedTicks;
+    }
+
+    /**
+     * The priority classes of updates, from the most to the least important.
+     */
+    public enum SendPriority {
+        /**
+         * The state of entities owned by the client, such as its character
+         */
+        OWNED_ENTITY(true),
+        /**
+         * Entities close to the character of the client
+         */
+        NEARBY_ENTITY(true),
+        BLOCK_CHANGE(false),
+        CHUNK(false),
+        /**
+         * Entities that are relevant to the client, but further away from its character
+         */
+        DISTANT_ENTITY(false);
+
+        private final boolean alwaysSent;
+
+        private SendPriority(boolean alwaysSent) {
+            this.alwaysSent = alwaysSent;
+        }
+
+        /**
+         * @return Whether updates of this priority are sent every tick, regardless of the budget
+         */
+        public boolean isAlwaysSent() {
+            return alwaysSent;
+        }
+    }
+
+    /**
+     * An update that can be sent by the scheduler.
+     */
+    public interface ScheduledSend {
+        /**
+         * @return The serialized size the update will have when written, used to check whether it fits the budget
+         */
+        int size();
+
+        /**
+         * Adds the update to the message.
+         *
+         * @return The serialized size of the added data in bytes
+         */
+        int write(NetData.NetMessage.Builder message);
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final SendPriority priority;
+        private final int rank;
+        private final int waitedTicks;
+        private final ScheduledSend send;
+
+        private Entry(SendPriority priority, int waitedTicks, ScheduledSend send) {
+            this.priority = priority;
+            if (priority.isAlwaysSent()) {
+                this.rank = priority.ordinal() * AGING_TICKS;
+            } else {
+                this.rank = Math.max(priority.ordinal() * AGING_TICKS - waitedTicks, MIN_AGED_RANK);
+            }
+            this.waitedTicks = waitedTicks;
+            this.send = send;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Integer.compare(rank, other.rank);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A file that stores the compressed chunks of one region (a cube of chunks, see
+ * {@link StoragePathProvider#getChunkRegionPosition}).
+ *
+ * The file starts with a memory mapped header table that contains for every chunk of the region the first sector
+ * and the length in bytes of its data. The chunk data follows in sectors of {@link #SECTOR_SIZE} bytes. Loading a chunk
+ * is thus a header lookup plus a single positioned read, and saving a chunk only touches the sectors of that chunk.
+ * When the new data of a chunk does not fit into its old sectors, a new run of free sectors gets allocated
+ * and the old ones are reused for other chunks later on.
+ *
+ * Reading is thread safe. Writing must not happen concurrently with other reads or writes, which
+ * {@link StorageManagerInternal} ensures via its world directory lock.
+ */
+public class ChunkRegionFile implements Closeable {
+    public static final int SECTOR_SIZE = 4096;
+
+    private static final int ENTRY_SIZE = 8;
+    private static final int HEADER_SIZE = StoragePathProvider.CHUNK_REGION_SIZE * ENTRY_SIZE;
+    private static final int HEADER_SECTORS = (HEADER_SIZE + SECTOR_SIZE - 1) / SECTOR_SIZE;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final BitSet usedSectors = new BitSet();
+
+    public ChunkRegionFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        usedSectors.set(0, HEADER_SECTORS);
+        for (int index = 0; index < StoragePathProvider.CHUNK_REGION_SIZE; index++) {
+            int length = getLength(index);
+            if (length > 0) {
+                int firstSector = getFirstSector(index);
+                usedSectors.set(firstSector, firstSector + sectorsFor(length));
+            }
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @param index the index of the chunk within the region, see {@link StoragePathProvider#getChunkRegionIndex}.
+     * @return the stored data of the chunk or null if the region contains no data for it.
+     */
+    public byte[] read(int index) throws IOException {
+        int length = getLength(index);
+        if (length == 0) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = (long) getFirstSector(index) * SECTOR_SIZE;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Chunk data of entry " + index + " exceeds the end of " + path);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Stores the data of a chunk. The old data of the chunk gets overwritten in place if the new data fits into the
+     * sectors that are already used by the chunk.
+     *
+     * @param index the index of the chunk within the region, see {@link StoragePathProvider#getChunkRegionIndex}.
+     */
+    public void write(int index, byte[] data) throws IOException {
+        int oldLength = getLength(index);
+        int oldFirstSector = getFirstSector(index);
+        int oldSectorCount = sectorsFor(oldLength);
+        int sectorCount = sectorsFor(data.length);
+
+        boolean inPlace = oldLength > 0 && sectorCount <= oldSectorCount;
+        int firstSector = inPlace ? oldFirstSector : allocateSectors(sectorCount);
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = (long) firstSector * SECTOR_SIZE;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+
+        // The header gets updated last and the sectors that are no longer needed are only released afterwards.
+        // A failed write of a moved chunk leaves its previous data intact, an overwritten one may be left partially written.
+        setEntry(index, firstSector, data.length);
+        if (inPlace) {
+            usedSectors.clear(oldFirstSector + sectorCount, oldFirstSector + oldSectorCount);
+        } else if (oldLength > 0) {
+            usedSectors.clear(oldFirstSector, oldFirstSector + oldSectorCount);
+        }
+    }
+
+    /**
+     * Writes pending changes of the file and its header to the disk.
+     */
+    public void flush() throws IOException {
+        header.force();
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private int allocateSectors(int count) {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            int nextUsed = usedSectors.nextSetBit(start);
+            if (nextUsed == -1 || nextUsed - start >= count) {
+                usedSectors.set(start, start + count);
+                return start;
+            }
+            start = usedSectors.nextClearBit(nextUsed);
+        }
+    }
+
+    private static int sectorsFor(int length) {
+        return (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+
+    private int getFirstSector(int index) {
+        return header.getInt(index * ENTRY_SIZE);
+    }
+
+    private int getLength(int index) {
+        return header.getInt(index * ENTRY_SIZE + 4);
+    }
+
+    private void setEntry(int index, int firstSector, int length) {
+        header.putInt(index * ENTRY_SIZE, firstSector);
+        header.putInt(index * ENTRY_SIZE + 4, length);
+    }
+}
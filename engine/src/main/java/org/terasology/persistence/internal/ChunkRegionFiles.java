@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.Vector3i;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the {@link ChunkRegionFile}s of a world open, so that they don't need to be reopened for every chunk
+ * that gets loaded or saved.
+ */
+public class ChunkRegionFiles {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkRegionFiles.class);
+
+    private final StoragePathProvider storagePathProvider;
+    private final ConcurrentMap<Vector3i, ChunkRegionFile> openFiles = Maps.newConcurrentMap();
+
+    public ChunkRegionFiles(StoragePathProvider storagePathProvider) {
+        this.storagePathProvider = storagePathProvider;
+    }
+
+    /**
+     * @return the stored data of the chunk or null if it has not been saved yet.
+     */
+    public byte[] readChunk(Vector3i chunkPos) throws IOException {
+        ChunkRegionFile regionFile = getRegionFile(storagePathProvider.getChunkRegionPosition(chunkPos), false);
+        if (regionFile == null) {
+            return null;
+        }
+        return regionFile.read(storagePathProvider.getChunkRegionIndex(chunkPos));
+    }
+
+    /**
+     * The world directory write lock must be hold while calling this method.
+     */
+    public void writeChunk(Vector3i chunkPos, byte[] data) throws IOException {
+        ChunkRegionFile regionFile = getRegionFile(storagePathProvider.getChunkRegionPosition(chunkPos), true);
+        regionFile.write(storagePathProvider.getChunkRegionIndex(chunkPos), data);
+    }
+
+    /**
+     * Writes the changes of all open region files to the disk.
+     */
+    public void flush() throws IOException {
+        for (ChunkRegionFile regionFile : openFiles.values()) {
+            regionFile.flush();
+        }
+    }
+
+    public synchronized void closeAll() {
+        for (ChunkRegionFile regionFile : openFiles.values()) {
+            try {
+                regionFile.close();
+            } catch (IOException e) {
+                logger.error("Failed to close chunk region file {}", regionFile.getPath(), e);
+            }
+        }
+        openFiles.clear();
+    }
+
+    private ChunkRegionFile getRegionFile(Vector3i regionPos, boolean create) throws IOException {
+        ChunkRegionFile regionFile = openFiles.get(regionPos);
+        if (regionFile != null) {
+            return regionFile;
+        }
+        synchronized (this) {
+            regionFile = openFiles.get(regionPos);
+            if (regionFile == null) {
+                Path path = storagePathProvider.getChunkRegionPath(regionPos);
+                if (!create && !Files.isRegularFile(path)) {
+                    return null;
+                }
+                Files.createDirectories(path.getParent());
+                regionFile = new ChunkRegionFile(path);
+                openFiles.put(regionPos, regionFile);
+            }
+            return regionFile;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+/**
+ * Specifies how the chunks of a world get stored on disk.
+ */
+public enum ChunkStorageFormat {
+    /**
+     * Every chunk gets stored in a file of its own.
+     */
+    FILES,
+    /**
+     * The chunks get grouped into zip files. Saving a chunk rewrites the whole zip.
+     */
+    ZIPS,
+    /**
+     * The chunks get grouped into {@link ChunkRegionFile}s which are kept open and get updated in place.
+     */
+    REGION_FILES
+}
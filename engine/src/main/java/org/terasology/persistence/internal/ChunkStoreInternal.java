@@ -27,6 +27,7 @@
 import org.terasology.persistence.ChunkStore;
 import org.terasology.protobuf.EntityData;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.chunks.internal.ChunkSerializer;
 
 import java.util.List;
@@ -55,7 +56,9 @@ public ChunkStoreInternal(EntityData.ChunkStore chunkData, StorageManagerInterna
         this.storageManager = storageManager;
         this.entityManager = entityManager;
 
-        this.chunk = ChunkSerializer.decode(chunkData);
+        ChunkImpl decodedChunk = (ChunkImpl) ChunkSerializer.decode(chunkData);
+        decodedChunk.markPersisted();
+        this.chunk = decodedChunk;
         this.entityStore = chunkData.getStore();
     }
 
@@ -73,5 +76,6 @@ public Chunk getChunk() {
     @Override
     public void restoreEntities() {
         new EntityRestorer(entityManager).restore(entityStore);
+        storageManager.onChunkEntitiesRestored(chunkPosition, entityStore);
     }
 }
@@ -54,7 +54,7 @@ public class SaveTransaction extends AbstractTask {
     private final EntityData.GlobalStore globalStore;
 
     // Save parameters:
-    private final boolean storeChunksInZips;
+    private final ChunkStorageFormat chunkStorageFormat;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
@@ -63,15 +63,15 @@ public class SaveTransaction extends AbstractTask {
 
     public SaveTransaction(Map<String, EntityData.PlayerStore> playerStores, EntityData.GlobalStore globalStore,
                            Map<Vector3i, CompressedChunkBuilder> compressedChunkBuilder, GameManifest gameManifest,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
-                           Lock worldDirectoryWriteLock) {
+                           ChunkStorageFormat chunkStorageFormat, StoragePathProvider storagePathProvider,
+                           ChunkRegionFiles chunkRegionFiles, Lock worldDirectoryWriteLock) {
         this.playerStores = playerStores;
         this.compressedChunkBuilders = compressedChunkBuilder;
         this.globalStore = globalStore;
         this.gameManifest = gameManifest;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageFormat = chunkStorageFormat;
         this.storagePathProvider = storagePathProvider;
-        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider, chunkRegionFiles);
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -159,11 +159,10 @@ private void writeGlobalStore() throws IOException {
     }
 
     private void writeChunkStores() throws IOException {
-        FileSystemProvider zipProvider = getZipFileSystemProvider();
-
         Path chunksPath =  storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
-        if (storeChunksInZips) {
+        if (chunkStorageFormat == ChunkStorageFormat.ZIPS) {
+            FileSystemProvider zipProvider = getZipFileSystemProvider();
             Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : compressedChunkBuilders.entrySet()) {
                 Vector3i chunkPos = entry.getKey();
@@ -205,6 +204,15 @@ public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
                 }
                 zip.close();
             }
+        } else if (chunkStorageFormat == ChunkStorageFormat.REGION_FILES) {
+            // The chunks get written into the region files when the changes get merged:
+            Files.createDirectories(storagePathProvider.getRegionChunksTempPath());
+            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : compressedChunkBuilders.entrySet()) {
+                Path chunkPath = storagePathProvider.getRegionChunkTempPath(entry.getKey());
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
+                    out.write(entry.getValue().buildEncodedChunk());
+                }
+            }
         } else {
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : compressedChunkBuilders.entrySet()) {
                 Vector3i chunkPos = entry.getKey();
@@ -32,14 +32,16 @@ class SaveTransactionBuilder {
     private Map<String, EntityData.PlayerStore> playerStores = Maps.newHashMap();
     private Map<Vector3i, CompressedChunkBuilder> compressedChunkBuilders = Maps.newHashMap();
     private EntityData.GlobalStore globalStore;
-    private final boolean storeChunksInZips;
+    private final ChunkStorageFormat chunkStorageFormat;
     private final StoragePathProvider storagePathProvider;
+    private final ChunkRegionFiles chunkRegionFiles;
     private GameManifest gameManifest;
 
-    SaveTransactionBuilder(boolean storeChunksInZips, StoragePathProvider storagePathProvider,
-                           Lock worldDirectoryWriteLock) {
-        this.storeChunksInZips = storeChunksInZips;
+    SaveTransactionBuilder(ChunkStorageFormat chunkStorageFormat, StoragePathProvider storagePathProvider,
+                           ChunkRegionFiles chunkRegionFiles, Lock worldDirectoryWriteLock) {
+        this.chunkStorageFormat = chunkStorageFormat;
         this.storagePathProvider = storagePathProvider;
+        this.chunkRegionFiles = chunkRegionFiles;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -56,8 +58,8 @@ public void addCompressedChunkBuilder(final Vector3i chunkPosition, final Compre
     }
 
     public SaveTransaction build() {
-        return new SaveTransaction(playerStores, globalStore, compressedChunkBuilders, gameManifest, storeChunksInZips,
-                storagePathProvider, worldDirectoryWriteLock);
+        return new SaveTransaction(playerStores, globalStore, compressedChunkBuilders, gameManifest, chunkStorageFormat,
+                storagePathProvider, chunkRegionFiles, worldDirectoryWriteLock);
     }
 
     public void setGameManifest(GameManifest gameManifest) {
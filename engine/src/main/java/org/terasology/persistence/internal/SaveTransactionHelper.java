@@ -17,6 +17,7 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.math.Vector3i;
 
 import java.io.IOException;
 import java.nio.file.*;
@@ -30,9 +31,11 @@
 public class SaveTransactionHelper {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransactionHelper.class);
     private final StoragePathProvider storagePathProvider;
+    private final ChunkRegionFiles chunkRegionFiles;
 
-    public SaveTransactionHelper(StoragePathProvider storagePathProvider) {
+    public SaveTransactionHelper(StoragePathProvider storagePathProvider, ChunkRegionFiles chunkRegionFiles) {
         this.storagePathProvider = storagePathProvider;
+        this.chunkRegionFiles = chunkRegionFiles;
     }
 
     public void cleanupSaveTransactionDirectory() throws IOException {
@@ -59,17 +62,25 @@ public FileVisitResult postVisitDirectory(Path directory, IOException exc) throw
      * Merges all outstanding changes into the save game. If this operation gets interrupted it can be started again
      * without any file corruption when the file system supports atomic moves.
      *
+     * Chunks that are stored in region files get written into their {@link ChunkRegionFile}. As writing a chunk into
+     * a region file multiple times has the same result, this is safe to repeat too.
+     *
      * The write lock for the save directory should be acquired before this method gets called.
      */
     public void mergeChanges() throws IOException {
         final Path sourceDirectory = storagePathProvider.getUnmergedChangesPath();
         final Path targetDirectory = storagePathProvider.getStoragePathDirectory();
+        final Path regionChunksDirectory = storagePathProvider.getUnmergedRegionChunksPath();
 
         Files.walkFileTree(sourceDirectory, new SimpleFileVisitor<Path>() {
             boolean atomicNotPossibleLogged = false;
 
             @Override
             public FileVisitResult preVisitDirectory(Path sourceSubDir, BasicFileAttributes attrs) throws IOException {
+                if (sourceSubDir.equals(regionChunksDirectory)) {
+                    mergeRegionChunks(regionChunksDirectory);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
                 Path targetSubDir = targetDirectory.resolve(sourceDirectory.relativize(sourceSubDir));
                 if (!Files.isDirectory(targetSubDir)) {
                     Files.createDirectory(targetSubDir);
@@ -101,4 +112,25 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
             }
         });
     }
+
+    private void mergeRegionChunks(Path regionChunksDirectory) throws IOException {
+        try (DirectoryStream<Path> chunkFiles = Files.newDirectoryStream(regionChunksDirectory)) {
+            for (Path chunkFile : chunkFiles) {
+                Vector3i chunkPos = storagePathProvider.parseChunkFilename(chunkFile.getFileName().toString());
+                if (chunkPos == null) {
+                    logger.warn("Ignoring unexpected file {} within the chunks to merge", chunkFile);
+                    continue;
+                }
+                chunkRegionFiles.writeChunk(chunkPos, Files.readAllBytes(chunkFile));
+            }
+        }
+        // Only delete the merged chunks once all region files are written, so that a merge can be repeated:
+        chunkRegionFiles.flush();
+        try (DirectoryStream<Path> chunkFiles = Files.newDirectoryStream(regionChunksDirectory)) {
+            for (Path chunkFile : chunkFiles) {
+                Files.delete(chunkFile);
+            }
+        }
+        Files.delete(regionChunksDirectory);
+    }
 }
@@ -17,21 +17,24 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
 import org.terasology.engine.ComponentSystemManager;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.engine.paths.PathManager;
+import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.entity.internal.EntityChangeSubscriber;
 import org.terasology.entitySystem.entity.internal.EntityDestroySubscriber;
 import org.terasology.entitySystem.systems.ComponentSystem;
 import org.terasology.game.Game;
 import org.terasology.game.GameManifest;
+import org.terasology.logic.location.EntitySpatialIndex;
 import org.terasology.logic.location.LocationComponent;
-import org.terasology.math.AABB;
-import org.terasology.math.TeraMath;
 import org.terasology.math.Vector3i;
 import org.terasology.module.Module;
 import org.terasology.module.ModuleEnvironment;
@@ -68,7 +71,6 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -85,7 +87,7 @@
  * @author Immortius
  * @author Florian <florian@fkoeberle.de>
  */
-public final class StorageManagerInternal implements StorageManager, EntityDestroySubscriber {
+public final class StorageManagerInternal implements StorageManager, EntityDestroySubscriber, EntityChangeSubscriber {
     private static final Logger logger = LoggerFactory.getLogger(StorageManagerInternal.class);
 
     private final TaskMaster<Task> saveThreadManager;
@@ -94,8 +96,9 @@ public final class StorageManagerInternal implements StorageManager, EntityDestr
     private EngineEntityManager entityManager;
     private PrefabSerializer prefabSerializer;
 
-    private boolean storeChunksInZips = true;
+    private ChunkStorageFormat chunkStorageFormat;
     private final StoragePathProvider storagePathProvider;
+    private final ChunkRegionFiles chunkRegionFiles;
     private final SaveTransactionHelper saveTransactionHelper;
     /**
      * This lock should be hold during read and write operation in the world directory. Currently it is being hold
@@ -111,6 +114,7 @@ public final class StorageManagerInternal implements StorageManager, EntityDestr
     private final Lock worldDirectoryWriteLock = worldDirectoryLock.writeLock();
     private SaveTransaction saveTransaction;
     private Config config;
+    private EntitySpatialIndex spatialIndex;
 
     /**
      * Time of the next save in the format that {@link System#currentTimeMillis()} returns.
@@ -122,28 +126,52 @@ public final class StorageManagerInternal implements StorageManager, EntityDestr
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndUnsavedPlayerMap = Maps.newConcurrentMap();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndSavingPlayerMap = Maps.newConcurrentMap();
 
+    /**
+     * Ids of the entities that changed since the last save, together with the entities that own them. Only accessed
+     * by the main thread.
+     */
+    private TLongSet changedEntityIds = new TLongHashSet();
+    /**
+     * For the loaded chunks the ids of the entities without owner that were stored with the chunk when it was last
+     * saved or loaded. Only accessed by the main thread.
+     */
+    private Map<Vector3i, TLongSet> persistedChunkEntityIds = Maps.newHashMap();
+
 
     public StorageManagerInternal(ModuleEnvironment environment, EngineEntityManager entityManager) {
         this(environment, entityManager, true);
     }
 
     public StorageManagerInternal(ModuleEnvironment environment, EngineEntityManager entityManager, boolean storeChunksInZips) {
+        this(environment, entityManager, storeChunksInZips ? ChunkStorageFormat.ZIPS : ChunkStorageFormat.FILES);
+    }
+
+    public StorageManagerInternal(ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  ChunkStorageFormat chunkStorageFormat) {
         this.entityManager = entityManager;
         this.environment = environment;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageFormat = chunkStorageFormat;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
-        entityManager.subscribe(this);
+        entityManager.subscribe((EntityDestroySubscriber) this);
+        entityManager.subscribe((EntityChangeSubscriber) this);
         this.storagePathProvider = new StoragePathProvider(PathManager.getInstance().getCurrentSavePath());
-        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.chunkRegionFiles = new ChunkRegionFiles(storagePathProvider);
+        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider, chunkRegionFiles);
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
         this.config = CoreRegistry.get(Config.class);
-
+        this.spatialIndex = CoreRegistry.get(EntitySpatialIndex.class);
     }
 
     @Override
     public void finishSavingAndShutdown() {
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        worldDirectoryWriteLock.lock();
+        try {
+            chunkRegionFiles.closeAll();
+        } finally {
+            worldDirectoryWriteLock.unlock();
+        }
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -247,51 +275,80 @@ private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBu
             unsavedEntryIterator.remove();
         }
 
-        Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap = createChunkPosToUnsavedEntitiesMap();
-
         for (Chunk chunk : chunkProvider.getAllChunks()) {
             if (chunk.isReady()) {
+                Collection<EntityRef> entitiesToStore = getEntitiesOfChunk(chunk);
+                unsavedEntities.removeAll(entitiesToStore);
+                ChunkImpl chunkImpl = (ChunkImpl) chunk;
+                if (isChunkUnchangedSinceLastSave(chunkImpl, entitiesToStore)) {
+                    // Stored data is up to date. A disposed version of the chunk has the same content as well.
+                    continue;
+                }
                 // If there is a newer undisposed version of the chunk,we don't need to save the disposed version:
                 unloadedAndSavingChunkMap.remove(chunk.getPosition());
-                Collection<EntityRef> entitiesToStore = chunkPosToEntitiesMap.get(chunk.getPosition());
-                if (entitiesToStore == null) {
-                    entitiesToStore = Collections.emptySet();
-                }
-                unsavedEntities.removeAll(entitiesToStore);
+                // Read before the snapshot, so that a change in between results in the chunk being saved again
+                int generation = chunkImpl.getModificationGeneration();
                 CompressedChunkBuilder compressedChunkBuilder = createCompressedChunkBuilder(chunk,
                         entitiesToStore, false);
                 saveTransactionBuilder.addCompressedChunkBuilder(chunk.getPosition(), compressedChunkBuilder);
+                chunkImpl.markPersisted(generation);
+                persistedChunkEntityIds.put(chunk.getPosition(), getPersistentEntityIds(entitiesToStore));
             }
         }
+        changedEntityIds.clear();
 
         for (Map.Entry<Vector3i, CompressedChunkBuilder> entry: unloadedAndSavingChunkMap.entrySet()) {
             saveTransactionBuilder.addCompressedChunkBuilder(entry.getKey(), entry.getValue());
         }
     }
 
-    private Map<Vector3i, Collection<EntityRef>> createChunkPosToUnsavedEntitiesMap() {
-        Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap = Maps.newHashMap();
-        for (EntityRef entity : entityManager.getEntitiesWith(LocationComponent.class)) {
-            /*
-             * Note: Entities with owners get saved with the owner. Entities that are always relevant don't get stored
-             * in chunk as the chunk is not always loaded
-             */
-            if (entity.isPersistent() && !entity.getOwner().exists() && !entity.hasComponent(ClientComponent.class)
-                    && !entity.isAlwaysRelevant()) {
-                LocationComponent locationComponent = entity.getComponent(LocationComponent.class);
-                if (locationComponent != null) {
-                    Vector3f loc = locationComponent.getWorldPosition();
-                    Vector3i chunkPos = TeraMath.calcChunkPos((int) loc.x, (int) loc.y, (int) loc.z);
-                    Collection<EntityRef> collection = chunkPosToEntitiesMap.get(chunkPos);
-                    if (collection == null) {
-                        collection = Lists.newArrayList();
-                        chunkPosToEntitiesMap.put(chunkPos, collection);
-                    }
-                    collection.add(entity);
+    /**
+     * @param entities all entities without owner within the chunk.
+     * @return true if neither the chunk nor its persistent entities changed since the chunk got saved or loaded.
+     */
+    private boolean isChunkUnchangedSinceLastSave(ChunkImpl chunk, Collection<EntityRef> entities) {
+        if (chunk.isModifiedSinceLastPersisted()) {
+            return false;
+        }
+        TLongSet persistedIds = persistedChunkEntityIds.get(chunk.getPosition());
+        if (persistedIds == null) {
+            return false;
+        }
+        int persistentEntityCount = 0;
+        for (EntityRef entity : entities) {
+            if (entity.isPersistent()) {
+                long id = entity.getId();
+                if (!persistedIds.contains(id) || changedEntityIds.contains(id)) {
+                    return false;
                 }
+                persistentEntityCount++;
             }
         }
-        return chunkPosToEntitiesMap;
+        return persistentEntityCount == persistedIds.size();
+    }
+
+    private static TLongSet getPersistentEntityIds(Collection<EntityRef> entities) {
+        TLongSet result = new TLongHashSet();
+        for (EntityRef entity : entities) {
+            if (entity.isPersistent()) {
+                result.add(entity.getId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Should be called after the entities of a loaded chunk got restored, so that unchanged chunks don't need to be
+     * saved again.
+     */
+    void onChunkEntitiesRestored(Vector3i chunkPos, EntityData.EntityStore entityStore) {
+        TLongSet ids = new TLongHashSet();
+        for (EntityData.Entity entityData : entityStore.getEntityList()) {
+            if (!entityManager.getEntity(entityData.getId()).getOwner().exists()) {
+                ids.add(entityData.getId());
+            }
+        }
+        persistedChunkEntityIds.put(new Vector3i(chunkPos), ids);
     }
 
     /**
@@ -347,8 +404,8 @@ private void waitForCompletionOfPreviousSave() {
     }
 
     private SaveTransaction createSaveTransaction() {
-        SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(storeChunksInZips,
-                storagePathProvider, worldDirectoryWriteLock);
+        SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(chunkStorageFormat,
+                storagePathProvider, chunkRegionFiles, worldDirectoryWriteLock);
 
         /**
          * Currently loaded persistent entities without owner that have not been saved yet.
@@ -433,18 +490,15 @@ private EntityData.PlayerStore createPlayerStore(Client client, EntityRef charac
     }
 
 
+    /**
+     * Note: Entities with owners get saved with the owner. Entities that are always relevant don't get stored
+     * in chunk as the chunk is not always loaded
+     */
     private Collection<EntityRef> getEntitiesOfChunk(Chunk chunk) {
         List<EntityRef> entitiesToStore = Lists.newArrayList();
-
-        AABB aabb = chunk.getAABB();
-        for (EntityRef entity : entityManager.getEntitiesWith(LocationComponent.class)) {
+        for (EntityRef entity : spatialIndex.getEntitiesInChunk(chunk.getPosition())) {
             if (!entity.getOwner().exists() && !entity.isAlwaysRelevant() && !entity.hasComponent(ClientComponent.class)) {
-                LocationComponent loc = entity.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    if (aabb.contains(loc.getWorldPosition())) {
-                        entitiesToStore.add(entity);
-                    }
-                }
+                entitiesToStore.add(entity);
             }
         }
         return entitiesToStore;
@@ -452,8 +506,15 @@ private Collection<EntityRef> getEntitiesOfChunk(Chunk chunk) {
 
     @Override
     public void deactivateChunk(Chunk chunk) {
+        // Pending changes decide which entities are in the chunk and whether they need to be saved
+        entityManager.flushChangeNotifications();
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
-        unloadedAndUnsavedChunkMap.put(chunk.getPosition(), createCompressedChunkBuilder(chunk, entitiesOfChunk, true));
+        boolean unchanged = isChunkUnchangedSinceLastSave((ChunkImpl) chunk, entitiesOfChunk);
+        CompressedChunkBuilder compressedChunkBuilder = createCompressedChunkBuilder(chunk, entitiesOfChunk, true);
+        if (!unchanged) {
+            unloadedAndUnsavedChunkMap.put(chunk.getPosition(), compressedChunkBuilder);
+        }
+        persistedChunkEntityIds.remove(chunk.getPosition());
     }
 
 
@@ -469,8 +530,14 @@ private byte[] loadCompressedChunk(Vector3i chunkPos) {
 
         worldDirectoryReadLock.lock();
         try {
-            if (storeChunksInZips) {
+            if (chunkStorageFormat == ChunkStorageFormat.ZIPS) {
                 return loadChunkZip(chunkPos);
+            } else if (chunkStorageFormat == ChunkStorageFormat.REGION_FILES) {
+                try {
+                    return chunkRegionFiles.readChunk(chunkPos);
+                } catch (IOException e) {
+                    logger.error("Failed to load chunk {} from its region file", chunkPos, e);
+                }
             } else {
                 Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
                 if (Files.isRegularFile(chunkPath)) {
@@ -526,6 +593,32 @@ public void onEntityDestroyed(long entityId) {
 
     }
 
+    @Override
+    public void onEntityComponentAdded(EntityRef entity, Class<? extends Component> component) {
+        markEntityChanged(entity);
+    }
+
+    @Override
+    public void onEntityComponentChange(EntityRef entity, Class<? extends Component> component) {
+        markEntityChanged(entity);
+    }
+
+    @Override
+    public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component> component) {
+        markEntityChanged(entity);
+    }
+
+    /**
+     * Owned entities get stored with their owner, so the owners are marked as changed too.
+     */
+    private void markEntityChanged(EntityRef entity) {
+        changedEntityIds.add(entity.getId());
+        EntityRef owner = entity.getOwner();
+        while (owner.exists() && changedEntityIds.add(owner.getId())) {
+            owner = owner.getOwner();
+        }
+    }
+
     private void addGameManifestToSaveTransaction(SaveTransactionBuilder saveTransactionBuilder) {
         BlockManager blockManager = CoreRegistry.get(BlockManager.class);
         BiomeManager biomeManager = CoreRegistry.get(BiomeManager.class);
@@ -582,6 +675,7 @@ private void startSaving() {
         for (ComponentSystem sys : componentSystemManager.iterateAll()) {
             sys.preSave();
         }
+        entityManager.flushChangeNotifications();
 
         saveRequested = false;
         saveTransaction = createSaveTransaction();
@@ -623,7 +717,15 @@ private boolean isSavingNecessary() {
      * 
      */
     public void setStoreChunksInZips(boolean storeChunksInZips) {
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageFormat = storeChunksInZips ? ChunkStorageFormat.ZIPS : ChunkStorageFormat.FILES;
+    }
+
+    /**
+     * For tests only
+     *
+     */
+    public void setChunkStorageFormat(ChunkStorageFormat chunkStorageFormat) {
+        this.chunkStorageFormat = chunkStorageFormat;
     }
 
     private void scheduleNextAutoSave() {
@@ -652,6 +754,9 @@ public void deleteWorld() {
         unloadedAndSavingChunkMap.clear();
         unloadedAndUnsavedPlayerMap.clear();
         unloadedAndSavingPlayerMap.clear();
+        changedEntityIds.clear();
+        persistedChunkEntityIds.clear();
+        chunkRegionFiles.closeAll();
 
         try {
             FilesUtil.recursiveDelete(storagePathProvider.getWorldPath());
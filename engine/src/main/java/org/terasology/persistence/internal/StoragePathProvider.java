@@ -31,7 +31,14 @@ public class StoragePathProvider {
     private static final String GLOBAL_ENTITY_STORE = "global.dat";
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
+    private static final String REGION_CHUNKS_PATH = "region-chunks";
+    private static final String CHUNK_EXTENSION = ".chunk";
     private static final int CHUNK_ZIP_DIM = 32;
+    /**
+     * Number of chunks per axis of a chunk region. A region covers the same chunks as a chunk zip.
+     */
+    static final int CHUNK_REGION_DIM = CHUNK_ZIP_DIM;
+    static final int CHUNK_REGION_SIZE = CHUNK_REGION_DIM * CHUNK_REGION_DIM * CHUNK_REGION_DIM;
 
     private final Path storagePathDirectory;
     private final Path playersPath;
@@ -100,7 +107,26 @@ public Path getGlobalEntityStoreTempPath() {
     }
 
     public String getChunkFilename(Vector3i pos) {
-        return String.format("%d.%d.%d.chunk", pos.x, pos.y, pos.z);
+        return String.format("%d.%d.%d" + CHUNK_EXTENSION, pos.x, pos.y, pos.z);
+    }
+
+    /**
+     * @return the chunk position encoded in a filename created by {@link #getChunkFilename(Vector3i)} or null if the
+     * filename has not been created by it.
+     */
+    public Vector3i parseChunkFilename(String filename) {
+        if (!filename.endsWith(CHUNK_EXTENSION)) {
+            return null;
+        }
+        String[] parts = filename.substring(0, filename.length() - CHUNK_EXTENSION.length()).split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new Vector3i(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
 
@@ -108,6 +134,10 @@ private String getChunkZipFilename(Vector3i pos) {
         return String.format("%d.%d.%d.chunks.zip", pos.x, pos.y, pos.z);
     }
 
+    private String getChunkRegionFilename(Vector3i pos) {
+        return String.format("%d.%d.%d.chunks.region", pos.x, pos.y, pos.z);
+    }
+
     public Vector3i getChunkZipPosition(Vector3i chunkPos) {
         Vector3i result = new Vector3i(chunkPos);
         result.divide(CHUNK_ZIP_DIM);
@@ -123,6 +153,56 @@ public Vector3i getChunkZipPosition(Vector3i chunkPos) {
         return result;
     }
 
+    /**
+     * Unlike {@link #getChunkZipPosition(Vector3i)} this method rounds down for negative chunk positions that are
+     * a multiple of the region size too, so that every chunk maps to a valid index within its region.
+     */
+    public Vector3i getChunkRegionPosition(Vector3i chunkPos) {
+        return new Vector3i(floorDivRegionDim(chunkPos.x), floorDivRegionDim(chunkPos.y), floorDivRegionDim(chunkPos.z));
+    }
+
+    /**
+     * @return the index of the chunk within the region returned by {@link #getChunkRegionPosition(Vector3i)}.
+     */
+    public int getChunkRegionIndex(Vector3i chunkPos) {
+        int x = chunkPos.x - floorDivRegionDim(chunkPos.x) * CHUNK_REGION_DIM;
+        int y = chunkPos.y - floorDivRegionDim(chunkPos.y) * CHUNK_REGION_DIM;
+        int z = chunkPos.z - floorDivRegionDim(chunkPos.z) * CHUNK_REGION_DIM;
+        return x + CHUNK_REGION_DIM * (y + CHUNK_REGION_DIM * z);
+    }
+
+    public Path getChunkRegionPath(Vector3i chunkRegionPos) {
+        return worldPath.resolve(getChunkRegionFilename(chunkRegionPos));
+    }
+
+    /**
+     * @return the directory in which a save transaction stores the chunks that need to be written into the
+     * region files when the changes get merged.
+     */
+    public Path getRegionChunksTempPath() {
+        return getWorldTempPath().resolve(REGION_CHUNKS_PATH);
+    }
+
+    public Path getRegionChunkTempPath(Vector3i chunkPos) {
+        return getRegionChunksTempPath().resolve(getChunkFilename(chunkPos));
+    }
+
+    /**
+     * @return the directory with chunks to be written into region files within the unmerged changes.
+     */
+    public Path getUnmergedRegionChunksPath() {
+        return unmergedChangesPath.resolve(WORLDS_PATH).resolve(TerasologyConstants.MAIN_WORLD)
+                .resolve(REGION_CHUNKS_PATH);
+    }
+
+    private static int floorDivRegionDim(int value) {
+        int result = value / CHUNK_REGION_DIM;
+        if (value < 0 && result * CHUNK_REGION_DIM != value) {
+            result--;
+        }
+        return result;
+    }
+
     public Path getChunkPath(Vector3i chunkPos) {
         return worldPath.resolve(getChunkFilename(chunkPos));
     }
@@ -185,6 +185,33 @@ public boolean intersects(AABB aabb) {
         return true;
     }
 
+    /**
+     * Classifies the given box against the view frustum. The box is given relative to the camera position, the same
+     * way intersects(AABB) offsets the vertices of the AABB it tests.
+     *
+     * @return OUTSIDE if the box is outside of the frustum, INSIDE if it is completely inside, INTERSECTING otherwise
+     */
+    public Intersection classify(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        Intersection result = Intersection.INSIDE;
+        for (int i = 0; i < 6; i++) {
+            float a = planes[i].getA();
+            float b = planes[i].getB();
+            float c = planes[i].getC();
+            float d = planes[i].getD();
+
+            // The vertex furthest along the plane normal decides whether the box is outside, the nearest one whether it is inside
+            float farDistance = a * ((a > 0) ? maxX : minX) + b * ((b > 0) ? maxY : minY) + c * ((c > 0) ? maxZ : minZ) + d;
+            if (farDistance <= 0) {
+                return Intersection.OUTSIDE;
+            }
+            float nearDistance = a * ((a > 0) ? minX : maxX) + b * ((b > 0) ? minY : maxY) + c * ((c > 0) ? minZ : maxZ) + d;
+            if (nearDistance <= 0) {
+                result = Intersection.INTERSECTING;
+            }
+        }
+        return result;
+    }
+
     /**
      * Returns true if the given sphere intersects the given AABB.
      */
@@ -196,4 +223,10 @@ public boolean intersects(Vector3f position, float radius) {
         }
         return true;
     }
+
+    public enum Intersection {
+        OUTSIDE,
+        INTERSECTING,
+        INSIDE
+    }
 }
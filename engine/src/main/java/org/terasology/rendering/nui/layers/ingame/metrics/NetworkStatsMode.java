@@ -52,6 +52,8 @@ public String getMetrics() {
             builder.append(String.format("In Bytes: %d%n", networkSystem.getIncomingBytesDelta()));
             builder.append(String.format("Out Msg: %d%n", networkSystem.getOutgoingMessagesDelta()));
             builder.append(String.format("Out Bytes: %d%n", networkSystem.getOutgoingBytesDelta()));
+            builder.append(String.format("Deferred Updates: %d%n", networkSystem.getDeferredUpdatesDelta()));
+            builder.append(String.format("Max Update Delay: %dms%n", networkSystem.getMaxUpdateDelayDelta()));
             if (lastTime != 0) {
                 // ignore the first update as it will not have useful data
                 lastMetric = builder.toString();
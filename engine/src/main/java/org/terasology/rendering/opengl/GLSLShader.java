@@ -247,6 +247,10 @@ private static StringBuilder createShaderBuilder() {
         if (config.getRendering().isClampLighting()) {
             builder.append("#define CLAMP_LIGHTING \n");
         }
+        if (config.getRendering().isGreedyMeshing()) {
+            builder.append("#extension GL_ARB_shader_texture_lod : enable \n");
+            builder.append("#define GREEDY_MESHING \n");
+        }
 
         for (RenderingDebugConfig.DebugRenderingStage stage : RenderingDebugConfig.DebugRenderingStage.values()) {
             builder.append("#define ").append(stage.getDefineName()).append(" int(").append(stage.getIndex()).append(") \n");
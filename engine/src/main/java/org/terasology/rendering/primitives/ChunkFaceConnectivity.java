@@ -0,0 +1,213 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.terasology.math.Side;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Arrays;
+
+/**
+ * Describes which faces of a chunk are connected through blocks that can be seen through, like air, glass or water.
+ * <p/>
+ * Two faces are connected if a path of see-through blocks inside of the chunk leads from one face to the other.
+ * Chunks enclosed by opaque blocks have no connected faces at all, so the renderer can skip them if they can't be
+ * seen through any of their neighbours.
+ */
+public final class ChunkFaceConnectivity {
+
+    private static final int SIDE_COUNT = Side.values().length;
+
+    private static final int SIZE_X = ChunkConstants.SIZE_X;
+    private static final int SIZE_Y = ChunkConstants.SIZE_Y;
+    private static final int SIZE_Z = ChunkConstants.SIZE_Z;
+    private static final int VOLUME = SIZE_X * SIZE_Y * SIZE_Z;
+
+    private static final ThreadLocal<FloodFill> FLOOD_FILLS = new ThreadLocal<>();
+
+    /**
+     * Connectivity of chunks which are not known yet, all faces are connected.
+     */
+    public static final ChunkFaceConnectivity OPEN = new ChunkFaceConnectivity(allConnected());
+
+    /**
+     * Connectivity of chunks without any connected faces.
+     */
+    public static final ChunkFaceConnectivity CLOSED = new ChunkFaceConnectivity(new int[SIDE_COUNT]);
+
+    private final int[] connectedSides;
+
+    private ChunkFaceConnectivity(int[] connectedSides) {
+        this.connectedSides = connectedSides;
+    }
+
+    /**
+     * @return Whether a path of see-through blocks leads from the one side of the chunk to the other
+     */
+    public boolean isConnected(Side from, Side to) {
+        return (connectedSides[from.ordinal()] & (1 << to.ordinal())) != 0;
+    }
+
+    /**
+     * @return A bit mask of the sides connected to the given side, bit i being the side with ordinal i
+     */
+    public int getConnectedSides(Side side) {
+        return connectedSides[side.ordinal()];
+    }
+
+    /**
+     * Calculates the connectivity of the chunk at the center of the given view by flood filling its see-through
+     * blocks.
+     */
+    public static ChunkFaceConnectivity calculate(ChunkView view) {
+        FloodFill floodFill = FLOOD_FILLS.get();
+        if (floodFill == null) {
+            floodFill = new FloodFill();
+            FLOOD_FILLS.set(floodFill);
+        }
+        int[] connectedSides = floodFill.calculate(view);
+        if (Arrays.equals(connectedSides, CLOSED.connectedSides)) {
+            return CLOSED;
+        } else if (Arrays.equals(connectedSides, OPEN.connectedSides)) {
+            return OPEN;
+        }
+        return new ChunkFaceConnectivity(connectedSides);
+    }
+
+    private static int[] allConnected() {
+        int[] result = new int[SIDE_COUNT];
+        Arrays.fill(result, (1 << SIDE_COUNT) - 1);
+        return result;
+    }
+
+    /**
+     * @return Whether the block lets the chunks behind it be seen, which connects the faces of its chunk
+     */
+    public static boolean isSeeThrough(Block block) {
+        if (block.isInvisible() || block.isTranslucent() || block.isLiquid()) {
+            return true;
+        }
+        for (Side side : Side.values()) {
+            if (!block.isFullSide(side)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The buffers used for flood filling a chunk, reused between calculations of the same thread.
+     */
+    private static final class FloodFill {
+        private final boolean[] open = new boolean[VOLUME];
+        private final int[] stack = new int[VOLUME];
+
+        public int[] calculate(ChunkView view) {
+            Block lastBlock = null;
+            boolean lastSeeThrough = false;
+            for (int y = 0; y < SIZE_Y; y++) {
+                for (int z = 0; z < SIZE_Z; z++) {
+                    for (int x = 0; x < SIZE_X; x++) {
+                        Block block = view.getBlock(x, y, z);
+                        if (block != lastBlock) {
+                            lastBlock = block;
+                            lastSeeThrough = isSeeThrough(block);
+                        }
+                        open[index(x, y, z)] = lastSeeThrough;
+                    }
+                }
+            }
+
+            int[] result = new int[SIDE_COUNT];
+            for (int i = 0; i < VOLUME; i++) {
+                if (open[i]) {
+                    int sides = fill(i);
+                    for (int side = 0; side < SIDE_COUNT; side++) {
+                        if ((sides & (1 << side)) != 0) {
+                            result[side] |= sides;
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Visits all see-through blocks connected to the given one.
+         *
+         * @return A bit mask of the sides of the chunk the visited blocks touch
+         */
+        private int fill(int start) {
+            int sides = 0;
+            int stackSize = 0;
+            open[start] = false;
+            stack[stackSize++] = start;
+            while (stackSize > 0) {
+                int i = stack[--stackSize];
+                int x = i % SIZE_X;
+                int z = (i / SIZE_X) % SIZE_Z;
+                int y = i / (SIZE_X * SIZE_Z);
+
+                if (y == SIZE_Y - 1) {
+                    sides |= 1 << Side.TOP.ordinal();
+                } else {
+                    stackSize = push(i + SIZE_X * SIZE_Z, stackSize);
+                }
+                if (y == 0) {
+                    sides |= 1 << Side.BOTTOM.ordinal();
+                } else {
+                    stackSize = push(i - SIZE_X * SIZE_Z, stackSize);
+                }
+                if (x == 0) {
+                    sides |= 1 << Side.LEFT.ordinal();
+                } else {
+                    stackSize = push(i - 1, stackSize);
+                }
+                if (x == SIZE_X - 1) {
+                    sides |= 1 << Side.RIGHT.ordinal();
+                } else {
+                    stackSize = push(i + 1, stackSize);
+                }
+                if (z == 0) {
+                    sides |= 1 << Side.FRONT.ordinal();
+                } else {
+                    stackSize = push(i - SIZE_X, stackSize);
+                }
+                if (z == SIZE_Z - 1) {
+                    sides |= 1 << Side.BACK.ordinal();
+                } else {
+                    stackSize = push(i + SIZE_X, stackSize);
+                }
+            }
+            return sides;
+        }
+
+        private int push(int i, int stackSize) {
+            if (open[i]) {
+                open[i] = false;
+                stack[stackSize] = i;
+                return stackSize + 1;
+            }
+            return stackSize;
+        }
+
+        private static int index(int x, int y, int z) {
+            return x + SIZE_X * (z + SIZE_Z * y);
+        }
+    }
+}
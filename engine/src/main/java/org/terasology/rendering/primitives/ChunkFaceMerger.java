@@ -0,0 +1,366 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+import org.terasology.rendering.RenderMath;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.ChunkConstants;
+
+import javax.vecmath.Vector2f;
+import javax.vecmath.Vector3f;
+import javax.vecmath.Vector4f;
+import java.util.Map;
+
+/**
+ * Collects the opaque full block faces of a chunk mesh section and merges coplanar, identical neighbours into
+ * larger quads.
+ * <p/>
+ * The texture atlas cannot repeat a tile across a quad, so merged quads carry their texture coordinates as
+ * {@code tile * 128 + 64 + tileLocal} per axis, where {@code tileLocal} grows by one per block. The chunk shader
+ * decodes these (see GREEDY_MESHING in chunk_frag.glsl); regular atlas coordinates are always below 1.
+ */
+final class ChunkFaceMerger {
+
+    /**
+     * Limits the length of a merged quad, which keeps the tile local coordinates well within their encoding range.
+     */
+    static final int MAX_RUN = 32;
+
+    private static final float TILE_ENCODING_SCALE = 128f;
+    private static final float TILE_ENCODING_OFFSET = 64f;
+    private static final float BORDER_FACTOR = 126f / 128f;
+    private static final float EPSILON = 0.0001f;
+
+    private final int meshHeight;
+    private final int verticalOffset;
+    private final MergeableFace[][] faces = new MergeableFace[Side.values().length][];
+    private final Map<BlockMeshPart, FaceTemplate> templates = Maps.newIdentityHashMap();
+    private final float[] extend = new float[3];
+
+    public ChunkFaceMerger(int meshHeight, int verticalOffset) {
+        this.meshHeight = meshHeight;
+        this.verticalOffset = verticalOffset;
+    }
+
+    /**
+     * @return Whether the given part is a single full unit quad covering the given side of its block, and can
+     *         therefore be merged with its neighbours
+     */
+    public boolean isMergeable(BlockMeshPart part, Side side) {
+        return getTemplate(part, side) != null;
+    }
+
+    /**
+     * Adds a face to merge. The part must be mergeable for the given side.
+     *
+     * @param x     The x position of the block within the chunk
+     * @param y     The y position of the block within the chunk
+     * @param z     The z position of the block within the chunk
+     * @param light The sunlight, block light and ambient occlusion shared by all corners of the face
+     */
+    public void add(Side side, int x, int y, int z, BlockMeshPart part, Vector4f colorOffset, ChunkVertexFlag flag, float[] light) {
+        MergeableFace[] sideFaces = faces[side.ordinal()];
+        if (sideFaces == null) {
+            sideFaces = new MergeableFace[ChunkConstants.SIZE_X * meshHeight * ChunkConstants.SIZE_Z];
+            faces[side.ordinal()] = sideFaces;
+        }
+        sideFaces[index(x, y - verticalOffset, z)] = new MergeableFace(getTemplate(part, side), colorOffset, flag, light);
+    }
+
+    /**
+     * Merges all added faces and appends the resulting quads to the opaque elements of the mesh.
+     */
+    public void appendTo(ChunkMesh mesh) {
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        int[] pos = new int[3];
+        int[] size = {ChunkConstants.SIZE_X, meshHeight, ChunkConstants.SIZE_Z};
+        for (Side side : Side.values()) {
+            MergeableFace[] sideFaces = faces[side.ordinal()];
+            if (sideFaces == null) {
+                continue;
+            }
+            int normalAxis = normalAxis(side);
+            int axisA = axisA(normalAxis);
+            int axisB = axisB(normalAxis);
+
+            for (int n = 0; n < size[normalAxis]; n++) {
+                pos[normalAxis] = n;
+                for (int b = 0; b < size[axisB]; b++) {
+                    for (int a = 0; a < size[axisA]; a++) {
+                        pos[axisA] = a;
+                        pos[axisB] = b;
+                        MergeableFace face = sideFaces[index(pos[0], pos[1], pos[2])];
+                        if (face == null) {
+                            continue;
+                        }
+
+                        int width = 1;
+                        while (a + width < size[axisA] && width < MAX_RUN) {
+                            pos[axisA] = a + width;
+                            if (!face.equals(sideFaces[index(pos[0], pos[1], pos[2])])) {
+                                break;
+                            }
+                            width++;
+                        }
+
+                        int height = 1;
+                        rows:
+                        while (b + height < size[axisB] && height < MAX_RUN) {
+                            pos[axisB] = b + height;
+                            for (int i = 0; i < width; ++i) {
+                                pos[axisA] = a + i;
+                                if (!face.equals(sideFaces[index(pos[0], pos[1], pos[2])])) {
+                                    break rows;
+                                }
+                            }
+                            height++;
+                        }
+
+                        for (int j = 0; j < height; ++j) {
+                            pos[axisB] = b + j;
+                            for (int i = 0; i < width; ++i) {
+                                pos[axisA] = a + i;
+                                sideFaces[index(pos[0], pos[1], pos[2])] = null;
+                            }
+                        }
+                        pos[axisA] = a;
+                        pos[axisB] = b;
+                        appendQuad(elements, face, pos[0], pos[1] + verticalOffset, pos[2], width, height);
+                    }
+                }
+            }
+        }
+    }
+
+    private void appendQuad(ChunkMesh.VertexElements elements, MergeableFace face, int x, int y, int z, int width, int height) {
+        FaceTemplate template = face.template;
+        BlockMeshPart part = template.part;
+        int packedColor = RenderMath.packColor(face.colorOffset.x, face.colorOffset.y, face.colorOffset.z, face.colorOffset.w);
+        int nextIndex = elements.vertexCount;
+        for (int i = 0; i < part.size(); ++i) {
+            float extendA = template.highA[i] ? width - 1 : 0;
+            float extendB = template.highB[i] ? height - 1 : 0;
+
+            Vector3f vertex = part.getVertex(i);
+            extend[template.normalAxis] = 0;
+            extend[template.axisA] = extendA;
+            extend[template.axisB] = extendB;
+
+            float localU = template.localU[i] + extendA * template.localUPerA + extendB * template.localUPerB;
+            float localV = template.localV[i] + extendA * template.localVPerA + extendB * template.localVPerB;
+
+            Vector3f normal = part.getNormal(i);
+            elements.addVertex(vertex.x + x + extend[0], vertex.y + y + extend[1], vertex.z + z + extend[2],
+                    template.tileU * TILE_ENCODING_SCALE + TILE_ENCODING_OFFSET + localU,
+                    template.tileV * TILE_ENCODING_SCALE + TILE_ENCODING_OFFSET + localV,
+                    face.flag.getValue(), packedColor, normal.x, normal.y, normal.z);
+        }
+
+        for (int i = 0; i < part.indicesSize(); ++i) {
+            elements.addIndex(part.getIndex(i) + nextIndex);
+        }
+    }
+
+    private FaceTemplate getTemplate(BlockMeshPart part, Side side) {
+        if (templates.containsKey(part)) {
+            return templates.get(part);
+        }
+        FaceTemplate template = FaceTemplate.create(part, side);
+        templates.put(part, template);
+        return template;
+    }
+
+    private int index(int x, int y, int z) {
+        return x + ChunkConstants.SIZE_X * (z + ChunkConstants.SIZE_Z * y);
+    }
+
+    private static int normalAxis(Side side) {
+        Vector3i dir = side.getVector3i();
+        if (dir.x != 0) {
+            return 0;
+        } else if (dir.y != 0) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private static int axisA(int normalAxis) {
+        return (normalAxis == 0) ? 2 : 0;
+    }
+
+    private static int axisB(int normalAxis) {
+        return (normalAxis == 1) ? 2 : 1;
+    }
+
+    private static float component(Vector3f vector, int axis) {
+        switch (axis) {
+            case 0:
+                return vector.x;
+            case 1:
+                return vector.y;
+            default:
+                return vector.z;
+        }
+    }
+
+    /**
+     * The layout of a full unit quad part, describing how its corners and tile local texture coordinates
+     * extend when the quad grows along the two axes of its plane.
+     */
+    private static final class FaceTemplate {
+        private final BlockMeshPart part;
+        private final int normalAxis;
+        private final int axisA;
+        private final int axisB;
+        private final boolean[] highA = new boolean[4];
+        private final boolean[] highB = new boolean[4];
+        private final float[] localU = new float[4];
+        private final float[] localV = new float[4];
+        private int tileU;
+        private int tileV;
+        private float localUPerA;
+        private float localVPerA;
+        private float localUPerB;
+        private float localVPerB;
+
+        private FaceTemplate(BlockMeshPart part, int normalAxis) {
+            this.part = part;
+            this.normalAxis = normalAxis;
+            this.axisA = axisA(normalAxis);
+            this.axisB = axisB(normalAxis);
+        }
+
+        private static FaceTemplate create(BlockMeshPart part, Side side) {
+            if (part.size() != 4) {
+                return null;
+            }
+            int normalAxis = normalAxis(side);
+            Vector3f sideDir = side.getVector3i().toVector3f();
+            float faceOffset = 0.5f * component(sideDir, normalAxis);
+            FaceTemplate template = new FaceTemplate(part, normalAxis);
+
+            // Every corner of the unit square must be present exactly once, on the outer plane of the block
+            int[] cornerVertex = {-1, -1, -1, -1};
+            for (int i = 0; i < 4; ++i) {
+                Vector3f vertex = part.getVertex(i);
+                Vector3f normal = part.getNormal(i);
+                if (Math.abs(component(vertex, normalAxis) - faceOffset) > EPSILON || !normal.epsilonEquals(sideDir, EPSILON)) {
+                    return null;
+                }
+                float a = component(vertex, template.axisA);
+                float b = component(vertex, template.axisB);
+                if (Math.abs(Math.abs(a) - 0.5f) > EPSILON || Math.abs(Math.abs(b) - 0.5f) > EPSILON) {
+                    return null;
+                }
+                template.highA[i] = a > 0;
+                template.highB[i] = b > 0;
+                int corner = (template.highA[i] ? 1 : 0) + (template.highB[i] ? 2 : 0);
+                if (cornerVertex[corner] != -1) {
+                    return null;
+                }
+                cornerVertex[corner] = i;
+            }
+
+            // The texture coordinates must cover a whole tile, inset by the atlas border
+            float minU = Float.MAX_VALUE;
+            float maxU = -Float.MAX_VALUE;
+            float minV = Float.MAX_VALUE;
+            float maxV = -Float.MAX_VALUE;
+            for (int i = 0; i < 4; ++i) {
+                Vector2f texCoord = part.getTexCoord(i);
+                minU = Math.min(minU, texCoord.x);
+                maxU = Math.max(maxU, texCoord.x);
+                minV = Math.min(minV, texCoord.y);
+                maxV = Math.max(maxV, texCoord.y);
+            }
+            float extent = maxU - minU;
+            if (extent < EPSILON || Math.abs(extent - (maxV - minV)) > EPSILON) {
+                return null;
+            }
+            float tileSize = extent / BORDER_FACTOR;
+            float border = (tileSize - extent) / 2;
+            template.tileU = Math.round((minU - border) / tileSize);
+            template.tileV = Math.round((minV - border) / tileSize);
+            for (int i = 0; i < 4; ++i) {
+                Vector2f texCoord = part.getTexCoord(i);
+                template.localU[i] = Math.round((texCoord.x - minU) / extent);
+                template.localV[i] = Math.round((texCoord.y - minV) / extent);
+                if (Math.abs(minU + template.localU[i] * extent - texCoord.x) > EPSILON
+                        || Math.abs(minV + template.localV[i] * extent - texCoord.y) > EPSILON) {
+                    return null;
+                }
+            }
+
+            // The texture must map affinely onto the quad, so that it can be extended along both axes
+            int origin = cornerVertex[0];
+            int alongA = cornerVertex[1];
+            int alongB = cornerVertex[2];
+            int opposite = cornerVertex[3];
+            template.localUPerA = template.localU[alongA] - template.localU[origin];
+            template.localVPerA = template.localV[alongA] - template.localV[origin];
+            template.localUPerB = template.localU[alongB] - template.localU[origin];
+            template.localVPerB = template.localV[alongB] - template.localV[origin];
+            if (template.localU[opposite] != template.localU[origin] + template.localUPerA + template.localUPerB
+                    || template.localV[opposite] != template.localV[origin] + template.localVPerA + template.localVPerB) {
+                return null;
+            }
+            return template;
+        }
+    }
+
+    /**
+     * A face waiting to be merged. Faces are merged only if they share part, color, flag and lighting.
+     */
+    private static final class MergeableFace {
+        private final FaceTemplate template;
+        private final Vector4f colorOffset;
+        private final ChunkVertexFlag flag;
+        private final float sunlight;
+        private final float blockLight;
+        private final float occlusion;
+
+        private MergeableFace(FaceTemplate template, Vector4f colorOffset, ChunkVertexFlag flag, float[] light) {
+            this.template = template;
+            this.colorOffset = colorOffset;
+            this.flag = flag;
+            this.sunlight = light[0];
+            this.blockLight = light[1];
+            this.occlusion = light[2];
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof MergeableFace) {
+                MergeableFace other = (MergeableFace) obj;
+                return template == other.template && flag == other.flag && sunlight == other.sunlight
+                        && blockLight == other.blockLight && occlusion == other.occlusion
+                        && colorOffset.equals(other.colorOffset);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return template.part.hashCode() * 31 + flag.hashCode();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Arrays;
+
+/**
+ * A copy of the blocks, sunlight and light around a chunk mesh section, indexed by int coordinates.
+ * <p/>
+ * The snapshot covers the section plus a border of one block, which is everything the vertex lighting of block
+ * faces samples. Lookups outside of it fall back to the chunk view. Snapshots are reused between meshes to avoid
+ * reallocating the arrays.
+ */
+final class ChunkLightingSnapshot {
+
+    private static final int BORDER = 1;
+
+    private final int sizeX = ChunkConstants.SIZE_X + 2 * BORDER;
+    private final int sizeZ = ChunkConstants.SIZE_Z + 2 * BORDER;
+
+    private ChunkView chunkView;
+    private int minY;
+    private int sizeY;
+
+    private Block[] blocks = new Block[0];
+    private byte[] sunlight = new byte[0];
+    private byte[] light = new byte[0];
+
+    /**
+     * Copies the given mesh section of the chunk view, replacing the previous contents of the snapshot.
+     */
+    public void update(ChunkView view, int meshHeight, int verticalOffset) {
+        this.chunkView = view;
+        this.minY = verticalOffset - BORDER;
+        this.sizeY = meshHeight + 2 * BORDER;
+
+        int volume = sizeX * sizeY * sizeZ;
+        if (blocks.length < volume) {
+            blocks = new Block[volume];
+            sunlight = new byte[volume];
+            light = new byte[volume];
+        }
+
+        int index = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    int viewX = x - BORDER;
+                    int viewY = y + minY;
+                    int viewZ = z - BORDER;
+                    blocks[index] = view.getBlock(viewX, viewY, viewZ);
+                    sunlight[index] = view.getSunlight(viewX, viewY, viewZ);
+                    light[index] = view.getLight(viewX, viewY, viewZ);
+                    index++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the chunk view and blocks, so the snapshot does not keep them alive while unused.
+     */
+    public void clear() {
+        chunkView = null;
+        Arrays.fill(blocks, null);
+    }
+
+    public Block getBlock(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index < 0) {
+            return chunkView.getBlock(x, y, z);
+        }
+        return blocks[index];
+    }
+
+    public byte getSunlight(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index < 0) {
+            return chunkView.getSunlight(x, y, z);
+        }
+        return sunlight[index];
+    }
+
+    public byte getLight(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index < 0) {
+            return chunkView.getLight(x, y, z);
+        }
+        return light[index];
+    }
+
+    /**
+     * @return The index of the position within the snapshot arrays, or -1 if it lies outside the snapshot
+     */
+    private int index(int x, int y, int z) {
+        int localX = x + BORDER;
+        int localY = y - minY;
+        int localZ = z + BORDER;
+        if (localX < 0 || localY < 0 || localZ < 0 || localX >= sizeX || localY >= sizeY || localZ >= sizeZ) {
+            return -1;
+        }
+        return localX + sizeX * (localZ + sizeZ * localY);
+    }
+}
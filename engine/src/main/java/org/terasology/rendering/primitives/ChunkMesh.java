@@ -16,16 +16,14 @@
 package org.terasology.rendering.primitives;
 
 import com.google.common.collect.Maps;
-import gnu.trove.list.TFloatList;
-import gnu.trove.list.TIntList;
-import gnu.trove.list.array.TFloatArrayList;
-import gnu.trove.list.array.TIntArrayList;
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL15;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
 import org.terasology.rendering.VertexBufferObjectUtil;
 
+import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
@@ -91,6 +89,9 @@ public enum RenderPhase {
     private static final int OFFSET_NORMAL = OFFSET_COLOR + SIZE_COLOR * 4;
     private static final int STRIDE = OFFSET_NORMAL + SIZE_NORMAL * 4;
 
+    /* Shared by all meshes, the buffers of a mesh are only needed until it has been uploaded. Keeps at most 32 MiB. */
+    private static final DirectBufferPool DIRECT_BUFFER_POOL = new DirectBufferPool(64 * 1024, 16, 32 * 1024 * 1024);
+
     /* VERTEX DATA */
     private final int[] vertexBuffers = new int[4];
     private final int[] idxBuffers = new int[4];
@@ -145,8 +146,8 @@ public boolean generateVBOs() {
                     generateVBO(type);
                 }
 
-                // Free unused space on the heap
-                vertexElements = null;
+                // Return the vertex data to the pool, it has been copied to the VBOs
+                releaseVertexElements();
                 // Calculate the final amount of triangles
                 triangleCount = (vertexCount[0] + vertexCount[1] + vertexCount[2] + vertexCount[3]) / 3;
             } finally {
@@ -259,13 +260,22 @@ public void dispose() {
                 }
 
                 disposed = true;
-                vertexElements = null;
+                releaseVertexElements();
             }
         } finally {
             lock.unlock();
         }
     }
 
+    private void releaseVertexElements() {
+        if (vertexElements != null) {
+            for (VertexElements elements : vertexElements.values()) {
+                elements.release();
+            }
+            vertexElements = null;
+        }
+    }
+
     public boolean isDisposed() {
         return disposed;
     }
@@ -305,29 +315,151 @@ public int getTimeToGenerateOptimizedBuffers() {
     }
 
     /**
-     * Data structure for storing vertex data. Abused like a "struct" in C/C++. Just sad.
+     * Builds the interleaved vertex and index data of one render type, laid out as uploaded to the VBOs.
+     * <p/>
+     * The data is written straight into direct buffers taken from a shared pool. They grow as needed and go back
+     * to the pool once the mesh has been uploaded or disposed.
      */
     public static class VertexElements {
 
-        public final TFloatList normals;
-        public final TFloatList vertices;
-        public final TFloatList tex;
-        public final TFloatList color;
-        public final TIntList indices;
-        public final TIntList flags;
+        private static final int VERTEX_SIZE = STRIDE / 4;
+        private static final int POSITION = OFFSET_VERTEX / 4;
+        private static final int TEX_COORD = OFFSET_TEX_0 / 4;
+        private static final int LIGHT = OFFSET_TEX_1 / 4;
+        private static final int NORMAL = OFFSET_NORMAL / 4;
+        private static final int INITIAL_VERTICES = 1024;
+
+        private static final IntBuffer EMPTY = BufferUtils.createIntBuffer(0);
+
         public int vertexCount;
+        public int indexCount;
 
         public IntBuffer finalVertices;
         public IntBuffer finalIndices;
 
+        private final DirectBufferPool bufferPool;
+        private ByteBuffer vertexData;
+        private ByteBuffer indexData;
+
         public VertexElements() {
-            vertexCount = 0;
-            normals = new TFloatArrayList();
-            vertices = new TFloatArrayList();
-            tex = new TFloatArrayList();
-            color = new TFloatArrayList();
-            indices = new TIntArrayList();
-            flags = new TIntArrayList();
+            this(DIRECT_BUFFER_POOL);
+        }
+
+        VertexElements(DirectBufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+        }
+
+        /**
+         * Appends a vertex. Its lighting data is left empty, to be filled in by {@link #setLighting}.
+         *
+         * @param flags       The {@link ChunkVertexFlag} value of the vertex
+         * @param packedColor The color offset of the vertex, see {@link org.terasology.rendering.RenderMath#packColor}
+         */
+        public void addVertex(float x, float y, float z, float u, float v, int flags, int packedColor, float normalX, float normalY, float normalZ) {
+            if (finalVertices == null || finalVertices.remaining() < VERTEX_SIZE) {
+                ByteBuffer newData = grow(vertexData, (vertexCount + 1) * STRIDE, INITIAL_VERTICES * STRIDE);
+                finalVertices = replace(finalVertices, vertexData, newData);
+                vertexData = newData;
+            }
+
+            /* POSITION */
+            finalVertices.put(Float.floatToIntBits(x));
+            finalVertices.put(Float.floatToIntBits(y));
+            finalVertices.put(Float.floatToIntBits(z));
+
+            /* UV0 - TEX DATA 0 */
+            finalVertices.put(Float.floatToIntBits(u));
+            finalVertices.put(Float.floatToIntBits(v));
+
+            /* FLAGS */
+            finalVertices.put(Float.floatToIntBits(flags));
+
+            /* LIGHTING DATA / TEX DATA 1 */
+            finalVertices.put(0);
+            finalVertices.put(0);
+            finalVertices.put(0);
+
+            /* PACKED COLOR */
+            finalVertices.put(packedColor);
+
+            /* NORMALS */
+            finalVertices.put(Float.floatToIntBits(normalX));
+            finalVertices.put(Float.floatToIntBits(normalY));
+            finalVertices.put(Float.floatToIntBits(normalZ));
+
+            vertexCount++;
+        }
+
+        public void addIndex(int index) {
+            if (finalIndices == null || !finalIndices.hasRemaining()) {
+                ByteBuffer newData = grow(indexData, (indexCount + 1) * 4, INITIAL_VERTICES * 6);
+                finalIndices = replace(finalIndices, indexData, newData);
+                indexData = newData;
+            }
+            finalIndices.put(index);
+            indexCount++;
+        }
+
+        public float getPosition(int vertex, int component) {
+            return Float.intBitsToFloat(finalVertices.get(vertex * VERTEX_SIZE + POSITION + component));
+        }
+
+        public float getTexCoord(int vertex, int component) {
+            return Float.intBitsToFloat(finalVertices.get(vertex * VERTEX_SIZE + TEX_COORD + component));
+        }
+
+        public float getNormal(int vertex, int component) {
+            return Float.intBitsToFloat(finalVertices.get(vertex * VERTEX_SIZE + NORMAL + component));
+        }
+
+        public void setLighting(int vertex, float sunlight, float blockLight, float ambientOcclusion) {
+            int index = vertex * VERTEX_SIZE + LIGHT;
+            finalVertices.put(index, Float.floatToIntBits(sunlight));
+            finalVertices.put(index + 1, Float.floatToIntBits(blockLight));
+            finalVertices.put(index + 2, Float.floatToIntBits(ambientOcclusion));
+        }
+
+        /**
+         * Flips the final buffers, ready for upload. No further data may be added afterwards.
+         */
+        public void finish() {
+            finalVertices = (finalVertices == null) ? EMPTY : (IntBuffer) finalVertices.flip();
+            finalIndices = (finalIndices == null) ? EMPTY : (IntBuffer) finalIndices.flip();
+        }
+
+        private void release() {
+            if (vertexData != null) {
+                bufferPool.release(vertexData);
+            }
+            if (indexData != null) {
+                bufferPool.release(indexData);
+            }
+            vertexData = null;
+            indexData = null;
+            finalVertices = null;
+            finalIndices = null;
+        }
+
+        private ByteBuffer grow(ByteBuffer buffer, int required, int initialCapacity) {
+            if (buffer == null) {
+                return bufferPool.acquire(Math.max(required, initialCapacity));
+            }
+            return bufferPool.acquire(Math.max(required, 2 * buffer.capacity()));
+        }
+
+        /**
+         * Copies the contents written so far into a view of the new, larger buffer and releases the old buffer.
+         */
+        private IntBuffer replace(IntBuffer contents, ByteBuffer oldBuffer, ByteBuffer newBuffer) {
+            IntBuffer result = newBuffer.asIntBuffer();
+            if (contents != null) {
+                contents.flip();
+                result.put(contents);
+            }
+            if (oldBuffer != null) {
+                bufferPool.release(oldBuffer);
+            }
+            return result;
         }
     }
 }
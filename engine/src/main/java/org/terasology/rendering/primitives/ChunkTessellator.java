@@ -17,21 +17,19 @@
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Maps;
-import gnu.trove.iterator.TIntIterator;
-import org.lwjgl.BufferUtils;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
 import org.terasology.math.Direction;
 import org.terasology.math.Side;
 import org.terasology.math.TeraMath;
 import org.terasology.math.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
-import org.terasology.rendering.RenderMath;
 import org.terasology.world.ChunkView;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.biomes.Biome;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockAppearance;
 import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.shapes.BlockMeshPart;
 import org.terasology.world.chunks.ChunkConstants;
 
 import javax.vecmath.Vector3f;
@@ -46,12 +44,26 @@
  */
 public final class ChunkTessellator {
 
+    private static final int OCCLUSION_BILLBOARD_SHIFT = 8;
+    private static final int OCCLUSION_MASK = (1 << OCCLUSION_BILLBOARD_SHIFT) - 1;
+
     private static int statVertexArrayUpdateCount;
 
     private GLBufferPool bufferPool;
+    private boolean greedyMeshing;
+    private ThreadLocal<ChunkLightingSnapshot> lightingSnapshots = new ThreadLocal<>();
 
     public ChunkTessellator(GLBufferPool bufferPool) {
+        this(bufferPool, false);
+    }
+
+    /**
+     * @param bufferPool    The pool used for the buffers of generated meshes
+     * @param greedyMeshing Whether coplanar opaque faces sharing texture, color, flags and lighting are merged into larger quads
+     */
+    public ChunkTessellator(GLBufferPool bufferPool, boolean greedyMeshing) {
         this.bufferPool = bufferPool;
+        this.greedyMeshing = greedyMeshing;
     }
 
     public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalOffset) {
@@ -59,6 +71,16 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
         ChunkMesh mesh = new ChunkMesh(bufferPool);
 
         final Stopwatch watch = Stopwatch.createStarted();
+        ChunkLightingSnapshot lighting = lightingSnapshots.get();
+        if (lighting == null) {
+            lighting = new ChunkLightingSnapshot();
+            lightingSnapshots.set(lighting);
+        }
+        lighting.update(chunkView, meshHeight, verticalOffset);
+        ChunkFaceMerger faceMerger = (greedyMeshing) ? new ChunkFaceMerger(meshHeight, verticalOffset) : null;
+        // Scratch space for the lighting of mergeable faces, shared by all blocks of the mesh
+        float[] faceLight = new float[3];
+        float[] vertexLight = new float[3];
 
         for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
@@ -67,18 +89,22 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
 
                     Block block = chunkView.getBlock(x, y, z);
                     if (block != null && !block.isInvisible()) {
-                        generateBlockVertices(chunkView, mesh, x, y, z, biome);
+                        generateBlockVertices(chunkView, lighting, mesh, faceMerger, x, y, z, biome, faceLight, vertexLight);
                     }
                 }
             }
         }
+        if (faceMerger != null) {
+            faceMerger.appendTo(mesh);
+        }
         watch.stop();
 
         mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
 
         watch.reset().start();
-        generateOptimizedBuffers(chunkView, mesh);
+        generateOptimizedBuffers(lighting, mesh);
         watch.stop();
+        lighting.clear();
         mesh.setTimeToGenerateOptimizedBuffers((int) watch.elapsed(TimeUnit.MILLISECONDS));
         statVertexArrayUpdateCount++;
 
@@ -86,156 +112,89 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
         return mesh;
     }
 
-    private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
+    private void generateOptimizedBuffers(ChunkLightingSnapshot lighting, ChunkMesh mesh) {
         PerformanceMonitor.startActivity("OptimizeBuffers");
 
+        float[] result = new float[3];
         for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
             ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
-            // Vertices double to account for light info
-            elements.finalVertices = BufferUtils.createIntBuffer(
-                    elements.vertices.size() + /* POSITION */
-                            elements.tex.size() + /* TEX0 (UV0 and flags) */
-                            elements.tex.size() + /* TEX1 (lighting data) */
-                            elements.flags.size() + /* FLAGS */
-                            elements.color.size() + /* COLOR */
-                            elements.normals.size()  /* NORMALS */
-            );
-
-            int cTex = 0;
-            int cColor = 0;
-            int cFlags = 0;
-            for (int i = 0; i < elements.vertices.size(); i += 3, cTex += 2, cColor += 4, cFlags++) {
-                Vector3f vertexPos = new Vector3f(
-                        elements.vertices.get(i),
-                        elements.vertices.get(i + 1),
-                        elements.vertices.get(i + 2));
-
-                /* POSITION */
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.x));
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.y));
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.z));
-
-                /* UV0 - TEX DATA 0 */
-                elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(cTex)));
-                elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(cTex + 1)));
-
-                /* FLAGS */
-                elements.finalVertices.put(Float.floatToIntBits(elements.flags.get(cFlags)));
-
-                float[] result = new float[3];
-                Vector3f normal = new Vector3f(elements.normals.get(i), elements.normals.get(i + 1), elements.normals.get(i + 2));
-                calcLightingValuesForVertexPos(chunkView, vertexPos, result, normal);
-
-                /* LIGHTING DATA / TEX DATA 1 */
-                elements.finalVertices.put(Float.floatToIntBits(result[0]));
-                elements.finalVertices.put(Float.floatToIntBits(result[1]));
-                elements.finalVertices.put(Float.floatToIntBits(result[2]));
-
-                /* PACKED COLOR */
-                final int packedColor = RenderMath.packColor(
-                        elements.color.get(cColor),
-                        elements.color.get(cColor + 1),
-                        elements.color.get(cColor + 2),
-                        elements.color.get(cColor + 3));
-                elements.finalVertices.put(packedColor);
-
-                /* NORMALS */
-                elements.finalVertices.put(Float.floatToIntBits(normal.x));
-                elements.finalVertices.put(Float.floatToIntBits(normal.y));
-                elements.finalVertices.put(Float.floatToIntBits(normal.z));
+            for (int i = 0; i < elements.vertexCount; i++) {
+                calcLightingValuesForVertexPos(lighting, elements.getPosition(i, 0), elements.getPosition(i, 1), elements.getPosition(i, 2),
+                        elements.getNormal(i, 0), elements.getNormal(i, 1), elements.getNormal(i, 2), result);
+                elements.setLighting(i, result[0], result[1], result[2]);
             }
-
-            elements.finalIndices = BufferUtils.createIntBuffer(elements.indices.size());
-            TIntIterator indexIterator = elements.indices.iterator();
-            while (indexIterator.hasNext()) {
-                elements.finalIndices.put(indexIterator.next());
-            }
-
-            elements.finalVertices.flip();
-            elements.finalIndices.flip();
+            elements.finish();
         }
         PerformanceMonitor.endActivity();
     }
 
-    private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertexPos, float[] output, Vector3f normal) {
-        PerformanceMonitor.startActivity("calcLighting");
-        float[] lights = new float[8];
-        float[] blockLights = new float[8];
-        Block[] blocks = new Block[4];
-
-        PerformanceMonitor.startActivity("gatherLightInfo");
-        Direction dir = Direction.inDirection(normal);
+    /**
+     * Calculates the sunlight, block light and ambient occlusion of a vertex from the light and blocks around it.
+     *
+     * @param lighting The snapshot of the mesh section to sample
+     * @param output   Receives the sunlight, block light and ambient occlusion
+     */
+    private void calcLightingValuesForVertexPos(ChunkLightingSnapshot lighting, float x, float y, float z,
+                                                float normalX, float normalY, float normalZ, float[] output) {
+        // Sample positions, rounded the same way as the float based chunk view lookups
+        int plusX = TeraMath.floorToInt(x + 0.1f + 0.5f);
+        int minusX = TeraMath.floorToInt(x - 0.1f + 0.5f);
+        int plusY = TeraMath.floorToInt(y + 0.1f + 0.5f);
+        int minusY = TeraMath.floorToInt(y - 0.1f + 0.5f);
+        int plusZ = TeraMath.floorToInt(z + 0.1f + 0.5f);
+        int minusZ = TeraMath.floorToInt(z - 0.1f + 0.5f);
+        int aboveY = TeraMath.floorToInt(y + 0.8f + 0.5f);
+
+        int occlusion;
+        Direction dir = Direction.inDirection(normalX, normalY, normalZ);
         switch (dir) {
             case LEFT:
             case RIGHT:
-                blocks[0] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y + 0.1f), (vertexPos.z + 0.1f));
-                blocks[1] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y + 0.1f), (vertexPos.z - 0.1f));
-                blocks[2] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-                blocks[3] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
+                int adjacentX = TeraMath.floorToInt(x + 0.8f * normalX + 0.5f);
+                occlusion = occlusionOf(lighting.getBlock(adjacentX, plusY, plusZ))
+                        + occlusionOf(lighting.getBlock(adjacentX, plusY, minusZ))
+                        + occlusionOf(lighting.getBlock(adjacentX, minusY, minusZ))
+                        + occlusionOf(lighting.getBlock(adjacentX, minusY, plusZ));
                 break;
             case FORWARD:
             case BACKWARD:
-                blocks[0] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y + 0.1f), (vertexPos.z + 0.8f * normal.z));
-                blocks[1] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.8f * normal.z));
-                blocks[2] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.8f * normal.z));
-                blocks[3] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y + 0.1f), (vertexPos.z + 0.8f * normal.z));
+                int adjacentZ = TeraMath.floorToInt(z + 0.8f * normalZ + 0.5f);
+                occlusion = occlusionOf(lighting.getBlock(plusX, plusY, adjacentZ))
+                        + occlusionOf(lighting.getBlock(plusX, minusY, adjacentZ))
+                        + occlusionOf(lighting.getBlock(minusX, minusY, adjacentZ))
+                        + occlusionOf(lighting.getBlock(minusX, plusY, adjacentZ));
                 break;
             default:
-                blocks[0] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z + 0.1f));
-                blocks[1] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z - 0.1f));
-                blocks[2] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z - 0.1f));
-                blocks[3] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z + 0.1f));
+                int adjacentY = TeraMath.floorToInt(y + 0.8f * normalY + 0.5f);
+                occlusion = occlusionOf(lighting.getBlock(plusX, adjacentY, plusZ))
+                        + occlusionOf(lighting.getBlock(plusX, adjacentY, minusZ))
+                        + occlusionOf(lighting.getBlock(minusX, adjacentY, minusZ))
+                        + occlusionOf(lighting.getBlock(minusX, adjacentY, plusZ));
         }
 
-        lights[0] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-        lights[1] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        lights[2] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        lights[3] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-
-        lights[4] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-        lights[5] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        lights[6] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        lights[7] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-
-        blockLights[0] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-        blockLights[1] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        blockLights[2] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        blockLights[3] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-
-        blockLights[4] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-        blockLights[5] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        blockLights[6] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        blockLights[7] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-        PerformanceMonitor.endActivity();
-
         float resultLight = 0;
         float resultBlockLight = 0;
         int counterLight = 0;
         int counterBlockLight = 0;
-
-        int occCounter = 0;
-        int occCounterBillboard = 0;
         for (int i = 0; i < 8; i++) {
-            if (lights[i] > 0) {
-                resultLight += lights[i];
+            int sampleX = ((i & 1) == 0) ? plusX : minusX;
+            int sampleY = ((i & 4) == 0) ? aboveY : minusY;
+            int sampleZ = ((i & 2) == 0) ? plusZ : minusZ;
+
+            byte sunlight = lighting.getSunlight(sampleX, sampleY, sampleZ);
+            if (sunlight > 0) {
+                resultLight += sunlight;
                 counterLight++;
             }
-            if (blockLights[i] > 0) {
-                resultBlockLight += blockLights[i];
+            byte blockLight = lighting.getLight(sampleX, sampleY, sampleZ);
+            if (blockLight > 0) {
+                resultBlockLight += blockLight;
                 counterBlockLight++;
             }
-
-            if (i < 4) {
-                Block b = blocks[i];
-
-                if (b.isShadowCasting() && !b.isTranslucent()) {
-                    occCounter++;
-                } else if (b.isShadowCasting()) {
-                    occCounterBillboard++;
-                }
-            }
         }
 
+        int occCounter = occlusion & OCCLUSION_MASK;
+        int occCounterBillboard = occlusion >> OCCLUSION_BILLBOARD_SHIFT;
         double resultAmbientOcclusion = (TeraMath.pow(0.40, occCounter) + TeraMath.pow(0.80, occCounterBillboard)) / 2.0;
 
         if (counterLight == 0) {
@@ -251,10 +210,38 @@ private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertex
         }
 
         output[2] = (float) resultAmbientOcclusion;
-        PerformanceMonitor.endActivity();
     }
 
-    private void generateBlockVertices(ChunkView view, ChunkMesh mesh, int x, int y, int z, Biome biome) {
+    /**
+     * @return 1 for blocks casting full shadows, 1 shifted by OCCLUSION_BILLBOARD_SHIFT for translucent shadow casters,
+     *         so the sum over several blocks counts both
+     */
+    private static int occlusionOf(Block block) {
+        if (!block.isShadowCasting()) {
+            return 0;
+        }
+        return (block.isTranslucent()) ? 1 << OCCLUSION_BILLBOARD_SHIFT : 1;
+    }
+
+    /**
+     * Calculates the lighting of a face, as used for its vertices by generateOptimizedBuffers.
+     *
+     * @return True if all vertices of the face share the same lighting, which is then stored in the output
+     */
+    private boolean calcUniformLightingValues(ChunkLightingSnapshot lighting, BlockMeshPart part, int x, int y, int z, float[] output, float[] vertexLight) {
+        for (int i = 0; i < part.size(); ++i) {
+            Vector3f vertex = part.getVertex(i);
+            Vector3f normal = part.getNormal(i);
+            calcLightingValuesForVertexPos(lighting, vertex.x + x, vertex.y + y, vertex.z + z, normal.x, normal.y, normal.z, (i == 0) ? output : vertexLight);
+            if (i > 0 && (vertexLight[0] != output[0] || vertexLight[1] != output[1] || vertexLight[2] != output[2])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void generateBlockVertices(ChunkView view, ChunkLightingSnapshot lighting, ChunkMesh mesh, ChunkFaceMerger faceMerger, int x, int y, int z, Biome biome,
+                                       float[] faceLight, float[] vertexLight) {
         Block block = view.getBlock(x, y, z);
 
         // TODO: Needs review - too much hardcoded special cases and corner cases resulting from this.
@@ -336,14 +323,23 @@ private void generateBlockVertices(ChunkView view, ChunkMesh mesh, int x, int y,
             }
         }
 
+        // Custom shapes, translucent and animated blocks keep their own faces
+        boolean mergeable = faceMerger != null && renderType == ChunkMesh.RenderType.OPAQUE && vertexFlag == ChunkVertexFlag.NORMAL && !block.isLiquid();
+
         for (Side dir : Side.values()) {
             if (drawDir[dir.ordinal()]) {
                 Vector4f colorOffset = block.calcColorOffsetFor(BlockPart.fromSide(dir), biome);
+                BlockMeshPart part = blockAppearance.getPart(BlockPart.fromSide(dir));
                 // TODO: Needs review since the new per-vertex flags introduce a lot of special scenarios - probably a per-side setting?
+                ChunkVertexFlag sideFlag = vertexFlag;
                 if (block.isGrass() && dir != Side.TOP && dir != Side.BOTTOM) {
-                    blockAppearance.getPart(BlockPart.fromSide(dir)).appendTo(mesh, x, y, z, colorOffset, renderType, ChunkVertexFlag.COLOR_MASK);
+                    sideFlag = ChunkVertexFlag.COLOR_MASK;
+                }
+
+                if (mergeable && faceMerger.isMergeable(part, dir) && calcUniformLightingValues(lighting, part, x, y, z, faceLight, vertexLight)) {
+                    faceMerger.add(dir, x, y, z, part, colorOffset, sideFlag, faceLight);
                 } else {
-                    blockAppearance.getPart(BlockPart.fromSide(dir)).appendTo(mesh, x, y, z, colorOffset, renderType, vertexFlag);
+                    part.appendTo(mesh, x, y, z, colorOffset, renderType, sideFlag);
                 }
             }
         }
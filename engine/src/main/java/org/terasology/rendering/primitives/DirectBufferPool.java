@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+import org.lwjgl.BufferUtils;
+import org.terasology.math.TeraMath;
+
+import java.nio.ByteBuffer;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * A pool of direct byte buffers in native byte order, so chunk meshes can be built without allocating new direct
+ * memory for every rebuild. Buffer capacities are powers of two. Safe to use from multiple threads.
+ */
+final class DirectBufferPool {
+
+    private final int minCapacity;
+    private final int maxPooledPerCapacity;
+    private final long maxPooledBytes;
+    private final Map<Integer, Deque<ByteBuffer>> pooled = Maps.newHashMap();
+    private long pooledBytes;
+
+    /**
+     * @param minCapacity          The smallest capacity in bytes handed out
+     * @param maxPooledPerCapacity The number of released buffers kept for each capacity, further ones are left to the
+     *                             garbage collector
+     * @param maxPooledBytes       The total capacity in bytes of all buffers kept, released buffers that do not fit are
+     *                             left to the garbage collector
+     */
+    public DirectBufferPool(int minCapacity, int maxPooledPerCapacity, long maxPooledBytes) {
+        this.minCapacity = TeraMath.ceilPowerOfTwo(minCapacity);
+        this.maxPooledPerCapacity = maxPooledPerCapacity;
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /**
+     * @param capacity The required capacity in bytes
+     * @return A cleared buffer of at least the given capacity
+     */
+    public ByteBuffer acquire(int capacity) {
+        int pooledCapacity = Math.max(minCapacity, TeraMath.ceilPowerOfTwo(capacity));
+        ByteBuffer buffer = null;
+        synchronized (pooled) {
+            Deque<ByteBuffer> buffers = pooled.get(pooledCapacity);
+            if (buffers != null) {
+                buffer = buffers.pollFirst();
+                if (buffer != null) {
+                    pooledBytes -= buffer.capacity();
+                }
+            }
+        }
+        if (buffer == null) {
+            return BufferUtils.createByteBuffer(pooledCapacity);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer obtained from {@link #acquire(int)} to the pool. The buffer must not be used afterwards.
+     */
+    public void release(ByteBuffer buffer) {
+        synchronized (pooled) {
+            Deque<ByteBuffer> buffers = pooled.get(buffer.capacity());
+            if (buffers == null) {
+                buffers = Queues.newArrayDeque();
+                pooled.put(buffer.capacity(), buffers);
+            }
+            if (buffers.size() < maxPooledPerCapacity && pooledBytes + buffer.capacity() <= maxPooledBytes) {
+                buffers.addFirst(buffer);
+                pooledBytes += buffer.capacity();
+            }
+        }
+    }
+
+    /**
+     * @return The number of buffers currently held by the pool
+     */
+    public int size() {
+        int size = 0;
+        synchronized (pooled) {
+            for (Deque<ByteBuffer> buffers : pooled.values()) {
+                size += buffers.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return The total capacity in bytes of the buffers currently held by the pool
+     */
+    public long getPooledBytes() {
+        synchronized (pooled) {
+            return pooledBytes;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+import org.terasology.rendering.cameras.ViewFrustum;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
+import org.terasology.world.chunks.ChunkConstants;
+
+import javax.vecmath.Vector3f;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Determines which chunks of the render region need to be rendered, without testing every chunk on its own.
+ * <p/>
+ * Frustum culling works on a quadtree of chunk columns: the x/z extent of the region is split into quadrants
+ * recursively, each tested as a single box spanning the full height of the region. Quadrants outside of the frustum
+ * are rejected and quadrants inside of it are accepted as a whole. Only columns crossing the frustum boundary test
+ * their chunks one by one.
+ * <p/>
+ * Occlusion culling walks the visibility graph of the region, starting at the chunk containing the camera. A chunk
+ * is left only through faces connected to a face it was entered through, and never in the direction opposite to
+ * one already travelled, as a line of sight can't turn back either. Chunks enclosed by opaque blocks, like solid
+ * underground chunks, are never reached.
+ */
+final class ChunkCuller {
+
+    private static final Side[] SIDES = Side.values();
+    private static final int SIDE_COUNT = SIDES.length;
+    private static final int ALL_SIDES = (1 << SIDE_COUNT) - 1;
+    private static final int[] OPPOSITE_SIDE = new int[SIDE_COUNT];
+    private static final int[] SIDE_OFFSET_X = new int[SIDE_COUNT];
+    private static final int[] SIDE_OFFSET_Y = new int[SIDE_COUNT];
+    private static final int[] SIDE_OFFSET_Z = new int[SIDE_COUNT];
+
+    static {
+        for (Side side : SIDES) {
+            OPPOSITE_SIDE[side.ordinal()] = side.reverse().ordinal();
+            SIDE_OFFSET_X[side.ordinal()] = side.getVector3i().x;
+            SIDE_OFFSET_Y[side.ordinal()] = side.getVector3i().y;
+            SIDE_OFFSET_Z[side.ordinal()] = side.getVector3i().z;
+        }
+    }
+
+    private int minX;
+    private int minY;
+    private int minZ;
+    private int sizeX;
+    private int sizeY;
+    private int sizeZ;
+
+    private ChunkFaceConnectivity[] connectivity = new ChunkFaceConnectivity[0];
+
+    // Occlusion culling state, per chunk of the region
+    private byte[] entrySides = new byte[0];
+    private byte[] blockedDirections = new byte[0];
+    private boolean[] queued = new boolean[0];
+    private int[] queue = new int[0];
+    private final BitSet reached = new BitSet();
+
+    /**
+     * Sets the region of chunks to cull and forgets the connectivity set before.
+     */
+    public void setRegion(Region3i newRegion) {
+        minX = newRegion.minX();
+        minY = newRegion.minY();
+        minZ = newRegion.minZ();
+        sizeX = newRegion.sizeX();
+        sizeY = newRegion.sizeY();
+        sizeZ = newRegion.sizeZ();
+
+        int volume = sizeX * sizeY * sizeZ;
+        if (connectivity.length < volume) {
+            connectivity = new ChunkFaceConnectivity[volume];
+            entrySides = new byte[volume];
+            blockedDirections = new byte[volume];
+            queued = new boolean[volume];
+            queue = new int[volume];
+        } else {
+            Arrays.fill(connectivity, null);
+        }
+    }
+
+    /**
+     * @return The index of the chunk position within the region, or -1 if it is outside of the region
+     */
+    public int indexOf(Vector3i chunkPos) {
+        int x = chunkPos.x - minX;
+        int y = chunkPos.y - minY;
+        int z = chunkPos.z - minZ;
+        if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) {
+            return -1;
+        }
+        return x + sizeX * (y + sizeY * z);
+    }
+
+    /**
+     * Sets the face connectivity of a chunk of the region. Chunks without connectivity are treated as fully open.
+     */
+    public void setConnectivity(Vector3i chunkPos, ChunkFaceConnectivity faceConnectivity) {
+        int index = indexOf(chunkPos);
+        if (index >= 0) {
+            connectivity[index] = faceConnectivity;
+        }
+    }
+
+    /**
+     * Marks the chunks of the region intersecting the view frustum.
+     *
+     * @param frustum        The frustum to test, relative to the camera position
+     * @param cameraPosition The camera position the frustum is relative to
+     * @param visible        The set receiving the indices of the visible chunks
+     */
+    public void cullFrustum(ViewFrustum frustum, Vector3f cameraPosition, BitSet visible) {
+        visible.clear();
+        if (sizeX > 0 && sizeY > 0 && sizeZ > 0) {
+            cullColumns(frustum, cameraPosition, 0, 0, sizeX, sizeZ, visible);
+        }
+    }
+
+    private void cullColumns(ViewFrustum frustum, Vector3f cameraPosition, int fromX, int fromZ, int toX, int toZ, BitSet visible) {
+        ViewFrustum.Intersection intersection = frustum.classify(
+                (minX + fromX) * ChunkConstants.SIZE_X - cameraPosition.x,
+                minY * ChunkConstants.SIZE_Y - cameraPosition.y,
+                (minZ + fromZ) * ChunkConstants.SIZE_Z - cameraPosition.z,
+                (minX + toX) * ChunkConstants.SIZE_X - cameraPosition.x,
+                (minY + sizeY) * ChunkConstants.SIZE_Y - cameraPosition.y,
+                (minZ + toZ) * ChunkConstants.SIZE_Z - cameraPosition.z);
+
+        switch (intersection) {
+            case INSIDE:
+                for (int z = fromZ; z < toZ; z++) {
+                    for (int y = 0; y < sizeY; y++) {
+                        int rowStart = sizeX * (y + sizeY * z);
+                        visible.set(rowStart + fromX, rowStart + toX);
+                    }
+                }
+                break;
+            case INTERSECTING:
+                if (toX - fromX == 1 && toZ - fromZ == 1) {
+                    cullColumn(frustum, cameraPosition, fromX, fromZ, visible);
+                } else {
+                    int midX = (toX - fromX > 1) ? (fromX + toX) / 2 : toX;
+                    int midZ = (toZ - fromZ > 1) ? (fromZ + toZ) / 2 : toZ;
+                    cullColumns(frustum, cameraPosition, fromX, fromZ, midX, midZ, visible);
+                    if (midX < toX) {
+                        cullColumns(frustum, cameraPosition, midX, fromZ, toX, midZ, visible);
+                    }
+                    if (midZ < toZ) {
+                        cullColumns(frustum, cameraPosition, fromX, midZ, midX, toZ, visible);
+                    }
+                    if (midX < toX && midZ < toZ) {
+                        cullColumns(frustum, cameraPosition, midX, midZ, toX, toZ, visible);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void cullColumn(ViewFrustum frustum, Vector3f cameraPosition, int x, int z, BitSet visible) {
+        float columnMinX = (minX + x) * ChunkConstants.SIZE_X - cameraPosition.x;
+        float columnMinZ = (minZ + z) * ChunkConstants.SIZE_Z - cameraPosition.z;
+        for (int y = 0; y < sizeY; y++) {
+            float chunkMinY = (minY + y) * ChunkConstants.SIZE_Y - cameraPosition.y;
+            if (frustum.classify(columnMinX, chunkMinY, columnMinZ, columnMinX + ChunkConstants.SIZE_X,
+                    chunkMinY + ChunkConstants.SIZE_Y, columnMinZ + ChunkConstants.SIZE_Z) != ViewFrustum.Intersection.OUTSIDE) {
+                visible.set(x + sizeX * (y + sizeY * z));
+            }
+        }
+    }
+
+    /**
+     * Removes the chunks that can't be seen from the camera chunk through the visibility graph from the given set.
+     * Nothing is culled if the camera chunk is outside of the region.
+     */
+    public void cullOccluded(Vector3i cameraChunk, BitSet visible) {
+        int start = indexOf(cameraChunk);
+        if (start < 0) {
+            return;
+        }
+
+        reached.clear();
+        reached.set(start);
+        entrySides[start] = (byte) ALL_SIDES;
+        blockedDirections[start] = 0;
+
+        int head = 0;
+        int size = 1;
+        queue[0] = start;
+        queued[start] = true;
+        while (size > 0) {
+            int index = queue[head];
+            head = (head + 1) % queue.length;
+            size--;
+            queued[index] = false;
+
+            int exits = (index == start) ? ALL_SIDES : exitSides(index);
+            exits &= ~blockedDirections[index];
+
+            int x = index % sizeX;
+            int y = (index / sizeX) % sizeY;
+            int z = index / (sizeX * sizeY);
+            for (int side = 0; side < SIDE_COUNT; side++) {
+                if ((exits & (1 << side)) == 0) {
+                    continue;
+                }
+                int neighbourX = x + SIDE_OFFSET_X[side];
+                int neighbourY = y + SIDE_OFFSET_Y[side];
+                int neighbourZ = z + SIDE_OFFSET_Z[side];
+                if (neighbourX < 0 || neighbourY < 0 || neighbourZ < 0 || neighbourX >= sizeX || neighbourY >= sizeY || neighbourZ >= sizeZ) {
+                    continue;
+                }
+                int neighbour = neighbourX + sizeX * (neighbourY + sizeY * neighbourZ);
+                int entry = 1 << OPPOSITE_SIDE[side];
+                int blocked = blockedDirections[index] | entry;
+
+                if (reached.get(neighbour)) {
+                    // Merge conservatively, the neighbour may be left through any face reachable by either path
+                    entry |= entrySides[neighbour];
+                    blocked &= blockedDirections[neighbour];
+                    if (entry == entrySides[neighbour] && blocked == blockedDirections[neighbour]) {
+                        continue;
+                    }
+                }
+                reached.set(neighbour);
+                entrySides[neighbour] = (byte) entry;
+                blockedDirections[neighbour] = (byte) blocked;
+                if (!queued[neighbour]) {
+                    queued[neighbour] = true;
+                    queue[(head + size) % queue.length] = neighbour;
+                    size++;
+                }
+            }
+        }
+
+        visible.and(reached);
+    }
+
+    private int exitSides(int index) {
+        ChunkFaceConnectivity faceConnectivity = connectivity[index];
+        if (faceConnectivity == null) {
+            return ALL_SIDES;
+        }
+        int exits = 0;
+        for (Side side : SIDES) {
+            if ((entrySides[index] & (1 << side.ordinal())) != 0) {
+                exits |= faceConnectivity.getConnectedSides(side);
+            }
+        }
+        return exits;
+    }
+}
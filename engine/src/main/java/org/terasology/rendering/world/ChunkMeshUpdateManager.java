@@ -23,8 +23,10 @@
 import org.terasology.math.TeraMath;
 import org.terasology.math.Vector3i;
 import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.utilities.concurrency.PriorityScorer;
 import org.terasology.utilities.concurrency.TaskMaster;
 import org.terasology.world.ChunkView;
 import org.terasology.world.WorldProvider;
@@ -34,7 +36,6 @@
 import org.terasology.world.chunks.pipeline.ShutdownChunkTask;
 
 import javax.vecmath.Vector3f;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.BlockingDeque;
@@ -66,12 +67,13 @@ public final class ChunkMeshUpdateManager {
     private volatile float cameraChunkPosX;
     private volatile float cameraChunkPosY;
     private volatile float cameraChunkPosZ;
+    private volatile int cameraEpoch;
 
     public ChunkMeshUpdateManager(ChunkTessellator tessellator, WorldProvider worldProvider) {
         this.tessellator = tessellator;
         this.worldProvider = worldProvider;
 
-        chunkUpdater = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Updater", NUM_TASK_THREADS, new ChunkUpdaterComparator());
+        chunkUpdater = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Updater", NUM_TASK_THREADS, new ChunkUpdaterScorer());
     }
 
     /**
@@ -99,9 +101,12 @@ public boolean queueChunkUpdate(RenderableChunk chunk) {
      */
     public void setCameraPosition(Vector3f cameraPosition) {
         Vector3i chunkPos = TeraMath.calcChunkPos(cameraPosition);
-        cameraChunkPosX = chunkPos.x;
-        cameraChunkPosY = chunkPos.y;
-        cameraChunkPosZ = chunkPos.z;
+        if (chunkPos.x != cameraChunkPosX || chunkPos.y != cameraChunkPosY || chunkPos.z != cameraChunkPosZ) {
+            cameraChunkPosX = chunkPos.x;
+            cameraChunkPosY = chunkPos.y;
+            cameraChunkPosZ = chunkPos.z;
+            cameraEpoch++;
+        }
     }
 
     public List<RenderableChunk> availableChunksForUpdate() {
@@ -131,6 +136,28 @@ public void shutdown() {
     }
 
 
+    /**
+     * Generates the meshes of the dirty vertical segments of the chunk and clears its dirty state. Segments that
+     * are not dirty reuse the segment meshes of the current mesh of the chunk, so a single block edit only
+     * re-tessellates the one or two segments it can affect. All segments are generated if the chunk has no mesh.
+     *
+     * @return The new set of segment meshes, sharing the unchanged segments with the current mesh
+     */
+    static ChunkMesh[] tessellateDirtySegments(RenderableChunk chunk, ChunkView chunkView, ChunkTessellator tessellator) {
+        int dirtySegments = chunk.clearDirtySegments();
+        ChunkMesh[] currentMeshes = chunk.getMesh();
+        ChunkMesh[] newMeshes = new ChunkMesh[WorldRendererLwjgl.VERTICAL_SEGMENTS];
+        int meshHeight = ChunkConstants.SIZE_Y / WorldRendererLwjgl.VERTICAL_SEGMENTS;
+        for (int seg = 0; seg < WorldRendererLwjgl.VERTICAL_SEGMENTS; seg++) {
+            if (currentMeshes == null || (dirtySegments & (1 << seg)) != 0 || currentMeshes[seg].isDisposed()) {
+                newMeshes[seg] = tessellator.generateMesh(chunkView, meshHeight, seg * meshHeight);
+            } else {
+                newMeshes[seg] = currentMeshes[seg];
+            }
+        }
+        return newMeshes;
+    }
+
     private static class ChunkUpdateTask implements ChunkTask {
 
         private RenderableChunk c;
@@ -162,13 +189,11 @@ public boolean isTerminateSignal() {
 
         @Override
         public void run() {
-            ChunkMesh[] newMeshes = new ChunkMesh[WorldRendererLwjgl.VERTICAL_SEGMENTS];
             ChunkView chunkView = worldProvider.getLocalView(c.getPosition());
             if (chunkView != null) {
-                c.setDirty(false);
-                int meshHeight = ChunkConstants.SIZE_Y / WorldRendererLwjgl.VERTICAL_SEGMENTS;
-                for (int seg = 0; seg < WorldRendererLwjgl.VERTICAL_SEGMENTS; seg++) {
-                    newMeshes[seg] = tessellator.generateMesh(chunkView, meshHeight, seg * (ChunkConstants.SIZE_Y / WorldRendererLwjgl.VERTICAL_SEGMENTS));
+                ChunkMesh[] newMeshes = tessellateDirtySegments(c, chunkView, tessellator);
+                if (c.clearFaceConnectivityStale()) {
+                    c.setFaceConnectivity(ChunkFaceConnectivity.calculate(chunkView));
                 }
 
                 c.setPendingMesh(newMeshes);
@@ -183,19 +208,20 @@ public void run() {
         }
     }
 
-    private class ChunkUpdaterComparator implements Comparator<ChunkTask> {
+    private class ChunkUpdaterScorer implements PriorityScorer<ChunkTask> {
         @Override
-        public int compare(ChunkTask o1, ChunkTask o2) {
-            return score(o1) - score(o2);
-        }
-
-        private int score(ChunkTask task) {
+        public int score(ChunkTask task) {
             if (task.isTerminateSignal()) {
                 return -1;
             }
             return distFromRegion(task.getPosition(), new Vector3i(cameraChunkPosX, cameraChunkPosY, cameraChunkPosZ));
         }
 
+        @Override
+        public int getEpoch() {
+            return cameraEpoch;
+        }
+
         private int distFromRegion(Vector3i pos, Vector3i regionCenter) {
             return pos.gridDistance(regionCenter);
         }
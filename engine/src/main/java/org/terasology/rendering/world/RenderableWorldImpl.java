@@ -26,6 +26,8 @@
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.cameras.Camera;
+import org.terasology.rendering.cameras.ViewFrustum;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkTessellator;
 import org.terasology.world.ChunkView;
@@ -35,6 +37,7 @@
 import org.terasology.world.chunks.RenderableChunk;
 
 import javax.vecmath.Vector3f;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Collections;
 import java.util.Iterator;
@@ -67,6 +70,11 @@ public class RenderableWorldImpl implements RenderableWorld {
     private Region3i renderRegion = Region3i.EMPTY;
     private RenderQueuesHelper renderQueues;
 
+    private final ChunkCuller chunkCuller = new ChunkCuller();
+    private final BitSet visibleChunks = new BitSet();
+    private final BitSet lightVisibleChunks = new BitSet();
+    private final BitSet reflectionVisibleChunks = new BitSet();
+
     private Config config;
 
     private int statDirtyChunks;
@@ -77,14 +85,14 @@ public RenderableWorldImpl(WorldProvider worldProvider, ChunkProvider chunkProvi
         this.worldProvider = worldProvider;
         this.chunkProvider = chunkProvider;
 
-        chunkTessellator = new ChunkTessellator(bufferPool);
+        config = CoreRegistry.get(Config.class);
+
+        chunkTessellator = new ChunkTessellator(bufferPool, config.getRendering().isGreedyMeshing());
         chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkTessellator, worldProvider);
 
         this.activeCamera = activeCamera;
         this.lightCamera = lightCamera;
 
-        config = CoreRegistry.get(Config.class);
-
         renderQueues = new RenderQueuesHelper(new PriorityQueue<>(MAX_CHUNKS, new ChunkFrontToBackComparator()),
                                               new PriorityQueue<>(MAX_CHUNKS, new ChunkFrontToBackComparator()),
                                               new PriorityQueue<>(MAX_CHUNKS, new ChunkFrontToBackComparator()),
@@ -137,35 +145,60 @@ public boolean pregenerateChunks() {
                 if (view == null) {
                     continue;
                 }
-                chunk.setDirty(false);
-
-                ChunkMesh[] newMeshes = new ChunkMesh[VERTICAL_SEGMENTS];
-                for (int seg = 0; seg < VERTICAL_SEGMENTS; seg++) {
-                    newMeshes[seg] = chunkTessellator.generateMesh(view,
-                            ChunkConstants.SIZE_Y / VERTICAL_SEGMENTS, seg * (ChunkConstants.SIZE_Y / VERTICAL_SEGMENTS));
-                }
-
-                chunk.setPendingMesh(newMeshes);
-
-                if (chunk.getPendingMesh() != null) {
-
-                    for (int j = 0; j < chunk.getPendingMesh().length; j++) {
-                        chunk.getPendingMesh()[j].generateVBOs();
-                    }
-                    if (chunk.getMesh() != null) {
-                        for (int j = 0; j < chunk.getMesh().length; j++) {
-                            chunk.getMesh()[j].dispose();
-                        }
-                    }
-                    chunk.setMesh(chunk.getPendingMesh());
-                    chunk.setPendingMesh(null);
+                chunk.setPendingMesh(ChunkMeshUpdateManager.tessellateDirtySegments(chunk, view, chunkTessellator));
+                if (chunk.clearFaceConnectivityStale()) {
+                    chunk.setFaceConnectivity(ChunkFaceConnectivity.calculate(view));
                 }
+                applyPendingMesh(chunk);
                 return false;
             }
         }
         return complete;
     }
 
+    /**
+     * Replaces the mesh of the chunk with its pending mesh. Only the segment meshes that were regenerated are
+     * disposed, the pending mesh shares the others with the current mesh.
+     */
+    private void applyPendingMesh(RenderableChunk chunk) {
+        ChunkMesh[] pendingMesh = chunk.getPendingMesh();
+        ChunkMesh[] currentMesh = chunk.getMesh();
+        int segmentHeight = ChunkConstants.SIZE_Y / VERTICAL_SEGMENTS;
+        for (int i = 0; i < pendingMesh.length; i++) {
+            pendingMesh[i].generateVBOs();
+            if (currentMesh != null && currentMesh[i] != pendingMesh[i]) {
+                currentMesh[i].dispose();
+            } else if (pendingMesh[i].isDisposed()) {
+                // The reused segment was disposed while the update was processed, so it needs to be generated again
+                chunk.markDirty(i * segmentHeight, (i + 1) * segmentHeight - 1);
+            }
+        }
+        chunk.setMesh(pendingMesh);
+        chunk.setPendingMesh(null);
+    }
+
+    /**
+     * Disposes the pending mesh of the chunk, without touching the segment meshes it shares with the current mesh.
+     * The regenerated segments are marked dirty again if the chunk keeps its current mesh.
+     */
+    private void discardPendingMesh(RenderableChunk chunk) {
+        ChunkMesh[] pendingMesh = chunk.getPendingMesh();
+        chunk.setPendingMesh(null);
+        if (pendingMesh == null) {
+            return;
+        }
+        ChunkMesh[] currentMesh = chunk.getMesh();
+        int segmentHeight = ChunkConstants.SIZE_Y / VERTICAL_SEGMENTS;
+        for (int i = 0; i < pendingMesh.length; i++) {
+            if (currentMesh == null) {
+                pendingMesh[i].dispose();
+            } else if (currentMesh[i] != pendingMesh[i]) {
+                pendingMesh[i].dispose();
+                chunk.markDirty(i * segmentHeight, (i + 1) * segmentHeight - 1);
+            }
+        }
+    }
+
     @Override
     public void update() {
 
@@ -266,37 +299,27 @@ public int updateAndQueueVisibleChunks(boolean fillShadowRenderQueue, boolean pr
             chunkMeshUpdateManager.setCameraPosition(activeCamera.getPosition());
             for (RenderableChunk c : chunkMeshUpdateManager.availableChunksForUpdate()) {
                 if (chunksInProximity.contains(c) && c.getPendingMesh() != null) {
-                    for (int i = 0; i < c.getPendingMesh().length; i++) {
-                        c.getPendingMesh()[i].generateVBOs();
-                    }
-                    if (c.getMesh() != null) {
-                        for (int i = 0; i < c.getMesh().length; i++) {
-                            c.getMesh()[i].dispose();
-                        }
-                    }
-                    c.setMesh(c.getPendingMesh());
-                    c.setPendingMesh(null);
+                    applyPendingMesh(c);
                 } else {
-                    ChunkMesh[] pendingMesh = c.getPendingMesh();
-                    c.setPendingMesh(null);
-                    if (pendingMesh != null) {
-                        for (ChunkMesh mesh : pendingMesh) {
-                            mesh.dispose();
-                        }
-                    }
+                    discardPendingMesh(c);
                 }
             }
             PerformanceMonitor.endActivity();
         }
 
+        boolean fillShadows = config.getRendering().isDynamicShadows() && fillShadowRenderQueue;
+        PerformanceMonitor.startActivity("Cull Chunks");
+        cullChunks(fillShadows);
+        PerformanceMonitor.endActivity();
+
         int processedChunks = 0;
         for (int i = 0; i < chunksInProximity.size(); i++) {
             RenderableChunk c = chunksInProximity.get(i);
             ChunkMesh[] mesh = c.getMesh();
+            int cullIndex = chunkCuller.indexOf(c.getPosition());
 
-            if (i < TeraMath.clamp(config.getRendering().getMaxChunksUsedForShadowMapping(), 64, 1024)
-                    && config.getRendering().isDynamicShadows() && fillShadowRenderQueue) {
-                if (isChunkVisibleLight(c) && isChunkValidForRender(c)) {
+            if (i < TeraMath.clamp(config.getRendering().getMaxChunksUsedForShadowMapping(), 64, 1024) && fillShadows) {
+                if (isCulledVisible(lightVisibleChunks, cullIndex, lightCamera.getViewFrustum(), c) && isChunkValidForRender(c)) {
                     if (triangleCount(mesh, ChunkMesh.RenderPhase.OPAQUE) > 0) {
                         renderQueues.chunksOpaqueShadow.add(c);
                     } else {
@@ -306,7 +329,7 @@ public int updateAndQueueVisibleChunks(boolean fillShadowRenderQueue, boolean pr
             }
 
             if (isChunkValidForRender(c)) {
-                if (isChunkVisible(c)) {
+                if (isCulledVisible(visibleChunks, cullIndex, activeCamera.getViewFrustum(), c)) {
                     if (triangleCount(mesh, ChunkMesh.RenderPhase.OPAQUE) > 0) {
                         renderQueues.chunksOpaque.add(c);
                     } else {
@@ -334,7 +357,7 @@ public int updateAndQueueVisibleChunks(boolean fillShadowRenderQueue, boolean pr
                     }
                 }
 
-                if (isChunkVisibleReflection(c)) {
+                if (isCulledVisible(reflectionVisibleChunks, cullIndex, activeCamera.getViewFrustumReflected(), c)) {
                     renderQueues.chunksOpaqueReflection.add(c);
                 }
 
@@ -348,6 +371,38 @@ public int updateAndQueueVisibleChunks(boolean fillShadowRenderQueue, boolean pr
         return processedChunks;
     }
 
+    /**
+     * Determines the chunks of the render region visible from the active camera, its reflection and, if requested,
+     * the light camera. Occlusion culling only applies to the active camera, the light and the reflection see the
+     * world from other positions.
+     */
+    private void cullChunks(boolean cullLight) {
+        chunkCuller.setRegion(renderRegion);
+        for (RenderableChunk c : chunksInProximity) {
+            chunkCuller.setConnectivity(c.getPosition(), c.getFaceConnectivity());
+        }
+
+        Vector3f cameraPosition = activeCamera.getPosition();
+        chunkCuller.cullFrustum(activeCamera.getViewFrustum(), cameraPosition, visibleChunks);
+        if (config.getRendering().isOcclusionCulling()) {
+            chunkCuller.cullOccluded(TeraMath.calcChunkPos(cameraPosition), visibleChunks);
+        }
+        chunkCuller.cullFrustum(activeCamera.getViewFrustumReflected(), cameraPosition, reflectionVisibleChunks);
+        if (cullLight) {
+            chunkCuller.cullFrustum(lightCamera.getViewFrustum(), cameraPosition, lightVisibleChunks);
+        }
+    }
+
+    /**
+     * @return Whether the culling marked the chunk visible. Chunks outside of the culled region are tested directly.
+     */
+    private boolean isCulledVisible(BitSet culledChunks, int cullIndex, ViewFrustum frustum, RenderableChunk c) {
+        if (cullIndex < 0) {
+            return frustum.intersects(c.getAABB());
+        }
+        return culledChunks.get(cullIndex);
+    }
+
     private int triangleCount(ChunkMesh[] mesh, ChunkMesh.RenderPhase type) {
         int count = 0;
 
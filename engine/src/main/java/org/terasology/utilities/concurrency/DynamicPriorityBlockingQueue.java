@@ -15,22 +15,30 @@
  */
 package org.terasology.utilities.concurrency;
 
-import com.google.common.collect.Lists;
-
 import java.util.AbstractQueue;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.Iterator;
-import java.util.List;
-import java.util.ListIterator;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * An unbounded blocking queue whose elements are ordered by scores that may change over time.
+ *
+ * The elements are kept in a binary heap along with their cached scores, so that enqueuing and dequeuing take
+ * O(log n). When the epoch of the {@link PriorityScorer} changes, all elements are rescored and the heap is rebuilt in
+ * one go, the next time the queue is used.
+ */
 public class DynamicPriorityBlockingQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
-    private Comparator<T> comparator;
-    private List<T> elements = Lists.newLinkedList();
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final PriorityScorer<T> scorer;
+    private Object[] elements = new Object[INITIAL_CAPACITY];
+    private int[] scores = new int[INITIAL_CAPACITY];
+    private int size;
+    private int epoch;
 
     /**
      * Lock used for all public operations
@@ -42,8 +50,9 @@
      */
     private final Condition notEmpty;
 
-    public DynamicPriorityBlockingQueue(Comparator<T> comparator) {
-        this.comparator = comparator;
+    public DynamicPriorityBlockingQueue(PriorityScorer<T> scorer) {
+        this.scorer = scorer;
+        this.epoch = scorer.getEpoch();
 
         lock = new ReentrantLock();
         notEmpty = lock.newCondition();
@@ -66,9 +75,17 @@ public boolean offer(T t, long timeout, TimeUnit unit) throws InterruptedExcepti
 
     @Override
     public boolean offer(T t) {
+        if (t == null) {
+            throw new NullPointerException();
+        }
         lock.lock();
         try {
-            elements.add(t);
+            rescoreIfOutdated();
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            siftUp(size++, t, scorer.score(t));
             notEmpty.signal();
             return true;
         } finally {
@@ -118,29 +135,81 @@ public T poll(long timeout, TimeUnit unit) throws InterruptedException {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public T peek() {
         lock.lock();
         try {
-            return elements.size() == 0 ? null : elements.get(0);
+            rescoreIfOutdated();
+            return (T) elements[0];
         } finally {
             lock.unlock();
         }
     }
 
+    @SuppressWarnings("unchecked")
     private T dequeue() {
-        if (elements.size() == 0) {
+        if (size == 0) {
             return null;
         }
-        T smallest = elements.remove(0);
-        ListIterator<T> iterator = elements.listIterator();
-        while (iterator.hasNext()) {
-            T next = iterator.next();
-            if (comparator.compare(smallest, next) > 0) {
-                iterator.set(smallest);
-                smallest = next;
+        rescoreIfOutdated();
+        T result = (T) elements[0];
+        size--;
+        Object last = elements[size];
+        int lastScore = scores[size];
+        elements[size] = null;
+        if (size > 0) {
+            siftDown(0, last, lastScore);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rescoreIfOutdated() {
+        int currentEpoch = scorer.getEpoch();
+        if (currentEpoch != epoch) {
+            epoch = currentEpoch;
+            for (int i = 0; i < size; i++) {
+                scores[i] = scorer.score((T) elements[i]);
+            }
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                siftDown(i, elements[i], scores[i]);
+            }
+        }
+    }
+
+    private void siftUp(int index, Object element, int score) {
+        int current = index;
+        while (current > 0) {
+            int parent = (current - 1) >>> 1;
+            if (scores[parent] <= score) {
+                break;
+            }
+            elements[current] = elements[parent];
+            scores[current] = scores[parent];
+            current = parent;
+        }
+        elements[current] = element;
+        scores[current] = score;
+    }
+
+    private void siftDown(int index, Object element, int score) {
+        int current = index;
+        int half = size >>> 1;
+        while (current < half) {
+            int child = 2 * current + 1;
+            int right = child + 1;
+            if (right < size && scores[right] < scores[child]) {
+                child = right;
             }
+            if (score <= scores[child]) {
+                break;
+            }
+            elements[current] = elements[child];
+            scores[current] = scores[child];
+            current = child;
         }
-        return smallest;
+        elements[current] = element;
+        scores[current] = score;
     }
 
     @Override
@@ -150,17 +219,7 @@ public int remainingCapacity() {
 
     @Override
     public int drainTo(Collection<? super T> c) {
-        lock.lock();
-        try {
-            int count = 0;
-            while (!elements.isEmpty()) {
-                c.add(elements.remove(0));
-                count++;
-            }
-            return count;
-        } finally {
-            lock.unlock();
-        }
+        return drainTo(c, Integer.MAX_VALUE);
     }
 
     @Override
@@ -168,8 +227,8 @@ public int drainTo(Collection<? super T> c, int maxElements) {
         lock.lock();
         try {
             int count = 0;
-            while (!elements.isEmpty() && count < maxElements) {
-                c.add(elements.remove(0));
+            while (size > 0 && count < maxElements) {
+                c.add(dequeue());
                 count++;
             }
             return count;
@@ -182,7 +241,7 @@ public int drainTo(Collection<? super T> c, int maxElements) {
     public int size() {
         lock.lock();
         try {
-            return elements.size();
+            return size;
         } finally {
             lock.unlock();
         }
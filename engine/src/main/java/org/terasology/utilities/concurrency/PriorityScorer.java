@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+/**
+ * Provides the priorities of the elements of a {@link DynamicPriorityBlockingQueue}.
+ *
+ * The queue caches the score of each element. Whenever the scores of elements may have changed, for example because
+ * they depend on the position of a player that moved, the epoch of the scorer has to change. The queue then rescores all
+ * its elements the next time it is used.
+ */
+public interface PriorityScorer<T> {
+
+    /**
+     * @param element
+     * @return The priority of the element. Elements with lower scores are dequeued first.
+     */
+    int score(T element);
+
+    /**
+     * @return A value that changes whenever the scores of elements may have changed
+     */
+    int getEpoch();
+}
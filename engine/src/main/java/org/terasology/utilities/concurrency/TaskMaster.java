@@ -64,8 +64,8 @@ public static <T extends Task> TaskMaster<T> createPriorityTaskMaster(String nam
         return new TaskMaster<>(name, threads, new PriorityBlockingQueue<T>(queueSize, comparator));
     }
 
-    public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(String name, int threads, Comparator<T> comparator) {
-        return new TaskMaster<>(name, threads, new DynamicPriorityBlockingQueue<T>(comparator));
+    public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(String name, int threads, PriorityScorer<T> scorer) {
+        return new TaskMaster<>(name, threads, new DynamicPriorityBlockingQueue<T>(scorer));
     }
 
     /**
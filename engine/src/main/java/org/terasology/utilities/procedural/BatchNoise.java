@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.procedural;
+
+/**
+ * Fills grids of positions with the values of a noise. Noises implementing {@link BatchNoise2D} or
+ * {@link BatchNoise3D} compute the grid themselves, all others get evaluated position by position.
+ */
+public final class BatchNoise {
+
+    private BatchNoise() {
+    }
+
+    /**
+     * Fills the buffer with the noise values of a grid of positions, as described in
+     * {@link BatchNoise2D#noise(float[], int, int, int, int, int, float, float)}.
+     */
+    public static void noise(Noise2D noise, float[] buffer, int minX, int minY, int sizeX, int sizeY, int step, float scaleX, float scaleY) {
+        if (noise instanceof BatchNoise2D) {
+            ((BatchNoise2D) noise).noise(buffer, minX, minY, sizeX, sizeY, step, scaleX, scaleY);
+            return;
+        }
+        int index = 0;
+        for (int j = 0; j < sizeY; j++) {
+            float y = (minY + j * step) * scaleY;
+            for (int i = 0; i < sizeX; i++) {
+                buffer[index++] = noise.noise((minX + i * step) * scaleX, y);
+            }
+        }
+    }
+
+    /**
+     * Fills the buffer with the noise values of a grid of positions, as described in
+     * {@link BatchNoise3D#noise(float[], int, int, int, int, int, int, int, float, float, float)}.
+     */
+    public static void noise(Noise3D noise, float[] buffer, int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, int step,
+                             float scaleX, float scaleY, float scaleZ) {
+        if (noise instanceof BatchNoise3D) {
+            ((BatchNoise3D) noise).noise(buffer, minX, minY, minZ, sizeX, sizeY, sizeZ, step, scaleX, scaleY, scaleZ);
+            return;
+        }
+        int index = 0;
+        for (int k = 0; k < sizeZ; k++) {
+            float z = (minZ + k * step) * scaleZ;
+            for (int j = 0; j < sizeY; j++) {
+                float y = (minY + j * step) * scaleY;
+                for (int i = 0; i < sizeX; i++) {
+                    buffer[index++] = noise.noise((minX + i * step) * scaleX, y, z);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.procedural;
+
+/**
+ * 3D noise that can compute a whole grid of positions faster than one position after another.
+ * Use {@link BatchNoise#noise(Noise3D, float[], int, int, int, int, int, int, int, float, float, float)} to fill a grid
+ * with the values of any 3D noise.
+ */
+public interface BatchNoise3D extends Noise3D {
+
+    /**
+     * Computes the noise values of a whole grid of positions.
+     * <p/>
+     * The sample (i, j, k) is taken at position ((minX + i * step) * scaleX, (minY + j * step) * scaleY, (minZ + k * step) * scaleZ)
+     * and stored at index i + sizeX * (j + sizeY * k) of the buffer. The values are the ones of
+     * {@link #noise(float, float, float)} at these positions, unless the implementation documents otherwise.
+     *
+     * @param buffer the buffer to fill, must hold at least sizeX * sizeY * sizeZ values
+     * @param minX the first grid coordinate on the x-axis
+     * @param minY the first grid coordinate on the y-axis
+     * @param minZ the first grid coordinate on the z-axis
+     * @param sizeX the number of samples on the x-axis
+     * @param sizeY the number of samples on the y-axis
+     * @param sizeZ the number of samples on the z-axis
+     * @param step the distance of neighbouring samples in grid coordinates
+     * @param scaleX the factor between grid coordinates and noise positions on the x-axis
+     * @param scaleY the factor between grid coordinates and noise positions on the y-axis
+     * @param scaleZ the factor between grid coordinates and noise positions on the z-axis
+     */
+    void noise(float[] buffer, int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, int step, float scaleX, float scaleY, float scaleZ);
+}
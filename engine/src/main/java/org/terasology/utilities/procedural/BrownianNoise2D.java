@@ -19,15 +19,17 @@
 import org.terasology.math.Rect2i;
 
 import javax.vecmath.Vector2f;
+import java.util.Arrays;
 
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
  * @author Martin Steiger
  */
-public class BrownianNoise2D extends BrownianNoise implements Noise2D {
+public class BrownianNoise2D extends BrownianNoise implements BatchNoise2D {
 
     private final Noise2D other;
+    private final ScratchBuffer octaveBuffers = new ScratchBuffer();
     
     /**
      * Uses the default number of octaves
@@ -68,4 +70,32 @@ public float noise(float x, float y) {
         return result;
     }
 
+    /**
+     * Evaluates the octaves one after another on the whole grid, using the batch method of the underlying noise.
+     * <p/>
+     * Unlike for other noises, the values are not exactly the ones of {@link #noise(float, float)}: the coordinates of an octave
+     * are the grid positions times the octave scale instead of the repeatedly multiplied coordinates, so they get
+     * rounded differently. The values differ by about 1e-6 times {@link #getScale()} times the magnitude of the
+     * coordinates.
+     */
+    @Override
+    public void noise(float[] buffer, int minX, int minY, int sizeX, int sizeY, int step, float scaleX, float scaleY) {
+        int size = sizeX * sizeY;
+        float[] octaveBuffer = octaveBuffers.get(size);
+        Arrays.fill(buffer, 0, size, 0.0f);
+
+        float octaveScaleX = scaleX;
+        float octaveScaleY = scaleY;
+        for (int octave = 0; octave < getOctaves(); octave++) {
+            BatchNoise.noise(other, octaveBuffer, minX, minY, sizeX, sizeY, step, octaveScaleX, octaveScaleY);
+            double weight = getSpectralWeight(octave);
+            for (int i = 0; i < size; i++) {
+                buffer[i] += octaveBuffer[i] * weight;
+            }
+
+            octaveScaleX *= getLacunarity();
+            octaveScaleY *= getLacunarity();
+        }
+    }
+
 }
@@ -16,14 +16,17 @@
 
 package org.terasology.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
  * @author Martin Steiger
  */
-public class BrownianNoise3D extends BrownianNoise implements Noise3D {
+public class BrownianNoise3D extends BrownianNoise implements BatchNoise3D {
 
     private final Noise3D other;
+    private final ScratchBuffer octaveBuffers = new ScratchBuffer();
     
     /**
      * Uses the default number of octaves
@@ -66,5 +69,35 @@ public float noise(float x, float y, float z) {
 
         return result;
     }
-    
+
+    /**
+     * Evaluates the octaves one after another on the whole grid, using the batch method of the underlying noise.
+     * <p/>
+     * Unlike for other noises, the values are not exactly the ones of {@link #noise(float, float, float)}: the coordinates of an octave
+     * are the grid positions times the octave scale instead of the repeatedly multiplied coordinates, so they get
+     * rounded differently. The values differ by about 1e-6 times {@link #getScale()} times the magnitude of the
+     * coordinates.
+     */
+    @Override
+    public void noise(float[] buffer, int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, int step, float scaleX, float scaleY, float scaleZ) {
+        int size = sizeX * sizeY * sizeZ;
+        float[] octaveBuffer = octaveBuffers.get(size);
+        Arrays.fill(buffer, 0, size, 0.0f);
+
+        float octaveScaleX = scaleX;
+        float octaveScaleY = scaleY;
+        float octaveScaleZ = scaleZ;
+        for (int octave = 0; octave < getOctaves(); octave++) {
+            BatchNoise.noise(other, octaveBuffer, minX, minY, minZ, sizeX, sizeY, sizeZ, step, octaveScaleX, octaveScaleY, octaveScaleZ);
+            double weight = getSpectralWeight(octave);
+            for (int i = 0; i < size; i++) {
+                buffer[i] += octaveBuffer[i] * weight;
+            }
+
+            octaveScaleX *= getLacunarity();
+            octaveScaleY *= getLacunarity();
+            octaveScaleZ *= getLacunarity();
+        }
+    }
+
 }
@@ -18,7 +18,7 @@
 /**
  * @author Immortius
  */
-public class Noise3DTo2DAdapter implements Noise2D {
+public class Noise3DTo2DAdapter implements BatchNoise2D {
 
     private Noise3D noise;
     private float yVal;
@@ -36,4 +36,10 @@ public Noise3DTo2DAdapter(Noise3D noise, float fixedYVal) {
     public float noise(float x, float y) {
         return noise.noise(x, yVal, y);
     }
+
+    @Override
+    public void noise(float[] buffer, int minX, int minY, int sizeX, int sizeY, int step, float scaleX, float scaleY) {
+        // A single layer at grid coordinate 1 with yVal as scale is exactly at yVal
+        BatchNoise.noise(noise, buffer, minX, 1, minY, sizeX, 1, sizeY, step, scaleX, yVal, scaleY);
+    }
 }
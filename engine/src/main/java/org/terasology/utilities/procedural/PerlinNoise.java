@@ -23,7 +23,7 @@
  *
  * @author Benjamin Glatzel <benjamin.glatzel@me.com>
  */
-public class PerlinNoise implements Noise3D {
+public class PerlinNoise implements BatchNoise3D {
 
     private final int[] noisePermutations;
 
@@ -70,17 +70,40 @@ public PerlinNoise(long seed) {
      */
     @Override
     public float noise(float posX, float posY, float posZ) {
-        int xInt = (int) TeraMath.fastFloor(posX) & 255;
         int yInt = (int) TeraMath.fastFloor(posY) & 255;
         int zInt = (int) TeraMath.fastFloor(posZ) & 255;
-
-        float x = posX - TeraMath.fastFloor(posX);
         float y = posY - TeraMath.fastFloor(posY);
         float z = posZ - TeraMath.fastFloor(posZ);
 
+        return noise(posX, yInt, y, TeraMath.fadePerlin(y), zInt, z, TeraMath.fadePerlin(z));
+    }
+
+    @Override
+    public void noise(float[] buffer, int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, int step, float scaleX, float scaleY, float scaleZ) {
+        int index = 0;
+        for (int k = 0; k < sizeZ; k++) {
+            float posZ = (minZ + k * step) * scaleZ;
+            int zInt = (int) TeraMath.fastFloor(posZ) & 255;
+            float z = posZ - TeraMath.fastFloor(posZ);
+            float w = TeraMath.fadePerlin(z);
+            for (int j = 0; j < sizeY; j++) {
+                // The y and z parts are shared by the whole row
+                float posY = (minY + j * step) * scaleY;
+                int yInt = (int) TeraMath.fastFloor(posY) & 255;
+                float y = posY - TeraMath.fastFloor(posY);
+                float v = TeraMath.fadePerlin(y);
+                for (int i = 0; i < sizeX; i++) {
+                    buffer[index++] = noise((minX + i * step) * scaleX, yInt, y, v, zInt, z, w);
+                }
+            }
+        }
+    }
+
+    private float noise(float posX, int yInt, float y, float v, int zInt, float z, float w) {
+        int xInt = (int) TeraMath.fastFloor(posX) & 255;
+        float x = posX - TeraMath.fastFloor(posX);
         float u = TeraMath.fadePerlin(x);
-        float v = TeraMath.fadePerlin(y);
-        float w = TeraMath.fadePerlin(z);
+
         int a = noisePermutations[xInt] + yInt;
         int aa = noisePermutations[a] + zInt;
         int ab = noisePermutations[(a + 1)] + zInt;
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.procedural;
+
+/**
+ * A float array per thread that is reused by the batch computations of a noise instead of allocating temporary
+ * arrays for every call.
+ */
+final class ScratchBuffer {
+
+    private final ThreadLocal<float[]> buffers = new ThreadLocal<>();
+
+    /**
+     * @return the buffer of the calling thread, which holds at least size values of undefined content
+     */
+    float[] get(int size) {
+        float[] buffer = buffers.get();
+        if (buffer == null || buffer.length < size) {
+            buffer = new float[size];
+            buffers.set(buffer);
+        }
+        return buffer;
+    }
+}
@@ -37,7 +37,7 @@
  * <p/>
  * msteiger: Introduced seed value
  */
-public class SimplexNoise implements Noise2D, Noise3D {
+public class SimplexNoise implements BatchNoise2D, BatchNoise3D {
 
     private static Grad[] grad3 = {
             new Grad(1, 1, 0), new Grad(-1, 1, 0), new Grad(1, -1, 0), new Grad(-1, -1, 0),
@@ -119,6 +119,16 @@ private static float dot(Grad g, float x, float y, float z, float w) {
      */
     @Override
     public float noise(float xin, float yin) {
+        return noise(xin, yin, null);
+    }
+
+    /**
+     * 2D simplex noise that optionally looks up the corner gradients in a cache of the last simplex cell
+     *
+     * @param cellGradients the gradient indices of the four cell corners, followed by the cell coordinates,
+     *                      or null to hash the corners of each call
+     */
+    private float noise(float xin, float yin, int[] cellGradients) {
         float n0;
         float n1;
         float n2; // Noise contributions from the three corners
@@ -156,9 +166,25 @@ public float noise(float xin, float yin) {
         // Work out the hashed gradient indices of the three simplex corners
         int ii = i & 255;
         int jj = j & 255;
-        int gi0 = permMod12[ii + perm[jj]];
-        int gi1 = permMod12[ii + i1 + perm[jj + j1]];
-        int gi2 = permMod12[ii + 1 + perm[jj + 1]];
+        int gi0;
+        int gi1;
+        int gi2;
+        if (cellGradients == null) {
+            gi0 = permMod12[ii + perm[jj]];
+            gi1 = permMod12[ii + i1 + perm[jj + j1]];
+            gi2 = permMod12[ii + 1 + perm[jj + 1]];
+        } else {
+            if (cellGradients[4] != ii || cellGradients[5] != jj) {
+                for (int corner = 0; corner < 4; corner++) {
+                    cellGradients[corner] = permMod12[ii + (corner & 1) + perm[jj + (corner >> 1)]];
+                }
+                cellGradients[4] = ii;
+                cellGradients[5] = jj;
+            }
+            gi0 = cellGradients[0];
+            gi1 = cellGradients[i1 + 2 * j1];
+            gi2 = cellGradients[3];
+        }
 
         // Calculate the contribution from the three corners
         float t0 = 0.5f - x0 * x0 - y0 * y0;
@@ -198,6 +224,16 @@ public float noise(float xin, float yin) {
      */
     @Override
     public float noise(float xin, float yin, float zin) {
+        return noise(xin, yin, zin, null);
+    }
+
+    /**
+     * 3D simplex noise that optionally looks up the corner gradients in a cache of the last simplex cell
+     *
+     * @param cellGradients the gradient indices of the eight cell corners, followed by the cell coordinates,
+     *                      or null to hash the corners of each call
+     */
+    private float noise(float xin, float yin, float zin, int[] cellGradients) {
         float n0;
         float n1;
         float n2;
@@ -291,10 +327,29 @@ public float noise(float xin, float yin, float zin) {
         int ii = i & 255;
         int jj = j & 255;
         int kk = k & 255;
-        int gi0 = permMod12[ii + perm[jj + perm[kk]]];
-        int gi1 = permMod12[ii + i1 + perm[jj + j1 + perm[kk + k1]]];
-        int gi2 = permMod12[ii + i2 + perm[jj + j2 + perm[kk + k2]]];
-        int gi3 = permMod12[ii + 1 + perm[jj + 1 + perm[kk + 1]]];
+        int gi0;
+        int gi1;
+        int gi2;
+        int gi3;
+        if (cellGradients == null) {
+            gi0 = permMod12[ii + perm[jj + perm[kk]]];
+            gi1 = permMod12[ii + i1 + perm[jj + j1 + perm[kk + k1]]];
+            gi2 = permMod12[ii + i2 + perm[jj + j2 + perm[kk + k2]]];
+            gi3 = permMod12[ii + 1 + perm[jj + 1 + perm[kk + 1]]];
+        } else {
+            if (cellGradients[8] != ii || cellGradients[9] != jj || cellGradients[10] != kk) {
+                for (int corner = 0; corner < 8; corner++) {
+                    cellGradients[corner] = permMod12[ii + (corner & 1) + perm[jj + ((corner >> 1) & 1) + perm[kk + (corner >> 2)]]];
+                }
+                cellGradients[8] = ii;
+                cellGradients[9] = jj;
+                cellGradients[10] = kk;
+            }
+            gi0 = cellGradients[0];
+            gi1 = cellGradients[i1 + 2 * j1 + 4 * k1];
+            gi2 = cellGradients[i2 + 2 * j2 + 4 * k2];
+            gi3 = cellGradients[7];
+        }
 
         // Calculate the contribution from the four corners
         float t0 = 0.6f - x0 * x0 - y0 * y0 - z0 * z0;
@@ -331,6 +386,38 @@ public float noise(float xin, float yin, float zin) {
         return 32.0f * (n0 + n1 + n2 + n3);
     }
 
+    /**
+     * Neighbouring samples mostly fall into the same simplex cell, so the corner gradients are hashed once per cell.
+     */
+    @Override
+    public void noise(float[] buffer, int minX, int minY, int sizeX, int sizeY, int step, float scaleX, float scaleY) {
+        int[] cellGradients = {0, 0, 0, 0, -1, -1};
+        int index = 0;
+        for (int j = 0; j < sizeY; j++) {
+            float y = (minY + j * step) * scaleY;
+            for (int i = 0; i < sizeX; i++) {
+                buffer[index++] = noise((minX + i * step) * scaleX, y, cellGradients);
+            }
+        }
+    }
+
+    /**
+     * Neighbouring samples mostly fall into the same simplex cell, so the corner gradients are hashed once per cell.
+     */
+    @Override
+    public void noise(float[] buffer, int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, int step, float scaleX, float scaleY, float scaleZ) {
+        int[] cellGradients = {0, 0, 0, 0, 0, 0, 0, 0, -1, -1, -1};
+        int index = 0;
+        for (int k = 0; k < sizeZ; k++) {
+            float z = (minZ + k * step) * scaleZ;
+            for (int j = 0; j < sizeY; j++) {
+                float y = (minY + j * step) * scaleY;
+                for (int i = 0; i < sizeX; i++) {
+                    buffer[index++] = noise((minX + i * step) * scaleX, y, z, cellGradients);
+                }
+            }
+        }
+    }
 
     /**
      * 4D simplex noise, better simplex rank ordering method 2012-03-09
@@ -18,7 +18,6 @@
 import com.google.common.math.IntMath;
 import org.terasology.math.Rect2i;
 import org.terasology.math.TeraMath;
-import org.terasology.math.Vector2i;
 
 import javax.vecmath.Vector2f;
 
@@ -30,6 +29,7 @@ public class SubSampledNoise2D implements Noise2D {
     private Noise2D source;
     private Vector2f zoom = new Vector2f(1, 1);
     private int sampleRate = 1;
+    private final ScratchBuffer keyBuffers = new ScratchBuffer();
 
     public SubSampledNoise2D(Noise2D source, Vector2f zoom, int sampleRate) {
         this.source = source;
@@ -55,66 +55,39 @@ public float noise(float x, float y) {
         return TeraMath.biLerp(q00, q10, q01, q11, xMod / sampleRate, yMod / sampleRate);
     }
 
+    /**
+     * @return the noise values of all positions of the region, with x varying fastest
+     */
     public float[] noise(Rect2i region) {
-        Rect2i fullRegion = determineRequiredRegion(region);
-        float[] keyData = getKeyValues(fullRegion);
-        float[] fullData = mapExpand(keyData, fullRegion);
-        return getSubset(fullData, fullRegion, region);
+        float[] result = new float[region.sizeX() * region.sizeY()];
+        noise(region, result);
+        return result;
     }
 
-    private float[] getSubset(float[] fullData, Rect2i fullRegion, Rect2i subRegion) {
-        if (subRegion.size().x != fullRegion.size().x || subRegion.size().y != fullRegion.size().y) {
-            float[] result = new float[subRegion.size().x * subRegion.size().y];
-            Vector2i offset = new Vector2i(subRegion.minX() - fullRegion.minX(), subRegion.minY() - fullRegion.minY());
-            for (int y = 0; y < subRegion.size().y; ++y) {
-                System.arraycopy(fullData, offset.getX() + fullRegion.size().x * (y + offset.getY()), result, subRegion.size().x * y, subRegion.size().x);
-            }
-            return result;
-        } else {
-            return fullData;
-        }
-    }
+    /**
+     * Fills the buffer with the noise values of all positions of the region, with x varying fastest.
+     * The source noise only gets evaluated at every sampleRate-th position, the values in between get interpolated.
+     *
+     * @param buffer the buffer to fill, must hold at least as many values as the region has positions
+     */
+    public void noise(Rect2i region, float[] buffer) {
+        int keyMinX = region.minX() - IntMath.mod(region.minX(), sampleRate);
+        int keyMinY = region.minY() - IntMath.mod(region.minY(), sampleRate);
+        int keysX = (region.maxX() - keyMinX) / sampleRate + 2;
+        int keysY = (region.maxY() - keyMinY) / sampleRate + 2;
+        float[] keyData = keyBuffers.get(keysX * keysY);
+        BatchNoise.noise(source, keyData, keyMinX, keyMinY, keysX, keysY, sampleRate, zoom.x, zoom.y);
 
-    private float[] mapExpand(float[] keyData, Rect2i fullRegion) {
-        float[] fullData = new float[fullRegion.size().x * fullRegion.size().y];
-        int samplesX = fullRegion.size().x / sampleRate + 1;
-        int samplesY = fullRegion.size().y / sampleRate + 1;
-        for (int y = 0; y < samplesY - 1; y++) {
-            for (int x = 0; x < samplesX - 1; x++) {
-                float q11 = keyData[x + y * samplesX];
-                float q21 = keyData[x + 1 + y * samplesX];
-                float q12 = keyData[x + (y + 1) * samplesX];
-                float q22 = keyData[(x + 1) + (y + 1) * samplesX];
-                for (int innerY = 0; innerY < sampleRate; ++innerY) {
-                    for (int innerX = 0; innerX < sampleRate; ++innerX) {
-                        fullData[x * sampleRate + innerX + fullRegion.size().x * (y * sampleRate + innerY)] =
-                                TeraMath.biLerp(q11, q21, q12, q22, (float) innerX / sampleRate, (float) innerY / sampleRate);
-                    }
-                }
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); ++y) {
+            int keyY = (y - keyMinY) / sampleRate;
+            float ty = (float) ((y - keyMinY) % sampleRate) / sampleRate;
+            for (int x = region.minX(); x <= region.maxX(); ++x) {
+                int keyX = (x - keyMinX) / sampleRate;
+                float tx = (float) ((x - keyMinX) % sampleRate) / sampleRate;
+                int keyIndex = keyX + keyY * keysX;
+                buffer[index++] = TeraMath.biLerp(keyData[keyIndex], keyData[keyIndex + 1], keyData[keyIndex + keysX], keyData[keyIndex + keysX + 1], tx, ty);
             }
         }
-        return fullData;
-    }
-
-    private float[] getKeyValues(Rect2i fullRegion) {
-        int xDim = fullRegion.size().x / sampleRate + 1;
-        int yDim = fullRegion.size().y / sampleRate + 1;
-        float[] fullData = new float[xDim * yDim];
-        for (int y = 0; y < yDim; y++) {
-            for (int x = 0; x < xDim; x++) {
-                int actualX = x * sampleRate + fullRegion.minX();
-                int actualY = y * sampleRate + fullRegion.minY();
-                fullData[x + y * xDim] = source.noise(zoom.x * actualX, zoom.y * actualY);
-            }
-        }
-        return fullData;
-    }
-
-    private Rect2i determineRequiredRegion(Rect2i region) {
-        int newMinX = region.minX() - IntMath.mod(region.minX(), sampleRate);
-        int newMinY = region.minY() - IntMath.mod(region.minY(), sampleRate);
-        int newMaxX = region.maxX() + 4 - IntMath.mod(region.maxX(), sampleRate) - 1;
-        int newMaxY = region.maxY() + 4 - IntMath.mod(region.maxY(), sampleRate) - 1;
-        return Rect2i.createFromMinAndMax(newMinX, newMinY, newMaxX, newMaxY);
     }
 }
@@ -18,7 +18,6 @@
 import com.google.common.math.IntMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.TeraMath;
-import org.terasology.math.Vector3i;
 
 import javax.vecmath.Vector3f;
 
@@ -30,6 +29,7 @@ public class SubSampledNoise3D implements Noise3D {
     private Noise3D source;
     private Vector3f zoom = new Vector3f(1, 1, 1);
     private int sampleRate = 1;
+    private final ScratchBuffer keyBuffers = new ScratchBuffer();
 
     public SubSampledNoise3D(Noise3D source, Vector3f zoom, int sampleRate) {
         this.source = source;
@@ -62,85 +62,48 @@ public float noise(float x, float y, float z) {
         return TeraMath.triLerp(q000, q100, q010, q110, q001, q101, q011, q111, xMod / sampleRate, yMod / sampleRate, zMod / sampleRate);
     }
 
+    /**
+     * @return the noise values of all positions of the region, with x varying fastest and z slowest
+     */
     public float[] noise(Region3i region) {
-        Region3i fullRegion = determineRequiredRegion(region);
-        float[] keyData = getKeyValues(fullRegion);
-        float[] fullData = mapExpand(keyData, fullRegion);
-        return getSubset(fullData, fullRegion, region);
+        float[] result = new float[region.sizeX() * region.sizeY() * region.sizeZ()];
+        noise(region, result);
+        return result;
     }
 
-    private float[] getSubset(float[] fullData, Region3i fullRegion, Region3i subRegion) {
-        if (subRegion.size().x != fullRegion.size().x || subRegion.size().y != fullRegion.size().y || subRegion.size().z != fullRegion.size().z) {
-            float[] result = new float[subRegion.size().x * subRegion.size().y * subRegion.size().z];
-            Vector3i offset = new Vector3i(subRegion.minX() - fullRegion.minX(), subRegion.minY() - fullRegion.minY(), subRegion.minZ() - fullRegion.minZ());
-            for (int z = 0; z < subRegion.size().z; ++z) {
-                for (int y = 0; y < subRegion.size().y; ++y) {
-                    System.arraycopy(fullData, offset.x + fullRegion.sizeX() * (y + offset.y + fullRegion.sizeY() * (z + offset.z)),
-                            result, subRegion.sizeX() * (y + subRegion.sizeY() * z), subRegion.size().x);
-                }
-            }
-            return result;
-        } else {
-            return fullData;
-        }
-    }
+    /**
+     * Fills the buffer with the noise values of all positions of the region, with x varying fastest and z slowest.
+     * The source noise only gets evaluated at every sampleRate-th position, the values in between get interpolated.
+     *
+     * @param buffer the buffer to fill, must hold at least as many values as the region has positions
+     */
+    public void noise(Region3i region, float[] buffer) {
+        int keyMinX = region.minX() - IntMath.mod(region.minX(), sampleRate);
+        int keyMinY = region.minY() - IntMath.mod(region.minY(), sampleRate);
+        int keyMinZ = region.minZ() - IntMath.mod(region.minZ(), sampleRate);
+        int keysX = (region.maxX() - keyMinX) / sampleRate + 2;
+        int keysY = (region.maxY() - keyMinY) / sampleRate + 2;
+        int keysZ = (region.maxZ() - keyMinZ) / sampleRate + 2;
+        float[] keyData = keyBuffers.get(keysX * keysY * keysZ);
+        BatchNoise.noise(source, keyData, keyMinX, keyMinY, keyMinZ, keysX, keysY, keysZ, sampleRate, zoom.x, zoom.y, zoom.z);
 
-    private float[] mapExpand(float[] keyData, Region3i fullRegion) {
-        float[] fullData = new float[fullRegion.size().x * fullRegion.size().y * fullRegion.size().z];
-        int samplesX = fullRegion.size().x / sampleRate + 1;
-        int samplesY = fullRegion.size().y / sampleRate + 1;
-        int samplesZ = fullRegion.size().z / sampleRate + 1;
-        for (int z = 0; z < samplesZ - 1; z++) {
-            for (int y = 0; y < samplesY - 1; y++) {
-                for (int x = 0; x < samplesX - 1; x++) {
-                    float q000 = keyData[x + samplesX * (y + samplesY * z)];
-                    float q100 = keyData[x + 1 + samplesX * (y + samplesY * z)];
-                    float q010 = keyData[x + samplesX * (y + 1 + samplesY * z)];
-                    float q110 = keyData[(x + 1) + samplesX * (y + 1 + samplesY * z)];
-                    float q001 = keyData[x + samplesX * (y + samplesY * (z + 1))];
-                    float q101 = keyData[x + 1 + samplesX * (y + samplesY * (z + 1))];
-                    float q011 = keyData[x + samplesX * (y + 1 + samplesY * (z + 1))];
-                    float q111 = keyData[(x + 1) + samplesX * (y + 1 + samplesY * (z + 1))];
-                    for (int innerZ = 0; innerZ < sampleRate; ++innerZ) {
-                        for (int innerY = 0; innerY < sampleRate; ++innerY) {
-                            for (int innerX = 0; innerX < sampleRate; ++innerX) {
-                                fullData[x * sampleRate + innerX + fullRegion.sizeX() * (y * sampleRate + innerY + fullRegion.sizeY() * (z * sampleRate + innerZ))] =
-                                        TeraMath.triLerp(q000, q100, q010, q110, q001, q101, q011, q111,
-                                                (float) innerX / sampleRate, (float) innerY / sampleRate, (float) innerZ / sampleRate);
-                            }
-                        }
-                    }
+        int keysXY = keysX * keysY;
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); ++z) {
+            int keyZ = (z - keyMinZ) / sampleRate;
+            float tz = (float) ((z - keyMinZ) % sampleRate) / sampleRate;
+            for (int y = region.minY(); y <= region.maxY(); ++y) {
+                int keyY = (y - keyMinY) / sampleRate;
+                float ty = (float) ((y - keyMinY) % sampleRate) / sampleRate;
+                for (int x = region.minX(); x <= region.maxX(); ++x) {
+                    int keyX = (x - keyMinX) / sampleRate;
+                    float tx = (float) ((x - keyMinX) % sampleRate) / sampleRate;
+                    int keyIndex = keyX + keysX * (keyY + keysY * keyZ);
+                    buffer[index++] = TeraMath.triLerp(keyData[keyIndex], keyData[keyIndex + 1], keyData[keyIndex + keysX], keyData[keyIndex + keysX + 1],
+                            keyData[keyIndex + keysXY], keyData[keyIndex + keysXY + 1], keyData[keyIndex + keysXY + keysX], keyData[keyIndex + keysXY + keysX + 1],
+                            tx, ty, tz);
                 }
             }
         }
-        return fullData;
-    }
-
-    private float[] getKeyValues(Region3i fullRegion) {
-        int xDim = fullRegion.size().x / sampleRate + 1;
-        int yDim = fullRegion.size().y / sampleRate + 1;
-        int zDim = fullRegion.size().z / sampleRate + 1;
-        float[] fullData = new float[xDim * yDim * zDim];
-        for (int z = 0; z < zDim; z++) {
-            for (int y = 0; y < yDim; y++) {
-                for (int x = 0; x < xDim; x++) {
-                    int actualX = x * sampleRate + fullRegion.minX();
-                    int actualY = y * sampleRate + fullRegion.minY();
-                    int actualZ = z * sampleRate + fullRegion.minZ();
-                    fullData[x + xDim * (y + yDim * z)] = source.noise(zoom.x * actualX, zoom.y * actualY, zoom.z * actualZ);
-                }
-            }
-        }
-        return fullData;
-    }
-
-    private Region3i determineRequiredRegion(Region3i region) {
-        int newMinX = region.minX() - IntMath.mod(region.minX(), sampleRate);
-        int newMinY = region.minY() - IntMath.mod(region.minY(), sampleRate);
-        int newMinZ = region.minZ() - IntMath.mod(region.minZ(), sampleRate);
-        int newMaxX = region.maxX() + 4 - IntMath.mod(region.maxX(), sampleRate) - 1;
-        int newMaxY = region.maxY() + 4 - IntMath.mod(region.maxY(), sampleRate) - 1;
-        int newMaxZ = region.maxZ() + 4 - IntMath.mod(region.maxZ(), sampleRate) - 1;
-        return Region3i.createFromMinMax(new Vector3i(newMinX, newMinY, newMinZ), new Vector3i(newMaxX, newMaxY, newMaxZ));
     }
 }
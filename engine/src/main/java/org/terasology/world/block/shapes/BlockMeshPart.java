@@ -16,6 +16,7 @@
 package org.terasology.world.block.shapes;
 
 import com.bulletphysics.linearmath.QuaternionUtil;
+import org.terasology.rendering.RenderMath;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkVertexFlag;
 
@@ -82,29 +83,17 @@ public BlockMeshPart mapTexCoords(Vector2f offset, float width) {
 
     public void appendTo(ChunkMesh chunk, int offsetX, int offsetY, int offsetZ, Vector4f colorOffset, ChunkMesh.RenderType renderType, ChunkVertexFlag flags) {
         ChunkMesh.VertexElements elements = chunk.getVertexElements(renderType);
-        for (Vector2f texCoord : texCoords) {
-            elements.tex.add(texCoord.x);
-            elements.tex.add(texCoord.y);
-        }
+        int packedColor = RenderMath.packColor(colorOffset.x, colorOffset.y, colorOffset.z, colorOffset.w);
 
         int nextIndex = elements.vertexCount;
         for (int vIdx = 0; vIdx < vertices.length; ++vIdx) {
-            elements.color.add(colorOffset.x);
-            elements.color.add(colorOffset.y);
-            elements.color.add(colorOffset.z);
-            elements.color.add(colorOffset.w);
-            elements.vertices.add(vertices[vIdx].x + offsetX);
-            elements.vertices.add(vertices[vIdx].y + offsetY);
-            elements.vertices.add(vertices[vIdx].z + offsetZ);
-            elements.normals.add(normals[vIdx].x);
-            elements.normals.add(normals[vIdx].y);
-            elements.normals.add(normals[vIdx].z);
-            elements.flags.add(flags.getValue());
+            elements.addVertex(vertices[vIdx].x + offsetX, vertices[vIdx].y + offsetY, vertices[vIdx].z + offsetZ,
+                    texCoords[vIdx].x, texCoords[vIdx].y, flags.getValue(), packedColor,
+                    normals[vIdx].x, normals[vIdx].y, normals[vIdx].z);
         }
-        elements.vertexCount += vertices.length;
 
         for (int index : indices) {
-            elements.indices.add(index + nextIndex);
+            elements.addIndex(index + nextIndex);
         }
     }
 
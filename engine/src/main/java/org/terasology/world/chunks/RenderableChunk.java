@@ -17,6 +17,7 @@
 
 import org.terasology.math.AABB;
 import org.terasology.module.sandbox.API;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
 import org.terasology.rendering.primitives.ChunkMesh;
 
 /**
@@ -29,6 +30,22 @@ public interface RenderableChunk extends LitChunk {
 
     void setDirty(boolean dirty);
 
+    /**
+     * Marks the vertical mesh segments covering the given range of chunk-relative y coordinates as dirty.
+     * Coordinates outside of the chunk are ignored.
+     *
+     * @param minY The lowest affected y coordinate, relative to the chunk
+     * @param maxY The highest affected y coordinate, relative to the chunk
+     */
+    void markDirty(int minY, int maxY);
+
+    /**
+     * Clears the dirty state of the chunk.
+     *
+     * @return A bit mask of the vertical mesh segments that were dirty, bit i being segment i
+     */
+    int clearDirtySegments();
+
     AABB getAABB();
 
     void setMesh(ChunkMesh[] mesh);
@@ -43,6 +60,21 @@ public interface RenderableChunk extends LitChunk {
 
     ChunkMesh[] getPendingMesh();
 
+    /**
+     * @return Which faces of the chunk are connected through see-through blocks, or null if not calculated yet
+     */
+    ChunkFaceConnectivity getFaceConnectivity();
+
+    void setFaceConnectivity(ChunkFaceConnectivity faceConnectivity);
+
+    /**
+     * Clears the stale state of the face connectivity. The face connectivity becomes stale when the chunk is created,
+     * and whenever a block of the chunk gets replaced by one that differs in whether it can be seen through.
+     *
+     * @return Whether the face connectivity was stale and needs to be recalculated
+     */
+    boolean clearFaceConnectivityStale();
+
     AABB getSubMeshAABB(int subMesh);
 
     void disposeMesh();
@@ -25,6 +25,7 @@
 import org.terasology.monitoring.chunk.ChunkMonitor;
 import org.terasology.protobuf.EntityData;
 import org.terasology.registry.CoreRegistry;
+import org.terasology.rendering.primitives.ChunkFaceConnectivity;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.world.biomes.Biome;
 import org.terasology.world.biomes.BiomeManager;
@@ -42,6 +43,8 @@
 
 import javax.vecmath.Vector3f;
 import java.text.DecimalFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -80,6 +83,12 @@ public class ChunkImpl implements Chunk {
     private TeraArray biomeData;
     private volatile TeraArray biomeDataSnapshot;
 
+    /**
+     * Gets increased whenever data that gets persisted (blocks, liquids, biomes) changes.
+     */
+    private final AtomicInteger modificationGeneration = new AtomicInteger();
+    private volatile int persistedGeneration = -1;
+
     private AABB aabb;
     private Region3i region;
 
@@ -87,13 +96,15 @@ public class ChunkImpl implements Chunk {
 
     private boolean disposed;
     private boolean ready;
-    private boolean dirty;
+    private int dirtySegments;
     private boolean animated;
 
     // Rendering
     private ChunkMesh[] activeMesh;
     private ChunkMesh[] pendingMesh;
     private AABB[] subMeshAABB;
+    private volatile ChunkFaceConnectivity faceConnectivity;
+    private final AtomicBoolean faceConnectivityStale = new AtomicBoolean(true);
     private boolean adjacentChunksReady;
 
     public ChunkImpl(int x, int y, int z) {
@@ -114,7 +125,7 @@ public ChunkImpl(Vector3i chunkPos, TeraArray blocks, TeraArray liquid, TeraArra
         sunlightData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
         sunlightRegenData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
         lightData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
-        dirty = true;
+        dirtySegments = allSegments();
         blockManager = CoreRegistry.get(BlockManager.class);
         biomeManager = CoreRegistry.get(BiomeManager.class);
         region = Region3i.createFromMinAndSize(new Vector3i(chunkPos.x * ChunkConstants.SIZE_X, chunkPos.y * ChunkConstants.SIZE_Y, chunkPos.z * ChunkConstants.SIZE_Z),
@@ -144,19 +155,55 @@ public Vector3i getPosition() {
 
     @Override
     public boolean isDirty() {
-        return dirty;
+        return dirtySegments != 0;
     }
 
     @Override
     public void setDirty(boolean dirty) {
         lock();
         try {
-            this.dirty = dirty;
+            this.dirtySegments = (dirty) ? allSegments() : 0;
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public void markDirty(int minY, int maxY) {
+        if (maxY < 0 || minY >= ChunkConstants.SIZE_Y || minY > maxY) {
+            return;
+        }
+        int segmentHeight = ChunkConstants.SIZE_Y / ChunkConstants.VERTICAL_SEGMENTS;
+        int minSegment = Math.max(minY, 0) / segmentHeight;
+        int maxSegment = Math.min(Math.min(maxY, ChunkConstants.SIZE_Y - 1) / segmentHeight, ChunkConstants.VERTICAL_SEGMENTS - 1);
+        int segments = 0;
+        for (int segment = minSegment; segment <= maxSegment; segment++) {
+            segments |= 1 << segment;
+        }
+        lock();
+        try {
+            dirtySegments |= segments;
         } finally {
             unlock();
         }
     }
 
+    @Override
+    public int clearDirtySegments() {
+        lock();
+        try {
+            int result = dirtySegments;
+            dirtySegments = 0;
+            return result;
+        } finally {
+            unlock();
+        }
+    }
+
+    private static int allSegments() {
+        return (ChunkConstants.VERTICAL_SEGMENTS >= Integer.SIZE) ? -1 : (1 << ChunkConstants.VERTICAL_SEGMENTS) - 1;
+    }
+
     @Override
     public int getEstimatedMemoryConsumptionInBytes() {
         return blockData.getEstimatedMemoryConsumptionInBytes()
@@ -185,12 +232,17 @@ public Block setBlock(int x, int y, int z, Block block) {
             blockData = blockData.copy();
         }
         int oldValue = blockData.set(x, y, z, block.getId());
+        Block oldBlock = blockManager.getBlock((short) oldValue);
         if (oldValue != block.getId()) {
+            modificationGeneration.incrementAndGet();
             if (!block.isLiquid()) {
                 setLiquid(x, y, z, new LiquidData());
             }
+            if (ChunkFaceConnectivity.isSeeThrough(block) != ChunkFaceConnectivity.isSeeThrough(oldBlock)) {
+                faceConnectivityStale.set(true);
+            }
         }
-        return blockManager.getBlock((short) oldValue);
+        return oldBlock;
     }
 
     @Override
@@ -272,7 +324,9 @@ public void setLiquid(int x, int y, int z, LiquidData newState) {
         if (extraData == extraDataSnapshot) {
             extraData = extraData.copy();
         }
-        extraData.set(x, y, z, newValue);
+        if (extraData.set(x, y, z, newValue) != newValue) {
+            modificationGeneration.incrementAndGet();
+        }
     }
 
     @Override
@@ -297,6 +351,9 @@ public Biome setBiome(int x, int y, int z, Biome biome) {
         }
         short shortId = biomeManager.getBiomeShortId(biome);
         short previousShortId = (short) biomeData.set(x, y, z, shortId);
+        if (previousShortId != shortId) {
+            modificationGeneration.incrementAndGet();
+        }
         return biomeManager.getBiomeByShortId(previousShortId);
     }
 
@@ -496,6 +553,21 @@ public ChunkMesh[] getPendingMesh() {
         return pendingMesh;
     }
 
+    @Override
+    public ChunkFaceConnectivity getFaceConnectivity() {
+        return faceConnectivity;
+    }
+
+    @Override
+    public void setFaceConnectivity(ChunkFaceConnectivity faceConnectivity) {
+        this.faceConnectivity = faceConnectivity;
+    }
+
+    @Override
+    public boolean clearFaceConnectivityStale() {
+        return faceConnectivityStale.getAndSet(false);
+    }
+
     @Override
     public AABB getSubMeshAABB(int subMesh) {
         if (subMeshAABB == null) {
@@ -605,6 +677,39 @@ public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData, biomeData);
     }
 
+    /**
+     * @return a number that changes whenever the blocks, liquids or biomes of the chunk change.
+     */
+    public int getModificationGeneration() {
+        return modificationGeneration.get();
+    }
+
+    /**
+     * @return true if the persisted data of the chunk changed since the last call of {@link #markPersisted()}, or if
+     * it has never been called.
+     */
+    public boolean isModifiedSinceLastPersisted() {
+        return persistedGeneration != modificationGeneration.get();
+    }
+
+    /**
+     * Marks the current state of the chunk as stored. Should be called when the chunk got loaded from a store or when
+     * a snapshot for saving the chunk got taken.
+     */
+    public void markPersisted() {
+        markPersisted(modificationGeneration.get());
+    }
+
+    /**
+     * Marks the state of the chunk with the given modification generation as stored. The generation must be read
+     * before the stored data gets captured, so that changes made in between cause the chunk to be saved again.
+     *
+     * @param generation the value {@link #getModificationGeneration()} had before the data to store got captured
+     */
+    public void markPersisted(int generation) {
+        persistedGeneration = generation;
+    }
+
     /**
      * Calling this method results in a (cheap) snapshot to be taken of the current state of the chunk.
      * This snapshot can then be obtained and rleased by calling {@link #encodeAndReleaseSnapshot()}.
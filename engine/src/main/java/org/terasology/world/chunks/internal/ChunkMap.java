@@ -0,0 +1,275 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.TeraMath;
+import org.terasology.math.Vector3i;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A map of chunks keyed by their chunk position, packed into a long (see {@link TeraMath#packChunkPos(int, int, int)}).
+ * <p/>
+ * Lookups take no lock and create no objects, so chunks can be looked up from any thread by int coordinates.
+ * Modifications are synchronized, as they are rare compared to lookups.
+ * Iteration is weakly consistent: it never fails due to concurrent modifications, but may or may not reflect them.
+ */
+public class ChunkMap implements Iterable<Chunk> {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private volatile AtomicReferenceArray<Node> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private volatile int size;
+
+    private final Collection<Chunk> values = new AbstractCollection<Chunk>() {
+        @Override
+        public Iterator<Chunk> iterator() {
+            return ChunkMap.this.iterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    public Chunk get(Vector3i pos) {
+        return get(pos.x, pos.y, pos.z);
+    }
+
+    public Chunk get(int x, int y, int z) {
+        long key = TeraMath.packChunkPos(x, y, z);
+        AtomicReferenceArray<Node> tab = table;
+        Node node = tab.get(indexFor(key, tab.length()));
+        while (node != null) {
+            if (node.key == key) {
+                return node.chunk;
+            }
+            node = node.next;
+        }
+        return null;
+    }
+
+    /**
+     * @return The chunk next to the given chunk position on the given side, or null if there is none
+     */
+    public Chunk getAdjacent(Vector3i pos, Side side) {
+        Vector3i dir = side.getVector3i();
+        return get(pos.x + dir.x, pos.y + dir.y, pos.z + dir.z);
+    }
+
+    public boolean contains(Vector3i pos) {
+        return get(pos.x, pos.y, pos.z) != null;
+    }
+
+    /**
+     * @param region A region of chunk positions
+     * @return Whether there is a chunk for every position of the region
+     */
+    public boolean containsAll(Region3i region) {
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    if (get(x, y, z) == null) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fills the output array with the chunks of a region, using the layout of
+     * {@link TeraMath#calculate3DArrayIndex(int, int, int, Vector3i)} relative to the minimum of the region.
+     *
+     * @param region A region of chunk positions
+     * @param output An array of at least the volume of the region
+     * @return Whether there is a chunk for every position of the region. Missing chunks are null in the output.
+     */
+    public boolean getAll(Region3i region, Chunk[] output) {
+        boolean complete = true;
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    Chunk chunk = get(x, y, z);
+                    output[index++] = chunk;
+                    complete &= chunk != null;
+                }
+            }
+        }
+        return complete;
+    }
+
+    /**
+     * @return The previous chunk at the position, or null if there was none
+     */
+    public synchronized Chunk put(Vector3i pos, Chunk chunk) {
+        long key = TeraMath.packChunkPos(pos.x, pos.y, pos.z);
+        AtomicReferenceArray<Node> tab = table;
+        int index = indexFor(key, tab.length());
+        for (Node node = tab.get(index); node != null; node = node.next) {
+            if (node.key == key) {
+                Chunk old = node.chunk;
+                node.chunk = chunk;
+                return old;
+            }
+        }
+        tab.set(index, new Node(key, chunk, tab.get(index)));
+        if (++size > tab.length() / 4 * 3) {
+            resize(tab.length() * 2);
+        }
+        return null;
+    }
+
+    /**
+     * @return The removed chunk, or null if there was none at the position
+     */
+    public Chunk remove(Vector3i pos) {
+        return remove(TeraMath.packChunkPos(pos.x, pos.y, pos.z));
+    }
+
+    private synchronized Chunk remove(long key) {
+        AtomicReferenceArray<Node> tab = table;
+        int index = indexFor(key, tab.length());
+        Node prev = null;
+        for (Node node = tab.get(index); node != null; node = node.next) {
+            if (node.key == key) {
+                if (prev == null) {
+                    tab.set(index, node.next);
+                } else {
+                    prev.next = node.next;
+                }
+                size--;
+                return node.chunk;
+            }
+            prev = node;
+        }
+        return null;
+    }
+
+    public synchronized void clear() {
+        table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return A live view of the chunks of this map
+     */
+    public Collection<Chunk> values() {
+        return values;
+    }
+
+    /**
+     * @return An iterator over the chunks, whose remove method removes the last returned chunk from the map
+     */
+    @Override
+    public Iterator<Chunk> iterator() {
+        return new ChunkIterator(table);
+    }
+
+    /**
+     * Moves the entries into a new table, leaving the old one intact for concurrent lookups that still use it.
+     */
+    private void resize(int capacity) {
+        AtomicReferenceArray<Node> oldTable = table;
+        AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < oldTable.length(); i++) {
+            for (Node node = oldTable.get(i); node != null; node = node.next) {
+                int index = indexFor(node.key, capacity);
+                newTable.set(index, new Node(node.key, node.chunk, newTable.get(index)));
+            }
+        }
+        table = newTable;
+    }
+
+    private static int indexFor(long key, int length) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (length - 1);
+    }
+
+    private static final class Node {
+        private final long key;
+        private volatile Chunk chunk;
+        private volatile Node next;
+
+        private Node(long key, Chunk chunk, Node next) {
+            this.key = key;
+            this.chunk = chunk;
+            this.next = next;
+        }
+    }
+
+    private final class ChunkIterator implements Iterator<Chunk> {
+        private final AtomicReferenceArray<Node> tab;
+        private int nextIndex;
+        private Node next;
+        private Node last;
+
+        private ChunkIterator(AtomicReferenceArray<Node> tab) {
+            this.tab = tab;
+            advance();
+        }
+
+        private void advance() {
+            if (next != null) {
+                next = next.next;
+            }
+            while (next == null && nextIndex < tab.length()) {
+                next = tab.get(nextIndex++);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Chunk next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            advance();
+            return last.chunk;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            ChunkMap.this.remove(last.key);
+            last = null;
+        }
+    }
+}
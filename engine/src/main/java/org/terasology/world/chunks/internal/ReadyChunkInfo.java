@@ -30,6 +30,7 @@ public class ReadyChunkInfo {
     private ChunkStore chunkStore;
     private Chunk chunk;
     private boolean newChunk;
+    private long readyTime;
 
     public ReadyChunkInfo(Chunk chunk, TShortObjectMap<TIntList> blockPositionMapppings) {
         this.pos = chunk.getPosition();
@@ -65,4 +66,15 @@ public boolean isNewChunk() {
     public Chunk getChunk() {
         return chunk;
     }
+
+    /**
+     * @return The time in milliseconds at which the chunk provider received the chunk for activation
+     */
+    public long getReadyTime() {
+        return readyTime;
+    }
+
+    public void setReadyTime(long readyTime) {
+        this.readyTime = readyTime;
+    }
 }
@@ -20,6 +20,7 @@
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.collect.Sets;
+import gnu.trove.iterator.TLongIterator;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.TShortObjectMap;
@@ -27,6 +28,9 @@
 import gnu.trove.procedure.TShortObjectProcedure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
+import org.terasology.engine.EngineTime;
+import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.math.Region3i;
@@ -38,6 +42,7 @@
 import org.terasology.persistence.ChunkStore;
 import org.terasology.persistence.StorageManager;
 import org.terasology.registry.CoreRegistry;
+import org.terasology.utilities.concurrency.PriorityScorer;
 import org.terasology.utilities.concurrency.TaskMaster;
 import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.block.BeforeDeactivateBlocks;
@@ -51,6 +56,7 @@
 import org.terasology.world.chunks.event.OnChunkLoaded;
 import org.terasology.world.chunks.event.PurgeWorldEvent;
 import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.internal.ChunkMap;
 import org.terasology.world.chunks.internal.ChunkRelevanceRegion;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
 import org.terasology.world.chunks.internal.ReadyChunkInfo;
@@ -65,6 +71,7 @@
 
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -79,6 +86,8 @@ public class LocalChunkProvider implements ChunkProvider, GeneratingChunkProvide
     private static final Vector3i UNLOAD_LEEWAY = Vector3i.one();
 
     private StorageManager storageManager;
+    private EngineTime time;
+    private int activationTimePerFrame;
     private final EntityManager entityManager;
 
     private ChunkGenerationPipeline pipeline;
@@ -87,11 +96,27 @@ public class LocalChunkProvider implements ChunkProvider, GeneratingChunkProvide
 
     private Map<EntityRef, ChunkRelevanceRegion> regions = Maps.newHashMap();
 
-    private Map<Vector3i, Chunk> nearCache = Maps.newConcurrentMap();
+    private final ChunkMap nearCache = new ChunkMap();
+    private final RetainedChunks retainedChunks = new RetainedChunks();
 
     private final Set<Vector3i> preparingChunks = Sets.newHashSet();
     private final BlockingQueue<ReadyChunkInfo> readyChunks = Queues.newLinkedBlockingQueue();
     private List<ReadyChunkInfo> sortedReadyChunks = Lists.newArrayList();
+    private final ReadyChunkRelevanceComparator readyChunkComparator = new ReadyChunkRelevanceComparator();
+    /**
+     * Set when the relevance regions moved, which invalidates the order of {@link #sortedReadyChunks}
+     */
+    private volatile boolean readyChunkOrderInvalid;
+    /**
+     * The centers of the relevance regions, for scoring chunk tasks without locking the regions
+     */
+    private volatile List<Vector3i> relevanceCenters = Collections.emptyList();
+    /**
+     * The relevance regions expanded by the unload leeway. Chunk tasks outside of all of them are stale and get cancelled.
+     */
+    private volatile List<Region3i> retainedRegions = Collections.emptyList();
+    private final BlockingQueue<Vector3i> cancelledChunks = Queues.newLinkedBlockingQueue();
+    private final AtomicInteger relevanceEpoch = new AtomicInteger();
     private final BlockingQueue<TShortObjectMap<TIntList>> deactivateBlocksQueue = Queues.newLinkedBlockingQueue();
 
     private EntityRef worldEntity = EntityRef.NULL;
@@ -105,10 +130,12 @@ public class LocalChunkProvider implements ChunkProvider, GeneratingChunkProvide
 
     public LocalChunkProvider(StorageManager storageManager, EntityManager entityManager, WorldGenerator generator) {
         this.blockManager = CoreRegistry.get(BlockManager.class);
+        this.time = (EngineTime) CoreRegistry.get(Time.class);
+        this.activationTimePerFrame = CoreRegistry.get(Config.class).getSystem().getChunkActivationTimePerFrameInMs();
         this.storageManager = storageManager;
         this.entityManager = entityManager;
         this.generator = generator;
-        this.pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        this.pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceScorer());
         this.unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 4);
         ChunkMonitor.fireChunkProviderInitialized(this);
     }
@@ -143,14 +170,13 @@ public ChunkViewCore getSubviewAroundChunk(Vector3i chunkPos) {
 
     private ChunkViewCore createWorldView(Region3i region, Vector3i offset) {
         Chunk[] chunks = new Chunk[region.sizeX() * region.sizeY() * region.sizeZ()];
-        for (Vector3i chunkPos : region) {
-            Chunk chunk = nearCache.get(chunkPos);
-            if (chunk == null || !chunk.isReady()) {
+        if (!nearCache.getAll(region, chunks)) {
+            return null;
+        }
+        for (Chunk chunk : chunks) {
+            if (!chunk.isReady()) {
                 return null;
             }
-            chunkPos.sub(region.minX(), region.minY(), region.minZ());
-            int index = TeraMath.calculate3DArrayIndex(chunkPos, region.size());
-            chunks[index] = chunk;
         }
         return new ChunkViewCoreImpl(chunks, region, offset);
     }
@@ -187,6 +213,7 @@ public void addRelevanceEntity(EntityRef entity, Vector3i distance, ChunkRegionL
         regionLock.writeLock().lock();
         try {
             regions.put(entity, region);
+            onRelevanceRegionsChanged();
         } finally {
             regionLock.writeLock().unlock();
         }
@@ -217,7 +244,11 @@ public void updateRelevanceEntity(EntityRef entity, Vector3i distance) {
     public void removeRelevanceEntity(EntityRef entity) {
         regionLock.writeLock().lock();
         try {
-            regions.remove(entity);
+            ChunkRelevanceRegion region = regions.remove(entity);
+            if (region != null) {
+                retainedChunks.remove(region);
+            }
+            onRelevanceRegionsChanged();
         } finally {
             regionLock.writeLock().unlock();
         }
@@ -225,60 +256,93 @@ public void removeRelevanceEntity(EntityRef entity) {
 
     @Override
     public void completeUpdate() {
+        long startTime = time.getRawTimeInMs();
         ReadyChunkInfo readyChunkInfo = lightMerger.completeMerge();
-        if (readyChunkInfo != null) {
-            Chunk chunk = readyChunkInfo.getChunk();
-            chunk.lock();
-            try {
-                chunk.markReady();
-                updateAdjacentChunksReadyFieldOf(chunk);
-                updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
+        while (readyChunkInfo != null) {
+            PerformanceMonitor.startActivity("Make Chunk Ready");
+            makeChunkReady(readyChunkInfo);
+            PerformanceMonitor.endActivity();
+            long now = time.getRawTimeInMs();
+            ChunkMonitor.fireChunkActivated(readyChunkInfo.getPos(), now - readyChunkInfo.getReadyTime(),
+                    sortedReadyChunks.size() + lightMerger.getPendingMergeCount());
+            if (now - startTime >= activationTimePerFrame) {
+                break;
+            }
+            readyChunkInfo = lightMerger.completeMerge();
+        }
+    }
 
-                if (!readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Generating Block Entities");
-                    generateBlockEntities(chunk);
-                    PerformanceMonitor.endActivity();
-                }
-                if (readyChunkInfo.getChunkStore() != null) {
-                    readyChunkInfo.getChunkStore().restoreEntities();
-                }
+    /**
+     * Invalidates the priorities of ready chunks and chunk tasks, which depend on the centers of the relevance regions.
+     * Must be called with the region lock held.
+     */
+    private void onRelevanceRegionsChanged() {
+        readyChunkOrderInvalid = true;
+        List<Vector3i> centers = Lists.newArrayListWithCapacity(regions.size());
+        List<Region3i> retained = Lists.newArrayListWithCapacity(regions.size());
+        for (ChunkRelevanceRegion region : regions.values()) {
+            centers.add(region.getCenter());
+            Region3i retainedRegion = region.getCurrentRegion().expand(UNLOAD_LEEWAY);
+            retained.add(retainedRegion);
+            retainedChunks.update(region, retainedRegion);
+        }
+        relevanceCenters = centers;
+        retainedRegions = retained;
+        relevanceEpoch.incrementAndGet();
+    }
 
-                if (!readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Sending OnAddedBlocks");
-                    readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
-                        @Override
-                        public boolean execute(short id, TIntList positions) {
-                            if (positions.size() > 0) {
-                                blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
-                            }
-                            return true;
-                        }
-                    });
-                    PerformanceMonitor.endActivity();
-                }
+    private void makeChunkReady(ReadyChunkInfo readyChunkInfo) {
+        Chunk chunk = readyChunkInfo.getChunk();
+        chunk.lock();
+        try {
+            chunk.markReady();
+            updateAdjacentChunksReadyFieldOf(chunk);
+            updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
 
-                PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+            if (!readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Generating Block Entities");
+                generateBlockEntities(chunk);
+                PerformanceMonitor.endActivity();
+            }
+            if (readyChunkInfo.getChunkStore() != null) {
+                readyChunkInfo.getChunkStore().restoreEntities();
+            }
+
+            if (!readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Sending OnAddedBlocks");
                 readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
                     @Override
                     public boolean execute(short id, TIntList positions) {
                         if (positions.size() > 0) {
-                            blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
+                            blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
                         }
                         return true;
                     }
                 });
                 PerformanceMonitor.endActivity();
+            }
 
-                if (!readyChunkInfo.isNewChunk()) {
-                    worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
-                }
-                worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
-                for (ChunkRelevanceRegion region : regions.values()) {
-                    region.chunkReady(chunk);
+            PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+            readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
+                @Override
+                public boolean execute(short id, TIntList positions) {
+                    if (positions.size() > 0) {
+                        blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
+                    }
+                    return true;
                 }
-            } finally {
-                chunk.unlock();
+            });
+            PerformanceMonitor.endActivity();
+
+            if (!readyChunkInfo.isNewChunk()) {
+                worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
+            }
+            worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
+            for (ChunkRelevanceRegion region : regions.values()) {
+                region.chunkReady(chunk);
             }
+        } finally {
+            chunk.unlock();
         }
     }
 
@@ -296,28 +360,49 @@ public void beginUpdate() {
     }
 
     private void makeChunksAvailable() {
+        List<Vector3i> newCancelledChunks = Lists.newArrayListWithExpectedSize(cancelledChunks.size());
+        cancelledChunks.drainTo(newCancelledChunks);
+        for (Vector3i pos : newCancelledChunks) {
+            preparingChunks.remove(pos);
+            // The chunk may have become relevant again after its task was cancelled
+            for (ChunkRelevanceRegion region : regions.values()) {
+                if (region.getCurrentRegion().encompasses(pos)) {
+                    createOrLoadChunk(pos);
+                    break;
+                }
+            }
+        }
+
         List<ReadyChunkInfo> newReadyChunks = Lists.newArrayListWithExpectedSize(readyChunks.size());
         readyChunks.drainTo(newReadyChunks);
+        long now = time.getRawTimeInMs();
         for (ReadyChunkInfo readyChunkInfo : newReadyChunks) {
             nearCache.put(readyChunkInfo.getPos(), readyChunkInfo.getChunk());
+            retainedChunks.chunkLoaded(readyChunkInfo.getPos());
             preparingChunks.remove(readyChunkInfo.getPos());
+            readyChunkInfo.setReadyTime(now);
         }
-        if (!newReadyChunks.isEmpty()) {
+        boolean resort = readyChunkOrderInvalid;
+        readyChunkOrderInvalid = false;
+        // Scores against a single snapshot of the centers, so that the order stays consistent while sorting
+        readyChunkComparator.setCenters(relevanceCenters);
+        if (resort) {
             sortedReadyChunks.addAll(newReadyChunks);
-            Collections.sort(sortedReadyChunks, new ReadyChunkRelevanceComparator());
-        }
-        if (!sortedReadyChunks.isEmpty()) {
-            boolean loaded = false;
-            for (int i = sortedReadyChunks.size() - 1; i >= 0 && !loaded; i--) {
-                ReadyChunkInfo chunkInfo = sortedReadyChunks.get(i);
-                PerformanceMonitor.startActivity("Make Chunk Available");
-                if (makeChunkAvailable(chunkInfo)) {
-                    sortedReadyChunks.remove(i);
-                    loaded = true;
-                }
-                PerformanceMonitor.endActivity();
+            Collections.sort(sortedReadyChunks, readyChunkComparator);
+        } else {
+            for (ReadyChunkInfo readyChunkInfo : newReadyChunks) {
+                int index = Collections.binarySearch(sortedReadyChunks, readyChunkInfo, readyChunkComparator);
+                sortedReadyChunks.add((index < 0) ? -index - 1 : index, readyChunkInfo);
             }
         }
+        for (int i = sortedReadyChunks.size() - 1; i >= 0 && lightMerger.canBeginMerge(); i--) {
+            ReadyChunkInfo chunkInfo = sortedReadyChunks.get(i);
+            PerformanceMonitor.startActivity("Make Chunk Available");
+            if (makeChunkAvailable(chunkInfo)) {
+                sortedReadyChunks.remove(i);
+            }
+            PerformanceMonitor.endActivity();
+        }
     }
 
     private void deactivateBlocks() {
@@ -336,62 +421,63 @@ public boolean execute(short id, TIntList positions) {
         }
     }
 
+    /**
+     * Unloads chunks that are no longer retained by any relevance region, see {@link RetainedChunks}.
+     */
     private void checkForUnload() {
         PerformanceMonitor.startActivity("Unloading irrelevant chunks");
         int unloaded = 0;
         logger.debug("Compacting cache");
-        Iterator<Vector3i> iterator = nearCache.keySet().iterator();
+        TLongIterator iterator = retainedChunks.unloadCandidates();
         while (iterator.hasNext()) {
-            Vector3i pos = iterator.next();
-            boolean keep = false;
-            for (ChunkRelevanceRegion region : regions.values()) {
-                if (region.getCurrentRegion().expand(UNLOAD_LEEWAY).encompasses(pos)) {
-                    keep = true;
-                    break;
-                }
+            long packedPos = iterator.next();
+            Chunk chunk = nearCache.get(TeraMath.unpackChunkPosX(packedPos), TeraMath.unpackChunkPosY(packedPos), TeraMath.unpackChunkPosZ(packedPos));
+            if (chunk == null) {
+                iterator.remove();
+                continue;
+            }
+            Vector3i pos = chunk.getPosition();
+            // TODO: need some way to not dispose chunks being edited or processed (or do so safely)
+            // Note: Above won't matter if all changes are on the main thread
+            if (chunk.isLocked() || lightMerger.isInvolvedInMerge(pos)) {
+                continue;
             }
-            if (!keep) {
-                // TODO: need some way to not dispose chunks being edited or processed (or do so safely)
-                // Note: Above won't matter if all changes are on the main thread
-                Chunk chunk = nearCache.get(pos);
-                if (chunk.isLocked()) {
+            chunk.lock();
+            try {
+                if (!chunk.isReady()) {
+                    // Chunk hasn't been finished or changed, so just drop it.
+                    nearCache.remove(pos);
+                    iterator.remove();
+                    Iterator<ReadyChunkInfo> infoIterator = sortedReadyChunks.iterator();
+                    while (infoIterator.hasNext()) {
+                        ReadyChunkInfo next = infoIterator.next();
+                        if (next.getPos().equals(pos)) {
+                            infoIterator.remove();
+                            break;
+                        }
+                    }
                     continue;
                 }
-                chunk.lock();
+                worldEntity.send(new BeforeChunkUnload(pos));
+                for (ChunkRelevanceRegion region : regions.values()) {
+                    region.chunkUnloaded(pos);
+                }
+                storageManager.deactivateChunk(chunk);
+                chunk.dispose();
+                updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
+
                 try {
-                    if (!chunk.isReady()) {
-                        // Chunk hasn't been finished or changed, so just drop it.
-                        iterator.remove();
-                        Iterator<ReadyChunkInfo> infoIterator = sortedReadyChunks.iterator();
-                        while (infoIterator.hasNext()) {
-                            ReadyChunkInfo next = infoIterator.next();
-                            if (next.getPos().equals(chunk.getPosition())) {
-                                infoIterator.remove();
-                                break;
-                            }
-                        }
-                        continue;
-                    }
-                    worldEntity.send(new BeforeChunkUnload(pos));
-                    for (ChunkRelevanceRegion region : regions.values()) {
-                        region.chunkUnloaded(pos);
-                    }
-                    storageManager.deactivateChunk(chunk);
-                    chunk.dispose();
-                    updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
-
-                    try {
-                        unloadRequestTaskMaster.put(new ChunkUnloadRequest(chunk, this));
-                    } catch (InterruptedException e) {
-                        logger.error("Failed to enqueue unload request for {}", chunk.getPosition(), e);
-                    }
-                    iterator.remove();
-                    if (++unloaded >= UNLOAD_PER_FRAME) {
-                        break;
-                    }
-                } finally {
-                    chunk.unlock();
+                    unloadRequestTaskMaster.put(new ChunkUnloadRequest(chunk, this));
+                } catch (InterruptedException e) {
+                    logger.error("Failed to enqueue unload request for {}", chunk.getPosition(), e);
+                }
+                nearCache.remove(pos);
+                iterator.remove();
+                if (++unloaded >= UNLOAD_PER_FRAME) {
+                    break;
                 }
+            } finally {
+                chunk.unlock();
             }
         }
         PerformanceMonitor.endActivity();
@@ -400,8 +486,7 @@ private void checkForUnload() {
     private boolean areAdjacentChunksReady(Chunk chunk) {
         Vector3i centerChunkPos = chunk.getPosition();
         for (Side side : Side.values()) {
-            Vector3i adjChunkPos = side.getAdjacentPos(centerChunkPos);
-            Chunk adjChunk = nearCache.get(adjChunkPos);
+            Chunk adjChunk = nearCache.getAdjacent(centerChunkPos, side);
             boolean adjChunkReady = (adjChunk != null && adjChunk.isReady());
             if (!adjChunkReady) {
                 return false;
@@ -417,8 +502,7 @@ private void updateAdjacentChunksReadyFieldOf(Chunk chunk) {
     private void updateAdjacentChunksReadyFieldOfAdjChunks(Chunk chunkInCenter) {
         Vector3i centerChunkPos = chunkInCenter.getPosition();
         for (Side side : Side.values()) {
-            Vector3i adjChunkPos = side.getAdjacentPos(centerChunkPos);
-            Chunk adjChunk = nearCache.get(adjChunkPos);
+            Chunk adjChunk = nearCache.getAdjacent(centerChunkPos, side);
             if (adjChunk != null) {
                 updateAdjacentChunksReadyFieldOf(adjChunk);
             }
@@ -430,6 +514,7 @@ private void updateRelevance() {
         for (ChunkRelevanceRegion chunkRelevanceRegion : regions.values()) {
             chunkRelevanceRegion.update();
             if (chunkRelevanceRegion.isDirty()) {
+                onRelevanceRegionsChanged();
                 for (Vector3i pos : chunkRelevanceRegion.getNeededChunks()) {
                     Chunk chunk = nearCache.get(pos);
                     if (chunk != null && chunk.isReady()) {
@@ -448,13 +533,10 @@ private boolean makeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
         if (chunk == null) {
             return false;
         }
-        for (Vector3i pos : Region3i.createFromCenterExtents(readyChunkInfo.getPos(), 1)) {
-            if (nearCache.get(pos) == null) {
-                return false;
-            }
+        if (!nearCache.containsAll(Region3i.createFromCenterExtents(readyChunkInfo.getPos(), 1))) {
+            return false;
         }
-        lightMerger.beginMerge(chunk, readyChunkInfo);
-        return true;
+        return lightMerger.beginMerge(chunk, readyChunkInfo);
     }
 
     // Generates all non-temporary block entities
@@ -497,18 +579,18 @@ private TShortObjectMap<TIntList> createBatchBlockEventMappings(Chunk chunk) {
 
     @Override
     public Chunk getChunk(int x, int y, int z) {
-        return getChunk(new Vector3i(x, y, z));
-    }
-
-    @Override
-    public Chunk getChunk(Vector3i pos) {
-        Chunk chunk = nearCache.get(pos);
+        Chunk chunk = nearCache.get(x, y, z);
         if (isChunkReady(chunk)) {
             return chunk;
         }
         return null;
     }
 
+    @Override
+    public Chunk getChunk(Vector3i pos) {
+        return getChunk(pos.x, pos.y, pos.z);
+    }
+
     @Override
     public Collection<Chunk> getAllChunks() {
         return nearCache.values();
@@ -558,13 +640,15 @@ public void purgeWorld() {
             }
         }
         nearCache.clear();
+        retainedChunks.clearUnloadCandidates();
         readyChunks.clear();
+        cancelledChunks.clear();
         sortedReadyChunks.clear();
         storageManager.deleteWorld();
         preparingChunks.clear();
         worldEntity.send(new PurgeWorldEvent());
 
-        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceScorer());
         unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 8);
         lightMerger = new LightMerger<>(this);
         lightMerger.restart();
@@ -590,6 +674,10 @@ public String getName() {
 
                 @Override
                 public void run() {
+                    if (isStale(getPosition())) {
+                        cancel(null);
+                        return;
+                    }
                     ChunkStore chunkStore = storageManager.loadChunkStore(getPosition());
                     Chunk chunk;
                     if (chunkStore == null) {
@@ -599,14 +687,39 @@ public void run() {
                         chunk = chunkStore.getChunk();
                     }
 
+                    if (isStale(getPosition())) {
+                        cancel(chunk);
+                        return;
+                    }
                     InternalLightProcessor.generateInternalLighting(chunk);
                     chunk.deflate();
                     readyChunks.offer(new ReadyChunkInfo(chunk, createBatchBlockEventMappings(chunk), chunkStore));
+                    ChunkMonitor.fireChunkTaskCompleted();
+                }
+
+                private void cancel(Chunk chunk) {
+                    if (chunk != null) {
+                        chunk.dispose();
+                    }
+                    cancelledChunks.offer(getPosition());
+                    ChunkMonitor.fireChunkTaskCancelled();
                 }
             });
         }
     }
 
+    /**
+     * @return Whether a chunk task for the given position is stale, because the chunk left all relevance regions
+     */
+    private boolean isStale(Vector3i chunkPos) {
+        for (Region3i region : retainedRegions) {
+            if (region.encompasses(chunkPos)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 
     @Override
     public void onChunkIsReady(Chunk chunk) {
@@ -627,43 +740,39 @@ private boolean isChunkReady(Chunk chunk) {
         return chunk != null && chunk.isReady();
     }
 
-    private class ChunkTaskRelevanceComparator implements Comparator<ChunkTask> {
+    private class ChunkTaskRelevanceScorer implements PriorityScorer<ChunkTask> {
 
         @Override
-        public int compare(ChunkTask o1, ChunkTask o2) {
-            return score(o1) - score(o2);
-        }
-
-        private int score(ChunkTask task) {
+        public int score(ChunkTask task) {
             if (task.isTerminateSignal()) {
                 return -1;
             }
-            return score(task.getPosition());
-        }
-
-        private int score(Vector3i chunk) {
             int score = Integer.MAX_VALUE;
-
-            regionLock.readLock().lock();
-            try {
-                for (ChunkRelevanceRegion region : regions.values()) {
-                    int dist = distFromRegion(chunk, region.getCenter());
-                    if (dist < score) {
-                        score = dist;
-                    }
+            for (Vector3i center : relevanceCenters) {
+                int dist = task.getPosition().gridDistance(center);
+                if (dist < score) {
+                    score = dist;
                 }
-                return score;
-            } finally {
-                regionLock.readLock().unlock();
             }
+            return score;
         }
 
-        private int distFromRegion(Vector3i pos, Vector3i regionCenter) {
-            return pos.gridDistance(regionCenter);
+        @Override
+        public int getEpoch() {
+            return relevanceEpoch.get();
         }
     }
 
-    private class ReadyChunkRelevanceComparator implements Comparator<ReadyChunkInfo> {
+    private static class ReadyChunkRelevanceComparator implements Comparator<ReadyChunkInfo> {
+
+        private List<Vector3i> centers = Collections.emptyList();
+
+        /**
+         * @param centers the centers of the relevance regions to score chunks against, must not change while in use
+         */
+        public void setCenters(List<Vector3i> centers) {
+            this.centers = centers;
+        }
 
         @Override
         public int compare(ReadyChunkInfo o1, ReadyChunkInfo o2) {
@@ -672,23 +781,13 @@ public int compare(ReadyChunkInfo o1, ReadyChunkInfo o2) {
 
         private int score(Vector3i chunk) {
             int score = Integer.MAX_VALUE;
-
-            regionLock.readLock().lock();
-            try {
-                for (ChunkRelevanceRegion region : regions.values()) {
-                    int dist = distFromRegion(chunk, region.getCenter());
-                    if (dist < score) {
-                        score = dist;
-                    }
+            for (Vector3i center : centers) {
+                int dist = chunk.gridDistance(center);
+                if (dist < score) {
+                    score = dist;
                 }
-                return score;
-            } finally {
-                regionLock.readLock().unlock();
             }
-        }
-
-        private int distFromRegion(Vector3i pos, Vector3i regionCenter) {
-            return pos.gridDistance(regionCenter);
+            return score;
         }
     }
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
+import org.terasology.math.Vector3i;
+import org.terasology.world.chunks.internal.ChunkRelevanceRegion;
+
+import java.util.Map;
+
+/**
+ * Counts for every chunk position how many relevance regions retain it, and collects the positions that are no longer
+ * retained by any region as candidates for unloading.
+ * <p/>
+ * Only the positions a region gains or releases when it changes get visited, so finding the chunks to unload costs
+ * nothing while no region moves, regardless of the number of loaded chunks and regions.
+ * <p/>
+ * Not thread safe, the chunk provider uses it with its region lock held.
+ */
+final class RetainedChunks {
+
+    private final Map<ChunkRelevanceRegion, Region3i> retainedRegions = Maps.newHashMap();
+    private final TLongIntMap retainCounts = new TLongIntHashMap();
+    private final TLongSet unloadCandidates = new TLongHashSet();
+
+    /**
+     * Sets the region of chunk positions retained by a relevance region, retaining the positions it gains and
+     * releasing the positions it no longer covers.
+     */
+    public void update(ChunkRelevanceRegion region, Region3i retainedRegion) {
+        Region3i oldRegion = retainedRegions.put(region, retainedRegion);
+        if (oldRegion == null) {
+            oldRegion = Region3i.EMPTY;
+        } else if (oldRegion.equals(retainedRegion)) {
+            return;
+        }
+        forEachPosition(retainedRegion, oldRegion, 1);
+        forEachPosition(oldRegion, retainedRegion, -1);
+    }
+
+    /**
+     * Releases all chunk positions retained by a relevance region.
+     */
+    public void remove(ChunkRelevanceRegion region) {
+        Region3i oldRegion = retainedRegions.remove(region);
+        if (oldRegion != null) {
+            forEachPosition(oldRegion, Region3i.EMPTY, -1);
+        }
+    }
+
+    public boolean isRetained(Vector3i chunkPos) {
+        return retainCounts.containsKey(TeraMath.packChunkPos(chunkPos.x, chunkPos.y, chunkPos.z));
+    }
+
+    /**
+     * Makes a newly loaded chunk a candidate for unloading if no region retains it, e.g. because the regions moved
+     * away while it was generated.
+     */
+    public void chunkLoaded(Vector3i chunkPos) {
+        long key = TeraMath.packChunkPos(chunkPos.x, chunkPos.y, chunkPos.z);
+        if (!retainCounts.containsKey(key)) {
+            unloadCandidates.add(key);
+        }
+    }
+
+    /**
+     * @return An iterator over the packed positions (see {@link TeraMath#packChunkPos(int, int, int)}) that are
+     * retained by no region. They may contain no chunk. Candidates that were dealt with should be removed via the iterator.
+     */
+    public TLongIterator unloadCandidates() {
+        return unloadCandidates.iterator();
+    }
+
+    public void clearUnloadCandidates() {
+        unloadCandidates.clear();
+    }
+
+    /**
+     * Adds the delta to the retain count of every position of the region that is not part of the excluded region.
+     * Rows crossing the excluded region skip its x range, so only the positions of the difference get visited.
+     */
+    private void forEachPosition(Region3i region, Region3i excluded, int delta) {
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            boolean yExcluded = y >= excluded.minY() && y <= excluded.maxY();
+            for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                if (yExcluded && z >= excluded.minZ() && z <= excluded.maxZ()) {
+                    adjustRow(region.minX(), Math.min(region.maxX(), excluded.minX() - 1), y, z, delta);
+                    adjustRow(Math.max(region.minX(), excluded.maxX() + 1), region.maxX(), y, z, delta);
+                } else {
+                    adjustRow(region.minX(), region.maxX(), y, z, delta);
+                }
+            }
+        }
+    }
+
+    private void adjustRow(int minX, int maxX, int y, int z, int delta) {
+        for (int x = minX; x <= maxX; x++) {
+            long key = TeraMath.packChunkPos(x, y, z);
+            int count = retainCounts.adjustOrPutValue(key, delta, delta);
+            if (count <= 0) {
+                retainCounts.remove(key);
+                unloadCandidates.add(key);
+            } else if (count == delta) {
+                unloadCandidates.remove(key);
+            }
+        }
+    }
+}
@@ -18,10 +18,9 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.utilities.concurrency.PriorityScorer;
 import org.terasology.utilities.concurrency.TaskMaster;
 
-import java.util.Comparator;
-
 /**
  * @author Immortius
  */
@@ -31,8 +30,8 @@ public class ChunkGenerationPipeline {
 
     private TaskMaster<ChunkTask> chunkGenerator;
 
-    public ChunkGenerationPipeline(Comparator<ChunkTask> taskComparator) {
-        chunkGenerator = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Generator", NUM_TASK_THREADS, taskComparator);
+    public ChunkGenerationPipeline(PriorityScorer<ChunkTask> taskScorer) {
+        chunkGenerator = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Generator", NUM_TASK_THREADS, taskScorer);
     }
 
     public void doTask(ChunkTask task) {
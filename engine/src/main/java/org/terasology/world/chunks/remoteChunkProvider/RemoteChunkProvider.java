@@ -17,7 +17,6 @@
 package org.terasology.world.chunks.remoteChunkProvider;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,11 +29,13 @@
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.chunk.ChunkMonitor;
 import org.terasology.registry.CoreRegistry;
+import org.terasology.utilities.concurrency.PriorityScorer;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.ChunkRegionListener;
 import org.terasology.world.chunks.event.OnChunkLoaded;
+import org.terasology.world.chunks.internal.ChunkMap;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
 import org.terasology.world.chunks.pipeline.AbstractChunkTask;
 import org.terasology.world.chunks.pipeline.ChunkGenerationPipeline;
@@ -56,7 +57,7 @@ public class RemoteChunkProvider implements ChunkProvider, GeneratingChunkProvid
 
     private static final int LOAD_PER_FRAME = 1;
     private static final Logger logger = LoggerFactory.getLogger(RemoteChunkProvider.class);
-    private Map<Vector3i, Chunk> chunkCache = Maps.newHashMap();
+    private final ChunkMap chunkCache = new ChunkMap();
     private final BlockingQueue<Chunk> readyChunks = Queues.newLinkedBlockingQueue();
     private List<Chunk> sortedReadyChunks = Lists.newArrayList();
     private ChunkReadyListener listener;
@@ -67,7 +68,7 @@ public class RemoteChunkProvider implements ChunkProvider, GeneratingChunkProvid
     private LightMerger<Chunk> lightMerger = new LightMerger<>(this);
 
     public RemoteChunkProvider() {
-        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
+        pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceScorer());
         ChunkMonitor.fireChunkProviderInitialized(this);
     }
 
@@ -131,10 +132,8 @@ public void beginUpdate() {
     }
 
     private boolean makeChunkAvailable(final Chunk chunk) {
-        for (Vector3i pos : Region3i.createFromCenterExtents(chunk.getPosition(), 1)) {
-            if (chunkCache.get(pos) == null) {
-                return false;
-            }
+        if (!chunkCache.containsAll(Region3i.createFromCenterExtents(chunk.getPosition(), 1))) {
+            return false;
         }
 
         lightMerger.beginMerge(chunk, chunk);
@@ -144,18 +143,18 @@ private boolean makeChunkAvailable(final Chunk chunk) {
 
     @Override
     public Chunk getChunk(int x, int y, int z) {
-        return getChunk(new Vector3i(x, y, z));
-    }
-
-    @Override
-    public Chunk getChunk(Vector3i chunkPos) {
-        Chunk chunk = chunkCache.get(chunkPos);
+        Chunk chunk = chunkCache.get(x, y, z);
         if (chunk != null && chunk.isReady()) {
             return chunk;
         }
         return null;
     }
 
+    @Override
+    public Chunk getChunk(Vector3i chunkPos) {
+        return getChunk(chunkPos.x, chunkPos.y, chunkPos.z);
+    }
+
     @Override
     public boolean isChunkReady(Vector3i pos) {
         Chunk chunk = chunkCache.get(pos);
@@ -213,15 +212,14 @@ public ChunkViewCore getSubviewAroundChunk(Vector3i chunkPos) {
     }
 
     private ChunkViewCore createWorldView(Region3i region, Vector3i offset) {
-        Chunk[] chunks = new Chunk[region.size().x * region.size().y * region.size().z];
-        for (Vector3i chunkPos : region) {
-            Chunk chunk = chunkCache.get(chunkPos);
-            if (chunk == null || !chunk.isReady()) {
+        Chunk[] chunks = new Chunk[region.sizeX() * region.sizeY() * region.sizeZ()];
+        if (!chunkCache.getAll(region, chunks)) {
+            return null;
+        }
+        for (Chunk chunk : chunks) {
+            if (!chunk.isReady()) {
                 return null;
             }
-            chunkPos.sub(region.min());
-            int index = TeraMath.calculate3DArrayIndex(chunkPos, region.size());
-            chunks[index] = chunk;
         }
         return new ChunkViewCoreImpl(chunks, region, offset);
     }
@@ -273,18 +271,28 @@ public Chunk getChunkUnready(Vector3i pos) {
         return chunkCache.get(pos);
     }
 
-    private static class ChunkTaskRelevanceComparator implements Comparator<ChunkTask> {
+    private static class ChunkTaskRelevanceScorer implements PriorityScorer<ChunkTask> {
 
         private LocalPlayer localPlayer = CoreRegistry.get(LocalPlayer.class);
+        private volatile Vector3i playerChunk = new Vector3i();
+        private int epoch;
 
         @Override
-        public int compare(ChunkTask o1, ChunkTask o2) {
-            return score(o1.getPosition()) - score(o2.getPosition());
+        public int score(ChunkTask task) {
+            if (task.isTerminateSignal()) {
+                return -1;
+            }
+            return playerChunk.distanceSquared(task.getPosition());
         }
 
-        private int score(Vector3i chunk) {
-            Vector3i playerChunk = TeraMath.calcChunkPos(new Vector3i(localPlayer.getPosition(), 0.5f));
-            return playerChunk.distanceSquared(chunk);
+        @Override
+        public synchronized int getEpoch() {
+            Vector3i currentPlayerChunk = TeraMath.calcChunkPos(new Vector3i(localPlayer.getPosition(), 0.5f));
+            if (!currentPlayerChunk.equals(playerChunk)) {
+                playerChunk = currentPlayerChunk;
+                epoch++;
+            }
+            return epoch;
         }
     }
 
@@ -307,8 +315,7 @@ private float score(Vector3i chunkPos) {
     private boolean areAdjacentChunksReady(Chunk chunk) {
         Vector3i centerChunkPos = chunk.getPosition();
         for (Side side : Side.values()) {
-            Vector3i adjChunkPos = side.getAdjacentPos(centerChunkPos);
-            Chunk adjChunk = chunkCache.get(adjChunkPos);
+            Chunk adjChunk = chunkCache.getAdjacent(centerChunkPos, side);
             boolean adjChunkReady = (adjChunk != null && adjChunk.isReady());
             if (!adjChunkReady) {
                 return false;
@@ -324,8 +331,7 @@ private void updateAdjacentChunksReadyFieldOf(Chunk chunk) {
     private void updateAdjacentChunksReadyFieldOfAdjChunks(Chunk chunkInCenter) {
         Vector3i centerChunkPos = chunkInCenter.getPosition();
         for (Side side : Side.values()) {
-            Vector3i adjChunkPos = side.getAdjacentPos(centerChunkPos);
-            Chunk adjChunk = chunkCache.get(adjChunkPos);
+            Chunk adjChunk = chunkCache.getAdjacent(centerChunkPos, side);
             if (adjChunk != null) {
                 updateAdjacentChunksReadyFieldOf(adjChunk);
             }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.terasology.math.Region3i;
+import org.terasology.utilities.collection.TypeMap;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caches 2D facets per column, so that vertically stacked regions share them instead of running the same
+ * providers once per region.
+ * <p/>
+ * Only facets whose whole provider chain produces, updates and requires nothing but 2D facets get cached: the
+ * result of such a chain only depends on the x/z extent of the region. Together with a facet, all the other facets
+ * produced along its chain get cached, as the providers of the chain won't run again for the region that uses the
+ * cached facet. Cached facets are shared between regions and must be treated as read only.
+ * <p/>
+ * The least recently used columns get dropped once more than {@link #MAX_CACHED_COLUMNS} are cached.
+ * Thread safe, as regions get generated concurrently.
+ */
+class ColumnFacetCache {
+    private static final int MAX_CACHED_COLUMNS = 1024;
+
+    private final Map<Class<? extends WorldFacet>, Set<Class<? extends WorldFacet>>> chainFacetsOfCacheableFacets;
+
+    private final Map<ColumnKey, Map<Class<? extends WorldFacet>, WorldFacet>> columns =
+            Collections.synchronizedMap(new LinkedHashMap<ColumnKey, Map<Class<? extends WorldFacet>, WorldFacet>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ColumnKey, Map<Class<? extends WorldFacet>, WorldFacet>> eldest) {
+                    return size() > MAX_CACHED_COLUMNS;
+                }
+            });
+
+    public ColumnFacetCache(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains) {
+        chainFacetsOfCacheableFacets = Maps.newHashMap();
+        for (Class<? extends WorldFacet> facet : facetProviderChains.keySet()) {
+            Set<Class<? extends WorldFacet>> chainFacets = determineChainFacets(facet, facetProviderChains);
+            if (chainFacets != null) {
+                chainFacetsOfCacheableFacets.put(facet, chainFacets);
+            }
+        }
+    }
+
+    public boolean isCacheable(Class<? extends WorldFacet> facet) {
+        return chainFacetsOfCacheableFacets.containsKey(facet);
+    }
+
+    /**
+     * @return the facets produced along the chain of the given facet for the column of the region,
+     * or null if they are not cached
+     */
+    public Map<Class<? extends WorldFacet>, WorldFacet> get(Class<? extends WorldFacet> facet, Region3i region) {
+        return columns.get(new ColumnKey(facet, region));
+    }
+
+    /**
+     * Caches the facets produced along the chain of the given facet, after the chain has been processed for the region.
+     */
+    public void put(Class<? extends WorldFacet> facet, Region3i region, TypeMap<WorldFacet> generatedFacets) {
+        Map<Class<? extends WorldFacet>, WorldFacet> column = Maps.newHashMap();
+        for (Class<? extends WorldFacet> chainFacet : chainFacetsOfCacheableFacets.get(facet)) {
+            WorldFacet generated = generatedFacets.get(chainFacet);
+            if (generated != null) {
+                column.put(chainFacet, generated);
+            }
+        }
+        columns.put(new ColumnKey(facet, region), column);
+    }
+
+    /**
+     * @return all facets produced or updated along the chain of the facet, or null if the chain is not column invariant
+     */
+    private static Set<Class<? extends WorldFacet>> determineChainFacets(Class<? extends WorldFacet> facet,
+                                                                         ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains) {
+        if (!WorldFacet2D.class.isAssignableFrom(facet)) {
+            return null;
+        }
+        List<FacetProvider> chain = facetProviderChains.get(facet);
+        Set<Class<? extends WorldFacet>> chainFacets = Sets.newHashSet();
+        for (FacetProvider provider : chain) {
+            Requires requires = provider.getClass().getAnnotation(Requires.class);
+            if (requires != null) {
+                for (Facet requiredFacet : requires.value()) {
+                    if (!WorldFacet2D.class.isAssignableFrom(requiredFacet.value())) {
+                        return null;
+                    }
+                }
+            }
+            Produces produces = provider.getClass().getAnnotation(Produces.class);
+            if (produces != null) {
+                Collections.addAll(chainFacets, produces.value());
+            }
+            Updates updates = provider.getClass().getAnnotation(Updates.class);
+            if (updates != null) {
+                for (Facet updatedFacet : updates.value()) {
+                    chainFacets.add(updatedFacet.value());
+                }
+            }
+        }
+        for (Class<? extends WorldFacet> chainFacet : chainFacets) {
+            // Providers outside of the chain must not modify the facets that get shared
+            if (!WorldFacet2D.class.isAssignableFrom(chainFacet) || !chain.containsAll(facetProviderChains.get(chainFacet))) {
+                return null;
+            }
+        }
+        return chainFacets;
+    }
+
+    private static final class ColumnKey {
+        private final Class<? extends WorldFacet> facet;
+        private final int minX;
+        private final int minZ;
+        private final int sizeX;
+        private final int sizeZ;
+
+        private ColumnKey(Class<? extends WorldFacet> facet, Region3i region) {
+            this.facet = facet;
+            this.minX = region.minX();
+            this.minZ = region.minZ();
+            this.sizeX = region.sizeX();
+            this.sizeZ = region.sizeZ();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof ColumnKey) {
+                ColumnKey other = (ColumnKey) obj;
+                return facet == other.facet && minX == other.minX && minZ == other.minZ && sizeX == other.sizeX && sizeZ == other.sizeZ;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = facet.hashCode();
+            result = 31 * result + minX;
+            result = 31 * result + minZ;
+            result = 31 * result + sizeX;
+            result = 31 * result + sizeZ;
+            return result;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 import org.terasology.math.Region3i;
 import org.terasology.utilities.collection.TypeMap;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,31 +32,87 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final ColumnFacetCache columnFacetCache;
 
     private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
+    private final Set<Class<? extends WorldFacet>> cacheableChainsInProgress = Sets.newHashSet();
 
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, null);
+    }
+
+    RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders,
+               ColumnFacetCache columnFacetCache) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.columnFacetCache = columnFacetCache;
     }
 
     @Override
     public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
-            for (FacetProvider provider : facetProviderChains.get(dataType)) {
+            if (isCacheable(dataType)) {
+                processCacheableChain(dataType);
+            } else {
+                processChain(dataType);
+            }
+            facet = generatingFacets.get(dataType);
+            generatedFacets.put(dataType, facet);
+        }
+        return facet;
+    }
+
+    private void processChain(Class<? extends WorldFacet> dataType) {
+        for (FacetProvider provider : facetProviderChains.get(dataType)) {
+            if (!processedProviders.contains(provider)) {
+                // Cacheable facets produced along the way get taken from the column cache, marking their chain as processed
+                Produces produces = provider.getClass().getAnnotation(Produces.class);
+                if (produces != null) {
+                    for (Class<? extends WorldFacet> producedFacet : produces.value()) {
+                        if (producedFacet != dataType && isCacheable(producedFacet)) {
+                            processCacheableChain(producedFacet);
+                        }
+                    }
+                }
                 if (!processedProviders.contains(provider)) {
                     provider.process(this);
                     processedProviders.add(provider);
                 }
             }
-            facet = generatingFacets.get(dataType);
-            generatedFacets.put(dataType, facet);
         }
-        return facet;
+    }
+
+    private void processCacheableChain(Class<? extends WorldFacet> dataType) {
+        List<FacetProvider> chain = facetProviderChains.get(dataType);
+        if (processedProviders.containsAll(chain) || !cacheableChainsInProgress.add(dataType)) {
+            return;
+        }
+        try {
+            Map<Class<? extends WorldFacet>, WorldFacet> cachedFacets = columnFacetCache.get(dataType, region);
+            if (cachedFacets != null) {
+                for (Map.Entry<Class<? extends WorldFacet>, WorldFacet> cachedFacet : cachedFacets.entrySet()) {
+                    putGeneratingFacet(cachedFacet.getKey(), cachedFacet.getValue());
+                }
+                processedProviders.addAll(chain);
+            } else {
+                processChain(dataType);
+                columnFacetCache.put(dataType, region, generatingFacets);
+            }
+        } finally {
+            cacheableChainsInProgress.remove(dataType);
+        }
+    }
+
+    private boolean isCacheable(Class<? extends WorldFacet> dataType) {
+        return columnFacetCache != null && columnFacetCache.isCacheable(dataType);
+    }
+
+    private <T extends WorldFacet> void putGeneratingFacet(Class<T> type, WorldFacet facet) {
+        generatingFacets.put(type, type.cast(facet));
     }
 
     @Override
@@ -33,6 +33,7 @@ public class WorldImpl implements World {
     private ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private List<WorldRasterizer> worldRasterizers;
     private Map<Class<? extends WorldFacet>, Border3D> borders;
+    private ColumnFacetCache columnFacetCache;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>,
         FacetProvider> facetProviderChains,
@@ -40,11 +41,12 @@ public WorldImpl(ListMultimap<Class<? extends WorldFacet>,
         this.facetProviderChains = facetProviderChains;
         this.worldRasterizers = worldRasterizers;
         this.borders = borders;
+        this.columnFacetCache = new ColumnFacetCache(facetProviderChains);
     }
 
     @Override
     public Region getWorldData(Region3i region) {
-        return new RegionImpl(region, facetProviderChains, borders);
+        return new RegionImpl(region, facetProviderChains, borders, columnFacetCache);
     }
 
     @Override
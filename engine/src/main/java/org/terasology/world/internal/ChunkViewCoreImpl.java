@@ -83,7 +83,8 @@ public Block getBlock(int blockX, int blockY, int blockZ) {
         }
 
         int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-        return chunks[chunkIndex].getBlock(TeraMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize));
+        return chunks[chunkIndex].getBlock(TeraMath.calcBlockPosX(blockX, chunkFilterSize.x), TeraMath.calcBlockPosY(blockY, chunkFilterSize.y),
+                TeraMath.calcBlockPosZ(blockZ, chunkFilterSize.z));
     }
 
     @Override
@@ -103,8 +104,8 @@ public Biome getBiome(int blockX, int blockY, int blockZ) {
         }
 
         int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-        Vector3i blockPos = TeraMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize);
-        return chunks[chunkIndex].getBiome(blockPos.x, blockPos.y, blockPos.z);
+        return chunks[chunkIndex].getBiome(TeraMath.calcBlockPosX(blockX, chunkFilterSize.x), TeraMath.calcBlockPosY(blockY, chunkFilterSize.y),
+                TeraMath.calcBlockPosZ(blockZ, chunkFilterSize.z));
     }
 
     @Override
@@ -134,7 +135,8 @@ public byte getSunlight(int blockX, int blockY, int blockZ) {
         }
 
         int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-        return chunks[chunkIndex].getSunlight(TeraMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize));
+        return chunks[chunkIndex].getSunlight(TeraMath.calcBlockPosX(blockX, chunkFilterSize.x), TeraMath.calcBlockPosY(blockY, chunkFilterSize.y),
+                TeraMath.calcBlockPosZ(blockZ, chunkFilterSize.z));
     }
 
     @Override
@@ -144,7 +146,8 @@ public byte getLight(int blockX, int blockY, int blockZ) {
         }
 
         int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-        return chunks[chunkIndex].getLight(TeraMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize));
+        return chunks[chunkIndex].getLight(TeraMath.calcBlockPosX(blockX, chunkFilterSize.x), TeraMath.calcBlockPosY(blockY, chunkFilterSize.y),
+                TeraMath.calcBlockPosZ(blockZ, chunkFilterSize.z));
     }
 
     @Override
@@ -158,7 +161,8 @@ public void setBlock(int blockX, int blockY, int blockZ, Block type) {
             throw new IllegalStateException("Attempted to modify block though an unlocked view");
         } else if (blockRegion.encompasses(blockX, blockY, blockZ)) {
             int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-            chunks[chunkIndex].setBlock(TeraMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize), type);
+            chunks[chunkIndex].setBlock(TeraMath.calcBlockPosX(blockX, chunkFilterSize.x), TeraMath.calcBlockPosY(blockY, chunkFilterSize.y),
+                    TeraMath.calcBlockPosZ(blockZ, chunkFilterSize.z), type);
         } else {
             logger.warn("Attempt to modify block outside of the view");
         }
@@ -175,8 +179,8 @@ public void setBiome(int blockX, int blockY, int blockZ, Biome biome) {
             throw new IllegalStateException("Attempted to modify biome though an unlocked view");
         } else if (blockRegion.encompasses(blockX, blockY, blockZ)) {
             int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-            Vector3i pos = TeraMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize);
-            chunks[chunkIndex].setBiome(pos.x, pos.y, pos.z, biome);
+            chunks[chunkIndex].setBiome(TeraMath.calcBlockPosX(blockX, chunkFilterSize.x), TeraMath.calcBlockPosY(blockY, chunkFilterSize.y),
+                    TeraMath.calcBlockPosZ(blockZ, chunkFilterSize.z), biome);
         } else {
             logger.warn("Attempt to modify biome outside of the view");
         }
@@ -194,7 +198,8 @@ public LiquidData getLiquid(int x, int y, int z) {
         }
 
         int chunkIndex = relChunkIndex(x, y, z);
-        return chunks[chunkIndex].getLiquid(TeraMath.calcBlockPos(x, y, z, chunkFilterSize));
+        return chunks[chunkIndex].getLiquid(TeraMath.calcBlockPosX(x, chunkFilterSize.x), TeraMath.calcBlockPosY(y, chunkFilterSize.y),
+                TeraMath.calcBlockPosZ(z, chunkFilterSize.z));
     }
 
     @Override
@@ -206,7 +211,8 @@ public void setLiquid(Vector3i pos, LiquidData newState) {
     public void setLiquid(int x, int y, int z, LiquidData newState) {
         if (locked.get() && blockRegion.encompasses(x, y, z)) {
             int chunkIndex = relChunkIndex(x, y, z);
-            chunks[chunkIndex].setLiquid(TeraMath.calcBlockPos(x, y, z, chunkFilterSize), newState);
+            chunks[chunkIndex].setLiquid(TeraMath.calcBlockPosX(x, chunkFilterSize.x), TeraMath.calcBlockPosY(y, chunkFilterSize.y),
+                    TeraMath.calcBlockPosZ(z, chunkFilterSize.z), newState);
         } else {
             throw new IllegalStateException("Attempted to modify liquid data though an unlocked view");
         }
@@ -221,7 +227,8 @@ public void setLight(Vector3i pos, byte light) {
     public void setLight(int blockX, int blockY, int blockZ, byte light) {
         if (locked.get() && blockRegion.encompasses(blockX, blockY, blockZ)) {
             int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-            chunks[chunkIndex].setLight(TeraMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize), light);
+            chunks[chunkIndex].setLight(TeraMath.calcBlockPosX(blockX, chunkFilterSize.x), TeraMath.calcBlockPosY(blockY, chunkFilterSize.y),
+                    TeraMath.calcBlockPosZ(blockZ, chunkFilterSize.z), light);
         } else if (!locked.get()) {
             throw new IllegalStateException("Attempted to modify light though an unlocked view");
         } else {
@@ -238,7 +245,8 @@ public void setSunlight(Vector3i pos, byte light) {
     public void setSunlight(int blockX, int blockY, int blockZ, byte light) {
         if (locked.get() && blockRegion.encompasses(blockX, blockY, blockZ)) {
             int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-            chunks[chunkIndex].setSunlight(TeraMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize), light);
+            chunks[chunkIndex].setSunlight(TeraMath.calcBlockPosX(blockX, chunkFilterSize.x), TeraMath.calcBlockPosY(blockY, chunkFilterSize.y),
+                    TeraMath.calcBlockPosZ(blockZ, chunkFilterSize.z), light);
         } else {
             throw new IllegalStateException("Attempted to modify sunlight though an unlocked view");
         }
@@ -247,7 +255,8 @@ public void setSunlight(int blockX, int blockY, int blockZ, byte light) {
     @Override
     public void setDirtyAround(Vector3i blockPos) {
         for (Vector3i pos : TeraMath.getChunkRegionAroundWorldPos(blockPos, 1)) {
-            chunks[pos.x + offset.x + chunkRegion.size().x * (pos.z + offset.z)].setDirty(true);
+            int chunkMinY = pos.y * ChunkConstants.SIZE_Y;
+            chunks[pos.x + offset.x + chunkRegion.size().x * (pos.z + offset.z)].markDirty(blockPos.y - 1 - chunkMinY, blockPos.y + 1 - chunkMinY);
         }
     }
 
@@ -262,7 +271,8 @@ public void setDirtyAround(Region3i region) {
         Vector3i maxChunk = TeraMath.calcChunkPos(maxPos, chunkPower);
 
         for (Vector3i pos : Region3i.createFromMinMax(minChunk, maxChunk)) {
-            chunks[pos.x + offset.x + chunkRegion.size().x * (pos.z + offset.z)].setDirty(true);
+            int chunkMinY = pos.y * ChunkConstants.SIZE_Y;
+            chunks[pos.x + offset.x + chunkRegion.size().x * (pos.z + offset.z)].markDirty(minPos.y - chunkMinY, maxPos.y - chunkMinY);
         }
     }
 
@@ -302,9 +312,10 @@ public boolean isValidView() {
     }
 
     protected int relChunkIndex(int x, int y, int z) {
-        return TeraMath.calculate3DArrayIndex(TeraMath.calcChunkPosX(x, chunkPower.x) + offset.x,
-                TeraMath.calcChunkPosY(y, chunkPower.y) + offset.y,
-                TeraMath.calcChunkPosZ(z, chunkPower.z) + offset.z, chunkRegion.size());
+        int chunkX = TeraMath.calcChunkPosX(x, chunkPower.x) + offset.x;
+        int chunkY = TeraMath.calcChunkPosY(y, chunkPower.y) + offset.y;
+        int chunkZ = TeraMath.calcChunkPosZ(z, chunkPower.z) + offset.z;
+        return chunkX + chunkRegion.sizeX() * (chunkZ + chunkRegion.sizeZ() * chunkY);
     }
 
     public void setChunkSize(Vector3i chunkSize) {
@@ -40,6 +40,7 @@
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.chunks.LitChunk;
@@ -169,7 +170,7 @@ public ChunkViewCore getWorldViewAround(Vector3i chunk) {
 
     @Override
     public boolean isBlockRelevant(int x, int y, int z) {
-        return chunkProvider.isChunkReady(TeraMath.calcChunkPos(x, y, z));
+        return chunkProvider.getChunk(TeraMath.calcChunkPosX(x), TeraMath.calcChunkPosY(y), TeraMath.calcChunkPosZ(z)) != null;
     }
 
     @Override
@@ -198,12 +199,7 @@ public Block setBlock(Vector3i worldPos, Block type) {
                 } else {
                     oldChange.setTo(type);
                 }
-                for (Vector3i pos : TeraMath.getChunkRegionAroundWorldPos(worldPos, 1)) {
-                    RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
-                    if (dirtiedChunk != null) {
-                        dirtiedChunk.setDirty(true);
-                    }
-                }
+                setDirtyAround(worldPos);
                 notifyBlockChanged(worldPos, type, oldBlockType);
             }
             return oldBlockType;
@@ -212,6 +208,20 @@ public Block setBlock(Vector3i worldPos, Block type) {
         return null;
     }
 
+    /**
+     * Marks the mesh segments of the chunks around the given block as dirty, so only the segments containing the
+     * block or one of its neighbours get re-tessellated.
+     */
+    private void setDirtyAround(Vector3i worldPos) {
+        for (Vector3i pos : TeraMath.getChunkRegionAroundWorldPos(worldPos, 1)) {
+            RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
+            if (dirtiedChunk != null) {
+                int chunkMinY = pos.y * ChunkConstants.SIZE_Y;
+                dirtiedChunk.markDirty(worldPos.y - 1 - chunkMinY, worldPos.y + 1 - chunkMinY);
+            }
+        }
+    }
+
     private void notifyBlockChanged(Vector3i pos, Block type, Block oldType) {
         // TODO: Could use a read/write lock.
         // TODO: Review, should only happen on main thread (as should changes to listeners)
@@ -234,15 +244,16 @@ private void notifyBiomeChanged(Vector3i pos, Biome newBiome, Biome originalBiom
 
     @Override
     public boolean setLiquid(int x, int y, int z, LiquidData newState, LiquidData oldState) {
-        Vector3i chunkPos = TeraMath.calcChunkPos(x, y, z);
-        CoreChunk chunk = chunkProvider.getChunk(chunkPos);
+        CoreChunk chunk = chunkProvider.getChunk(TeraMath.calcChunkPosX(x), TeraMath.calcChunkPosY(y), TeraMath.calcChunkPosZ(z));
         if (chunk != null) {
             chunk.lock();
             try {
-                Vector3i blockPos = TeraMath.calcBlockPos(x, y, z);
-                LiquidData liquidState = chunk.getLiquid(blockPos);
+                int blockX = TeraMath.calcBlockPosX(x);
+                int blockY = TeraMath.calcBlockPosY(y);
+                int blockZ = TeraMath.calcBlockPosZ(z);
+                LiquidData liquidState = chunk.getLiquid(blockX, blockY, blockZ);
                 if (liquidState.equals(oldState)) {
-                    chunk.setLiquid(blockPos, newState);
+                    chunk.setLiquid(blockX, blockY, blockZ, newState);
                     return true;
                 }
             } finally {
@@ -254,11 +265,9 @@ public boolean setLiquid(int x, int y, int z, LiquidData newState, LiquidData ol
 
     @Override
     public LiquidData getLiquid(int x, int y, int z) {
-        Vector3i chunkPos = TeraMath.calcChunkPos(x, y, z);
-        CoreChunk chunk = chunkProvider.getChunk(chunkPos);
+        CoreChunk chunk = chunkProvider.getChunk(TeraMath.calcChunkPosX(x), TeraMath.calcChunkPosY(y), TeraMath.calcChunkPosZ(z));
         if (chunk != null) {
-            Vector3i blockPos = TeraMath.calcBlockPos(x, y, z);
-            return chunk.getLiquid(blockPos);
+            return chunk.getLiquid(TeraMath.calcBlockPosX(x), TeraMath.calcBlockPosY(y), TeraMath.calcBlockPosZ(z));
         }
         logger.warn("Attempted to access unavailable chunk via liquid data at {}, {}, {}", x, y, z);
         return new LiquidData();
@@ -266,11 +275,9 @@ public LiquidData getLiquid(int x, int y, int z) {
 
     @Override
     public Block getBlock(int x, int y, int z) {
-        Vector3i chunkPos = TeraMath.calcChunkPos(x, y, z);
-        CoreChunk chunk = chunkProvider.getChunk(chunkPos);
+        CoreChunk chunk = chunkProvider.getChunk(TeraMath.calcChunkPosX(x), TeraMath.calcChunkPosY(y), TeraMath.calcChunkPosZ(z));
         if (chunk != null) {
-            Vector3i blockPos = TeraMath.calcBlockPos(x, y, z);
-            return chunk.getBlock(blockPos);
+            return chunk.getBlock(TeraMath.calcBlockPosX(x), TeraMath.calcBlockPosY(y), TeraMath.calcBlockPosZ(z));
         }
         logger.warn("Attempted to access unavailable chunk via block at {}, {}, {}", x, y, z);
         return BlockManager.getAir();
@@ -278,11 +285,9 @@ public Block getBlock(int x, int y, int z) {
 
     @Override
     public Biome getBiome(Vector3i pos) {
-        Vector3i chunkPos = TeraMath.calcChunkPos(pos);
-        CoreChunk chunk = chunkProvider.getChunk(chunkPos);
+        CoreChunk chunk = chunkProvider.getChunk(TeraMath.calcChunkPosX(pos.x), TeraMath.calcChunkPosY(pos.y), TeraMath.calcChunkPosZ(pos.z));
         if (chunk != null) {
-            Vector3i blockPos = TeraMath.calcBlockPos(pos);
-            return chunk.getBiome(blockPos.x, blockPos.y, blockPos.z);
+            return chunk.getBiome(TeraMath.calcBlockPosX(pos.x), TeraMath.calcBlockPosY(pos.y), TeraMath.calcBlockPosZ(pos.z));
         }
         logger.warn("Attempted to access unavailable chunk via block at {}, {}, {}", pos.x, pos.y, pos.z);
         return BiomeManager.getUnknownBiome();
@@ -304,12 +309,7 @@ public Biome setBiome(Vector3i worldPos, Biome biome) {
                 } else {
                     oldChange.setTo(biome);
                 }
-                for (Vector3i pos : TeraMath.getChunkRegionAroundWorldPos(worldPos, 1)) {
-                    RenderableChunk dirtiedChunk = chunkProvider.getChunk(pos);
-                    if (dirtiedChunk != null) {
-                        dirtiedChunk.setDirty(true);
-                    }
-                }
+                setDirtyAround(worldPos);
                 notifyBiomeChanged(worldPos, biome, oldBiomeType);
             }
             return oldBiomeType;
@@ -320,11 +320,9 @@ public Biome setBiome(Vector3i worldPos, Biome biome) {
 
     @Override
     public byte getLight(int x, int y, int z) {
-        Vector3i chunkPos = TeraMath.calcChunkPos(x, y, z);
-        LitChunk chunk = chunkProvider.getChunk(chunkPos);
+        LitChunk chunk = chunkProvider.getChunk(TeraMath.calcChunkPosX(x), TeraMath.calcChunkPosY(y), TeraMath.calcChunkPosZ(z));
         if (chunk != null) {
-            Vector3i blockPos = TeraMath.calcBlockPos(x, y, z);
-            return chunk.getLight(blockPos);
+            return chunk.getLight(TeraMath.calcBlockPosX(x), TeraMath.calcBlockPosY(y), TeraMath.calcBlockPosZ(z));
         }
         logger.warn("Attempted to access unavailable chunk via light at {}, {}, {}", x, y, z);
         return 0;
@@ -332,11 +330,9 @@ public byte getLight(int x, int y, int z) {
 
     @Override
     public byte getSunlight(int x, int y, int z) {
-        Vector3i chunkPos = TeraMath.calcChunkPos(x, y, z);
-        LitChunk chunk = chunkProvider.getChunk(chunkPos);
+        LitChunk chunk = chunkProvider.getChunk(TeraMath.calcChunkPosX(x), TeraMath.calcChunkPosY(y), TeraMath.calcChunkPosZ(z));
         if (chunk != null) {
-            Vector3i blockPos = TeraMath.calcBlockPos(x, y, z);
-            return chunk.getSunlight(blockPos);
+            return chunk.getSunlight(TeraMath.calcBlockPosX(x), TeraMath.calcBlockPosY(y), TeraMath.calcBlockPosZ(z));
         }
         logger.warn("Attempted to access unavailable chunk via sunlight at {}, {}, {}", x, y, z);
         return 0;
@@ -344,11 +340,12 @@ public byte getSunlight(int x, int y, int z) {
 
     @Override
     public byte getTotalLight(int x, int y, int z) {
-        Vector3i chunkPos = TeraMath.calcChunkPos(x, y, z);
-        LitChunk chunk = chunkProvider.getChunk(chunkPos);
+        LitChunk chunk = chunkProvider.getChunk(TeraMath.calcChunkPosX(x), TeraMath.calcChunkPosY(y), TeraMath.calcChunkPosZ(z));
         if (chunk != null) {
-            Vector3i blockPos = TeraMath.calcBlockPos(x, y, z);
-            return (byte) Math.max(chunk.getSunlight(blockPos), chunk.getLight(blockPos));
+            int blockX = TeraMath.calcBlockPosX(x);
+            int blockY = TeraMath.calcBlockPosY(y);
+            int blockZ = TeraMath.calcBlockPosZ(z);
+            return (byte) Math.max(chunk.getSunlight(blockX, blockY, blockZ), chunk.getLight(blockX, blockY, blockZ));
         }
         logger.warn("Attempted to access unavailable chunk via total light at {}, {}, {}", x, y, z);
         return 0;
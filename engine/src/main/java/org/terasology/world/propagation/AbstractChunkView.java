@@ -32,30 +32,49 @@ public AbstractChunkView(ChunkViewCore chunkView) {
 
     @Override
     public byte getValueAt(Vector3i pos) {
-        if (isInBounds(pos)) {
-            return getValueAt(chunkView, pos);
+        return getValueAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getValueAt(int x, int y, int z) {
+        if (isInBounds(x, y, z)) {
+            return getValueAt(chunkView, x, y, z);
         }
         return UNAVAILABLE;
     }
 
-    protected abstract byte getValueAt(ChunkViewCore view, Vector3i pos);
+    protected abstract byte getValueAt(ChunkViewCore view, int x, int y, int z);
 
     @Override
     public void setValueAt(Vector3i pos, byte value) {
-        setValueAt(chunkView, pos, value);
+        setValueAt(pos.x, pos.y, pos.z, value);
+    }
+
+    @Override
+    public void setValueAt(int x, int y, int z, byte value) {
+        setValueAt(chunkView, x, y, z, value);
     }
 
-    protected abstract void setValueAt(ChunkViewCore view, Vector3i pos, byte value);
+    protected abstract void setValueAt(ChunkViewCore view, int x, int y, int z, byte value);
 
     @Override
     public Block getBlockAt(Vector3i pos) {
-        if (isInBounds(pos)) {
-            return chunkView.getBlock(pos);
+        return getBlockAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public Block getBlockAt(int x, int y, int z) {
+        if (isInBounds(x, y, z)) {
+            return chunkView.getBlock(x, y, z);
         }
         return null;
     }
 
     public boolean isInBounds(Vector3i pos) {
-        return chunkView.getWorldRegion().encompasses(pos);
+        return isInBounds(pos.x, pos.y, pos.z);
+    }
+
+    public boolean isInBounds(int x, int y, int z) {
+        return chunkView.getWorldRegion().encompasses(x, y, z);
     }
 }
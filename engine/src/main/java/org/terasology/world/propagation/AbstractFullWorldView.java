@@ -19,6 +19,7 @@
 import org.terasology.math.Vector3i;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.chunks.LitChunk;
@@ -36,16 +37,22 @@ public AbstractFullWorldView(ChunkProvider chunkProvider) {
         this.chunkProvider = chunkProvider;
     }
 
-    private Chunk getChunk(Vector3i pos) {
-
-        return chunkProvider.getChunk(TeraMath.calcChunkPos(pos));
+    private Chunk getChunk(int x, int y, int z) {
+        return chunkProvider.getChunk(TeraMath.calcChunkPosX(x, ChunkConstants.POWER_X), TeraMath.calcChunkPosY(y, ChunkConstants.POWER_Y),
+                TeraMath.calcChunkPosZ(z, ChunkConstants.POWER_Z));
     }
 
     @Override
     public byte getValueAt(Vector3i pos) {
-        LitChunk chunk = getChunk(pos);
+        return getValueAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getValueAt(int x, int y, int z) {
+        LitChunk chunk = getChunk(x, y, z);
         if (chunk != null) {
-            return getValueAt(chunk, TeraMath.calcBlockPos(pos.x, pos.y, pos.z));
+            return getValueAt(chunk, TeraMath.calcBlockPosX(x, ChunkConstants.INNER_CHUNK_POS_FILTER_X),
+                    TeraMath.calcBlockPosY(y, ChunkConstants.INNER_CHUNK_POS_FILTER_Y), TeraMath.calcBlockPosZ(z, ChunkConstants.INNER_CHUNK_POS_FILTER_Z));
         }
         return UNAVAILABLE;
     }
@@ -54,18 +61,36 @@ public byte getValueAt(Vector3i pos) {
      * Obtains the relevant value from the given chunk
      *
      * @param chunk
-     * @param pos   The internal position of the chunk to get the value from
+     * @param x     The internal position of the chunk to get the value from
+     * @param y
+     * @param z
      * @return The relevant value for this view
      */
-    protected abstract byte getValueAt(LitChunk chunk, Vector3i pos);
+    protected abstract byte getValueAt(LitChunk chunk, int x, int y, int z);
 
     @Override
     public void setValueAt(Vector3i pos, byte value) {
-        setValueAt(getChunk(pos), TeraMath.calcBlockPos(pos.x, pos.y, pos.z), value);
-        for (Vector3i affectedChunkPos : TeraMath.getChunkRegionAroundWorldPos(pos, 1)) {
-            Chunk dirtiedChunk = chunkProvider.getChunk(affectedChunkPos);
-            if (dirtiedChunk != null) {
-                dirtiedChunk.setDirty(true);
+        setValueAt(pos.x, pos.y, pos.z, value);
+    }
+
+    @Override
+    public void setValueAt(int x, int y, int z, byte value) {
+        setValueAt(getChunk(x, y, z), TeraMath.calcBlockPosX(x, ChunkConstants.INNER_CHUNK_POS_FILTER_X),
+                TeraMath.calcBlockPosY(y, ChunkConstants.INNER_CHUNK_POS_FILTER_Y), TeraMath.calcBlockPosZ(z, ChunkConstants.INNER_CHUNK_POS_FILTER_Z), value);
+
+        // Dirty all chunks containing the position or a neighbour of it
+        int maxChunkX = TeraMath.calcChunkPosX(x + 1, ChunkConstants.POWER_X);
+        int maxChunkY = TeraMath.calcChunkPosY(y + 1, ChunkConstants.POWER_Y);
+        int maxChunkZ = TeraMath.calcChunkPosZ(z + 1, ChunkConstants.POWER_Z);
+        for (int chunkX = TeraMath.calcChunkPosX(x - 1, ChunkConstants.POWER_X); chunkX <= maxChunkX; ++chunkX) {
+            for (int chunkY = TeraMath.calcChunkPosY(y - 1, ChunkConstants.POWER_Y); chunkY <= maxChunkY; ++chunkY) {
+                for (int chunkZ = TeraMath.calcChunkPosZ(z - 1, ChunkConstants.POWER_Z); chunkZ <= maxChunkZ; ++chunkZ) {
+                    Chunk dirtiedChunk = chunkProvider.getChunk(chunkX, chunkY, chunkZ);
+                    if (dirtiedChunk != null) {
+                        int chunkMinY = chunkY * ChunkConstants.SIZE_Y;
+                        dirtiedChunk.markDirty(y - 1 - chunkMinY, y + 1 - chunkMinY);
+                    }
+                }
             }
         }
     }
@@ -74,16 +99,24 @@ public void setValueAt(Vector3i pos, byte value) {
      * Sets the relevant value for the given chunk
      *
      * @param chunk
-     * @param pos   The internal position of the chunk to set the value of
+     * @param x     The internal position of the chunk to set the value of
+     * @param y
+     * @param z
      * @param value The new value
      */
-    protected abstract void setValueAt(LitChunk chunk, Vector3i pos, byte value);
+    protected abstract void setValueAt(LitChunk chunk, int x, int y, int z, byte value);
 
     @Override
     public Block getBlockAt(Vector3i pos) {
-        CoreChunk chunk = chunkProvider.getChunk(TeraMath.calcChunkPos(pos));
+        return getBlockAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public Block getBlockAt(int x, int y, int z) {
+        CoreChunk chunk = getChunk(x, y, z);
         if (chunk != null) {
-            return chunk.getBlock(TeraMath.calcBlockPos(pos));
+            return chunk.getBlock(TeraMath.calcBlockPosX(x, ChunkConstants.INNER_CHUNK_POS_FILTER_X),
+                    TeraMath.calcBlockPosY(y, ChunkConstants.INNER_CHUNK_POS_FILTER_Y), TeraMath.calcBlockPosZ(z, ChunkConstants.INNER_CHUNK_POS_FILTER_Z));
         }
         return null;
     }
@@ -37,35 +37,52 @@ public LocalChunkView(Chunk[] chunks, PropagationRules rules) {
 
     }
 
-    private int chunkIndexOf(Vector3i blockPos) {
-        return TeraMath.calcChunkPosX(blockPos.x, ChunkConstants.POWER_X) - topLeft.x
-                + 3 * (TeraMath.calcChunkPosY(blockPos.y, ChunkConstants.POWER_Y) - topLeft.y
-                + 3 * (TeraMath.calcChunkPosZ(blockPos.z, ChunkConstants.POWER_Z) - topLeft.z));
+    private int chunkIndexOf(int x, int y, int z) {
+        return TeraMath.calcChunkPosX(x, ChunkConstants.POWER_X) - topLeft.x
+                + 3 * (TeraMath.calcChunkPosY(y, ChunkConstants.POWER_Y) - topLeft.y
+                + 3 * (TeraMath.calcChunkPosZ(z, ChunkConstants.POWER_Z) - topLeft.z));
     }
 
     @Override
     public byte getValueAt(Vector3i pos) {
-        Chunk chunk = chunks[chunkIndexOf(pos)];
+        return getValueAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getValueAt(int x, int y, int z) {
+        Chunk chunk = chunks[chunkIndexOf(x, y, z)];
         if (chunk != null) {
-            return rules.getValue(chunk, TeraMath.calcBlockPos(pos));
+            return rules.getValue(chunk, TeraMath.calcBlockPosX(x, ChunkConstants.INNER_CHUNK_POS_FILTER_X),
+                    TeraMath.calcBlockPosY(y, ChunkConstants.INNER_CHUNK_POS_FILTER_Y), TeraMath.calcBlockPosZ(z, ChunkConstants.INNER_CHUNK_POS_FILTER_Z));
         }
         return UNAVAILABLE;
     }
 
     @Override
     public void setValueAt(Vector3i pos, byte value) {
-        Chunk chunk = chunks[chunkIndexOf(pos)];
+        setValueAt(pos.x, pos.y, pos.z, value);
+    }
+
+    @Override
+    public void setValueAt(int x, int y, int z, byte value) {
+        Chunk chunk = chunks[chunkIndexOf(x, y, z)];
         if (chunk != null) {
-            rules.setValue(chunk, TeraMath.calcBlockPos(pos), value);
+            rules.setValue(chunk, TeraMath.calcBlockPosX(x, ChunkConstants.INNER_CHUNK_POS_FILTER_X),
+                    TeraMath.calcBlockPosY(y, ChunkConstants.INNER_CHUNK_POS_FILTER_Y), TeraMath.calcBlockPosZ(z, ChunkConstants.INNER_CHUNK_POS_FILTER_Z), value);
         }
     }
 
     @Override
     public Block getBlockAt(Vector3i pos) {
-        int index = chunkIndexOf(pos);
-        Chunk chunk = chunks[index];
+        return getBlockAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public Block getBlockAt(int x, int y, int z) {
+        Chunk chunk = chunks[chunkIndexOf(x, y, z)];
         if (chunk != null) {
-            return chunk.getBlock(TeraMath.calcBlockPos(pos));
+            return chunk.getBlock(TeraMath.calcBlockPosX(x, ChunkConstants.INNER_CHUNK_POS_FILTER_X),
+                    TeraMath.calcBlockPosY(y, ChunkConstants.INNER_CHUNK_POS_FILTER_Y), TeraMath.calcBlockPosZ(z, ChunkConstants.INNER_CHUNK_POS_FILTER_Z));
         }
         return null;
     }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import org.terasology.math.TeraMath;
+
+import java.util.Arrays;
+
+/**
+ * A queue of block positions without duplicates, that keeps the order in which the positions were added.
+ * <p/>
+ * The positions are packed into longs (see {@link TeraMath#packChunkPos(int, int, int)}) and deduplicated with an open addressing
+ * hash table, so queuing a position creates no objects. Removed positions are skipped when iterating over the queue.
+ * Clearing the queue keeps its memory, so a queue can be reused without further allocations.
+ * <p/>
+ * Supports x and z coordinates in the range of [-2^23, 2^23) and y coordinates in the range of [-2^15, 2^15).
+ */
+final class PositionQueue {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The queued positions in the order they were added, including the removed ones
+     */
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private boolean[] removed = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Maps the queued positions to their index in positions. An entry of 0 marks an empty slot, otherwise it is index + 1.
+     */
+    private long[] keys = new long[INITIAL_CAPACITY * 2];
+    private int[] entries = new int[INITIAL_CAPACITY * 2];
+    private int mask = INITIAL_CAPACITY * 2 - 1;
+    private int count;
+
+    /**
+     * @return Whether the position was added, false if it was already queued
+     */
+    public boolean add(long position) {
+        int slot = findSlot(position);
+        if (entries[slot] != 0) {
+            return false;
+        }
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            removed = Arrays.copyOf(removed, size * 2);
+        }
+        positions[size] = position;
+        keys[slot] = position;
+        entries[slot] = ++size;
+        if (++count * 2 > entries.length) {
+            rehash(entries.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether the position was queued
+     */
+    public boolean remove(long position) {
+        int slot = findSlot(position);
+        if (entries[slot] == 0) {
+            return false;
+        }
+        removed[entries[slot] - 1] = true;
+        removeSlot(slot);
+        count--;
+        return true;
+    }
+
+    public boolean contains(long position) {
+        return entries[findSlot(position)] != 0;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return The number of queued positions
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return The number of positions that were added since the last clear, including the removed ones.
+     * Used together with {@link #isRemoved(int)} and {@link #get(int)} to iterate over the queue.
+     */
+    public int addedCount() {
+        return size;
+    }
+
+    public boolean isRemoved(int index) {
+        return removed[index];
+    }
+
+    public long get(int index) {
+        return positions[index];
+    }
+
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(removed, 0, size, false);
+            Arrays.fill(entries, 0);
+            size = 0;
+            count = 0;
+        }
+    }
+
+    private int findSlot(long position) {
+        int slot = hash(position) & mask;
+        while (entries[slot] != 0 && keys[slot] != position) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties the slot, moving later entries of the same probe sequence into the gap.
+     */
+    private void removeSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (entries[next] != 0) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                entries[gap] = entries[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        entries[gap] = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldEntries = entries;
+        keys = new long[capacity];
+        entries = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldEntries.length; ++i) {
+            if (oldEntries[i] != 0) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                entries[slot] = oldEntries[i];
+            }
+        }
+    }
+
+    private static int hash(long position) {
+        long hash = position * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
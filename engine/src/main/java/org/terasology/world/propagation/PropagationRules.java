@@ -86,4 +86,6 @@ public interface PropagationRules {
      * @param value
      */
     void setValue(LitChunk chunk, Vector3i pos, byte value);
+
+    void setValue(LitChunk chunk, int x, int y, int z, byte value);
 }
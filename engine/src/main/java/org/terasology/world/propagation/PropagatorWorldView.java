@@ -33,16 +33,31 @@ public interface PropagatorWorldView {
      */
     byte getValueAt(Vector3i pos);
 
+    /**
+     * @return The value of interest at the given position, or UNAVAILABLE if out of bounds
+     */
+    byte getValueAt(int x, int y, int z);
+
     /**
      * @param pos
      * @param value A new value at pos.
      */
     void setValueAt(Vector3i pos, byte value);
 
+    /**
+     * @param value A new value at the given position
+     */
+    void setValueAt(int x, int y, int z, byte value);
+
     /**
      * @param pos
      * @return The block at pos, or null if out of bounds
      */
     Block getBlockAt(Vector3i pos);
 
+    /**
+     * @return The block at the given position, or null if out of bounds
+     */
+    Block getBlockAt(int x, int y, int z);
+
 }
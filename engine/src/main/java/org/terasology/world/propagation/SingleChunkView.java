@@ -36,21 +36,36 @@ public SingleChunkView(PropagationRules rules, LitChunk chunk) {
 
     @Override
     public byte getValueAt(Vector3i pos) {
-        if (ChunkConstants.CHUNK_REGION.encompasses(pos)) {
-            return rules.getValue(chunk, pos);
+        return getValueAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getValueAt(int x, int y, int z) {
+        if (ChunkConstants.CHUNK_REGION.encompasses(x, y, z)) {
+            return rules.getValue(chunk, x, y, z);
         }
         return UNAVAILABLE;
     }
 
     @Override
     public void setValueAt(Vector3i pos, byte value) {
-        rules.setValue(chunk, pos, value);
+        setValueAt(pos.x, pos.y, pos.z, value);
+    }
+
+    @Override
+    public void setValueAt(int x, int y, int z, byte value) {
+        rules.setValue(chunk, x, y, z, value);
     }
 
     @Override
     public Block getBlockAt(Vector3i pos) {
-        if (ChunkConstants.CHUNK_REGION.encompasses(pos)) {
-            return chunk.getBlock(pos);
+        return getBlockAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public Block getBlockAt(int x, int y, int z) {
+        if (ChunkConstants.CHUNK_REGION.encompasses(x, y, z)) {
+            return chunk.getBlock(x, y, z);
         }
         return null;
     }
@@ -16,7 +16,6 @@
 package org.terasology.world.propagation;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
 import org.terasology.math.TeraMath;
@@ -27,7 +26,6 @@
 
 import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
@@ -37,12 +35,21 @@
 public class StandardBatchPropagator implements BatchPropagator {
 
     private static final byte NO_VALUE = 0;
+    private static final Side[] SIDES = Side.values();
 
     private PropagationRules rules;
     private PropagatorWorldView world;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+    /**
+     * The queue that takes the place of a queue while that queue is being processed
+     */
+    private PositionQueue spareQueue = new PositionQueue();
+    /**
+     * Passed to the rules, which expect a position object
+     */
+    private Vector3i rulesPos = new Vector3i();
 
     private Map<Side, Vector3i> chunkEdgeDeltas = Maps.newEnumMap(Side.class);
 
@@ -70,11 +77,11 @@ public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world
             chunkEdgeDeltas.put(side, delta);
         }
 
-        increaseQueues = new Set[rules.getMaxValue()];
-        reduceQueues = new Set[rules.getMaxValue()];
+        increaseQueues = new PositionQueue[rules.getMaxValue()];
+        reduceQueues = new PositionQueue[rules.getMaxValue()];
         for (int i = 0; i < rules.getMaxValue(); ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
 
     }
@@ -96,34 +103,37 @@ public void process(Iterable<BlockChange> blockChanges) {
     }
 
     private void reviewChange(BlockChange blockChange) {
-        byte newValue = rules.getFixedValue(blockChange.getTo(), blockChange.getPosition());
-        byte existingValue = world.getValueAt(blockChange.getPosition());
+        Vector3i pos = blockChange.getPosition();
+        byte newValue = rules.getFixedValue(blockChange.getTo(), pos);
+        byte existingValue = world.getValueAt(pos.x, pos.y, pos.z);
         if (newValue > existingValue) {
-            increase(blockChange.getPosition(), newValue);
+            increase(pos.x, pos.y, pos.z, newValue);
         }
 
-        byte oldValue = rules.getFixedValue(blockChange.getFrom(), blockChange.getPosition());
+        byte oldValue = rules.getFixedValue(blockChange.getFrom(), pos);
         if (newValue < oldValue) {
-            reduce(blockChange.getPosition(), oldValue);
+            reduce(pos.x, pos.y, pos.z, oldValue);
         }
 
-        for (Side side : Side.values()) {
+        for (Side side : SIDES) {
+            Vector3i dir = side.getVector3i();
+            int adjX = pos.x + dir.x;
+            int adjY = pos.y + dir.y;
+            int adjZ = pos.z + dir.z;
             PropagationComparison comparison = rules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), side);
             if (comparison.isRestricting() && existingValue > 0) {
-                reduce(blockChange.getPosition(), existingValue);
-                Vector3i adjPos = side.getAdjacentPos(blockChange.getPosition());
-                byte adjValue = world.getValueAt(adjPos);
+                reduce(pos.x, pos.y, pos.z, existingValue);
+                byte adjValue = world.getValueAt(adjX, adjY, adjZ);
                 if (adjValue == rules.propagateValue(existingValue, side, blockChange.getFrom())) {
-                    reduce(adjPos, adjValue);
+                    reduce(adjX, adjY, adjZ, adjValue);
                 }
             } else if (comparison.isPermitting()) {
                 if (existingValue > 0) {
-                    queueSpreadValue(blockChange.getPosition(), existingValue);
+                    queueSpreadValue(pos.x, pos.y, pos.z, existingValue);
                 }
-                Vector3i adjPos = side.getAdjacentPos(blockChange.getPosition());
-                byte adjValue = world.getValueAt(adjPos);
+                byte adjValue = world.getValueAt(adjX, adjY, adjZ);
                 if (adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(adjX, adjY, adjZ, adjValue);
                 }
             }
         }
@@ -133,44 +143,52 @@ private void processReduction() {
         int depth = 0;
         while (depth < rules.getMaxValue()) {
             byte oldValue = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = reduceQueues[depth];
+            PositionQueue toProcess = reduceQueues[depth];
             if (!toProcess.isEmpty()) {
-                reduceQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
+                reduceQueues[depth] = spareQueue;
 
-                for (Vector3i pos : toProcess) {
-                    purge(pos, oldValue);
-                }
-                if (toProcess.isEmpty()) {
-                    depth++;
+                for (int i = 0; i < toProcess.addedCount(); ++i) {
+                    if (!toProcess.isRemoved(i)) {
+                        purge(toProcess.get(i), oldValue);
+                    }
                 }
+                toProcess.clear();
+                spareQueue = toProcess;
             } else {
                 depth++;
             }
         }
     }
 
-    private void purge(Vector3i pos, byte oldValue) {
-        Block block = world.getBlockAt(pos);
+    private void purge(long pos, byte oldValue) {
+        int x = TeraMath.unpackChunkPosX(pos);
+        int y = TeraMath.unpackChunkPosY(pos);
+        int z = TeraMath.unpackChunkPosZ(pos);
+        Block block = world.getBlockAt(x, y, z);
         increaseQueues[rules.getMaxValue() - oldValue].remove(pos);
-        byte fixedValue = rules.getFixedValue(block, pos);
+        rulesPos.set(x, y, z);
+        byte fixedValue = rules.getFixedValue(block, rulesPos);
         if (fixedValue > 0) {
-            increase(pos, fixedValue);
+            increase(x, y, z, fixedValue);
         } else {
-            world.setValueAt(pos, NO_VALUE);
+            world.setValueAt(x, y, z, NO_VALUE);
         }
 
-        for (Side side : Side.values()) {
+        for (Side side : SIDES) {
             byte expectedValue = rules.propagateValue(oldValue, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                Vector3i dir = side.getVector3i();
+                int adjX = x + dir.x;
+                int adjY = y + dir.y;
+                int adjZ = z + dir.z;
+                byte adjValue = world.getValueAt(adjX, adjY, adjZ);
                 if (adjValue == expectedValue) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(adjX, adjY, adjZ);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        reduce(adjPos, expectedValue);
+                        reduce(adjX, adjY, adjZ, expectedValue);
                     }
                 } else if (adjValue > 0) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(adjX, adjY, adjZ, adjValue);
                 }
             }
         }
@@ -180,33 +198,40 @@ private void processIncrease() {
         int depth = 0;
         while (depth < rules.getMaxValue() - 1) {
             byte value = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = increaseQueues[depth];
+            PositionQueue toProcess = increaseQueues[depth];
             if (!toProcess.isEmpty()) {
-                increaseQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
+                increaseQueues[depth] = spareQueue;
 
-                for (Vector3i pos : toProcess) {
-                    push(pos, value);
-                }
-                if (increaseQueues[depth].isEmpty()) {
-                    depth++;
+                for (int i = 0; i < toProcess.addedCount(); ++i) {
+                    if (!toProcess.isRemoved(i)) {
+                        push(toProcess.get(i), value);
+                    }
                 }
+                toProcess.clear();
+                spareQueue = toProcess;
             } else {
                 depth++;
             }
         }
     }
 
-    private void push(Vector3i pos, byte value) {
-        Block block = world.getBlockAt(pos);
-        for (Side side : Side.values()) {
+    private void push(long pos, byte value) {
+        int x = TeraMath.unpackChunkPosX(pos);
+        int y = TeraMath.unpackChunkPosY(pos);
+        int z = TeraMath.unpackChunkPosZ(pos);
+        Block block = world.getBlockAt(x, y, z);
+        for (Side side : SIDES) {
             byte spreadValue = rules.propagateValue(value, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                Vector3i dir = side.getVector3i();
+                int adjX = x + dir.x;
+                int adjY = y + dir.y;
+                int adjZ = z + dir.z;
+                byte adjValue = world.getValueAt(adjX, adjY, adjZ);
                 if (adjValue < spreadValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(adjX, adjY, adjZ);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        increase(adjPos, spreadValue);
+                        increase(adjX, adjY, adjZ, spreadValue);
                     }
                 }
             }
@@ -214,25 +239,25 @@ private void push(Vector3i pos, byte value) {
     }
 
     private void cleanUp() {
-        for (Set<Vector3i> queue : increaseQueues) {
+        for (PositionQueue queue : increaseQueues) {
             queue.clear();
         }
     }
 
-    private void increase(Vector3i position, byte value) {
-        world.setValueAt(position, value);
-        queueSpreadValue(position, value);
+    private void increase(int x, int y, int z, byte value) {
+        world.setValueAt(x, y, z, value);
+        queueSpreadValue(x, y, z, value);
     }
 
-    private void queueSpreadValue(Vector3i position, byte value) {
+    private void queueSpreadValue(int x, int y, int z, byte value) {
         if (value > 1) {
-            increaseQueues[rules.getMaxValue() - value].add(position);
+            increaseQueues[rules.getMaxValue() - value].add(TeraMath.packChunkPos(x, y, z));
         }
     }
 
-    private void reduce(Vector3i position, byte oldValue) {
+    private void reduce(int x, int y, int z, byte oldValue) {
         if (oldValue > 0) {
-            reduceQueues[rules.getMaxValue() - oldValue].add(position);
+            reduceQueues[rules.getMaxValue() - oldValue].add(TeraMath.packChunkPos(x, y, z));
         }
     }
 
@@ -268,6 +293,7 @@ private void propagateDepth(LitChunk adjChunk, Side side, boolean propagateExter
             }
         }
 
+        Vector3i chunkOffset = adjChunk.getChunkWorldOffset();
         for (Vector3i pos : edgeRegion) {
             int depthIndex = indexProvider.getIndexFor(pos);
             int adjacentDepth = adjDepth[depthIndex];
@@ -278,7 +304,7 @@ private void propagateDepth(LitChunk adjChunk, Side side, boolean propagateExter
                 adjPos.add(chunkEdgeDeltas.get(side));
                 byte value = rules.getValue(adjChunk, adjPos);
                 if (value > 1) {
-                    queueSpreadValue(adjChunk.chunkToWorldPosition(adjPos), value);
+                    queueSpreadValue(chunkOffset.x + adjPos.x, chunkOffset.y + adjPos.y, chunkOffset.z + adjPos.z, value);
                 }
             }
         }
@@ -371,17 +397,17 @@ public int getIndexFor(int x, int y, int z) {
 
     @Override
     public void propagateFrom(Vector3i pos, Block block) {
-        queueSpreadValue(pos, rules.getFixedValue(block, pos));
+        queueSpreadValue(pos.x, pos.y, pos.z, rules.getFixedValue(block, pos));
     }
 
     @Override
     public void propagateFrom(Vector3i pos, byte value) {
-        queueSpreadValue(pos, value);
+        queueSpreadValue(pos.x, pos.y, pos.z, value);
     }
 
     @Override
     public void regenerate(Vector3i pos, byte value) {
-        reduce(pos, value);
+        reduce(pos.x, pos.y, pos.z, value);
     }
 
     private interface IndexProvider {
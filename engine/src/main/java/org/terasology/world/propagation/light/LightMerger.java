@@ -16,8 +16,11 @@
 package org.terasology.world.propagation.light;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.math.Region3i;
 import org.terasology.math.Side;
 import org.terasology.math.Vector3i;
 import org.terasology.world.chunks.Chunk;
@@ -26,18 +29,30 @@
 import org.terasology.world.propagation.*;
 
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.*;
 
 /**
+ * Merges the light of newly generated or loaded chunks with the light of their neighbours.
+ *
+ * Merges run concurrently on a pool of worker threads. A merge modifies the chunks in the 3x3x3 neighbourhood around
+ * its chunk, so a merge is only started if its neighbourhood doesn't overlap the neighbourhood of another merge that
+ * is still pending. The neighbourhood stays reserved until the main thread took the result with {@link #completeMerge()},
+ * which is when the chunk becomes ready and can be used by the merges of its neighbours.
+ *
  * @author Immortius
  */
 public class LightMerger<T> {
     private static final int CENTER_INDEX = 13;
+    private static final int NUM_WORKERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final int MAX_PENDING_MERGES = 4 * NUM_WORKERS;
 
     private static Logger logger = LoggerFactory.getLogger(LightMerger.class);
 
-    private ExecutorService executorService = Executors.newSingleThreadExecutor();
-    private Future<T> resultFuture;
+    private ExecutorService executorService = Executors.newFixedThreadPool(NUM_WORKERS);
+    private final BlockingQueue<MergeResult<T>> completedMerges = Queues.newLinkedBlockingQueue();
+    private final Set<Vector3i> reservedChunks = Sets.newHashSet();
+    private int pendingMerges;
 
     private GeneratingChunkProvider chunkProvider;
     private LightPropagationRules lightRules = new LightPropagationRules();
@@ -48,27 +63,79 @@ public LightMerger(GeneratingChunkProvider chunkProvider) {
     }
     private boolean running = true;
 
-    public void beginMerge(final Chunk chunk, final T data) {
-        resultFuture = executorService.submit(new Callable<T>() {
+    /**
+     * @return Whether another merge can be started. Even then a merge can't be started if it conflicts with a pending one.
+     */
+    public boolean canBeginMerge() {
+        return pendingMerges < MAX_PENDING_MERGES;
+    }
+
+    /**
+     * Starts merging the light of the chunk in the background.
+     *
+     * @param chunk The chunk to merge
+     * @param data  Data that is handed back with the chunk by {@link #completeMerge()}
+     * @return Whether the merge was started. It isn't if too many merges are pending, or if the neighbourhood of the chunk
+     * is used by a pending merge
+     */
+    public boolean beginMerge(final Chunk chunk, final T data) {
+        if (!canBeginMerge()) {
+            return false;
+        }
+        final Region3i neighbourhood = Region3i.createFromCenterExtents(chunk.getPosition(), 1);
+        for (Vector3i pos : neighbourhood) {
+            if (reservedChunks.contains(pos)) {
+                return false;
+            }
+        }
+        for (Vector3i pos : neighbourhood) {
+            reservedChunks.add(pos);
+        }
+        pendingMerges++;
+        executorService.execute(new Runnable() {
             @Override
-            public T call() throws Exception {
-                merge(chunk);
-                return data;
+            public void run() {
+                try {
+                    merge(chunk);
+                } catch (RuntimeException e) {
+                    logger.error("Error merging lighting of chunk {}", chunk.getPosition(), e);
+                } finally {
+                    completedMerges.offer(new MergeResult<>(neighbourhood, data));
+                }
             }
         });
+        return true;
     }
 
+    /**
+     * Hands a completed merge back to the caller, and releases the neighbourhood of the merged chunk.
+     *
+     * @return The data of a completed merge, or null if no merge has completed since the last call
+     */
     public T completeMerge() {
-        if (resultFuture != null) {
-            try {
-                T result = resultFuture.get();
-                resultFuture = null;
-                return result;
-            } catch (InterruptedException | ExecutionException e) {
-                throw new RuntimeException("Error completing lighting merge");
-            }
+        MergeResult<T> result = completedMerges.poll();
+        if (result == null) {
+            return null;
         }
-        return null;
+        for (Vector3i pos : result.neighbourhood) {
+            reservedChunks.remove(pos);
+        }
+        pendingMerges--;
+        return result.data;
+    }
+
+    /**
+     * @return The number of merges that were started and not yet taken with {@link #completeMerge()}
+     */
+    public int getPendingMergeCount() {
+        return pendingMerges;
+    }
+
+    /**
+     * @return Whether the chunk at the given position is part of the neighbourhood of a pending merge
+     */
+    public boolean isInvolvedInMerge(Vector3i chunkPos) {
+        return reservedChunks.contains(chunkPos);
     }
 
     private void merge(Chunk chunk) {
@@ -145,14 +212,24 @@ public void shutdown() {
         try {
             executorService.awaitTermination(10, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
-            logger.error("Failed to shutdown light merge thread in a timely manner");
+            logger.error("Failed to shutdown light merge threads in a timely manner");
         }
     }
 
     public void restart() {
         if (!running) {
-            executorService = Executors.newSingleThreadExecutor();
+            executorService = Executors.newFixedThreadPool(NUM_WORKERS);
             running = true;
         }
     }
+
+    private static final class MergeResult<T> {
+        private final Region3i neighbourhood;
+        private final T data;
+
+        private MergeResult(Region3i neighbourhood, T data) {
+            this.neighbourhood = neighbourhood;
+            this.data = data;
+        }
+    }
 }
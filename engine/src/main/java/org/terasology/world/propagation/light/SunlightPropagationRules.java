@@ -61,7 +61,12 @@ public byte getValue(LitChunk chunk, int x, int y, int z) {
     }
 
     public void setValue(LitChunk chunk, Vector3i pos, byte value) {
-        chunk.setSunlight(pos, value);
+        setValue(chunk, pos.x, pos.y, pos.z, value);
+    }
+
+    @Override
+    public void setValue(LitChunk chunk, int x, int y, int z, byte value) {
+        chunk.setSunlight(x, y, z, value);
     }
 
 }
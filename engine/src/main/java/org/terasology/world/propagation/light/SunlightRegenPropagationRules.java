@@ -57,7 +57,12 @@ public byte getValue(LitChunk chunk, int x, int y, int z) {
 
     @Override
     public void setValue(LitChunk chunk, Vector3i pos, byte value) {
-        chunk.setSunlightRegen(pos, value);
+        setValue(chunk, pos.x, pos.y, pos.z, value);
+    }
+
+    @Override
+    public void setValue(LitChunk chunk, int x, int y, int z, byte value) {
+        chunk.setSunlightRegen(x, y, z, value);
     }
 
     @Override
@@ -80,6 +80,20 @@ uniform sampler2D textureEffects;
 
 uniform float clip;
 
+#if defined (GREEDY_MESHING)
+// Faces merged by the greedy mesher encode their texture coordinates as tile * 128 + 64 + the coordinate
+// local to the tile, which repeats once per block across the merged quad
+#define TEXTURE_INNER_SIZE (TEXTURE_OFFSET * (126.0 / 128.0))
+
+#if defined (GL_ARB_shader_texture_lod)
+#define sampleAtlas(atlas, uv) texture2DGradARB(atlas, uv, atlasGradX, atlasGradY)
+#else
+#define sampleAtlas(atlas, uv) texture2D(atlas, uv)
+#endif
+#else
+#define sampleAtlas(atlas, uv) texture2D(atlas, uv)
+#endif
+
 void main() {
 
 // Only necessary for opaque objects
@@ -91,6 +105,21 @@ void main() {
 
     vec2 texCoord = gl_TexCoord[0].xy;
 
+#if defined (GREEDY_MESHING)
+    vec2 tile = floor(texCoord / 128.0);
+    vec2 tileLocal = texCoord - tile * 128.0 - 64.0;
+    vec2 atlasGradX = dFdx(texCoord);
+    vec2 atlasGradY = dFdy(texCoord);
+    vec2 tileLocalGradX = dFdx(tileLocal) * TEXTURE_INNER_SIZE;
+    vec2 tileLocalGradY = dFdy(tileLocal) * TEXTURE_INNER_SIZE;
+
+    if (texCoord.x >= 1.0) {
+        texCoord = tile * TEXTURE_OFFSET + TEXTURE_OFFSET / 128.0 + fract(tileLocal) * TEXTURE_INNER_SIZE;
+        atlasGradX = tileLocalGradX;
+        atlasGradY = tileLocalGradY;
+    }
+#endif
+
     vec3 normalizedVPos = -normalize(vertexViewPos.xyz);
     vec2 projectedPos = projectVertexToTexCoord(vertexProjPos);
     vec3 normalOpaque = normal;
@@ -101,8 +130,13 @@ void main() {
     // the tangent for each vertex in the chunk VBO might be not the best idea either.
     vec3 dp1 = dFdx(vertexProjPos.xyz);
     vec3 dp2 = dFdy(vertexProjPos.xyz);
+#if defined (GREEDY_MESHING)
+    vec2 duv1 = atlasGradX;
+    vec2 duv2 = atlasGradY;
+#else
     vec2 duv1 = dFdx(gl_TexCoord[0].xy);
     vec2 duv2 = dFdy(gl_TexCoord[0].xy);
+#endif
 
     vec3 dp2perp = cross(dp2, normal);
     vec3 dp1perp = cross(normal, dp1);
@@ -114,11 +148,11 @@ void main() {
 
     vec3 eyeTangentSpace = tbn * vertexViewPos.xyz;
 
-    float height =  parallaxScale * texture2D(textureAtlasHeight, texCoord).r - parallaxBias;
+    float height =  parallaxScale * sampleAtlas(textureAtlasHeight, texCoord).r - parallaxBias;
 	texCoord += height * normalize(eyeTangentSpace).xy * TEXTURE_OFFSET;
 #endif
 
-    normalOpaque = (texture2D(textureAtlasNormal, texCoord).xyz * 2.0 - 1.0);
+    normalOpaque = (sampleAtlas(textureAtlasNormal, texCoord).xyz * 2.0 - 1.0);
 
     // Simplified tangent basis - because we can! Voxels and blocks are great
     normalOpaque.xyz = vec3(worldSpaceNormal.x, normalOpaque.x, normalOpaque.y) * abs(worldSpaceNormal.xxx)
@@ -175,7 +209,7 @@ void main() {
         color = texture2D(textureLava, texCoord.xy);
     /* APPLY DEFAULT TEXTURE FROM ATLAS */
     } else {
-        color = texture2D(textureAtlas, texCoord.xy);
+        color = sampleAtlas(textureAtlas, texCoord.xy);
 
 #if defined FEATURE_ALPHA_REJECT
         if (color.a < 0.1) {
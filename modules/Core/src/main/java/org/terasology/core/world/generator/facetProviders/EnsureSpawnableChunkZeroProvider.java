@@ -42,8 +42,9 @@ public void setSeed(long seed) {
     public void process(GeneratingRegion region) {
         // will give funny results for regions that are not exactly chunk sized, but it is better than sinking in the water on spawn
         Vector3i centerChunkPos = new Vector3i(ChunkConstants.CHUNK_REGION.center());
-        if (region.getRegion().encompasses(centerChunkPos)) {
-            SurfaceHeightFacet facet = region.getRegionFacet(SurfaceHeightFacet.class);
+        SurfaceHeightFacet facet = region.getRegionFacet(SurfaceHeightFacet.class);
+        // only the column matters, as the surface height is shared by all regions above each other
+        if (facet.getWorldRegion().contains(centerChunkPos.x, centerChunkPos.z)) {
             SeaLevelFacet seaLevelFacet = region.getRegionFacet(SeaLevelFacet.class);
             float seaLevel = (float) seaLevelFacet.getSeaLevel();
 
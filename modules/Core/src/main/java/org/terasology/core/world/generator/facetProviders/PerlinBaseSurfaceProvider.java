@@ -53,13 +53,13 @@ public void process(GeneratingRegion region) {
         SeaLevelFacet seaLevelFacet = region.getRegionFacet(SeaLevelFacet.class);
         float seaLevel = seaLevelFacet.getSeaLevel();
         Rect2i processRegion = facet.getWorldRegion();
-        float[] noise = surfaceNoise.noise(processRegion);
+        float[] noise = facet.getInternal();
+        surfaceNoise.noise(processRegion, noise);
 
         for (int i = 0; i < noise.length; ++i) {
             noise[i] = seaLevel + seaLevel * ((noise[i] + 1f) / 2f);
         }
 
-        facet.set(noise);
         region.setRegionFacet(SurfaceHeightFacet.class, facet);
     }
 }
@@ -47,11 +47,11 @@ public void process(GeneratingRegion region) {
         Border3D border = region.getBorderForFacet(SurfaceHumidityFacet.class);
         SurfaceHumidityFacet facet = new SurfaceHumidityFacet(region.getRegion(), border);
 
-        float[] noise = humidityNoise.noise(facet.getWorldRegion());
+        float[] noise = facet.getInternal();
+        humidityNoise.noise(facet.getWorldRegion(), noise);
         for (int i = 0; i < noise.length; ++i) {
             noise[i] = TeraMath.clamp((noise[i] + 1f) * 0.5f);
         }
-        facet.set(noise);
         region.setRegionFacet(SurfaceHumidityFacet.class, facet);
     }
 }
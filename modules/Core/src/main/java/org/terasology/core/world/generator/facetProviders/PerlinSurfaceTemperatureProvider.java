@@ -44,13 +44,13 @@ public void setSeed(long seed) {
     @Override
     public void process(GeneratingRegion region) {
         SurfaceTemperatureFacet facet = new SurfaceTemperatureFacet(region.getRegion(), region.getBorderForFacet(SurfaceTemperatureFacet.class));
-        float[] noise = this.temperatureNoise.noise(facet.getWorldRegion());
+        float[] noise = facet.getInternal();
+        this.temperatureNoise.noise(facet.getWorldRegion(), noise);
 
         for (int i = 0; i < noise.length; ++i) {
             noise[i] = TeraMath.clamp((noise[i] + 1f) * 0.5f);
         }
 
-        facet.set(noise);
         region.setRegionFacet(SurfaceTemperatureFacet.class, facet);
     }
 }